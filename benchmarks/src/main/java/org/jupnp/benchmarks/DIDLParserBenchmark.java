@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.support.contentdirectory.DIDLParser;
+import org.jupnp.support.model.DIDLContent;
+import org.jupnp.support.model.PersonWithRole;
+import org.jupnp.support.model.ProtocolInfo;
+import org.jupnp.support.model.Res;
+import org.jupnp.support.model.container.MusicAlbum;
+import org.jupnp.support.model.item.MusicTrack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and generating DIDL-Lite content of a music album, as returned by a large <code>Browse</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DIDLParserBenchmark {
+
+    @Param({ "10", "1000" })
+    public int tracks;
+
+    private DIDLParser parser;
+    private DIDLContent content;
+    private String xml;
+
+    @Setup
+    public void setup() throws Exception {
+        parser = new DIDLParser();
+        content = createAlbum(tracks);
+        xml = parser.generate(content);
+    }
+
+    @Benchmark
+    public DIDLContent parse() throws Exception {
+        return parser.parse(xml);
+    }
+
+    @Benchmark
+    public String generate() throws Exception {
+        return parser.generate(content);
+    }
+
+    /**
+     * @return An album container and its tracks, each with an artist and an HTTP resource.
+     */
+    public static DIDLContent createAlbum(int tracks) {
+        DIDLContent content = new DIDLContent();
+        MusicAlbum album = new MusicAlbum("album-1", "0", "Benchmark Album", "Benchmark Artist", tracks);
+        content.addContainer(album);
+        ProtocolInfo protocolInfo = new ProtocolInfo("http-get:*:audio/mpeg:DLNA.ORG_PN=MP3;DLNA.ORG_OP=01");
+        for (int i = 0; i < tracks; i++) {
+            Res res = new Res(protocolInfo, 4_000_000L + i, "0:04:" + String.format("%02d", i % 60) + ".000",
+                    320_000L, "http://192.168.1.10:49152/content/track-" + i + ".mp3?quality=high&format=mp3");
+            MusicTrack track = new MusicTrack("track-" + i, album.getId(), "Track " + i + " & <Friends>",
+                    "Benchmark Artist", album.getTitle(), new PersonWithRole("Benchmark Artist", "Performer"), res);
+            track.setOriginalTrackNumber(i + 1);
+            content.addItem(track);
+        }
+        return content;
+    }
+}
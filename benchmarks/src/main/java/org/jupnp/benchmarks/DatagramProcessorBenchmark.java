@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.data.SampleData;
+import org.jupnp.data.SampleDeviceRoot;
+import org.jupnp.model.Location;
+import org.jupnp.model.NetworkAddress;
+import org.jupnp.model.message.IncomingDatagramMessage;
+import org.jupnp.model.message.OutgoingDatagramMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.discovery.OutgoingNotificationRequestRootDevice;
+import org.jupnp.model.types.NotificationSubtype;
+import org.jupnp.transport.impl.DatagramProcessorImpl;
+import org.jupnp.transport.spi.DatagramProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a received SSDP NOTIFY datagram, and writing an ALIVE notification of the sample device.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatagramProcessorBenchmark {
+
+    public static final String NOTIFY_MESSAGE = "NOTIFY * HTTP/1.1\r\n" + "HOST: 239.255.255.250:1900\r\n"
+            + "CACHE-CONTROL: max-age=1800\r\n" + "LOCATION: http://192.168.1.10:49152/some/path/123/desc.xml\r\n"
+            + "NT: upnp:rootdevice\r\n" + "NTS: ssdp:alive\r\n" + "EXT:\r\n"
+            + "SERVER: Linux/5.10 UPnP/1.0 jUPnP/3.0\r\n" + "USN: " + SampleDeviceRoot.getRootUDN()
+            + "::upnp:rootdevice\r\n\r\n";
+
+    private DatagramProcessor processor;
+    private InetAddress receivedOnAddress;
+    private DatagramPacket packet;
+    private OutgoingDatagramMessage<UpnpRequest> notification;
+
+    @Setup
+    public void setup() throws Exception {
+        processor = new DatagramProcessorImpl();
+        receivedOnAddress = InetAddress.getByName("127.0.0.1");
+
+        byte[] data = NOTIFY_MESSAGE.getBytes(StandardCharsets.US_ASCII);
+        packet = new DatagramPacket(data, data.length, new InetSocketAddress("192.168.1.10", 1900));
+
+        Location location = new Location(new NetworkAddress(SampleData.getLocalBaseAddress(), 49152),
+                "/some/path/123/desc.xml");
+        notification = new OutgoingNotificationRequestRootDevice(location, SampleData.createLocalDevice(),
+                NotificationSubtype.ALIVE);
+    }
+
+    @Benchmark
+    public IncomingDatagramMessage read() throws Exception {
+        return processor.read(receivedOnAddress, packet);
+    }
+
+    @Benchmark
+    public DatagramPacket write() {
+        return processor.write(notification);
+    }
+}
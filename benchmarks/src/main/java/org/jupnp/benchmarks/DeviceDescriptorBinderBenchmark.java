@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.binding.xml.DeviceDescriptorBinder;
+import org.jupnp.binding.xml.UDA10DeviceDescriptorBinderImpl;
+import org.jupnp.binding.xml.UDA10DeviceDescriptorBinderSAXImpl;
+import org.jupnp.data.SampleData;
+import org.jupnp.model.meta.RemoteDevice;
+import org.jupnp.util.io.IO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hydrating a remote device from the UDA 1.0 sample descriptor, with the DOM and the SAX binder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceDescriptorBinderBenchmark {
+
+    @Param({ "dom", "sax" })
+    public String binderType;
+
+    private DeviceDescriptorBinder binder;
+    private String descriptor;
+
+    @Setup
+    public void setup() throws Exception {
+        binder = "sax".equals(binderType) ? new UDA10DeviceDescriptorBinderSAXImpl()
+                : new UDA10DeviceDescriptorBinderImpl();
+        descriptor = IO.readLines(SampleData.class.getResourceAsStream("/descriptors/device/uda10.xml"));
+    }
+
+    @Benchmark
+    public RemoteDevice describe() throws Exception {
+        return binder.describe(new RemoteDevice(SampleData.createRemoteDeviceIdentity()), descriptor);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.data.SampleData;
+import org.jupnp.gena.GenaSampleData;
+import org.jupnp.model.gena.CancelReason;
+import org.jupnp.model.gena.LocalGENASubscription;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.gena.IncomingEventRequestMessage;
+import org.jupnp.model.message.gena.OutgoingEventRequestMessage;
+import org.jupnp.model.meta.LocalService;
+import org.jupnp.model.meta.RemoteService;
+import org.jupnp.transport.impl.GENAEventProcessorImpl;
+import org.jupnp.transport.impl.StreamingGENAEventProcessorImpl;
+import org.jupnp.transport.spi.GENAEventProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing the event message of a local subscription, and reading it as a received event of a remote service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GENAEventProcessorBenchmark {
+
+    @Param({ "dom", "streaming" })
+    public String processorType;
+
+    private GENAEventProcessor processor;
+    private LocalGENASubscription subscription;
+    private RemoteService remoteService;
+    private OutgoingEventRequestMessage event;
+
+    @Setup
+    public void setup() throws Exception {
+        processor = "streaming".equals(processorType) ? new StreamingGENAEventProcessorImpl()
+                : new GENAEventProcessorImpl();
+
+        LocalService localService = GenaSampleData.createTestDevice().getServices()[0];
+        subscription = new LocalGENASubscription(localService, 1800, List.of(SampleData.getLocalBaseURL())) {
+            @Override
+            public void ended(CancelReason reason) {
+            }
+
+            @Override
+            public void established() {
+            }
+
+            @Override
+            public void eventReceived() {
+            }
+        };
+        remoteService = SampleData.getFirstService(SampleData.createRemoteDevice());
+
+        event = write();
+    }
+
+    @Benchmark
+    public OutgoingEventRequestMessage write() throws Exception {
+        OutgoingEventRequestMessage message = new OutgoingEventRequestMessage(subscription,
+                subscription.getCallbackURLs().get(0));
+        processor.writeBody(message);
+        return message;
+    }
+
+    @Benchmark
+    public IncomingEventRequestMessage read() throws Exception {
+        IncomingEventRequestMessage message = new IncomingEventRequestMessage(new StreamRequestMessage(event),
+                remoteService);
+        processor.readBody(message);
+        return message;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.data.SampleData;
+import org.jupnp.data.SampleServiceOne;
+import org.jupnp.mock.MockUpnpService;
+import org.jupnp.model.ServiceReference;
+import org.jupnp.model.meta.Device;
+import org.jupnp.model.meta.DeviceDetails;
+import org.jupnp.model.meta.RemoteDevice;
+import org.jupnp.model.meta.RemoteDeviceIdentity;
+import org.jupnp.model.meta.RemoteService;
+import org.jupnp.model.meta.Service;
+import org.jupnp.model.types.DeviceType;
+import org.jupnp.model.types.UDADeviceType;
+import org.jupnp.model.types.UDN;
+import org.jupnp.registry.Registry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looking up devices and services in a registry of thousands of remote devices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistryBenchmark {
+
+    private static final DeviceType RENDERER_TYPE = new UDADeviceType("MediaRenderer", 1);
+    private static final DeviceType SERVER_TYPE = new UDADeviceType("MediaServer", 1);
+
+    @Param({ "1000", "5000" })
+    public int devices;
+
+    private MockUpnpService upnpService;
+    private Registry registry;
+    private UDN[] udns;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        upnpService = new MockUpnpService();
+        upnpService.startup();
+        registry = upnpService.getRegistry();
+
+        udns = new UDN[devices];
+        for (int i = 0; i < devices; i++) {
+            udns[i] = new UDN(new UUID(0x4a55504e50L, i));
+            RemoteService service = new SampleServiceOne().newInstanceRemote(SampleData.getRemoteServiceConstructor());
+            RemoteDevice device = new RemoteDevice(
+                    new RemoteDeviceIdentity(udns[i], 1800, SampleData.getLocalBaseURL(), null,
+                            SampleData.getLocalBaseAddress()),
+                    i % 2 == 0 ? RENDERER_TYPE : SERVER_TYPE, new DeviceDetails("Device " + i), service);
+            registry.addDevice(device);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        upnpService.shutdown();
+    }
+
+    @Benchmark
+    public RemoteDevice getRemoteDevice() {
+        return registry.getRemoteDevice(nextUDN(), true);
+    }
+
+    @Benchmark
+    public Service getService() {
+        return registry.getService(new ServiceReference(nextUDN(), SampleServiceOne.getThisServiceId()));
+    }
+
+    @Benchmark
+    public Collection<Device> getDevicesByDeviceType() {
+        return registry.getDevices(RENDERER_TYPE);
+    }
+
+    @Benchmark
+    public Collection<Device> getDevicesByServiceType() {
+        return registry.getDevices(SampleServiceOne.getThisServiceType());
+    }
+
+    private UDN nextUDN() {
+        next = next + 1 < udns.length ? next + 1 : 0;
+        return udns[next];
+    }
+}
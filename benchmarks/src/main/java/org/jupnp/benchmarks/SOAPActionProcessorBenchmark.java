@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.binding.annotations.AnnotationLocalServiceBinder;
+import org.jupnp.control.ActionSampleData;
+import org.jupnp.data.SampleData;
+import org.jupnp.model.action.ActionInvocation;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.control.IncomingActionRequestMessage;
+import org.jupnp.model.message.control.IncomingActionResponseMessage;
+import org.jupnp.model.message.control.OutgoingActionRequestMessage;
+import org.jupnp.model.message.control.OutgoingActionResponseMessage;
+import org.jupnp.model.meta.Action;
+import org.jupnp.model.meta.LocalService;
+import org.jupnp.model.types.UnsignedIntegerFourBytes;
+import org.jupnp.support.avtransport.AbstractAVTransportService;
+import org.jupnp.support.contentdirectory.DIDLParser;
+import org.jupnp.transport.impl.SOAPActionProcessorImpl;
+import org.jupnp.transport.impl.StreamingSOAPActionProcessorImpl;
+import org.jupnp.transport.spi.SOAPActionProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing and reading the SOAP messages of typical AVTransport calls: a <code>SetAVTransportURI</code> request
+ * with DIDL-Lite metadata, and a <code>GetPositionInfo</code> response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SOAPActionProcessorBenchmark {
+
+    @Param({ "dom", "streaming" })
+    public String processorType;
+
+    private SOAPActionProcessor processor;
+    private LocalService<?> service;
+    private Action<?> setURIAction;
+    private Action<?> positionAction;
+    private ActionInvocation<?> setURIInvocation;
+    private ActionInvocation<?> positionInvocation;
+    private OutgoingActionRequestMessage setURIRequest;
+    private OutgoingActionResponseMessage positionResponse;
+
+    @Setup
+    public void setup() throws Exception {
+        processor = "streaming".equals(processorType) ? new StreamingSOAPActionProcessorImpl()
+                : new SOAPActionProcessorImpl();
+
+        service = new AnnotationLocalServiceBinder().read(AbstractAVTransportService.class);
+        ActionSampleData.createTestDevice(service);
+
+        String metadata = new DIDLParser().generate(DIDLParserBenchmark.createAlbum(1));
+        setURIAction = service.getAction("SetAVTransportURI");
+        setURIInvocation = new ActionInvocation<>(setURIAction);
+        setURIInvocation.setInput("InstanceID", new UnsignedIntegerFourBytes(0));
+        setURIInvocation.setInput("CurrentURI", "http://192.168.1.10:49152/content/track-0.mp3");
+        setURIInvocation.setInput("CurrentURIMetaData", metadata);
+
+        positionAction = service.getAction("GetPositionInfo");
+        positionInvocation = new ActionInvocation<>(positionAction);
+        positionInvocation.setOutput("Track", new UnsignedIntegerFourBytes(1));
+        positionInvocation.setOutput("TrackDuration", "0:04:00.000");
+        positionInvocation.setOutput("TrackMetaData", metadata);
+        positionInvocation.setOutput("TrackURI", "http://192.168.1.10:49152/content/track-0.mp3");
+        positionInvocation.setOutput("RelTime", "0:01:23.000");
+        positionInvocation.setOutput("AbsTime", "0:01:23.000");
+        positionInvocation.setOutput("RelCount", Integer.MAX_VALUE);
+        positionInvocation.setOutput("AbsCount", Integer.MAX_VALUE);
+
+        setURIRequest = writeRequest();
+        positionResponse = writeResponse();
+    }
+
+    @Benchmark
+    public OutgoingActionRequestMessage writeRequest() throws Exception {
+        // The control URL doesn't matter
+        OutgoingActionRequestMessage request = new OutgoingActionRequestMessage(setURIInvocation,
+                SampleData.getLocalBaseURL());
+        processor.writeBody(request, setURIInvocation);
+        return request;
+    }
+
+    @Benchmark
+    public ActionInvocation<?> readRequest() throws Exception {
+        IncomingActionRequestMessage request = new IncomingActionRequestMessage(
+                new StreamRequestMessage(setURIRequest), service);
+        ActionInvocation<?> invocation = new ActionInvocation<>(setURIAction);
+        processor.readBody(request, invocation);
+        return invocation;
+    }
+
+    @Benchmark
+    public OutgoingActionResponseMessage writeResponse() throws Exception {
+        OutgoingActionResponseMessage response = new OutgoingActionResponseMessage(positionAction);
+        processor.writeBody(response, positionInvocation);
+        return response;
+    }
+
+    @Benchmark
+    public ActionInvocation<?> readResponse() throws Exception {
+        IncomingActionResponseMessage response = new IncomingActionResponseMessage(
+                new StreamResponseMessage(positionResponse));
+        ActionInvocation<?> invocation = new ActionInvocation<>(positionAction);
+        processor.readBody(response, invocation);
+        return invocation;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.data.SampleDeviceRoot;
+import org.jupnp.model.message.UpnpHeaders;
+import org.jupnp.model.message.header.UpnpHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing the typed headers of an SSDP NOTIFY message, from received datagram bytes and from a header stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UpnpHeadersBenchmark {
+
+    private static final UpnpHeader.Type[] TYPES = { UpnpHeader.Type.HOST, UpnpHeader.Type.MAX_AGE,
+            UpnpHeader.Type.LOCATION, UpnpHeader.Type.NT, UpnpHeader.Type.NTS, UpnpHeader.Type.SERVER,
+            UpnpHeader.Type.USN };
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        String headers = "HOST: 239.255.255.250:1900\r\n" + "CACHE-CONTROL: max-age=1800\r\n"
+                + "LOCATION: http://192.168.1.10:49152/some/path/123/desc.xml\r\n" + "NT: upnp:rootdevice\r\n"
+                + "NTS: ssdp:alive\r\n" + "EXT:\r\n" + "SERVER: Linux/5.10 UPnP/1.0 jUPnP/3.0\r\n" + "USN: "
+                + SampleDeviceRoot.getRootUDN() + "::upnp:rootdevice\r\n\r\n";
+        data = headers.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public void parseBytes(Blackhole blackhole) {
+        getHeaders(new UpnpHeaders(data, 0, data.length), blackhole);
+    }
+
+    @Benchmark
+    public void parseStream(Blackhole blackhole) {
+        getHeaders(new UpnpHeaders(new ByteArrayInputStream(data)), blackhole);
+    }
+
+    private void getHeaders(UpnpHeaders headers, Blackhole blackhole) {
+        for (UpnpHeader.Type type : TYPES) {
+            blackhole.consume(headers.getFirstHeader(type));
+        }
+    }
+}
@@ -18,22 +18,29 @@ package org.jupnp;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jupnp.binding.xml.DeviceDescriptorBinder;
+import org.jupnp.binding.xml.InterningServiceDescriptorBinder;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
 import org.jupnp.binding.xml.UDA10DeviceDescriptorBinderImpl;
 import org.jupnp.binding.xml.UDA10ServiceDescriptorBinderImpl;
+import org.jupnp.metrics.ExecutorMetrics;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.ModelUtil;
 import org.jupnp.model.Namespace;
 import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.meta.RemoteDeviceIdentity;
 import org.jupnp.model.meta.RemoteService;
 import org.jupnp.model.types.ServiceType;
+import org.jupnp.protocol.DescriptorCache;
 import org.jupnp.transport.TransportConfiguration;
 import org.jupnp.transport.TransportConfigurationProvider;
 import org.jupnp.transport.impl.DatagramIOConfigurationImpl;
@@ -45,6 +52,9 @@ import org.jupnp.transport.impl.MulticastReceiverImpl;
 import org.jupnp.transport.impl.NetworkAddressFactoryImpl;
 import org.jupnp.transport.impl.SOAPActionProcessorImpl;
 import org.jupnp.transport.impl.jetty.StreamClientConfigurationImpl;
+import org.jupnp.transport.impl.nio.DatagramChannelSelector;
+import org.jupnp.transport.impl.nio.NIODatagramIOImpl;
+import org.jupnp.transport.impl.nio.NIOMulticastReceiverImpl;
 import org.jupnp.transport.spi.DatagramIO;
 import org.jupnp.transport.spi.DatagramProcessor;
 import org.jupnp.transport.spi.GENAEventProcessor;
@@ -55,6 +65,7 @@ import org.jupnp.transport.spi.StreamClient;
 import org.jupnp.transport.spi.StreamClientConfiguration;
 import org.jupnp.transport.spi.StreamServer;
 import org.jupnp.util.Exceptions;
+import org.jupnp.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,6 +76,10 @@ import org.slf4j.LoggerFactory;
  * {@link org.jupnp.transport.impl}.
  * </p>
  * <p>
+ * Override {@link #isNioDatagramTransportEnabled()} to receive datagrams with the implementations found in
+ * {@link org.jupnp.transport.impl.nio} instead.
+ * </p>
+ * <p>
  * This configuration utilizes the DOM default descriptor binders found in
  * {@link org.jupnp.binding.xml}.
  * </p>
@@ -77,6 +92,16 @@ import org.slf4j.LoggerFactory;
  * grow (and shrink) as needed - or restricted by your JVM.
  * </p>
  * <p>
+ * The long-running loops of the transports (multicast receivers, datagram I/O and stream servers) and of the
+ * registry maintenance don't occupy threads of this pool, each runs on a dedicated daemon thread of the
+ * {@link #createTransportExecutorService() transport executor}.
+ * </p>
+ * <p>
+ * Unlike the {@link OSGiUpnpServiceConfiguration}, which sizes separate pools for synchronous protocols,
+ * asynchronous protocols and listener callbacks, this configuration runs all of them on the one pool created by
+ * {@link #createDefaultExecutorService()}. Override their getters to separate them.
+ * </p>
+ * <p>
  * The default {@link org.jupnp.model.Namespace} is configured without any
  * base path or prefix.
  * </p>
@@ -104,7 +129,12 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
     private final int streamListenPort;
     private final int multicastResponsePort;
 
+    private final UpnpMetrics metrics;
+
     private final ExecutorService defaultExecutorService;
+    private final ExecutorService transportExecutorService;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final DatagramChannelSelector datagramChannelSelector = new DatagramChannelSelector();
 
     private final DatagramProcessor datagramProcessor;
     private final SOAPActionProcessor soapActionProcessor;
@@ -147,7 +177,11 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
         this.streamListenPort = streamListenPort;
         this.multicastResponsePort = multicastResponsePort;
 
-        defaultExecutorService = createDefaultExecutorService();
+        metrics = createMetrics();
+
+        defaultExecutorService = ExecutorMetrics.monitor(metrics, "default", createDefaultExecutorService());
+        transportExecutorService = ExecutorMetrics.monitor(metrics, "transport", createTransportExecutorService());
+        scheduledExecutorService = ExecutorMetrics.monitor(metrics, "scheduler", createScheduledExecutorService());
 
         datagramProcessor = createDatagramProcessor();
         soapActionProcessor = createSOAPActionProcessor();
@@ -158,8 +192,13 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
 
         namespace = createNamespace();
 
-        configuration = new StreamClientConfigurationImpl(defaultExecutorService);
-        transportConfiguration = TransportConfigurationProvider.getDefaultTransportConfiguration();
+        configuration = new StreamClientConfigurationImpl(defaultExecutorService) {
+            @Override
+            public UpnpMetrics getMetrics() {
+                return metrics;
+            }
+        };
+        transportConfiguration = createTransportConfiguration();
     }
 
     @Override
@@ -191,28 +230,35 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
 
     @Override
     public MulticastReceiver createMulticastReceiver(NetworkAddressFactory networkAddressFactory) {
-        return new MulticastReceiverImpl(new MulticastReceiverConfigurationImpl(
-                networkAddressFactory.getMulticastGroup(), networkAddressFactory.getMulticastPort()));
+        MulticastReceiverConfigurationImpl configuration = new MulticastReceiverConfigurationImpl(
+                networkAddressFactory.getMulticastGroup(), networkAddressFactory.getMulticastPort());
+        if (isNioDatagramTransportEnabled()) {
+            return new NIOMulticastReceiverImpl(configuration, datagramChannelSelector);
+        }
+        return new MulticastReceiverImpl(configuration);
     }
 
     @Override
     public DatagramIO createDatagramIO(NetworkAddressFactory networkAddressFactory) {
+        if (isNioDatagramTransportEnabled()) {
+            return new NIODatagramIOImpl(new DatagramIOConfigurationImpl(), datagramChannelSelector);
+        }
         return new DatagramIOImpl(new DatagramIOConfigurationImpl());
     }
 
     @Override
     public ExecutorService getMulticastReceiverExecutor() {
-        return getDefaultExecutorService();
+        return getTransportExecutorService();
     }
 
     @Override
     public ExecutorService getDatagramIOExecutor() {
-        return getDefaultExecutorService();
+        return getTransportExecutorService();
     }
 
     @Override
     public ExecutorService getStreamServerExecutorService() {
-        return getDefaultExecutorService();
+        return getTransportExecutorService();
     }
 
     @Override
@@ -243,6 +289,20 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
         return null;
     }
 
+    /**
+     * @return <code>null</code>, override to cache descriptors, e.g. with a
+     *         {@link org.jupnp.protocol.FileDescriptorCache}.
+     */
+    @Override
+    public DescriptorCache getDescriptorCache() {
+        return null;
+    }
+
+    @Override
+    public UpnpMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public UpnpHeaders getEventSubscriptionHeaders(RemoteService service) {
         return null;
@@ -279,6 +339,11 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
         return getDefaultExecutorService();
     }
 
+    @Override
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
     @Override
     public Namespace getNamespace() {
         return namespace;
@@ -286,7 +351,7 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
 
     @Override
     public Executor getRegistryMaintainerExecutor() {
-        return getDefaultExecutorService();
+        return getTransportExecutorService();
     }
 
     @Override
@@ -306,8 +371,10 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
 
     @Override
     public void shutdown() {
-        logger.trace("Shutting down default executor service");
+        logger.trace("Shutting down executor services");
         getDefaultExecutorService().shutdownNow();
+        getTransportExecutorService().shutdownNow();
+        getScheduledExecutorService().shutdownNow();
     }
 
     protected NetworkAddressFactory createNetworkAddressFactory(int streamListenPort, int multicastResponsePort) {
@@ -331,21 +398,95 @@ public class DefaultUpnpServiceConfiguration implements UpnpServiceConfiguration
     }
 
     protected ServiceDescriptorBinder createServiceDescriptorBinderUDA10() {
-        return new UDA10ServiceDescriptorBinderImpl();
+        return new InterningServiceDescriptorBinder(new UDA10ServiceDescriptorBinderImpl());
     }
 
     protected Namespace createNamespace() {
         return new Namespace();
     }
 
+    /**
+     * Creates the stream client and server implementations.
+     * <p>
+     * Return {@link org.jupnp.transport.impl.HttpServerTransportConfiguration#INSTANCE} to receive HTTP requests
+     * with the JDK built-in HTTP server instead of an embedded Jetty servlet container.
+     * </p>
+     *
+     * @return Defaults to the {@link TransportConfigurationProvider#getDefaultTransportConfiguration()}.
+     */
+    protected TransportConfiguration createTransportConfiguration() {
+        return TransportConfigurationProvider.getDefaultTransportConfiguration();
+    }
+
+    /**
+     * @return An {@link InMemoryUpnpMetrics}, override to report to a metrics library or return
+     *         {@link UpnpMetrics#DISABLED}.
+     */
+    protected UpnpMetrics createMetrics() {
+        return new InMemoryUpnpMetrics();
+    }
+
     protected ExecutorService getDefaultExecutorService() {
         return defaultExecutorService;
     }
 
+    /**
+     * Override and return <code>true</code> to receive the datagrams of all network interfaces on a single I/O
+     * thread, with the implementations found in {@link org.jupnp.transport.impl.nio}.
+     *
+     * @return Defaults to <code>false</code>.
+     */
+    protected boolean isNioDatagramTransportEnabled() {
+        return false;
+    }
+
+    /**
+     * Override and return <code>true</code> to run protocols, listeners and HTTP client requests on virtual threads
+     * instead of the bounded {@link JUPnPExecutor}, which discards tasks when it is saturated. Ignored, with a
+     * warning, if the runtime doesn't support virtual threads, see {@link VirtualThreads}.
+     *
+     * @return Defaults to <code>false</code>.
+     */
+    protected boolean isVirtualThreadsEnabled() {
+        return false;
+    }
+
     protected ExecutorService createDefaultExecutorService() {
+        if (isVirtualThreadsEnabled()) {
+            if (VirtualThreads.isAvailable()) {
+                return VirtualThreads.newThreadPerTaskExecutor("jupnp-virtual-");
+            }
+            logger.warn("Virtual threads are not available on Java {}, using a thread pool",
+                    Runtime.version().feature());
+        }
         return new JUPnPExecutor();
     }
 
+    protected ExecutorService getTransportExecutorService() {
+        return transportExecutorService;
+    }
+
+    /**
+     * @return An executor starting a new daemon thread for each long-running loop, reusing idle threads of loops
+     *         which have ended.
+     */
+    protected ExecutorService createTransportExecutorService() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jupnp-transport-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    protected ScheduledExecutorService createScheduledExecutorService() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jupnp-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public static class JUPnPExecutor extends ThreadPoolExecutor {
 
         public JUPnPExecutor() {
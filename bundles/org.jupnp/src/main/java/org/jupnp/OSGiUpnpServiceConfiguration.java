@@ -15,22 +15,31 @@
  */
 package org.jupnp;
 
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jupnp.binding.xml.DeviceDescriptorBinder;
+import org.jupnp.binding.xml.InterningServiceDescriptorBinder;
 import org.jupnp.binding.xml.RecoveringUDA10DeviceDescriptorBinderImpl;
 import org.jupnp.binding.xml.RecoveringUDA10ServiceDescriptorBinderSAXImpl;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
+import org.jupnp.metrics.ExecutorMetrics;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.ModelUtil;
 import org.jupnp.model.Namespace;
 import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.meta.RemoteDeviceIdentity;
 import org.jupnp.model.meta.RemoteService;
 import org.jupnp.model.types.ServiceType;
+import org.jupnp.protocol.DescriptorCache;
+import org.jupnp.protocol.FileDescriptorCache;
 import org.jupnp.transport.TransportConfiguration;
 import org.jupnp.transport.TransportConfigurationProvider;
 import org.jupnp.transport.impl.DatagramIOConfigurationImpl;
@@ -43,7 +52,12 @@ import org.jupnp.transport.impl.NetworkAddressFactoryImpl;
 import org.jupnp.transport.impl.SOAPActionProcessorImpl;
 import org.jupnp.transport.impl.ServletStreamServerConfigurationImpl;
 import org.jupnp.transport.impl.ServletStreamServerImpl;
+import org.jupnp.transport.impl.StreamingGENAEventProcessorImpl;
+import org.jupnp.transport.impl.StreamingSOAPActionProcessorImpl;
 import org.jupnp.transport.impl.jetty.StreamClientConfigurationImpl;
+import org.jupnp.transport.impl.nio.DatagramChannelSelector;
+import org.jupnp.transport.impl.nio.NIODatagramIOImpl;
+import org.jupnp.transport.impl.nio.NIOMulticastReceiverImpl;
 import org.jupnp.transport.impl.osgi.HttpServiceServletContainerAdapter;
 import org.jupnp.transport.spi.DatagramIO;
 import org.jupnp.transport.spi.DatagramProcessor;
@@ -54,6 +68,7 @@ import org.jupnp.transport.spi.SOAPActionProcessor;
 import org.jupnp.transport.spi.StreamClient;
 import org.jupnp.transport.spi.StreamClientConfiguration;
 import org.jupnp.transport.spi.StreamServer;
+import org.jupnp.util.VirtualThreads;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -70,6 +85,22 @@ import org.slf4j.LoggerFactory;
  * This configuration utilizes the default network transport implementation found in {@link org.jupnp.transport.impl}.
  * </p>
  * <p>
+ * Set <code>nioDatagramTransport</code> to <code>true</code> to receive the datagrams of all network interfaces
+ * on a single I/O thread, with the implementations found in {@link org.jupnp.transport.impl.nio}.
+ * </p>
+ * <p>
+ * Set <code>descriptorCacheDirectory</code> to a directory path to cache retrieved remote descriptors across
+ * restarts, with a {@link FileDescriptorCache}.
+ * </p>
+ * <p>
+ * Set <code>streamingXmlWriter</code> to <code>true</code> to write SOAP and GENA message bodies without building a
+ * DOM, with {@link StreamingSOAPActionProcessorImpl} and {@link StreamingGENAEventProcessorImpl}.
+ * </p>
+ * <p>
+ * Set <code>httpKeepAlive</code> to <code>true</code> to reuse the HTTP client connections to a device, see
+ * {@link StreamClientConfigurationImpl#isKeepAlive()}.
+ * </p>
+ * <p>
  * This configuration utilizes the SAX default descriptor binders found in {@link org.jupnp.binding.xml}.
  * </p>
  * <p>
@@ -77,6 +108,16 @@ import org.slf4j.LoggerFactory;
  * QueueingThreadFactory.
  * </p>
  * <p>
+ * Synchronous protocols, asynchronous protocols and registry listener callbacks run on separate pools, sized with
+ * <code>threadPoolSize</code>, <code>asyncThreadPoolSize</code> and <code>listenerThreadPoolSize</code>. The
+ * long-running loops of the transports and of the registry maintenance run on dedicated daemon threads, they don't
+ * occupy threads of these pools. The sizing and saturation of each pool is reported to the {@link #getMetrics()}.
+ * </p>
+ * <p>
+ * Set <code>virtualThreads</code> to <code>true</code> to replace these pools with executors starting a virtual
+ * thread for each task on Java 21 and later, see {@link VirtualThreads}. The pool sizes are then ignored.
+ * </p>
+ * <p>
  * The default {@link org.jupnp.model.Namespace} is configured without any base path or prefix.
  * </p>
  * This component is enabled by the {@link OSGiUpnpServiceConfigurationEnabler} based on the <code>autoEnable</code>
@@ -101,6 +142,7 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
     protected int threadPoolSize = 20;
     protected int asyncThreadPoolSize = 20;
     protected int remoteThreadPoolSize = 40;
+    protected int listenerThreadPoolSize = 20;
     protected String interfaces;
     protected int multicastResponsePort;
     protected int httpProxyPort = -1;
@@ -108,16 +150,30 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
     protected boolean asyncThreadPool = true;
     protected boolean mainThreadPool = true;
     protected boolean remoteThreadPool = true;
+    protected boolean listenerThreadPool = true;
+    protected boolean nioDatagramTransport = false;
+    protected boolean virtualThreads = false;
+    protected String descriptorCacheDirectory;
+    protected boolean streamingXmlWriter = false;
+    protected boolean httpKeepAlive = false;
     protected Namespace callbackURI = new Namespace("http://localhost/upnpcallback");
 
     protected ExecutorService mainExecutorService;
     protected ExecutorService asyncExecutorService;
     protected ExecutorService remoteExecutorService;
+    protected ExecutorService listenerExecutorService;
+    protected ExecutorService transportExecutorService;
+    protected ScheduledExecutorService scheduledExecutorService;
+    protected final DatagramChannelSelector datagramChannelSelector = new DatagramChannelSelector(
+            "upnp-datagram-selector");
 
     protected DatagramProcessor datagramProcessor;
     protected SOAPActionProcessor soapActionProcessor;
     protected GENAEventProcessor genaEventProcessor;
 
+    protected DescriptorCache descriptorCache;
+    protected UpnpMetrics metrics;
+
     protected DeviceDescriptorBinder deviceDescriptorBinderUDA10;
     protected ServiceDescriptorBinder serviceDescriptorBinderUDA10;
 
@@ -171,6 +227,7 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
 
         setConfigValues(configProps);
 
+        metrics = createMetrics();
         createExecutorServices();
 
         datagramProcessor = createDatagramProcessor();
@@ -179,6 +236,7 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
 
         deviceDescriptorBinderUDA10 = createDeviceDescriptorBinderUDA10();
         serviceDescriptorBinderUDA10 = createServiceDescriptorBinderUDA10();
+        descriptorCache = createDescriptorCache();
 
         namespace = createNamespace();
 
@@ -224,19 +282,36 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
 
     private StreamClientConfiguration createStreamClientConfiguration() {
         return new StreamClientConfigurationImpl(asyncExecutorService, timeoutSeconds, 5, retryAfterSeconds,
-                retryIterations);
+                retryIterations) {
+            @Override
+            public boolean isKeepAlive() {
+                return httpKeepAlive;
+            }
+
+            @Override
+            public UpnpMetrics getMetrics() {
+                return metrics;
+            }
+        };
     }
 
     @Override
     @SuppressWarnings("rawtypes")
     public MulticastReceiver createMulticastReceiver(NetworkAddressFactory networkAddressFactory) {
-        return new MulticastReceiverImpl(new MulticastReceiverConfigurationImpl(
-                networkAddressFactory.getMulticastGroup(), networkAddressFactory.getMulticastPort()));
+        MulticastReceiverConfigurationImpl configuration = new MulticastReceiverConfigurationImpl(
+                networkAddressFactory.getMulticastGroup(), networkAddressFactory.getMulticastPort());
+        if (nioDatagramTransport) {
+            return new NIOMulticastReceiverImpl(configuration, datagramChannelSelector);
+        }
+        return new MulticastReceiverImpl(configuration);
     }
 
     @Override
     @SuppressWarnings("rawtypes")
     public DatagramIO createDatagramIO(NetworkAddressFactory networkAddressFactory) {
+        if (nioDatagramTransport) {
+            return new NIODatagramIOImpl(new DatagramIOConfigurationImpl(), datagramChannelSelector);
+        }
         return new DatagramIOImpl(new DatagramIOConfigurationImpl());
     }
 
@@ -256,17 +331,17 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
 
     @Override
     public ExecutorService getMulticastReceiverExecutor() {
-        return getMainExecutorService();
+        return transportExecutorService;
     }
 
     @Override
     public ExecutorService getDatagramIOExecutor() {
-        return getMainExecutorService();
+        return transportExecutorService;
     }
 
     @Override
     public ExecutorService getStreamServerExecutorService() {
-        return getMainExecutorService();
+        return transportExecutorService;
     }
 
     @Override
@@ -297,6 +372,16 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         return null;
     }
 
+    @Override
+    public DescriptorCache getDescriptorCache() {
+        return descriptorCache;
+    }
+
+    @Override
+    public UpnpMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public UpnpHeaders getEventSubscriptionHeaders(RemoteService service) {
         return null;
@@ -337,6 +422,11 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         return getMainExecutorService();
     }
 
+    @Override
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
     @Override
     public Namespace getNamespace() {
         return namespace;
@@ -344,12 +434,12 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
 
     @Override
     public Executor getRegistryMaintainerExecutor() {
-        return getMainExecutorService();
+        return transportExecutorService;
     }
 
     @Override
     public Executor getRegistryListenerExecutor() {
-        return getMainExecutorService();
+        return getListenerExecutorService();
     }
 
     @Override
@@ -381,6 +471,15 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         if (remoteExecutorService != null) {
             remoteExecutorService.shutdownNow();
         }
+        if (listenerExecutorService != null) {
+            listenerExecutorService.shutdownNow();
+        }
+        if (transportExecutorService != null) {
+            transportExecutorService.shutdownNow();
+        }
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
     }
 
     protected NetworkAddressFactory createNetworkAddressFactory(int streamListenPort, int multicastResponsePort) {
@@ -392,11 +491,11 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
     }
 
     protected SOAPActionProcessor createSOAPActionProcessor() {
-        return new SOAPActionProcessorImpl();
+        return streamingXmlWriter ? new StreamingSOAPActionProcessorImpl() : new SOAPActionProcessorImpl();
     }
 
     protected GENAEventProcessor createGENAEventProcessor() {
-        return new GENAEventProcessorImpl();
+        return streamingXmlWriter ? new StreamingGENAEventProcessorImpl() : new GENAEventProcessorImpl();
     }
 
     protected DeviceDescriptorBinder createDeviceDescriptorBinderUDA10() {
@@ -404,7 +503,15 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
     }
 
     protected ServiceDescriptorBinder createServiceDescriptorBinderUDA10() {
-        return new RecoveringUDA10ServiceDescriptorBinderSAXImpl();
+        return new InterningServiceDescriptorBinder(new RecoveringUDA10ServiceDescriptorBinderSAXImpl());
+    }
+
+    protected DescriptorCache createDescriptorCache() {
+        return descriptorCacheDirectory != null ? new FileDescriptorCache(Paths.get(descriptorCacheDirectory)) : null;
+    }
+
+    protected UpnpMetrics createMetrics() {
+        return new InMemoryUpnpMetrics();
     }
 
     protected Namespace createNamespace() {
@@ -419,6 +526,17 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         }
     }
 
+    /**
+     * @return The listener pool, or the main pool if the listener pool is disabled.
+     */
+    protected ExecutorService getListenerExecutorService() {
+        if (listenerThreadPool) {
+            return listenerExecutorService;
+        } else {
+            return getMainExecutorService();
+        }
+    }
+
     protected ExecutorService getMainExecutorService() {
         if (mainThreadPool) {
             return mainExecutorService;
@@ -430,36 +548,88 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
     protected void createExecutorServices() {
         if (mainThreadPool) {
             logger.debug("Creating mainThreadPool");
-            mainExecutorService = createMainExecutorService();
+            mainExecutorService = ExecutorMetrics.monitor(metrics, "upnp-main", createMainExecutorService());
         } else {
             logger.debug("Skipping mainThreadPool creation.");
         }
 
         if (asyncThreadPool) {
             logger.debug("Creating asyncThreadPool");
-            asyncExecutorService = createAsyncProtocolExecutorService();
+            asyncExecutorService = ExecutorMetrics.monitor(metrics, "upnp-async",
+                    createAsyncProtocolExecutorService());
         } else {
             logger.debug("Skipping asyncThreadPool creation.");
         }
 
         if (remoteThreadPool) {
             logger.debug("Creating remoteThreadPool");
-            remoteExecutorService = createRemoteProtocolExecutorService();
+            remoteExecutorService = ExecutorMetrics.monitor(metrics, "upnp-remote",
+                    createRemoteProtocolExecutorService());
         } else {
             logger.debug("Skipping remoteThreadPool creation.");
         }
+
+        if (listenerThreadPool) {
+            logger.debug("Creating listenerThreadPool");
+            listenerExecutorService = ExecutorMetrics.monitor(metrics, "upnp-listener",
+                    createListenerExecutorService());
+        } else {
+            logger.debug("Skipping listenerThreadPool creation.");
+        }
+
+        transportExecutorService = ExecutorMetrics.monitor(metrics, "upnp-transport",
+                createTransportExecutorService());
+
+        scheduledExecutorService = ExecutorMetrics.monitor(metrics, "upnp-scheduler",
+                createScheduledExecutorService());
+    }
+
+    /**
+     * @return A {@link QueueingThreadPoolExecutor}, or a virtual thread per task executor if
+     *         <code>virtualThreads</code> is enabled and supported by the runtime.
+     */
+    protected ExecutorService createPoolExecutorService(String name, int threadPoolSize) {
+        if (virtualThreads && VirtualThreads.isAvailable()) {
+            return VirtualThreads.newThreadPerTaskExecutor(name + "-");
+        }
+        return QueueingThreadPoolExecutor.createInstance(name, threadPoolSize);
     }
 
     protected ExecutorService createMainExecutorService() {
-        return QueueingThreadPoolExecutor.createInstance("upnp-main", threadPoolSize);
+        return createPoolExecutorService("upnp-main", threadPoolSize);
     }
 
     protected ExecutorService createAsyncProtocolExecutorService() {
-        return QueueingThreadPoolExecutor.createInstance("upnp-async", asyncThreadPoolSize);
+        return createPoolExecutorService("upnp-async", asyncThreadPoolSize);
     }
 
     protected ExecutorService createRemoteProtocolExecutorService() {
-        return QueueingThreadPoolExecutor.createInstance("upnp-remote", remoteThreadPoolSize);
+        return createPoolExecutorService("upnp-remote", remoteThreadPoolSize);
+    }
+
+    protected ExecutorService createListenerExecutorService() {
+        return createPoolExecutorService("upnp-listener", listenerThreadPoolSize);
+    }
+
+    /**
+     * @return An executor starting a new daemon thread for each long-running loop, reusing idle threads of loops
+     *         which have ended.
+     */
+    protected ExecutorService createTransportExecutorService() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "upnp-transport-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    protected ScheduledExecutorService createScheduledExecutorService() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upnp-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     protected void setConfigValues(Map<String, Object> properties) {
@@ -492,6 +662,19 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         logger.info("OSGiUpnpServiceConfiguration createConfiguration asyncThreadPoolSize = {} {}", asyncThreadPoolSize,
                 asyncThreadPool);
 
+        prop = properties.get("listenerThreadPoolSize");
+        if (prop instanceof String) {
+            try {
+                listenerThreadPoolSize = Integer.parseInt((String) prop);
+                listenerThreadPool = listenerThreadPoolSize != -1;
+            } catch (NumberFormatException e) {
+                logger.error("Invalid value '{}' for listenerThreadPoolSize - using default value '{}'", prop,
+                        listenerThreadPoolSize);
+            }
+        }
+        logger.info("OSGiUpnpServiceConfiguration createConfiguration listenerThreadPoolSize = {} {}",
+                listenerThreadPoolSize, listenerThreadPool);
+
         prop = properties.get("multicastResponsePort");
         if (prop instanceof String) {
             try {
@@ -585,6 +768,48 @@ public class OSGiUpnpServiceConfiguration implements UpnpServiceConfiguration {
         }
         logger.info("OSGiUpnpServiceConfiguration timeoutSeconds = {}", timeoutSeconds);
 
+        prop = properties.get("nioDatagramTransport");
+        if (prop instanceof String) {
+            nioDatagramTransport = Boolean.parseBoolean((String) prop);
+        } else if (prop instanceof Boolean) {
+            nioDatagramTransport = (Boolean) prop;
+        }
+        logger.info("OSGiUpnpServiceConfiguration nioDatagramTransport = {}", nioDatagramTransport);
+
+        prop = properties.get("virtualThreads");
+        if (prop instanceof String) {
+            virtualThreads = Boolean.parseBoolean((String) prop);
+        } else if (prop instanceof Boolean) {
+            virtualThreads = (Boolean) prop;
+        }
+        if (virtualThreads && !VirtualThreads.isAvailable()) {
+            logger.warn("Virtual threads are not available on Java {}, using thread pools",
+                    Runtime.version().feature());
+        }
+        logger.info("OSGiUpnpServiceConfiguration virtualThreads = {}", virtualThreads);
+
+        prop = properties.get("descriptorCacheDirectory");
+        if (prop instanceof String && !((String) prop).isBlank()) {
+            descriptorCacheDirectory = ((String) prop).trim();
+        }
+        logger.info("OSGiUpnpServiceConfiguration descriptorCacheDirectory = {}", descriptorCacheDirectory);
+
+        prop = properties.get("streamingXmlWriter");
+        if (prop instanceof String) {
+            streamingXmlWriter = Boolean.parseBoolean((String) prop);
+        } else if (prop instanceof Boolean) {
+            streamingXmlWriter = (Boolean) prop;
+        }
+        logger.info("OSGiUpnpServiceConfiguration streamingXmlWriter = {}", streamingXmlWriter);
+
+        prop = properties.get("httpKeepAlive");
+        if (prop instanceof String) {
+            httpKeepAlive = Boolean.parseBoolean((String) prop);
+        } else if (prop instanceof Boolean) {
+            httpKeepAlive = (Boolean) prop;
+        }
+        logger.info("OSGiUpnpServiceConfiguration httpKeepAlive = {}", httpKeepAlive);
+
         // let's automatically determine the size for the remoteThreadPool
         if (!mainThreadPool || !asyncThreadPool) {
             remoteThreadPool = false;
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Scheduler shared by all configurations which don't provide their own, see
+ * {@link UpnpServiceConfiguration#getScheduledExecutorService()}.
+ * <p>
+ * Created on first use, its single daemon thread runs until the JVM exits. It must not be shut down.
+ * </p>
+ */
+final class SharedScheduledExecutorService {
+
+    static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jupnp-shared-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SharedScheduledExecutorService() {
+    }
+}
@@ -17,14 +17,17 @@ package org.jupnp;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.jupnp.binding.xml.DeviceDescriptorBinder;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.Namespace;
 import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.meta.RemoteDeviceIdentity;
 import org.jupnp.model.meta.RemoteService;
 import org.jupnp.model.types.ServiceType;
+import org.jupnp.protocol.DescriptorCache;
 import org.jupnp.transport.spi.DatagramIO;
 import org.jupnp.transport.spi.DatagramProcessor;
 import org.jupnp.transport.spi.GENAEventProcessor;
@@ -213,6 +216,29 @@ public interface UpnpServiceConfiguration {
      */
     UpnpHeaders getDescriptorRetrievalHeaders(RemoteDeviceIdentity identity);
 
+    /**
+     * Optional cache of retrieved remote descriptors.
+     * <p>
+     * With a persistent cache, devices discovered again after a restart can be hydrated without retrieving all
+     * their descriptors, see {@link org.jupnp.protocol.DescriptorCache}.
+     * </p>
+     *
+     * @return Defaults to <code>null</code>, descriptors are always retrieved from the device.
+     */
+    default DescriptorCache getDescriptorCache() {
+        return null;
+    }
+
+    /**
+     * Receives counters, durations and gauges of the router, protocols and registry.
+     *
+     * @return Never <code>null</code>, {@link org.jupnp.metrics.UpnpMetrics#DISABLED} to ignore all measurements.
+     *         Defaults to {@link org.jupnp.metrics.UpnpMetrics#DISABLED}.
+     */
+    default UpnpMetrics getMetrics() {
+        return UpnpMetrics.DISABLED;
+    }
+
     /**
      * Optional extra headers for event subscription (almost HTTP) messages.
      * <p>
@@ -236,6 +262,20 @@ public interface UpnpServiceConfiguration {
      */
     ExecutorService getSyncProtocolExecutorService();
 
+    /**
+     * Returns the executor for delayed and periodic tasks, such as delayed responses to search requests.
+     * <p>
+     * Scheduled tasks should only hand off their work to one of the other executors, they must not block
+     * the (usually single) scheduler thread.
+     * </p>
+     *
+     * @return The executor which schedules delayed tasks of the UPnP stack. Defaults to a single daemon thread
+     *         shared by all configurations, which isn't shut down with the configuration.
+     */
+    default ScheduledExecutorService getScheduledExecutorService() {
+        return SharedScheduledExecutorService.INSTANCE;
+    }
+
     /**
      * @return An instance of {@link org.jupnp.model.Namespace} for this UPnP stack.
      */
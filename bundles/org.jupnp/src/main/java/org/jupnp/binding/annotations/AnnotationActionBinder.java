@@ -102,8 +102,9 @@ public class AnnotationActionBinder {
     }
 
     protected ActionExecutor createExecutor(Map<ActionArgument<LocalService>, StateVariableAccessor> outputArguments) {
-        // TODO: Invent an annotation for this configuration
-        return new MethodActionExecutor(outputArguments, getMethod());
+        MethodActionExecutor executor = new MethodActionExecutor(outputArguments, getMethod());
+        executor.setConcurrency(getAnnotation().concurrency());
+        return executor;
     }
 
     protected List<ActionArgument> createInputArguments() throws LocalServiceBindingException {
@@ -20,6 +20,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import org.jupnp.model.action.ActionConcurrency;
+
 @Target({ ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface UpnpAction {
@@ -27,4 +29,9 @@ public @interface UpnpAction {
     String name() default "";
 
     UpnpOutputArgument[] out() default {};
+
+    /**
+     * @return How the action is synchronized with other actions of the service, by default exclusively.
+     */
+    ActionConcurrency concurrency() default ActionConcurrency.EXCLUSIVE;
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.binding.xml;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jupnp.model.ValidationException;
+import org.jupnp.model.meta.Action;
+import org.jupnp.model.meta.RemoteService;
+import org.jupnp.model.meta.Service;
+import org.jupnp.model.meta.StateVariable;
+import org.jupnp.util.io.HexBin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+/**
+ * Shares the metadata of identical remote service descriptors, delegating all parsing and generation to
+ * another binder.
+ * <p>
+ * Many devices of the same model publish byte-identical service descriptors. When a remote service is described
+ * with a descriptor of the same service type and SHA-256 digest as a previously described service, the descriptor
+ * is not parsed again. The new service gets its own {@link Action}, {@link org.jupnp.model.meta.ActionArgument}
+ * and {@link StateVariable} instances, as they reference their service, but these share all names, type details,
+ * allowed values and event details with the services described before.
+ * </p>
+ * <p>
+ * The metadata of the last {@link #MAX_POOLED_DESCRIPTORS} distinct descriptors is retained, without references to
+ * any device or service.
+ * </p>
+ */
+public class InterningServiceDescriptorBinder implements ServiceDescriptorBinder {
+
+    public static final int MAX_POOLED_DESCRIPTORS = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(ServiceDescriptorBinder.class);
+
+    protected static class Metadata {
+
+        protected final Action<RemoteService>[] actions;
+        protected final StateVariable<RemoteService>[] stateVariables;
+
+        protected Metadata(Action<RemoteService>[] actions, StateVariable<RemoteService>[] stateVariables) {
+            this.actions = actions;
+            this.stateVariables = stateVariables;
+        }
+    }
+
+    protected final ServiceDescriptorBinder delegate;
+
+    protected final Map<String, Metadata> pool = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Metadata> eldest) {
+            return size() > MAX_POOLED_DESCRIPTORS;
+        }
+    };
+    protected final AtomicLong parsedCount = new AtomicLong();
+    protected final AtomicLong sharedCount = new AtomicLong();
+
+    public InterningServiceDescriptorBinder(ServiceDescriptorBinder delegate) {
+        this.delegate = delegate;
+    }
+
+    public ServiceDescriptorBinder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public <T extends Service> T describe(T undescribedService, String descriptorXml)
+            throws DescriptorBindingException, ValidationException {
+        if (!(undescribedService instanceof RemoteService) || descriptorXml == null || descriptorXml.isEmpty()) {
+            return delegate.describe(undescribedService, descriptorXml);
+        }
+
+        RemoteService service = (RemoteService) undescribedService;
+        String key = createKey(service, descriptorXml);
+
+        Metadata metadata;
+        synchronized (pool) {
+            metadata = pool.get(key);
+        }
+        if (metadata != null) {
+            sharedCount.incrementAndGet();
+            logger.trace("Sharing metadata of identical service descriptor: {}", key);
+            return (T) service.getDevice().newInstance(service.getServiceType(), service.getServiceId(),
+                    service.getDescriptorURI(), service.getControlURI(), service.getEventSubscriptionURI(),
+                    copyActions(metadata.actions), copyStateVariables(metadata.stateVariables));
+        }
+
+        T describedService = delegate.describe(undescribedService, descriptorXml);
+        parsedCount.incrementAndGet();
+
+        // The pooled metadata must not reference the described service, or its device
+        RemoteService remoteService = (RemoteService) describedService;
+        metadata = new Metadata(copyActions(remoteService.getActions()),
+                copyStateVariables(remoteService.getStateVariables()));
+        synchronized (pool) {
+            pool.put(key, metadata);
+        }
+        return describedService;
+    }
+
+    @Override
+    public <T extends Service> T describe(T undescribedService, Document dom)
+            throws DescriptorBindingException, ValidationException {
+        return delegate.describe(undescribedService, dom);
+    }
+
+    @Override
+    public String generate(Service service) throws DescriptorBindingException {
+        return delegate.generate(service);
+    }
+
+    @Override
+    public Document buildDOM(Service service) throws DescriptorBindingException {
+        return delegate.buildDOM(service);
+    }
+
+    /**
+     * @return The number of distinct descriptors with pooled metadata.
+     */
+    public int getPooledCount() {
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * @return The number of remote service descriptors which have been parsed.
+     */
+    public long getParsedCount() {
+        return parsedCount.get();
+    }
+
+    /**
+     * @return The number of remote services which share the metadata of an identical descriptor, without parsing.
+     */
+    public long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    protected String createKey(RemoteService service, String descriptorXml) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(descriptorXml.trim().getBytes(StandardCharsets.UTF_8));
+            return service.getServiceType() + " " + HexBin.bytesToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected Action<RemoteService>[] copyActions(Action<RemoteService>[] actions) {
+        if (actions == null) {
+            return null;
+        }
+        Action<RemoteService>[] copies = new Action[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            copies[i] = actions[i].deepCopy();
+        }
+        return copies;
+    }
+
+    protected StateVariable<RemoteService>[] copyStateVariables(StateVariable<RemoteService>[] stateVariables) {
+        if (stateVariables == null) {
+            return null;
+        }
+        StateVariable<RemoteService>[] copies = new StateVariable[stateVariables.length];
+        for (int i = 0; i < stateVariables.length; i++) {
+            copies[i] = stateVariables[i].deepCopy();
+        }
+        return copies;
+    }
+}
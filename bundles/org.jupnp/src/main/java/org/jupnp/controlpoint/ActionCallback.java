@@ -16,6 +16,8 @@
 package org.jupnp.controlpoint;
 
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.jupnp.model.action.ActionException;
 import org.jupnp.model.action.ActionInvocation;
@@ -54,6 +56,10 @@ import org.jupnp.protocol.sync.SendingAction;
  * upnpService.getControlPoint().execute(getStatusCallback)
  * </pre>
  * <p>
+ * With {@link ControlPoint#executeAsync(ActionCallback)}, no thread is blocked while waiting for the response
+ * of a remote service.
+ * </p>
+ * <p>
  * You can also execute the action synchronously in the same thread using the
  * {@link org.jupnp.controlpoint.ActionCallback.Default} implementation:
  * </p>
@@ -140,28 +146,77 @@ public abstract class ActionCallback implements Runnable {
             RemoteService remoteService = (RemoteService) service;
 
             // Figure out the remote URL where we'd like to send the action request to
-            URL controLURL;
-            try {
-                controLURL = remoteService.getDevice().normalizeURI(remoteService.getControlURI());
-            } catch (IllegalArgumentException e) {
-                failure(actionInvocation, null, "bad control URL: " + remoteService.getControlURI());
+            URL controlURL = getControlURL(remoteService);
+            if (controlURL == null) {
                 return;
             }
 
             // Do it
             SendingAction prot = getControlPoint().getProtocolFactory().createSendingAction(actionInvocation,
-                    controLURL);
+                    controlURL);
             prot.run();
 
-            IncomingActionResponseMessage response = prot.getOutputMessage();
+            responseReceived(prot.getOutputMessage());
+        }
+    }
 
-            if (response == null) {
-                failure(actionInvocation, null);
-            } else if (response.getOperation().isFailed()) {
-                failure(actionInvocation, response.getOperation());
-            } else {
-                success(actionInvocation);
-            }
+    /**
+     * Executes the action like {@link #run()}, without blocking a thread while waiting for the response of a remote
+     * service.
+     * <p>
+     * The request message of a remote action is written in the calling thread, the callback methods are called
+     * by the given executor. A local action is executed entirely by the given executor.
+     * </p>
+     *
+     * @return Completes with the invocation after the callback method has been called.
+     */
+    public CompletableFuture<ActionInvocation> runAsync(Executor executor) {
+        Service service = actionInvocation.getAction().getService();
+
+        if (!(service instanceof RemoteService)) {
+            return CompletableFuture.supplyAsync(() -> {
+                run();
+                return actionInvocation;
+            }, executor);
+        }
+
+        if (getControlPoint() == null) {
+            throw new IllegalStateException("Callback must be executed through ControlPoint");
+        }
+
+        URL controlURL = getControlURL((RemoteService) service);
+        if (controlURL == null) {
+            return CompletableFuture.completedFuture(actionInvocation);
+        }
+
+        SendingAction prot = getControlPoint().getProtocolFactory().createSendingAction(actionInvocation,
+                controlURL);
+        return prot.executeAsync().handleAsync((response, ex) -> {
+            // Like run(), a failure of the transport is handled as no response received
+            responseReceived(ex == null ? response : null);
+            return actionInvocation;
+        }, executor);
+    }
+
+    /**
+     * @return The normalized control URL, or <code>null</code> if the invocation failed because it's invalid.
+     */
+    protected URL getControlURL(RemoteService remoteService) {
+        try {
+            return remoteService.getDevice().normalizeURI(remoteService.getControlURI());
+        } catch (IllegalArgumentException e) {
+            failure(actionInvocation, null, "bad control URL: " + remoteService.getControlURI());
+            return null;
+        }
+    }
+
+    protected void responseReceived(IncomingActionResponseMessage response) {
+        if (response == null) {
+            failure(actionInvocation, null);
+        } else if (response.getOperation().isFailed()) {
+            failure(actionInvocation, response.getOperation());
+        } else {
+            success(actionInvocation);
         }
     }
 
@@ -15,9 +15,11 @@
  */
 package org.jupnp.controlpoint;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.jupnp.UpnpServiceConfiguration;
+import org.jupnp.model.action.ActionInvocation;
 import org.jupnp.model.message.header.UpnpHeader;
 import org.jupnp.protocol.ProtocolFactory;
 import org.jupnp.registry.Registry;
@@ -45,5 +47,24 @@ public interface ControlPoint {
 
     Future execute(ActionCallback callback);
 
+    /**
+     * Executes the action without blocking a thread while waiting for the response of a remote service.
+     * <p>
+     * The default implementation runs the callback with the
+     * {@link UpnpServiceConfiguration#getSyncProtocolExecutorService()}, like {@link #execute(ActionCallback)}.
+     * </p>
+     *
+     * @return Completes with the invocation, after the <code>success()</code> or <code>failure()</code> method of
+     *         the callback has been called.
+     * @see ActionCallback#runAsync(java.util.concurrent.Executor)
+     */
+    default CompletableFuture<ActionInvocation> executeAsync(ActionCallback callback) {
+        callback.setControlPoint(this);
+        return CompletableFuture.supplyAsync(() -> {
+            callback.run();
+            return callback.getActionInvocation();
+        }, getConfiguration().getSyncProtocolExecutorService());
+    }
+
     void execute(SubscriptionCallback callback);
 }
@@ -15,12 +15,14 @@
  */
 package org.jupnp.controlpoint;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.controlpoint.event.ExecuteAction;
 import org.jupnp.controlpoint.event.Search;
+import org.jupnp.model.action.ActionInvocation;
 import org.jupnp.model.message.header.MXHeader;
 import org.jupnp.model.message.header.STAllHeader;
 import org.jupnp.model.message.header.UpnpHeader;
@@ -111,6 +113,13 @@ public class ControlPointImpl implements ControlPoint {
         return executor.submit(callback);
     }
 
+    @Override
+    public CompletableFuture<ActionInvocation> executeAsync(ActionCallback callback) {
+        logger.trace("Invoking action asynchronously: {}", callback);
+        callback.setControlPoint(this);
+        return callback.runAsync(getConfiguration().getSyncProtocolExecutorService());
+    }
+
     @Override
     public void execute(SubscriptionCallback callback) {
         logger.trace("Invoking subscription in background: {}", callback);
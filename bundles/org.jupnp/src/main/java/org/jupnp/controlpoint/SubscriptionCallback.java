@@ -252,7 +252,8 @@ public abstract class SubscriptionCallback implements Runnable {
             failed(subscription, null, e);
             return;
         }
-        protocol.run();
+        // The subscription is established or failed by the protocol when the response is received
+        protocol.executeAsync();
     }
 
     public synchronized void end() {
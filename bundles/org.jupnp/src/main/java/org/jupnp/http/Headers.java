@@ -162,6 +162,14 @@ public class Headers implements Map<String, List<String>> {
         l.add(value);
     }
 
+    /**
+     * Adds a value without normalizing the key, use only with keys which are already normalized.
+     */
+    protected void addNormalized(String normalizedKey, String value) {
+        List<String> l = map.computeIfAbsent(normalizedKey, k -> new LinkedList<>());
+        l.add(value);
+    }
+
     public void set(String key, String value) {
         LinkedList<String> l = new LinkedList<>();
         l.add(value);
@@ -218,6 +226,18 @@ public class Headers implements Map<String, List<String>> {
         return sb.toString();
     }
 
+    /**
+     * @return The index of the next line feed at or after <code>from</code>, or <code>end</code> if there is none.
+     */
+    public static int findLineEnd(byte[] data, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (data[i] == LF) {
+                return i;
+            }
+        }
+        return end;
+    }
+
     protected String[] splitHeader(String sb) {
         int nameStart;
         int nameEnd;
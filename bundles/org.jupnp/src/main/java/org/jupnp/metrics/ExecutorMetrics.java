@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.jupnp.QueueingThreadPoolExecutor;
+
+/**
+ * Reports the queue depth and rejections of thread pools as {@link UpnpMetrics#EXECUTOR_QUEUE_DEPTH} and
+ * {@link UpnpMetrics#EXECUTOR_REJECTIONS}, and their sizing and saturation as
+ * {@link UpnpMetrics#EXECUTOR_ACTIVE_THREADS}, {@link UpnpMetrics#EXECUTOR_POOL_SIZE} and
+ * {@link UpnpMetrics#EXECUTOR_MAX_POOL_SIZE}.
+ */
+public class ExecutorMetrics {
+
+    private ExecutorMetrics() {
+    }
+
+    /**
+     * Registers the queue depth and thread gauges and wraps the rejection handler of the executor, if it is a
+     * <code>ThreadPoolExecutor</code>; other executors are ignored.
+     *
+     * @param metrics Receives the measurements.
+     * @param name The tag of the measurements.
+     * @param executor The monitored executor.
+     * @return The given executor.
+     */
+    public static <E extends Executor> E monitor(UpnpMetrics metrics, String name, E executor) {
+        if (!(executor instanceof ThreadPoolExecutor)) {
+            return executor;
+        }
+        ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+        metrics.gauge(UpnpMetrics.EXECUTOR_QUEUE_DEPTH, name, () -> threadPool.getQueue().size());
+        metrics.gauge(UpnpMetrics.EXECUTOR_ACTIVE_THREADS, name, threadPool::getActiveCount);
+        metrics.gauge(UpnpMetrics.EXECUTOR_POOL_SIZE, name, threadPool::getPoolSize);
+        metrics.gauge(UpnpMetrics.EXECUTOR_MAX_POOL_SIZE, name, threadPool::getMaximumPoolSize);
+
+        // Queues all tasks it can't run immediately, it never rejects and doesn't allow replacing its handler
+        if (!(threadPool instanceof QueueingThreadPoolExecutor)) {
+            RejectedExecutionHandler handler = threadPool.getRejectedExecutionHandler();
+            threadPool.setRejectedExecutionHandler((runnable, pool) -> {
+                metrics.increment(UpnpMetrics.EXECUTOR_REJECTIONS, name);
+                handler.rejectedExecution(runnable, pool);
+            });
+        }
+        return executor;
+    }
+}
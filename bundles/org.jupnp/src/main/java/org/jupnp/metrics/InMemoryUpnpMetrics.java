@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps all measurements in memory, for inspection at runtime or a {@link #dump()} in text form.
+ * <p>
+ * Counters and histograms are created on first use and are never removed, except by {@link #reset()}. The number
+ * of metrics is bounded by the names and tags used by the stack, remote hosts being the largest set.
+ * </p>
+ */
+public class InMemoryUpnpMetrics implements UpnpMetrics {
+
+    private static final String NO_TAG = "";
+
+    protected final Map<String, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+    protected final Map<String, Map<String, Histogram>> histograms = new ConcurrentHashMap<>();
+    protected final Map<String, Map<String, LongSupplier>> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(String name, String tag) {
+        get(counters, name, tag, t -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordDuration(String name, String tag, long nanos) {
+        get(histograms, name, tag, t -> new Histogram()).record(nanos);
+    }
+
+    @Override
+    public void gauge(String name, String tag, LongSupplier value) {
+        gauges.computeIfAbsent(name, n -> new ConcurrentHashMap<>()).put(tag != null ? tag : NO_TAG, value);
+    }
+
+    /**
+     * @return The value of the counter, <code>0</code> if it was never incremented.
+     */
+    public long getCount(String name, String tag) {
+        LongAdder counter = find(counters, name, tag);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * @return The histogram, or <code>null</code> if no duration was recorded.
+     */
+    public Histogram getHistogram(String name, String tag) {
+        return find(histograms, name, tag);
+    }
+
+    /**
+     * @return The current value of the gauge, or <code>null</code> if no such gauge is registered.
+     */
+    public Long getGaugeValue(String name, String tag) {
+        LongSupplier gauge = find(gauges, name, tag);
+        return gauge != null ? gauge.getAsLong() : null;
+    }
+
+    /**
+     * Removes all counters and histograms, gauges stay registered.
+     */
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    /**
+     * @return All metrics with their current values, one per line and sorted by name and tag.
+     */
+    public String dump() {
+        Map<String, String> lines = new TreeMap<>();
+        forEach(counters, (key, counter) -> lines.put(key, key + " = " + counter.sum()));
+        forEach(gauges, (key, gauge) -> lines.put(key, key + " = " + gauge.getAsLong()));
+        forEach(histograms,
+                (key, histogram) -> lines.put(key,
+                        String.format("%s count=%d mean=%s p50=%s p99=%s max=%s", key, histogram.getCount(),
+                                millis(histogram.getMeanNanos()), millis(histogram.getPercentileNanos(50)),
+                                millis(histogram.getPercentileNanos(99)), millis(histogram.getMaxNanos()))));
+
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines.values()) {
+            sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getClass().getSimpleName() + ") " + counters.size() + " counters, " + histograms.size()
+                + " histograms, " + gauges.size() + " gauges";
+    }
+
+    private static <T> T get(Map<String, Map<String, T>> metrics, String name, String tag,
+            Function<String, T> factory) {
+        String key = tag != null ? tag : NO_TAG;
+        Map<String, T> tagged = metrics.get(name);
+        if (tagged == null) {
+            tagged = metrics.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        }
+        T metric = tagged.get(key);
+        return metric != null ? metric : tagged.computeIfAbsent(key, factory);
+    }
+
+    private static <T> T find(Map<String, Map<String, T>> metrics, String name, String tag) {
+        Map<String, T> tagged = metrics.get(name);
+        return tagged != null ? tagged.get(tag != null ? tag : NO_TAG) : null;
+    }
+
+    private static <T> void forEach(Map<String, Map<String, T>> metrics, BiConsumer<String, T> action) {
+        for (Map.Entry<String, Map<String, T>> named : metrics.entrySet()) {
+            for (Map.Entry<String, T> tagged : named.getValue().entrySet()) {
+                String key = NO_TAG.equals(tagged.getKey()) ? named.getKey()
+                        : named.getKey() + "{" + tagged.getKey() + "}";
+                action.accept(key, tagged.getValue());
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+}
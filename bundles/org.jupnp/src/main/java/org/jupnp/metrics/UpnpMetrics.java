@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Receives counters, durations and gauges of the UPnP stack, for monitoring.
+ * <p>
+ * The stack reports to the instance returned by {@link org.jupnp.UpnpServiceConfiguration#getMetrics()}. Implement
+ * this interface to bridge the measurements to a metrics library, the stack itself doesn't depend on any. Every
+ * measurement has a name, one of the constants of this interface, and a tag further qualifying it, for example the
+ * message type or the remote host.
+ * </p>
+ * <p>
+ * Implementations are called on hot paths by many threads concurrently, they must be thread-safe and must not
+ * block.
+ * </p>
+ */
+public interface UpnpMetrics {
+
+    /**
+     * Received UDP datagrams, tagged with the request method (<code>NOTIFY</code>, <code>M-SEARCH</code>) or
+     * <code>RESPONSE</code>.
+     */
+    String DATAGRAMS_RECEIVED = "datagrams.received";
+
+    /**
+     * Sent UDP datagram messages, tagged like {@link #DATAGRAMS_RECEIVED}.
+     */
+    String DATAGRAMS_SENT = "datagrams.sent";
+
+    /**
+     * Search responses, tagged <code>sent</code> (answering a search) or <code>received</code>.
+     */
+    String SEARCH_RESPONSES = "search.responses";
+
+    /**
+     * Execution time of synchronous protocols, tagged with the protocol class name.
+     */
+    String PROTOCOL_DURATION = "protocol.duration";
+
+    /**
+     * Time until the response of an HTTP request is received, tagged with the remote host.
+     */
+    String HTTP_CLIENT_DURATION = "http.client.duration";
+
+    /**
+     * HTTP requests failed or without response, tagged with the remote host.
+     */
+    String HTTP_CLIENT_FAILURES = "http.client.failures";
+
+    /**
+     * HTTP client connections opened, tagged with the remote host.
+     */
+    String HTTP_CLIENT_CONNECTIONS_OPENED = "http.client.connections.opened";
+
+    /**
+     * HTTP requests sent on a kept-alive connection opened for a previous request, tagged with the remote host.
+     */
+    String HTTP_CLIENT_CONNECTIONS_REUSED = "http.client.connections.reused";
+
+    /**
+     * Gauge of the tasks waiting in the queue of an executor, tagged with the executor name.
+     */
+    String EXECUTOR_QUEUE_DEPTH = "executor.queue.depth";
+
+    /**
+     * Tasks rejected by an executor, tagged with the executor name.
+     */
+    String EXECUTOR_REJECTIONS = "executor.rejections";
+
+    /**
+     * Gauge of the threads actively executing tasks in an executor, tagged with the executor name.
+     */
+    String EXECUTOR_ACTIVE_THREADS = "executor.active.threads";
+
+    /**
+     * Gauge of the threads currently in the pool of an executor, tagged with the executor name.
+     */
+    String EXECUTOR_POOL_SIZE = "executor.pool.size";
+
+    /**
+     * Gauge of the maximum number of threads of an executor, tagged with the executor name. An executor is
+     * saturated when its {@link #EXECUTOR_ACTIVE_THREADS} reach this size and further tasks are queued.
+     */
+    String EXECUTOR_MAX_POOL_SIZE = "executor.pool.max";
+
+    /**
+     * Gauge of the devices in the registry, tagged <code>local</code> or <code>remote</code>.
+     */
+    String REGISTRY_DEVICES = "registry.devices";
+
+    /**
+     * Execution time of a registry maintenance run.
+     */
+    String REGISTRY_MAINTENANCE_DURATION = "registry.maintenance.duration";
+
+    /**
+     * Time from receiving the device descriptor of a remote device until all its service descriptors have been
+     * retrieved and parsed.
+     */
+    String DEVICE_HYDRATION_DURATION = "device.hydration.duration";
+
+    /**
+     * Time from a state variable change until the subscriber confirmed the event, tagged with the service type.
+     */
+    String GENA_DELIVERY_LAG = "gena.delivery.lag";
+
+    /**
+     * Ignores all measurements.
+     */
+    UpnpMetrics DISABLED = new UpnpMetrics() {
+
+        @Override
+        public void increment(String name, String tag) {
+        }
+
+        @Override
+        public void recordDuration(String name, String tag, long nanos) {
+        }
+
+        @Override
+        public void gauge(String name, String tag, LongSupplier value) {
+        }
+    };
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param name The name of the counter.
+     * @param tag The qualifier of the counter, or <code>null</code>.
+     */
+    void increment(String name, String tag);
+
+    /**
+     * Records a duration in a histogram.
+     *
+     * @param name The name of the histogram.
+     * @param tag The qualifier of the histogram, or <code>null</code>.
+     * @param nanos The duration in nanoseconds.
+     */
+    void recordDuration(String name, String tag, long nanos);
+
+    /**
+     * Records the time since the start of a protocol as {@link #PROTOCOL_DURATION}, tagged with the simple name of
+     * the protocol's class. Anonymous subclasses are reported as their named supertype.
+     *
+     * @param protocol The executed protocol.
+     * @param startNanos The {@link System#nanoTime()} when the protocol started.
+     */
+    default void recordProtocolDuration(Object protocol, long startNanos) {
+        Class<?> type = protocol.getClass().isAnonymousClass() ? protocol.getClass().getSuperclass()
+                : protocol.getClass();
+        recordDuration(PROTOCOL_DURATION, type.getSimpleName(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Registers a gauge, sampled when the metrics are read. Registering the same name and tag again replaces the
+     * previous gauge.
+     *
+     * @param name The name of the gauge.
+     * @param tag The qualifier of the gauge, or <code>null</code>.
+     * @param value Returns the current value, must be cheap and thread-safe.
+     */
+    void gauge(String name, String tag, LongSupplier value);
+}
@@ -20,11 +20,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.jupnp.internal.compat.java.beans.PropertyChangeEvent;
 import org.jupnp.internal.compat.java.beans.PropertyChangeListener;
 import org.jupnp.internal.compat.java.beans.PropertyChangeSupport;
+import org.jupnp.model.action.ActionConcurrency;
 import org.jupnp.model.meta.LocalService;
 import org.jupnp.model.meta.StateVariable;
 import org.jupnp.model.state.StateVariableAccessor;
@@ -44,6 +45,12 @@ import org.slf4j.LoggerFactory;
  * bean is slow and requires more time for typical action executions or state
  * variable reading.
  * </p>
+ * <p>
+ * Actions declared {@link ActionConcurrency#READ_ONLY} are executed at the same time as
+ * other read-only actions, with a shared lock. Actions declared {@link ActionConcurrency#THREAD_SAFE}
+ * are executed without any lock. Once the service implementation instance has been created,
+ * {@link #getImplementation()} and {@link #getPropertyChangeSupport()} no longer lock.
+ * </p>
  *
  * @author Christian Bauer
  * @author Jochen Hiller - Changed to use Compact2 compliant Java Beans
@@ -54,11 +61,12 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
 
     protected final LocalService<T> service;
     protected final Class<T> serviceClass;
-    protected final ReentrantLock lock = new ReentrantLock(true);
+    // Subclasses use the lock() and unlock() hooks
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(true);
 
-    // Locking!
-    protected T serviceImpl;
-    protected PropertyChangeSupport propertyChangeSupport;
+    // Locking! Both are set once by init(), the property change support last
+    protected volatile T serviceImpl;
+    protected volatile PropertyChangeSupport propertyChangeSupport;
 
     protected DefaultServiceManager(LocalService<T> service) {
         this(service, null);
@@ -73,7 +81,7 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
 
     protected void lock() {
         try {
-            if (lock.tryLock(getLockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+            if (readWriteLock.writeLock().tryLock(getLockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
                 logger.trace("Acquired lock");
             } else {
                 throw new RuntimeException("Failed to acquire lock in milliseconds: " + getLockTimeoutMillis());
@@ -85,7 +93,25 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
 
     protected void unlock() {
         logger.trace("Releasing lock");
-        lock.unlock();
+        readWriteLock.writeLock().unlock();
+    }
+
+    protected void lockShared() {
+        try {
+            if (readWriteLock.readLock().tryLock(getLockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                logger.trace("Acquired shared lock");
+            } else {
+                throw new RuntimeException(
+                        "Failed to acquire shared lock in milliseconds: " + getLockTimeoutMillis());
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Failed to acquire shared lock:" + e);
+        }
+    }
+
+    protected void unlockShared() {
+        logger.trace("Releasing shared lock");
+        readWriteLock.readLock().unlock();
     }
 
     protected int getLockTimeoutMillis() {
@@ -99,6 +125,9 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
 
     @Override
     public T getImplementation() {
+        if (propertyChangeSupport != null) {
+            return serviceImpl;
+        }
         lock();
         try {
             if (serviceImpl == null) {
@@ -112,6 +141,10 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
 
     @Override
     public PropertyChangeSupport getPropertyChangeSupport() {
+        PropertyChangeSupport initialized = propertyChangeSupport;
+        if (initialized != null) {
+            return initialized;
+        }
         lock();
         try {
             if (propertyChangeSupport == null) {
@@ -133,6 +166,30 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
         }
     }
 
+    /**
+     * Executes an action command with the given concurrency, the service implementation instance is created first
+     * if necessary.
+     */
+    public void execute(Command<T> cmd, ActionConcurrency concurrency) throws Exception {
+        switch (concurrency) {
+            case READ_ONLY:
+                getImplementation();
+                lockShared();
+                try {
+                    cmd.execute(this);
+                } finally {
+                    unlockShared();
+                }
+                break;
+            case THREAD_SAFE:
+                getImplementation();
+                cmd.execute(this);
+                break;
+            default:
+                execute(cmd);
+        }
+    }
+
     @Override
     public Collection<StateVariableValue> getCurrentState() throws Exception {
         lock();
@@ -192,8 +249,9 @@ public class DefaultServiceManager<T> implements ServiceManager<T> {
             serviceImpl = createServiceInstance();
 
             // How the implementation instance will tell us about property changes
-            propertyChangeSupport = createPropertyChangeSupport(serviceImpl);
-            propertyChangeSupport.addPropertyChangeListener(createPropertyChangeListener(serviceImpl));
+            PropertyChangeSupport support = createPropertyChangeSupport(serviceImpl);
+            support.addPropertyChangeListener(createPropertyChangeListener(serviceImpl));
+            propertyChangeSupport = support;
 
         } catch (Exception e) {
             throw new RuntimeException("Could not initialize implementation", e);
@@ -134,16 +134,59 @@ public class XMLUtil {
     }
 
     public static String encodeText(String s, boolean encodeQuotes) {
-        s = s.replaceAll("&", "&amp;");
-        s = s.replaceAll("<", "&lt;");
-        s = s.replaceAll(">", "&gt;");
-        if (encodeQuotes) {
-            s = s.replaceAll("'", "&apos;");
-            s = s.replaceAll("\"", "&quot;");
+        for (int i = 0; i < s.length(); i++) {
+            if (isEncoded(s.charAt(i), encodeQuotes)) {
+                StringBuilder b = new StringBuilder(s.length() + 16);
+                b.append(s, 0, i);
+                encodeText(b, s, i, encodeQuotes);
+                return b.toString();
+            }
         }
         return s;
     }
 
+    /**
+     * Appends the text to the builder, encoding <code>&amp;</code>, <code>&lt;</code>, <code>&gt;</code>, and
+     * optionally quotes, in a single pass.
+     */
+    public static void encodeText(StringBuilder b, String s, boolean encodeQuotes) {
+        encodeText(b, s, 0, encodeQuotes);
+    }
+
+    protected static void encodeText(StringBuilder b, String s, int start, boolean encodeQuotes) {
+        int unencoded = start;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!isEncoded(c, encodeQuotes)) {
+                continue;
+            }
+            b.append(s, unencoded, i);
+            switch (c) {
+                case '&':
+                    b.append("&amp;");
+                    break;
+                case '<':
+                    b.append("&lt;");
+                    break;
+                case '>':
+                    b.append("&gt;");
+                    break;
+                case '\'':
+                    b.append("&apos;");
+                    break;
+                default:
+                    b.append("&quot;");
+                    break;
+            }
+            unencoded = i + 1;
+        }
+        b.append(s, unencoded, s.length());
+    }
+
+    private static boolean isEncoded(char c, boolean encodeQuotes) {
+        return c == '&' || c == '<' || c == '>' || (encodeQuotes && (c == '\'' || c == '"'));
+    }
+
     public static Element appendNewElement(Document document, Element parent, Enum el) {
         return appendNewElement(document, parent, el.toString());
     }
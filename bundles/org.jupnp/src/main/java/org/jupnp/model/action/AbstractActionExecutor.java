@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.jupnp.model.Command;
+import org.jupnp.model.DefaultServiceManager;
 import org.jupnp.model.ServiceManager;
 import org.jupnp.model.meta.Action;
 import org.jupnp.model.meta.ActionArgument;
@@ -40,6 +41,7 @@ public abstract class AbstractActionExecutor implements ActionExecutor {
     private final Logger logger = LoggerFactory.getLogger(AbstractActionExecutor.class);
 
     protected Map<ActionArgument<LocalService>, StateVariableAccessor> outputArgumentAccessors = new HashMap<>();
+    protected ActionConcurrency concurrency = ActionConcurrency.EXCLUSIVE;
 
     protected AbstractActionExecutor() {
     }
@@ -52,6 +54,18 @@ public abstract class AbstractActionExecutor implements ActionExecutor {
         return outputArgumentAccessors;
     }
 
+    public ActionConcurrency getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Only a {@link DefaultServiceManager} executes actions concurrently, other managers execute all actions the
+     * same way.
+     */
+    public void setConcurrency(ActionConcurrency concurrency) {
+        this.concurrency = concurrency;
+    }
+
     /**
      * Obtains the service implementation instance from the {@link org.jupnp.model.ServiceManager}, handles exceptions.
      */
@@ -68,7 +82,7 @@ public abstract class AbstractActionExecutor implements ActionExecutor {
                 throw new IllegalStateException("Service has no implementation factory, can't get service instance");
             }
 
-            service.getManager().execute(new Command() {
+            Command command = new Command() {
                 @Override
                 public void execute(ServiceManager serviceManager) throws Exception {
                     AbstractActionExecutor.this.execute(actionInvocation, serviceManager.getImplementation());
@@ -78,7 +92,14 @@ public abstract class AbstractActionExecutor implements ActionExecutor {
                 public String toString() {
                     return "Action invocation: " + actionInvocation.getAction();
                 }
-            });
+            };
+
+            if (getConcurrency() != ActionConcurrency.EXCLUSIVE
+                    && service.getManager() instanceof DefaultServiceManager) {
+                ((DefaultServiceManager) service.getManager()).execute(command, getConcurrency());
+            } else {
+                service.getManager().execute(command);
+            }
 
         } catch (ActionException e) {
             logger.trace("ActionException thrown by service, wrapping in invocation and returning", e);
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.model.action;
+
+/**
+ * How the execution of a local action is synchronized with other actions of the same service, by the
+ * {@link org.jupnp.model.DefaultServiceManager}.
+ * <p>
+ * Declared with {@link org.jupnp.binding.annotations.UpnpAction#concurrency()}.
+ * </p>
+ */
+public enum ActionConcurrency {
+
+    /**
+     * The action has exclusive access to the service implementation, no other action is executed and no state is
+     * read at the same time. This is the default.
+     */
+    EXCLUSIVE,
+
+    /**
+     * The action doesn't change the state of the service, it is executed at the same time as other read-only
+     * actions, but not while an exclusive action is executed. A read-only action must not fire property changes.
+     */
+    READ_ONLY,
+
+    /**
+     * The service implementation synchronizes the action itself, it is executed without the lock of the service
+     * manager, at the same time as any other action.
+     */
+    THREAD_SAFE
+}
@@ -15,6 +15,7 @@
  */
 package org.jupnp.model.action;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -31,8 +32,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Invokes methods on a service implementation instance with reflection.
- *
+ * Invokes methods on a service implementation instance.
+ * <p>
+ * The method is invoked with a method handle created once, or with reflection if the method can't be accessed with
+ * a method handle.
+ * </p>
  * <p>
  * If the method has an additional last parameter of type
  * {@link org.jupnp.model.profile.RemoteClientInfo}, the details
@@ -47,15 +51,18 @@ public class MethodActionExecutor extends AbstractActionExecutor {
     private final Logger logger = LoggerFactory.getLogger(MethodActionExecutor.class);
 
     protected Method method;
+    protected MethodHandle invoker;
 
     public MethodActionExecutor(Method method) {
         this.method = method;
+        this.invoker = Reflections.createInvoker(method);
     }
 
     public MethodActionExecutor(Map<ActionArgument<LocalService>, StateVariableAccessor> outputArgumentAccessors,
             Method method) {
         super(outputArgumentAccessors);
         this.method = method;
+        this.invoker = Reflections.createInvoker(method);
     }
 
     public Method getMethod() {
@@ -71,7 +78,7 @@ public class MethodActionExecutor extends AbstractActionExecutor {
         // Simple case: no output arguments
         if (!actionInvocation.getAction().hasOutputArguments()) {
             logger.trace("Calling local service method with no output arguments: {}", method);
-            Reflections.invoke(method, serviceImpl, inputArgumentValues);
+            invoke(serviceImpl, inputArgumentValues);
             return;
         }
 
@@ -84,20 +91,20 @@ public class MethodActionExecutor extends AbstractActionExecutor {
 
             logger.trace(
                     "Action method is void, calling declared accessors(s) on service instance to retrieve output argument(s)");
-            Reflections.invoke(method, serviceImpl, inputArgumentValues);
+            invoke(serviceImpl, inputArgumentValues);
             result = readOutputArgumentValues(actionInvocation.getAction(), serviceImpl);
 
         } else if (isUseOutputArgumentAccessors(actionInvocation)) {
 
             logger.trace(
                     "Action method is not void, calling declared accessor(s) on returned instance to retrieve output argument(s)");
-            Object returnedInstance = Reflections.invoke(method, serviceImpl, inputArgumentValues);
+            Object returnedInstance = invoke(serviceImpl, inputArgumentValues);
             result = readOutputArgumentValues(actionInvocation.getAction(), returnedInstance);
 
         } else {
 
             logger.trace("Action method is not void, using returned value as (single) output argument");
-            result = Reflections.invoke(method, serviceImpl, inputArgumentValues);
+            result = invoke(serviceImpl, inputArgumentValues);
             isArrayResultProcessed = false; // We never want to process e.g. byte[] as individual variable values
         }
 
@@ -117,6 +124,13 @@ public class MethodActionExecutor extends AbstractActionExecutor {
         }
     }
 
+    protected Object invoke(Object serviceImpl, Object[] inputArgumentValues) throws Exception {
+        if (invoker != null) {
+            return Reflections.invoke(invoker, serviceImpl, inputArgumentValues);
+        }
+        return Reflections.invoke(method, serviceImpl, inputArgumentValues);
+    }
+
     protected boolean isUseOutputArgumentAccessors(ActionInvocation<LocalService> actionInvocation) {
         for (ActionArgument argument : actionInvocation.getAction().getOutputArguments()) {
             // If there is one output argument for which we have an accessor, all arguments need accessors
@@ -15,10 +15,16 @@
  */
 package org.jupnp.model.message;
 
+import java.net.DatagramPacket;
 import java.net.InetAddress;
 
 /**
  * A UDP datagram request or response message for sending, with destination address and port.
+ * <p>
+ * The message is rendered into a datagram only once, when it is sent for the first time. The
+ * same datagram is then sent on all network interfaces and reused if the message is sent again,
+ * e.g. for bulk repetitions of notifications and searches. Don't modify the message after sending it.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -28,6 +34,7 @@ public abstract class OutgoingDatagramMessage<O extends UpnpOperation> extends U
     private int destinationPort;
     // For performance reasons, headers of this message are not normalized
     private UpnpHeaders headers = new UpnpHeaders(false);
+    private DatagramPacket datagram;
 
     protected OutgoingDatagramMessage(O operation, InetAddress destinationAddress, int destinationPort) {
         super(operation);
@@ -54,4 +61,15 @@ public abstract class OutgoingDatagramMessage<O extends UpnpOperation> extends U
     public UpnpHeaders getHeaders() {
         return this.headers;
     }
+
+    /**
+     * @return The datagram rendered when this message was sent the first time, or <code>null</code>.
+     */
+    public DatagramPacket getDatagram() {
+        return datagram;
+    }
+
+    public void setDatagram(DatagramPacket datagram) {
+        this.datagram = datagram;
+    }
 }
@@ -16,9 +16,11 @@
 package org.jupnp.model.message;
 
 import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.jupnp.http.Headers;
@@ -34,6 +36,14 @@ import org.slf4j.LoggerFactory;
  */
 public class UpnpHeaders extends Headers {
 
+    /*
+     * Plain HTTP headers used for the validation of cached descriptors, they have no typed UpnpHeader.
+     */
+    public static final String ETAG = "ETag";
+    public static final String LAST_MODIFIED = "Last-Modified";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
     private final Logger logger = LoggerFactory.getLogger(UpnpHeaders.class);
 
     protected Map<UpnpHeader.Type, List<UpnpHeader>> parsedHeaders;
@@ -53,6 +63,96 @@ public class UpnpHeaders extends Headers {
         super(normalizeHeaders);
     }
 
+    /**
+     * Reads headers directly from received bytes, such as a datagram, up to the first empty line.
+     * <p>
+     * Known UPnP header names are matched against the bytes without creating strings, and their typed
+     * {@link UpnpHeader}s are created right away.
+     * Folded header values are merged, in that case all typed headers are parsed again when accessed.
+     * </p>
+     *
+     * @param data The received bytes.
+     * @param offset The index of the first header line.
+     * @param end The index after the last received byte.
+     */
+    public UpnpHeaders(byte[] data, int offset, int end) {
+        parsedHeaders = new LinkedHashMap<>();
+        String lastKey = null;
+        int pos = offset;
+        while (pos < end) {
+            int lineEnd = findLineEnd(data, pos, end);
+            int contentEnd = lineEnd > pos && data[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd == pos) {
+                break;
+            }
+            if (lastKey != null && (data[pos] == ' ' || data[pos] == '\t')) {
+                List<String> current = get(lastKey);
+                int lastPos = current.size() - 1;
+                current.set(lastPos, current.get(lastPos)
+                        + new String(data, pos, contentEnd - pos, StandardCharsets.ISO_8859_1).trim());
+                parsedHeaders = null;
+            } else {
+                lastKey = readHeader(data, pos, contentEnd);
+            }
+            pos = lineEnd + 1;
+        }
+    }
+
+    /**
+     * @return The key of the added header.
+     */
+    private String readHeader(byte[] data, int start, int end) {
+        int nameStart = skipWhitespace(data, start, end);
+        int nameEnd = nameStart;
+        while (nameEnd < end && data[nameEnd] != ':' && !isWhitespace(data[nameEnd])) {
+            nameEnd++;
+        }
+
+        int valueStart = nameEnd;
+        while (valueStart < end && data[valueStart] != ':') {
+            valueStart++;
+        }
+        valueStart = skipWhitespace(data, Math.min(valueStart + 1, end), end);
+        int valueEnd = end;
+        while (valueEnd > valueStart && isWhitespace(data[valueEnd - 1])) {
+            valueEnd--;
+        }
+        String value = valueStart < valueEnd
+                ? new String(data, valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1)
+                : null;
+
+        KnownHeader knownHeader = KnownHeader.find(data, nameStart, nameEnd);
+        if (knownHeader == null) {
+            String name = new String(data, nameStart, nameEnd - nameStart, StandardCharsets.ISO_8859_1);
+            super.add(name, value);
+            return name;
+        }
+
+        addNormalized(knownHeader.key, value);
+        if (parsedHeaders != null) {
+            UpnpHeader upnpHeader = UpnpHeader.newInstance(knownHeader.type, value);
+            if (upnpHeader == null || upnpHeader.getValue() == null) {
+                logger.trace("Ignoring known but irrelevant header (value violates the UDA specification?) '{}': {}",
+                        knownHeader.type.getHttpName(), value);
+            } else {
+                addParsedValue(knownHeader.type, upnpHeader);
+            }
+        }
+        return knownHeader.key;
+    }
+
+    private static int skipWhitespace(byte[] data, int from, int end) {
+        int result = from;
+        while (result < end && isWhitespace(data[result])) {
+            result++;
+        }
+        return result;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return Character.isWhitespace((char) (b & 0xFF));
+    }
+
     protected void parseHeaders() {
         // This runs as late as possible and only when necessary (getter called and map is dirty)
         parsedHeaders = new LinkedHashMap<>();
@@ -190,4 +290,54 @@ public class UpnpHeaders extends Headers {
             logger.trace("####################################################################");
         }
     }
+
+    /**
+     * A UPnP header name, matched case-insensitive against received bytes.
+     */
+    protected static final class KnownHeader {
+
+        private static final KnownHeader[] KNOWN_HEADERS = createKnownHeaders();
+
+        final byte[] name;
+        final String key;
+        final UpnpHeader.Type type;
+
+        KnownHeader(UpnpHeader.Type type) {
+            this.name = type.getHttpName().getBytes(StandardCharsets.US_ASCII);
+            this.key = type.getHttpName().charAt(0) + type.getHttpName().substring(1).toLowerCase(Locale.ENGLISH);
+            this.type = type;
+        }
+
+        static KnownHeader find(byte[] data, int start, int end) {
+            int length = end - start;
+            for (KnownHeader knownHeader : KNOWN_HEADERS) {
+                if (knownHeader.name.length == length && knownHeader.matches(data, start)) {
+                    return knownHeader;
+                }
+            }
+            return null;
+        }
+
+        boolean matches(byte[] data, int start) {
+            for (int i = 0; i < name.length; i++) {
+                int b = data[start + i];
+                if (b >= 'a' && b <= 'z') {
+                    b -= 'a' - 'A';
+                }
+                if (b != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static KnownHeader[] createKnownHeaders() {
+            UpnpHeader.Type[] types = UpnpHeader.Type.values();
+            KnownHeader[] knownHeaders = new KnownHeader[types.length];
+            for (int i = 0; i < types.length; i++) {
+                knownHeaders[i] = new KnownHeader(types[i]);
+            }
+            return knownHeaders;
+        }
+    }
 }
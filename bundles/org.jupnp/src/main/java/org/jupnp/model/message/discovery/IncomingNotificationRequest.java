@@ -19,6 +19,7 @@ import java.net.URL;
 
 import org.jupnp.model.message.IncomingDatagramMessage;
 import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.header.ConfigIdHeader;
 import org.jupnp.model.message.header.DeviceUSNHeader;
 import org.jupnp.model.message.header.InterfaceMacHeader;
 import org.jupnp.model.message.header.LocationHeader;
@@ -107,4 +108,12 @@ public class IncomingNotificationRequest extends IncomingDatagramMessage<UpnpReq
         }
         return null;
     }
+
+    public Integer getConfigId() {
+        ConfigIdHeader header = getHeaders().getFirstHeader(UpnpHeader.Type.CONFIG_ID, ConfigIdHeader.class);
+        if (header != null) {
+            return header.getValue();
+        }
+        return null;
+    }
 }
@@ -19,6 +19,7 @@ import java.net.URL;
 
 import org.jupnp.model.message.IncomingDatagramMessage;
 import org.jupnp.model.message.UpnpResponse;
+import org.jupnp.model.message.header.ConfigIdHeader;
 import org.jupnp.model.message.header.DeviceUSNHeader;
 import org.jupnp.model.message.header.InterfaceMacHeader;
 import org.jupnp.model.message.header.LocationHeader;
@@ -99,4 +100,12 @@ public class IncomingSearchResponse extends IncomingDatagramMessage<UpnpResponse
         }
         return null;
     }
+
+    public Integer getConfigId() {
+        ConfigIdHeader header = getHeaders().getFirstHeader(UpnpHeader.Type.CONFIG_ID, ConfigIdHeader.class);
+        if (header != null) {
+            return header.getValue();
+        }
+        return null;
+    }
 }
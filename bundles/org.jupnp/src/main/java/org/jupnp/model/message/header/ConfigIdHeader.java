@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.model.message.header;
+
+/**
+ * The <code>CONFIGID.UPNP.ORG</code> header of UDA 1.1 advertisements and search responses.
+ * <p>
+ * A device changes its configuration number whenever its device or service descriptors change.
+ * </p>
+ */
+public class ConfigIdHeader extends UpnpHeader<Integer> {
+
+    public ConfigIdHeader() {
+    }
+
+    public ConfigIdHeader(Integer configId) {
+        setValue(configId);
+    }
+
+    @Override
+    public void setString(String s) throws InvalidHeaderException {
+        try {
+            int configId = Integer.parseInt(s.trim());
+            if (configId < 0) {
+                throw new InvalidHeaderException("Invalid configuration number, must not be negative: " + s);
+            }
+            setValue(configId);
+        } catch (NumberFormatException e) {
+            throw new InvalidHeaderException("Invalid configuration number: " + s, e);
+        }
+    }
+
+    @Override
+    public String getString() {
+        return getValue().toString();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.model.message.header;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.jupnp.model.types.NotificationSubtype;
+import org.jupnp.model.types.UDADeviceType;
+import org.jupnp.model.types.UDAServiceType;
+import org.jupnp.model.types.UDN;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parsers creating {@link UpnpHeader} subtypes from string values, for each {@link UpnpHeader.Type}.
+ * <p>
+ * The built-in parsers of a type are tried in the order of {@link UpnpHeader.Type#getHeaderTypes()}. Each parser
+ * creates its header subtype without reflection, and first checks cheaply if the value can be valid for the
+ * subtype at all, for example if it starts with <code>uuid:</code>. This avoids throwing (and ignoring) an
+ * {@link InvalidHeaderException} for every subtype that doesn't match a valid value.
+ * </p>
+ * <p>
+ * A parser returns <code>null</code> if it can't parse the value. Additional parsers can be registered with
+ * {@link #register(UpnpHeader.Type, Function)}, they are tried before the built-in parsers.
+ * </p>
+ */
+public class UpnpHeaderParserRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpnpHeaderParserRegistry.class);
+
+    private static final String UDA_DEVICE_TYPE_PREFIX = "urn:" + UDADeviceType.DEFAULT_NAMESPACE + ":device:";
+    private static final String UDA_SERVICE_TYPE_PREFIX = "urn:" + UDAServiceType.DEFAULT_NAMESPACE + ":service:";
+    private static final String ROOT_DEVICE = new RootDeviceHeader().getValue();
+    private static final String EVENT = new NTEventHeader().getValue();
+
+    private static volatile Map<UpnpHeader.Type, List<Function<String, UpnpHeader>>> parsers = createParsers();
+
+    private UpnpHeaderParserRegistry() {
+    }
+
+    /**
+     * @param type The type (or name) of the header.
+     * @param headerValue The value of the header, or <code>null</code> for an empty header.
+     * @return The first header created by the parsers of the type, or <code>null</code> if no parser can parse the
+     *         value. For an empty header value, the header of the first parser, without a parsed value.
+     */
+    public static UpnpHeader parse(UpnpHeader.Type type, String headerValue) {
+        for (Function<String, UpnpHeader> parser : parsers.get(type)) {
+            UpnpHeader upnpHeader = parser.apply(headerValue);
+            if (upnpHeader != null) {
+                return upnpHeader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers an additional parser for the given type, it's tried before all previously registered parsers.
+     */
+    public static synchronized void register(UpnpHeader.Type type, Function<String, UpnpHeader> parser) {
+        Map<UpnpHeader.Type, List<Function<String, UpnpHeader>>> newParsers = new EnumMap<>(parsers);
+        List<Function<String, UpnpHeader>> typeParsers = new ArrayList<>();
+        typeParsers.add(parser);
+        typeParsers.addAll(parsers.get(type));
+        newParsers.put(type, List.copyOf(typeParsers));
+        parsers = newParsers;
+    }
+
+    /**
+     * Restores the built-in parsers, removing all registered parsers.
+     */
+    public static synchronized void reset() {
+        parsers = createParsers();
+    }
+
+    /**
+     * Creates a parser calling {@link UpnpHeader#setString(String)} on a new header instance.
+     *
+     * @param constructor Creates the header instance.
+     * @param precheck Must return <code>true</code> for all values the header subtype can parse.
+     */
+    public static Function<String, UpnpHeader> parser(Supplier<? extends UpnpHeader> constructor,
+            Predicate<String> precheck) {
+        return value -> {
+            if (value != null && !precheck.test(value)) {
+                return null;
+            }
+            UpnpHeader upnpHeader = constructor.get();
+            if (value != null) {
+                try {
+                    upnpHeader.setString(value);
+                } catch (InvalidHeaderException e) {
+                    logger.trace("Invalid header value for tested type: {} - {}",
+                            upnpHeader.getClass().getSimpleName(), e.getMessage());
+                    return null;
+                } catch (RuntimeException e) {
+                    logger.error("Error parsing header of type '{}' with value: {}",
+                            upnpHeader.getClass().getSimpleName(), value, e);
+                    return null;
+                }
+            }
+            return upnpHeader;
+        };
+    }
+
+    private static Map<UpnpHeader.Type, List<Function<String, UpnpHeader>>> createParsers() {
+        Map<Class<? extends UpnpHeader>, Function<String, UpnpHeader>> byClass = new HashMap<>();
+
+        byClass.put(USNRootDeviceHeader.class, parser(USNRootDeviceHeader::new,
+                s -> s.startsWith(UDN.PREFIX) && s.endsWith(USNRootDeviceHeader.ROOT_DEVICE_SUFFIX)));
+        byClass.put(DeviceUSNHeader.class, parser(DeviceUSNHeader::new, s -> containsAfterSeparator(s, ":device:")));
+        byClass.put(ServiceUSNHeader.class, parser(ServiceUSNHeader::new, s -> containsAfterSeparator(s, ":service")));
+        byClass.put(UDNHeader.class, parser(UDNHeader::new, s -> s.startsWith(UDN.PREFIX) && !s.contains("::urn")));
+        byClass.put(RootDeviceHeader.class, parser(RootDeviceHeader::new, s -> s.equalsIgnoreCase(ROOT_DEVICE)));
+        byClass.put(NTEventHeader.class, parser(NTEventHeader::new, s -> s.equalsIgnoreCase(EVENT)));
+        byClass.put(STAllHeader.class,
+                parser(STAllHeader::new, s -> s.equals(NotificationSubtype.ALL.getHeaderString())));
+        byClass.put(UDADeviceTypeHeader.class,
+                parser(UDADeviceTypeHeader::new, s -> s.startsWith(UDA_DEVICE_TYPE_PREFIX)));
+        byClass.put(UDAServiceTypeHeader.class,
+                parser(UDAServiceTypeHeader::new, s -> s.startsWith(UDA_SERVICE_TYPE_PREFIX)));
+        byClass.put(DeviceTypeHeader.class, parser(DeviceTypeHeader::new, s -> isTypeURN(s, ":device:")));
+        byClass.put(ServiceTypeHeader.class, parser(ServiceTypeHeader::new, s -> isTypeURN(s, ":service")));
+
+        byClass.put(NTSHeader.class, parser(NTSHeader::new, s -> true));
+        byClass.put(HostHeader.class, parser(HostHeader::new, s -> true));
+        byClass.put(ServerHeader.class, parser(ServerHeader::new, s -> true));
+        byClass.put(LocationHeader.class, parser(LocationHeader::new, s -> true));
+        byClass.put(MaxAgeHeader.class, parser(MaxAgeHeader::new, s -> true));
+        byClass.put(UserAgentHeader.class, parser(UserAgentHeader::new, s -> true));
+        byClass.put(ContentTypeHeader.class, parser(ContentTypeHeader::new, s -> true));
+        byClass.put(MANHeader.class, parser(MANHeader::new, s -> true));
+        byClass.put(MXHeader.class, parser(MXHeader::new, s -> true));
+        byClass.put(EXTHeader.class, parser(EXTHeader::new, s -> true));
+        byClass.put(SoapActionHeader.class, parser(SoapActionHeader::new, s -> true));
+        byClass.put(TimeoutHeader.class, parser(TimeoutHeader::new, s -> true));
+        byClass.put(CallbackHeader.class, parser(CallbackHeader::new, s -> true));
+        byClass.put(SubscriptionIdHeader.class, parser(SubscriptionIdHeader::new, s -> true));
+        byClass.put(EventSequenceHeader.class, parser(EventSequenceHeader::new, s -> true));
+        byClass.put(RangeHeader.class, parser(RangeHeader::new, s -> true));
+        byClass.put(ContentRangeHeader.class, parser(ContentRangeHeader::new, s -> true));
+        byClass.put(PragmaHeader.class, parser(PragmaHeader::new, s -> true));
+        byClass.put(ConfigIdHeader.class, parser(ConfigIdHeader::new, s -> true));
+        byClass.put(InterfaceMacHeader.class, parser(InterfaceMacHeader::new, s -> true));
+        byClass.put(AVClientInfoHeader.class, parser(AVClientInfoHeader::new, s -> true));
+
+        Map<UpnpHeader.Type, List<Function<String, UpnpHeader>>> result = new EnumMap<>(UpnpHeader.Type.class);
+        for (UpnpHeader.Type type : UpnpHeader.Type.values()) {
+            List<Function<String, UpnpHeader>> typeParsers = new ArrayList<>();
+            for (Class<? extends UpnpHeader> headerClass : type.getHeaderTypes()) {
+                Function<String, UpnpHeader> parser = byClass.get(headerClass);
+                if (parser == null) {
+                    throw new IllegalStateException("No parser for header subtype: " + headerClass.getName());
+                }
+                typeParsers.add(parser);
+            }
+            result.put(type, List.copyOf(typeParsers));
+        }
+        return result;
+    }
+
+    /**
+     * Named device and service types (USN) have the form <code>UDN::urn:namespace:(device|service):...</code>.
+     */
+    private static boolean containsAfterSeparator(String s, String token) {
+        String compacted = compact(s);
+        int separator = compacted.indexOf("::");
+        return separator != -1 && compacted.indexOf(token, separator) != -1;
+    }
+
+    private static boolean isTypeURN(String s, String token) {
+        String compacted = compact(s);
+        return compacted.startsWith("urn:") && compacted.contains(token);
+    }
+
+    /**
+     * Device and service type parsing ignores whitespace, rarely present but still accepted.
+     */
+    private static String compact(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isWhitespace(s.charAt(i))) {
+                return s.replaceAll("\\s", "");
+            }
+        }
+        return s;
+    }
+}
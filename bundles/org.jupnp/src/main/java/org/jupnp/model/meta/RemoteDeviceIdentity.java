@@ -37,6 +37,10 @@ import org.jupnp.model.types.UDN;
  * reachable and might be sleeping. (Useful for "stateless" reconnecting control
  * points.)
  * </p>
+ * <p>
+ * Also optional is the configuration number of UDA 1.1 devices, it changes whenever the device's descriptors
+ * change.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -45,28 +49,37 @@ public class RemoteDeviceIdentity extends DeviceIdentity {
     private final URL descriptorURL;
     private final byte[] interfaceMacAddress;
     private final InetAddress discoveredOnLocalAddress;
+    private final Integer configId;
 
     public RemoteDeviceIdentity(UDN udn, RemoteDeviceIdentity template) {
         this(udn, template.getMaxAgeSeconds(), template.getDescriptorURL(), template.getInterfaceMacAddress(),
-                template.getDiscoveredOnLocalAddress());
+                template.getDiscoveredOnLocalAddress(), template.getConfigId());
     }
 
     public RemoteDeviceIdentity(UDN udn, Integer maxAgeSeconds, URL descriptorURL, byte[] interfaceMacAddress,
             InetAddress discoveredOnLocalAddress) {
+        this(udn, maxAgeSeconds, descriptorURL, interfaceMacAddress, discoveredOnLocalAddress, null);
+    }
+
+    public RemoteDeviceIdentity(UDN udn, Integer maxAgeSeconds, URL descriptorURL, byte[] interfaceMacAddress,
+            InetAddress discoveredOnLocalAddress, Integer configId) {
         super(udn, maxAgeSeconds);
         this.descriptorURL = descriptorURL;
         this.interfaceMacAddress = interfaceMacAddress;
         this.discoveredOnLocalAddress = discoveredOnLocalAddress;
+        this.configId = configId;
     }
 
     public RemoteDeviceIdentity(IncomingNotificationRequest notificationRequest) {
         this(notificationRequest.getUDN(), notificationRequest.getMaxAge(), notificationRequest.getLocationURL(),
-                notificationRequest.getInterfaceMacHeader(), notificationRequest.getLocalAddress());
+                notificationRequest.getInterfaceMacHeader(), notificationRequest.getLocalAddress(),
+                notificationRequest.getConfigId());
     }
 
     public RemoteDeviceIdentity(IncomingSearchResponse searchResponse) {
         this(searchResponse.getRootDeviceUDN(), searchResponse.getMaxAge(), searchResponse.getLocationURL(),
-                searchResponse.getInterfaceMacHeader(), searchResponse.getLocalAddress());
+                searchResponse.getInterfaceMacHeader(), searchResponse.getLocalAddress(),
+                searchResponse.getConfigId());
     }
 
     public URL getDescriptorURL() {
@@ -81,6 +94,13 @@ public class RemoteDeviceIdentity extends DeviceIdentity {
         return discoveredOnLocalAddress;
     }
 
+    /**
+     * @return The <code>CONFIGID.UPNP.ORG</code> of the advertisement or search response, or <code>null</code>.
+     */
+    public Integer getConfigId() {
+        return configId;
+    }
+
     public byte[] getWakeOnLANBytes() {
         if (getInterfaceMacAddress() == null) {
             return null;
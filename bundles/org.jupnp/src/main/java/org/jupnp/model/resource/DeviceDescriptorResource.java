@@ -16,15 +16,51 @@
 package org.jupnp.model.resource;
 
 import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.jupnp.model.meta.DeviceDetails;
 import org.jupnp.model.meta.LocalDevice;
 
 /**
+ * Caches the rendered descriptor of the device, for each combination of {@link DeviceDetails} provided to
+ * control points.
+ * <p>
+ * The cache lives as long as the resource, it's discarded when the device is removed from the registry.
+ * </p>
+ *
  * @author Christian Bauer
  */
 public class DeviceDescriptorResource extends Resource<LocalDevice> {
 
+    /**
+     * Bounds the cache if a {@link org.jupnp.model.profile.DeviceDetailsProvider} creates new details for each
+     * request.
+     */
+    public static final int MAX_RENDERED_DESCRIPTORS = 8;
+
+    private final Map<List<DeviceDetails>, RenderedDescriptor> rendered = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<DeviceDetails>, RenderedDescriptor> eldest) {
+            return size() > MAX_RENDERED_DESCRIPTORS;
+        }
+    };
+
     public DeviceDescriptorResource(URI localURI, LocalDevice model) {
         super(localURI, model);
     }
+
+    /**
+     * @param details The details of the root and all embedded devices provided to the requesting control point,
+     *            in the order of {@link LocalDevice#findEmbeddedDevices()}.
+     * @return The descriptor rendered for these details, or <code>null</code>.
+     */
+    public synchronized RenderedDescriptor getRendered(List<DeviceDetails> details) {
+        return rendered.get(details);
+    }
+
+    public synchronized void putRendered(List<DeviceDetails> details, RenderedDescriptor descriptor) {
+        rendered.put(details, descriptor);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.model.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jupnp.util.io.HexBin;
+
+/**
+ * The rendered XML of a device or service descriptor, with an entity tag identifying its content.
+ * <p>
+ * Instances are immutable and shared by all responses; the returned data must not be modified.
+ * </p>
+ */
+public class RenderedDescriptor {
+
+    private final byte[] data;
+    private final String entityTag;
+
+    public RenderedDescriptor(String descriptor) {
+        this.data = descriptor.getBytes(StandardCharsets.UTF_8);
+        this.entityTag = createEntityTag(data);
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return The quoted (strong) entity tag, for the <code>ETag</code> response header.
+     */
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @param ifNoneMatch The value of an <code>If-None-Match</code> request header, or <code>null</code>.
+     * @return <code>true</code> if the header lists the entity tag of this descriptor, or is <code>*</code>.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            // Weak comparison, as required for If-None-Match
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static String createEntityTag(byte[] data) {
+        try {
+            return "\"" + HexBin.bytesToString(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
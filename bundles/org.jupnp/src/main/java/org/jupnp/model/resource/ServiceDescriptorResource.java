@@ -20,11 +20,29 @@ import java.net.URI;
 import org.jupnp.model.meta.LocalService;
 
 /**
+ * Caches the rendered descriptor of the service, which is the same for all control points.
+ * <p>
+ * The cache lives as long as the resource, it's discarded when the device is removed from the registry.
+ * </p>
+ *
  * @author Christian Bauer
  */
 public class ServiceDescriptorResource extends Resource<LocalService> {
 
+    private volatile RenderedDescriptor rendered;
+
     public ServiceDescriptorResource(URI localURI, LocalService model) {
         super(localURI, model);
     }
+
+    /**
+     * @return The rendered descriptor, or <code>null</code>.
+     */
+    public RenderedDescriptor getRendered() {
+        return rendered;
+    }
+
+    public void setRendered(RenderedDescriptor rendered) {
+        this.rendered = rendered;
+    }
 }
@@ -15,21 +15,28 @@
  */
 package org.jupnp.model.state;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 
 import org.jupnp.util.Reflections;
 
 /**
- * Reads the value of a state variable using reflection and a field.
+ * Reads the value of a state variable using a field.
+ * <p>
+ * The field is read with a method handle created once, or with reflection if the field can't be accessed with a
+ * method handle.
+ * </p>
  *
  * @author Christian Bauer
  */
 public class FieldStateVariableAccessor extends StateVariableAccessor {
 
     protected Field field;
+    protected MethodHandle fieldGetter;
 
     public FieldStateVariableAccessor(Field field) {
         this.field = field;
+        this.fieldGetter = Reflections.createGetter(field);
     }
 
     public Field getField() {
@@ -43,6 +50,9 @@ public class FieldStateVariableAccessor extends StateVariableAccessor {
 
     @Override
     public Object read(Object serviceImpl) throws Exception {
+        if (fieldGetter != null) {
+            return Reflections.get(fieldGetter, serviceImpl);
+        }
         return Reflections.get(field, serviceImpl);
     }
 
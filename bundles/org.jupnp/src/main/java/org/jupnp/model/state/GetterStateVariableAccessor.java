@@ -15,21 +15,28 @@
  */
 package org.jupnp.model.state;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 import org.jupnp.util.Reflections;
 
 /**
- * Reads the value of a state variable using reflection and a getter method.
- * 
+ * Reads the value of a state variable using a getter method.
+ * <p>
+ * The getter is called with a method handle created once, or with reflection if the method can't be accessed with
+ * a method handle.
+ * </p>
+ *
  * @author Christian Bauer
  */
 public class GetterStateVariableAccessor extends StateVariableAccessor {
 
     private Method getter;
+    private MethodHandle getterInvoker;
 
     public GetterStateVariableAccessor(Method getter) {
         this.getter = getter;
+        this.getterInvoker = Reflections.createInvoker(getter);
     }
 
     public Method getGetter() {
@@ -43,6 +50,9 @@ public class GetterStateVariableAccessor extends StateVariableAccessor {
 
     @Override
     public Object read(Object serviceImpl) throws Exception {
+        if (getterInvoker != null) {
+            return Reflections.invoke(getterInvoker, serviceImpl);
+        }
         return Reflections.invoke(getGetter(), serviceImpl);
     }
 
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol;
+
+import java.net.URL;
+
+/**
+ * Stores retrieved remote device and service descriptors, so they don't have to be retrieved again.
+ * <p>
+ * A cached descriptor is used without any request if the device advertises the same UDA 1.1 configuration
+ * number (<code>CONFIGID.UPNP.ORG</code>) it had when the descriptor was retrieved. Otherwise it is
+ * revalidated with a conditional request, using the <code>ETag</code> and <code>Last-Modified</code>
+ * headers of the original response. The descriptor of a device without configuration number is used
+ * immediately and revalidated in the background.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ *
+ * @see RetrieveRemoteDescriptors
+ */
+public interface DescriptorCache {
+
+    /**
+     * @return The cached descriptor retrieved from the given URL, or <code>null</code>.
+     */
+    Entry get(URL descriptorURL);
+
+    void put(URL descriptorURL, Entry entry);
+
+    void remove(URL descriptorURL);
+
+    /**
+     * A cached descriptor, with the information required to validate it.
+     */
+    class Entry {
+
+        private final String descriptor;
+        private final Integer configId;
+        private final String entityTag;
+        private final String lastModified;
+
+        /**
+         * @param descriptor The XML descriptor.
+         * @param configId The configuration number of the device, or <code>null</code>.
+         * @param entityTag The <code>ETag</code> response header, or <code>null</code>.
+         * @param lastModified The <code>Last-Modified</code> response header, or <code>null</code>.
+         */
+        public Entry(String descriptor, Integer configId, String entityTag, String lastModified) {
+            this.descriptor = descriptor;
+            this.configId = configId;
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+        }
+
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        public Integer getConfigId() {
+            return configId;
+        }
+
+        public String getEntityTag() {
+            return entityTag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @param currentConfigId The configuration number currently advertised by the device, or <code>null</code>.
+         * @return <code>true</code> if the descriptor can be used without revalidation.
+         */
+        public boolean isCurrent(Integer currentConfigId) {
+            return configId != null && configId.equals(currentConfigId);
+        }
+
+        /**
+         * @return <code>true</code> if the descriptor can be revalidated with a conditional request.
+         */
+        public boolean isRevalidatable() {
+            return entityTag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import org.jupnp.util.io.HexBin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores each descriptor in a properties file in a directory, named after a hash of the descriptor URL.
+ * <p>
+ * Files are replaced atomically, a cache directory can be shared by several processes. I/O errors are logged
+ * and otherwise ignored, the descriptor is then retrieved from the device.
+ * </p>
+ */
+public class FileDescriptorCache implements DescriptorCache {
+
+    protected static final String URL = "url";
+    protected static final String DESCRIPTOR = "descriptor";
+    protected static final String CONFIG_ID = "configId";
+    protected static final String ENTITY_TAG = "entityTag";
+    protected static final String LAST_MODIFIED = "lastModified";
+
+    private final Logger logger = LoggerFactory.getLogger(FileDescriptorCache.class);
+
+    protected final Path directory;
+
+    public FileDescriptorCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public Entry get(URL descriptorURL) {
+        Path file = getFile(descriptorURL);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not read cached descriptor: {}", file, e);
+            return null;
+        }
+
+        String descriptor = properties.getProperty(DESCRIPTOR);
+        if (!descriptorURL.toString().equals(properties.getProperty(URL)) || descriptor == null) {
+            logger.debug("Ignoring cached descriptor of other URL or without content: {}", file);
+            return null;
+        }
+
+        Integer configId = null;
+        String configIdValue = properties.getProperty(CONFIG_ID);
+        if (configIdValue != null) {
+            try {
+                configId = Integer.valueOf(configIdValue);
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid configuration number of cached descriptor: {}", file);
+            }
+        }
+        return new Entry(descriptor, configId, properties.getProperty(ENTITY_TAG),
+                properties.getProperty(LAST_MODIFIED));
+    }
+
+    @Override
+    public void put(URL descriptorURL, Entry entry) {
+        Properties properties = new Properties();
+        properties.setProperty(URL, descriptorURL.toString());
+        properties.setProperty(DESCRIPTOR, entry.getDescriptor());
+        if (entry.getConfigId() != null) {
+            properties.setProperty(CONFIG_ID, entry.getConfigId().toString());
+        }
+        if (entry.getEntityTag() != null) {
+            properties.setProperty(ENTITY_TAG, entry.getEntityTag());
+        }
+        if (entry.getLastModified() != null) {
+            properties.setProperty(LAST_MODIFIED, entry.getLastModified());
+        }
+
+        Path file = getFile(descriptorURL);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not cache descriptor: {}", descriptorURL, e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ex) {
+                    logger.debug("Could not delete temporary file: {}", tempFile, ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(URL descriptorURL) {
+        try {
+            Files.deleteIfExists(getFile(descriptorURL));
+        } catch (IOException e) {
+            logger.warn("Could not remove cached descriptor: {}", descriptorURL, e);
+        }
+    }
+
+    protected Path getFile(URL descriptorURL) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(descriptorURL.toString().getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexBin.bytesToString(hash) + ".properties");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getClass().getSimpleName() + ") " + directory;
+    }
+}
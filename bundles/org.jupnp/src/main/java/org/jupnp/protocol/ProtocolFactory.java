@@ -25,6 +25,7 @@ import org.jupnp.model.message.IncomingDatagramMessage;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.header.UpnpHeader;
 import org.jupnp.model.meta.LocalDevice;
+import org.jupnp.protocol.async.AdvertisementScheduler;
 import org.jupnp.protocol.async.SendingNotificationAlive;
 import org.jupnp.protocol.async.SendingNotificationByebye;
 import org.jupnp.protocol.async.SendingSearch;
@@ -51,6 +52,13 @@ public interface ProtocolFactory {
 
     UpnpService getUpnpService();
 
+    /**
+     * @return The scheduler of delayed <em>ALIVE</em> messages, or <code>null</code> if they aren't scheduled.
+     */
+    default AdvertisementScheduler getAdvertisementScheduler() {
+        return null;
+    }
+
     /**
      * Creates a {@link org.jupnp.protocol.async.ReceivingNotification},
      * {@link org.jupnp.protocol.async.ReceivingSearch},
@@ -36,12 +36,15 @@ import org.jupnp.model.types.InvalidValueException;
 import org.jupnp.model.types.NamedServiceType;
 import org.jupnp.model.types.NotificationSubtype;
 import org.jupnp.model.types.ServiceType;
+import org.jupnp.protocol.async.AdvertisementScheduler;
 import org.jupnp.protocol.async.ReceivingNotification;
 import org.jupnp.protocol.async.ReceivingSearch;
 import org.jupnp.protocol.async.ReceivingSearchResponse;
+import org.jupnp.protocol.async.SearchResponseScheduler;
 import org.jupnp.protocol.async.SendingNotificationAlive;
 import org.jupnp.protocol.async.SendingNotificationByebye;
 import org.jupnp.protocol.async.SendingSearch;
+import org.jupnp.protocol.sync.EventBodyRenderer;
 import org.jupnp.protocol.sync.ReceivingAction;
 import org.jupnp.protocol.sync.ReceivingEvent;
 import org.jupnp.protocol.sync.ReceivingRetrieval;
@@ -66,14 +69,23 @@ public class ProtocolFactoryImpl implements ProtocolFactory {
     private final Logger logger = LoggerFactory.getLogger(ProtocolFactory.class);
 
     protected final UpnpService upnpService;
+    protected final SearchResponseScheduler searchResponseScheduler;
+    protected final AdvertisementScheduler advertisementScheduler;
+    protected final EventBodyRenderer eventBodyRenderer;
 
     protected ProtocolFactoryImpl() {
         upnpService = null;
+        searchResponseScheduler = null;
+        advertisementScheduler = null;
+        eventBodyRenderer = null;
     }
 
     public ProtocolFactoryImpl(UpnpService upnpService) {
         logger.trace("Creating ProtocolFactory: {}", getClass().getName());
         this.upnpService = upnpService;
+        this.searchResponseScheduler = createSearchResponseScheduler();
+        this.advertisementScheduler = createAdvertisementScheduler();
+        this.eventBodyRenderer = createEventBodyRenderer();
     }
 
     @Override
@@ -81,6 +93,31 @@ public class ProtocolFactoryImpl implements ProtocolFactory {
         return upnpService;
     }
 
+    public SearchResponseScheduler getSearchResponseScheduler() {
+        return searchResponseScheduler;
+    }
+
+    protected SearchResponseScheduler createSearchResponseScheduler() {
+        return new SearchResponseScheduler(getUpnpService());
+    }
+
+    @Override
+    public AdvertisementScheduler getAdvertisementScheduler() {
+        return advertisementScheduler;
+    }
+
+    protected AdvertisementScheduler createAdvertisementScheduler() {
+        return new AdvertisementScheduler(getUpnpService());
+    }
+
+    public EventBodyRenderer getEventBodyRenderer() {
+        return eventBodyRenderer;
+    }
+
+    protected EventBodyRenderer createEventBodyRenderer() {
+        return new EventBodyRenderer(getUpnpService());
+    }
+
     @Override
     public ReceivingAsync createReceivingAsync(IncomingDatagramMessage message) throws ProtocolCreationException {
         logger.trace("Creating protocol for incoming asynchronous: {}", message);
@@ -107,7 +144,7 @@ public class ProtocolFactoryImpl implements ProtocolFactory {
     }
 
     protected ReceivingAsync createReceivingSearch(IncomingDatagramMessage<UpnpRequest> incomingRequest) {
-        return new ReceivingSearch(getUpnpService(), incomingRequest);
+        return new ReceivingSearch(getUpnpService(), incomingRequest, getSearchResponseScheduler());
     }
 
     protected ReceivingAsync createReceivingSearchResponse(IncomingDatagramMessage<UpnpResponse> incomingResponse) {
@@ -202,7 +239,7 @@ public class ProtocolFactoryImpl implements ProtocolFactory {
 
     @Override
     public SendingNotificationAlive createSendingNotificationAlive(LocalDevice localDevice) {
-        return new SendingNotificationAlive(getUpnpService(), localDevice);
+        return new SendingNotificationAlive(getUpnpService(), localDevice, getAdvertisementScheduler());
     }
 
     @Override
@@ -245,7 +282,7 @@ public class ProtocolFactoryImpl implements ProtocolFactory {
 
     @Override
     public SendingEvent createSendingEvent(LocalGENASubscription subscription) {
-        return new SendingEvent(getUpnpService(), subscription);
+        return new SendingEvent(getUpnpService(), subscription, getEventBodyRenderer());
     }
 
     protected ReceivingRetrieval createReceivingRetrieval(StreamRequestMessage message) {
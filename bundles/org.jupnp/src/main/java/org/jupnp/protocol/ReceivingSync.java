@@ -16,6 +16,7 @@
 package org.jupnp.protocol;
 
 import org.jupnp.UpnpService;
+import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.model.profile.RemoteClientInfo;
@@ -62,7 +63,12 @@ public abstract class ReceivingSync<IN extends StreamRequestMessage, OUT extends
 
     @Override
     protected final void execute() throws RouterException {
-        outputMessage = executeSync();
+        long start = System.nanoTime();
+        try {
+            outputMessage = executeSync();
+        } finally {
+            recordDuration(start);
+        }
 
         if (outputMessage != null && !getRemoteClientInfo().getExtraResponseHeaders().isEmpty()) {
             logger.trace("Setting extra headers on response message: {}",
@@ -97,6 +103,13 @@ public abstract class ReceivingSync<IN extends StreamRequestMessage, OUT extends
         return remoteClientInfo;
     }
 
+    private void recordDuration(long start) {
+        UpnpServiceConfiguration configuration = getUpnpService() != null ? getUpnpService().getConfiguration() : null;
+        if (configuration != null) {
+            configuration.getMetrics().recordProtocolDuration(this, start);
+        }
+    }
+
     @Override
     public String toString() {
         return "(" + getClass().getSimpleName() + ")";
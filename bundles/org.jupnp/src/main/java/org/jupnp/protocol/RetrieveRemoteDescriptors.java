@@ -18,19 +18,31 @@ package org.jupnp.protocol;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jupnp.UpnpService;
 import org.jupnp.binding.xml.DescriptorBindingException;
 import org.jupnp.binding.xml.DeviceDescriptorBinder;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.ValidationError;
 import org.jupnp.model.ValidationException;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.UpnpResponse;
 import org.jupnp.model.meta.Icon;
 import org.jupnp.model.meta.RemoteDevice;
 import org.jupnp.model.meta.RemoteService;
@@ -55,6 +67,20 @@ import org.slf4j.LoggerFactory;
  * hydrated device is then added to the {@link org.jupnp.registry.Registry}.
  * </p>
  * <p>
+ * The service descriptors of the device and all its embedded devices are retrieved concurrently, with the
+ * {@link org.jupnp.UpnpServiceConfiguration#getSyncProtocolExecutorService()}, and with at most
+ * {@link #getMaxConcurrentRetrievalsPerHost()} requests to the same host. The thread running this protocol
+ * takes part in the retrieval, so it also completes if the executor has no idle threads.
+ * </p>
+ * <p>
+ * If the {@link org.jupnp.UpnpServiceConfiguration#getDescriptorCache()} has a descriptor of the same
+ * configuration number as advertised by the device, the descriptor is not retrieved again. Cached descriptors of
+ * devices without configuration number are used immediately too, they are revalidated with conditional requests on
+ * the {@link org.jupnp.UpnpServiceConfiguration#getAsyncProtocolExecutor()} after the device has been added to the
+ * registry. If one of them was modified, the device is removed and described again. Cached descriptors of a device
+ * advertising another configuration number are revalidated before they are used.
+ * </p>
+ * <p>
  * Any descriptor retrieval, parsing, or validation error of the metadata will abort this protocol
  * with a warning message in the log.
  * </p>
@@ -64,17 +90,35 @@ import org.slf4j.LoggerFactory;
  */
 public class RetrieveRemoteDescriptors implements Runnable {
 
+    /**
+     * Default limit of concurrent service descriptor requests to the same host, the default number of connections
+     * per host of the Jetty stream client. More requests would wait for a connection within their timeout.
+     */
+    public static final int MAX_CONCURRENT_RETRIEVALS_PER_HOST = 2;
+
     private final Logger logger = LoggerFactory.getLogger(RetrieveRemoteDescriptors.class);
 
     private final UpnpService upnpService;
     private RemoteDevice rd;
+    private final boolean revalidated;
 
     private static final ConcurrentHashMap<URL, Boolean> activeRetrievals = new ConcurrentHashMap<>();
     protected List<UDN> errorsAlreadyLogged = new ArrayList<>();
 
+    // Cached descriptors used without revalidation, revalidated after the device has been described
+    protected final Map<URL, DescriptorCache.Entry> unvalidatedDescriptors = new ConcurrentHashMap<>();
+
     public RetrieveRemoteDescriptors(UpnpService upnpService, RemoteDevice rd) {
+        this(upnpService, rd, false);
+    }
+
+    /**
+     * @param revalidated <code>true</code> if all cached descriptors of the device have just been revalidated.
+     */
+    protected RetrieveRemoteDescriptors(UpnpService upnpService, RemoteDevice rd, boolean revalidated) {
         this.upnpService = upnpService;
         this.rd = rd;
+        this.revalidated = revalidated;
     }
 
     public UpnpService getUpnpService() {
@@ -109,6 +153,10 @@ public class RetrieveRemoteDescriptors implements Runnable {
         } finally {
             activeRetrievals.remove(deviceURL);
         }
+
+        if (!unvalidatedDescriptors.isEmpty()) {
+            revalidateCachedDescriptors();
+        }
     }
 
     protected void describe() throws RouterException {
@@ -123,6 +171,14 @@ public class RetrieveRemoteDescriptors implements Runnable {
             return;
         }
 
+        URL deviceURL = rd.getIdentity().getDescriptorURL();
+        DescriptorCache.Entry cached = getCachedDescriptor(deviceURL);
+        if (cached != null && useCachedDescriptor(deviceURL, cached, rd.getIdentity().getConfigId())) {
+            logger.debug("Using cached device descriptor: {}", deviceURL);
+            describe(cached.getDescriptor());
+            return;
+        }
+
         StreamRequestMessage deviceDescRetrievalMsg;
         StreamResponseMessage deviceDescMsg;
 
@@ -136,6 +192,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
             if (headers != null) {
                 deviceDescRetrievalMsg.getHeaders().putAll(headers);
             }
+            addRevalidationHeaders(deviceDescRetrievalMsg, cached);
 
             logger.debug("Sending device descriptor retrieval message: {}", deviceDescRetrievalMsg);
             deviceDescMsg = getUpnpService().getRouter().send(deviceDescRetrievalMsg);
@@ -153,6 +210,13 @@ public class RetrieveRemoteDescriptors implements Runnable {
             return;
         }
 
+        if (cached != null && isNotModified(deviceDescMsg)) {
+            logger.debug("Cached device descriptor not modified: {}", deviceURL);
+            cacheDescriptor(deviceURL, rd.getIdentity().getConfigId(), deviceDescMsg, cached.getDescriptor());
+            describe(cached.getDescriptor());
+            return;
+        }
+
         if (deviceDescMsg.getOperation().isFailed()) {
             logger.warn("Device descriptor retrieval failed: {}, {}", rd.getIdentity().getDescriptorURL(),
                     deviceDescMsg.getOperation().getResponseDetails());
@@ -172,11 +236,13 @@ public class RetrieveRemoteDescriptors implements Runnable {
         }
 
         logger.debug("Received root device descriptor: {}", deviceDescMsg);
+        cacheDescriptor(deviceURL, rd.getIdentity().getConfigId(), deviceDescMsg, descriptorContent);
         describe(descriptorContent);
     }
 
     protected void describe(String descriptorXML) throws RouterException {
 
+        long start = System.nanoTime();
         boolean notifiedStart = false;
         RemoteDevice describedDevice = null;
         try {
@@ -190,7 +256,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
             notifiedStart = getUpnpService().getRegistry().notifyDiscoveryStart(describedDevice);
 
             logger.debug("Hydrating described device's services: {}", describedDevice);
-            RemoteDevice hydratedDevice = describeServices(describedDevice);
+            RemoteDevice hydratedDevice = describeServices(describedDevice, describeAllServices(describedDevice));
             if (hydratedDevice == null) {
                 if (!errorsAlreadyLogged.contains(rd.getIdentity().getUdn())) {
                     errorsAlreadyLogged.add(rd.getIdentity().getUdn());
@@ -206,6 +272,10 @@ public class RetrieveRemoteDescriptors implements Runnable {
                     return;
                 }
             } else {
+                long durationNanos = System.nanoTime() - start;
+                getUpnpService().getConfiguration().getMetrics().recordDuration(UpnpMetrics.DEVICE_HYDRATION_DURATION,
+                        null, durationNanos);
+                hydrated(hydratedDevice, TimeUnit.NANOSECONDS.toMillis(durationNanos));
                 logger.debug("Adding fully hydrated remote device to registry: {}", hydratedDevice);
                 // The registry will do the right thing: A new root device is going to be added, if it's
                 // already present or we just received the descriptor again (because we got an embedded
@@ -214,6 +284,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
                 getUpnpService().getRegistry().addDevice(hydratedDevice);
             }
         } catch (ValidationException e) {
+            removeCachedDescriptor(rd.getIdentity().getDescriptorURL());
             // Avoid error log spam each time device is discovered, errors are logged once per device.
             if (!errorsAlreadyLogged.contains(rd.getIdentity().getUdn())) {
                 errorsAlreadyLogged.add(rd.getIdentity().getUdn());
@@ -227,6 +298,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
             }
 
         } catch (DescriptorBindingException e) {
+            removeCachedDescriptor(rd.getIdentity().getDescriptorURL());
             logger.warn("Could not hydrate device or its services from descriptor: {}", rd, e);
             if (describedDevice != null && notifiedStart) {
                 getUpnpService().getRegistry().notifyDiscoveryFailure(describedDevice, e);
@@ -240,16 +312,158 @@ public class RetrieveRemoteDescriptors implements Runnable {
         }
     }
 
-    protected RemoteDevice describeServices(RemoteDevice currentDevice)
+    /**
+     * Called when all descriptors of a device have been retrieved, before the device is added to the registry.
+     * <p>
+     * Logs the time to full hydration by default, it is also recorded as
+     * {@link UpnpMetrics#DEVICE_HYDRATION_DURATION}.
+     * </p>
+     *
+     * @param hydratedDevice The fully hydrated device.
+     * @param durationMillis Time since the device descriptor was received.
+     */
+    protected void hydrated(RemoteDevice hydratedDevice, long durationMillis) {
+        logger.debug("Hydrated device in {} ms: {}", durationMillis, hydratedDevice);
+    }
+
+    /**
+     * @return The maximum number of concurrent service descriptor requests to the same host.
+     */
+    protected int getMaxConcurrentRetrievalsPerHost() {
+        return MAX_CONCURRENT_RETRIEVALS_PER_HOST;
+    }
+
+    /**
+     * Retrieves the service descriptors of the device and all its embedded devices concurrently.
+     *
+     * @return The described services, for each service (by identity) with a successfully retrieved descriptor.
+     */
+    protected Map<RemoteService, RemoteService> describeAllServices(RemoteDevice device)
             throws RouterException, DescriptorBindingException, ValidationException {
 
-        List<RemoteService> describedServices = new ArrayList<>();
+        List<RemoteService> services = new ArrayList<>();
+        collectServices(device, services);
+
+        Map<String, Queue<Integer>> servicesByHost = new LinkedHashMap<>();
+        for (int i = 0; i < services.size(); i++) {
+            servicesByHost.computeIfAbsent(getHost(services.get(i)), host -> new ConcurrentLinkedQueue<>()).add(i);
+        }
+
+        RemoteService[] described = new RemoteService[services.size()];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        List<Queue<Integer>> helpedQueues = new ArrayList<>();
+        for (Queue<Integer> queue : servicesByHost.values()) {
+            // This thread retrieves descriptors of each host too, start additional helpers up to the limit
+            int helpers = Math.min(getMaxConcurrentRetrievalsPerHost(), queue.size()) - 1;
+            for (int i = 0; i < helpers; i++) {
+                helpedQueues.add(queue);
+            }
+        }
+
+        // Only helpers which actually started are awaited: a helper still queued in a saturated executor (or
+        // discarded by it) would otherwise block this thread forever. Helpers starting after this thread has
+        // drained all queues find the phaser terminated and skip.
+        Executor executor = getUpnpService().getConfiguration().getSyncProtocolExecutorService();
+        Phaser helpers = new Phaser(1);
+        for (Queue<Integer> queue : helpedQueues) {
+            try {
+                executor.execute(() -> {
+                    if (helpers.register() < 0) {
+                        return;
+                    }
+                    try {
+                        describeQueuedServices(queue, services, described, failure);
+                    } finally {
+                        helpers.arriveAndDeregister();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // This thread drains the queue alone
+            }
+        }
+
+        for (Queue<Integer> queue : servicesByHost.values()) {
+            describeQueuedServices(queue, services, described, failure);
+        }
+
+        try {
+            helpers.awaitAdvanceInterruptibly(helpers.arriveAndDeregister());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RouterException("Interrupted while retrieving service descriptors", e);
+        }
+
+        Exception e = failure.get();
+        if (e instanceof RouterException) {
+            throw (RouterException) e;
+        } else if (e instanceof DescriptorBindingException) {
+            throw (DescriptorBindingException) e;
+        } else if (e instanceof ValidationException) {
+            throw (ValidationException) e;
+        } else if (e != null) {
+            throw (RuntimeException) e;
+        }
+
+        Map<RemoteService, RemoteService> result = new IdentityHashMap<>();
+        for (int i = 0; i < services.size(); i++) {
+            if (described[i] != null) {
+                result.put(services.get(i), described[i]);
+            }
+        }
+        return result;
+    }
+
+    protected void describeQueuedServices(Queue<Integer> queue, List<RemoteService> services,
+            RemoteService[] described, AtomicReference<Exception> failure) {
+        Integer i;
+        while (failure.get() == null && (i = queue.poll()) != null) {
+            try {
+                described[i] = describeService(services.get(i));
+            } catch (RouterException | DescriptorBindingException | ValidationException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    protected void collectServices(RemoteDevice currentDevice, List<RemoteService> services) {
+        if (currentDevice.hasServices()) {
+            services.addAll(filterExclusiveServices(currentDevice.getServices()));
+        }
+        if (currentDevice.hasEmbeddedDevices()) {
+            for (RemoteDevice embeddedDevice : currentDevice.getEmbeddedDevices()) {
+                if (embeddedDevice != null) {
+                    collectServices(embeddedDevice, services);
+                }
+            }
+        }
+    }
+
+    protected String getHost(RemoteService service) {
+        try {
+            return service.getDevice().normalizeURI(service.getDescriptorURI()).getAuthority();
+        } catch (IllegalArgumentException e) {
+            // Fails again (and is logged) when the descriptor is retrieved
+            return "";
+        }
+    }
+
+    /**
+     * Creates a new immutable graph of the device and its embedded devices, with the described services.
+     *
+     * @param describedServices The described services, see {@link #describeAllServices(RemoteDevice)}.
+     * @return The hydrated device, or <code>null</code> if no service of the device or of an embedded device
+     *         could be described.
+     */
+    protected RemoteDevice describeServices(RemoteDevice currentDevice,
+            Map<RemoteService, RemoteService> describedServices) throws ValidationException {
+
+        List<RemoteService> currentServices = new ArrayList<>();
         if (currentDevice.hasServices()) {
-            List<RemoteService> filteredServices = filterExclusiveServices(currentDevice.getServices());
-            for (RemoteService service : filteredServices) {
-                RemoteService svc = describeService(service);
+            for (RemoteService service : filterExclusiveServices(currentDevice.getServices())) {
+                RemoteService svc = describedServices.get(service);
                 if (svc != null) {
-                    describedServices.add(svc);
+                    currentServices.add(svc);
                 }
             }
         }
@@ -260,14 +474,14 @@ public class RetrieveRemoteDescriptors implements Runnable {
                 if (embeddedDevice == null) {
                     continue;
                 }
-                RemoteDevice describedEmbeddedDevice = describeServices(embeddedDevice);
+                RemoteDevice describedEmbeddedDevice = describeServices(embeddedDevice, describedServices);
                 if (describedEmbeddedDevice != null) {
                     describedEmbeddedDevices.add(describedEmbeddedDevice);
                 }
             }
         }
 
-        if ((currentDevice.hasServices() && describedServices.isEmpty())
+        if ((currentDevice.hasServices() && currentServices.isEmpty())
                 || (currentDevice.hasEmbeddedDevices() && describedEmbeddedDevices.isEmpty())) {
             // we cannot return a fully hydrated device, so we return null instead
             return null;
@@ -282,7 +496,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
         // Yes, we create a completely new immutable graph here
         return currentDevice.newInstance(currentDevice.getIdentity().getUdn(), currentDevice.getVersion(),
                 currentDevice.getType(), currentDevice.getDetails(), iconDupes,
-                currentDevice.toServiceArray(describedServices), describedEmbeddedDevices);
+                currentDevice.toServiceArray(currentServices), describedEmbeddedDevices);
     }
 
     protected RemoteService describeService(RemoteService service)
@@ -296,6 +510,22 @@ public class RetrieveRemoteDescriptors implements Runnable {
             return null;
         }
 
+        ServiceDescriptorBinder serviceDescriptorBinder = getUpnpService().getConfiguration()
+                .getServiceDescriptorBinderUDA10();
+
+        Integer configId = service.getDevice().getIdentity().getConfigId();
+        DescriptorCache.Entry cached = getCachedDescriptor(descriptorURL);
+        if (cached != null && useCachedDescriptor(descriptorURL, cached, configId)) {
+            logger.debug("Using cached service descriptor: {}", descriptorURL);
+            try {
+                return serviceDescriptorBinder.describe(service, cached.getDescriptor());
+            } catch (DescriptorBindingException | ValidationException e) {
+                logger.debug("Could not describe service with cached descriptor, retrieving it: {}", descriptorURL);
+                removeCachedDescriptor(descriptorURL);
+                cached = null;
+            }
+        }
+
         StreamRequestMessage serviceDescRetrievalMsg = new StreamRequestMessage(UpnpRequest.Method.GET, descriptorURL);
 
         // Extra headers
@@ -304,6 +534,7 @@ public class RetrieveRemoteDescriptors implements Runnable {
         if (headers != null) {
             serviceDescRetrievalMsg.getHeaders().putAll(headers);
         }
+        addRevalidationHeaders(serviceDescRetrievalMsg, cached);
 
         logger.debug("Sending service descriptor retrieval message: {}", serviceDescRetrievalMsg);
         StreamResponseMessage serviceDescMsg = getUpnpService().getRouter().send(serviceDescRetrievalMsg);
@@ -313,6 +544,14 @@ public class RetrieveRemoteDescriptors implements Runnable {
             return null;
         }
 
+        String descriptorContent;
+        if (cached != null && isNotModified(serviceDescMsg)) {
+            logger.debug("Cached service descriptor not modified: {}", descriptorURL);
+            descriptorContent = cached.getDescriptor();
+            cacheDescriptor(descriptorURL, configId, serviceDescMsg, descriptorContent);
+            return serviceDescriptorBinder.describe(service, descriptorContent);
+        }
+
         if (serviceDescMsg.getOperation().isFailed()) {
             logger.warn("Service descriptor retrieval failed: {}, {}", descriptorURL,
                     serviceDescMsg.getOperation().getResponseDetails());
@@ -324,17 +563,161 @@ public class RetrieveRemoteDescriptors implements Runnable {
             // We continue despite the invalid UPnP message because we can still hope to convert the content
         }
 
-        String descriptorContent = serviceDescMsg.getBodyString();
+        descriptorContent = serviceDescMsg.getBodyString();
         if (descriptorContent == null || descriptorContent.isEmpty()) {
             logger.warn("Received empty service descriptor: {}", descriptorURL);
             return null;
         }
 
         logger.debug("Received service descriptor, hydrating service model: {}", serviceDescMsg);
-        ServiceDescriptorBinder serviceDescriptorBinder = getUpnpService().getConfiguration()
-                .getServiceDescriptorBinderUDA10();
+        RemoteService describedService = serviceDescriptorBinder.describe(service, descriptorContent);
+        cacheDescriptor(descriptorURL, configId, serviceDescMsg, descriptorContent);
+        return describedService;
+    }
+
+    protected DescriptorCache.Entry getCachedDescriptor(URL descriptorURL) {
+        DescriptorCache cache = getUpnpService().getConfiguration().getDescriptorCache();
+        return cache != null ? cache.get(descriptorURL) : null;
+    }
+
+    /**
+     * @return <code>true</code> if the cached descriptor is used without retrieving it first, it is revalidated
+     *         later unless it belongs to the unchanged configuration of the device.
+     */
+    protected boolean useCachedDescriptor(URL descriptorURL, DescriptorCache.Entry cached, Integer configId) {
+        if (revalidated || cached.isCurrent(configId)) {
+            return true;
+        }
+        if (cached.getConfigId() != null && configId != null) {
+            // The device advertises another configuration
+            return false;
+        }
+        unvalidatedDescriptors.put(descriptorURL, cached);
+        return true;
+    }
+
+    /**
+     * Revalidates the cached descriptors used to describe the device on the
+     * {@link org.jupnp.UpnpServiceConfiguration#getAsyncProtocolExecutor()}.
+     */
+    protected void revalidateCachedDescriptors() {
+        Map<URL, DescriptorCache.Entry> descriptors = new LinkedHashMap<>(unvalidatedDescriptors);
+        unvalidatedDescriptors.clear();
+        try {
+            getUpnpService().getConfiguration().getAsyncProtocolExecutor()
+                    .execute(() -> revalidateCachedDescriptors(descriptors));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Could not revalidate cached descriptors (on shutdown?): {}", rd);
+        }
+    }
+
+    protected void revalidateCachedDescriptors(Map<URL, DescriptorCache.Entry> descriptors) {
+        boolean modified = false;
+        for (Map.Entry<URL, DescriptorCache.Entry> descriptor : descriptors.entrySet()) {
+            modified |= revalidateCachedDescriptor(descriptor.getKey(), descriptor.getValue());
+        }
+        if (!modified) {
+            logger.trace("Cached descriptors not modified: {}", rd);
+            return;
+        }
+
+        logger.debug("Cached descriptors modified, describing device again: {}", rd);
+        RemoteDevice registeredDevice = getUpnpService().getRegistry().getRemoteDevice(rd.getIdentity().getUdn(),
+                true);
+        if (registeredDevice != null) {
+            getUpnpService().getRegistry().removeDevice(registeredDevice);
+        }
+        new RetrieveRemoteDescriptors(getUpnpService(), rd, true).run();
+    }
+
+    /**
+     * Sends a conditional request for the cached descriptor, and updates the cache with the response.
+     *
+     * @return <code>true</code> if the descriptor was modified.
+     */
+    protected boolean revalidateCachedDescriptor(URL descriptorURL, DescriptorCache.Entry cached) {
+        StreamRequestMessage request = new StreamRequestMessage(UpnpRequest.Method.GET, descriptorURL);
+        UpnpHeaders headers = getUpnpService().getConfiguration().getDescriptorRetrievalHeaders(rd.getIdentity());
+        if (headers != null) {
+            request.getHeaders().putAll(headers);
+        }
+        addRevalidationHeaders(request, cached);
+
+        StreamResponseMessage response;
+        try {
+            logger.debug("Sending descriptor revalidation message: {}", request);
+            response = getUpnpService().getRouter().send(request);
+        } catch (RouterException e) {
+            logger.debug("Descriptor revalidation failed: {}", descriptorURL, e);
+            return false;
+        }
+        if (response == null) {
+            logger.debug("Descriptor revalidation failed, no response: {}", descriptorURL);
+            return false;
+        }
+
+        Integer configId = rd.getIdentity().getConfigId();
+        if (isNotModified(response)) {
+            if (getCachedDescriptor(descriptorURL) != null) {
+                cacheDescriptor(descriptorURL, configId, response, cached.getDescriptor());
+            }
+            return false;
+        }
+        if (response.getOperation().isFailed()) {
+            logger.debug("Descriptor revalidation failed: {}, {}", descriptorURL,
+                    response.getOperation().getResponseDetails());
+            return false;
+        }
+        String descriptorContent = response.getBodyString();
+        if (descriptorContent == null || descriptorContent.isEmpty()) {
+            logger.debug("Received empty descriptor on revalidation: {}", descriptorURL);
+            return false;
+        }
+        // Not cached again if it can't be validated, the device is then described with a retrieved descriptor
+        removeCachedDescriptor(descriptorURL);
+        cacheDescriptor(descriptorURL, configId, response, descriptorContent);
+        return !descriptorContent.equals(cached.getDescriptor());
+    }
+
+    /**
+     * Stores the descriptor if it can be validated later, by configuration number or response headers.
+     */
+    protected void cacheDescriptor(URL descriptorURL, Integer configId, StreamResponseMessage response,
+            String descriptor) {
+        DescriptorCache cache = getUpnpService().getConfiguration().getDescriptorCache();
+        if (cache == null) {
+            return;
+        }
+        DescriptorCache.Entry entry = new DescriptorCache.Entry(descriptor, configId,
+                response.getHeaders().getFirstHeader(UpnpHeaders.ETAG),
+                response.getHeaders().getFirstHeader(UpnpHeaders.LAST_MODIFIED));
+        if (entry.getConfigId() != null || entry.isRevalidatable()) {
+            cache.put(descriptorURL, entry);
+        }
+    }
+
+    protected void removeCachedDescriptor(URL descriptorURL) {
+        unvalidatedDescriptors.remove(descriptorURL);
+        DescriptorCache cache = getUpnpService().getConfiguration().getDescriptorCache();
+        if (cache != null) {
+            cache.remove(descriptorURL);
+        }
+    }
+
+    protected void addRevalidationHeaders(StreamRequestMessage request, DescriptorCache.Entry cached) {
+        if (cached == null) {
+            return;
+        }
+        if (cached.getEntityTag() != null) {
+            request.getHeaders().add(UpnpHeaders.IF_NONE_MATCH, cached.getEntityTag());
+        }
+        if (cached.getLastModified() != null) {
+            request.getHeaders().add(UpnpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+    }
 
-        return serviceDescriptorBinder.describe(service, descriptorContent);
+    protected boolean isNotModified(StreamResponseMessage response) {
+        return response.getOperation().getStatusCode() == UpnpResponse.Status.NOT_MODIFIED.getStatusCode();
     }
 
     protected List<RemoteService> filterExclusiveServices(RemoteService[] services) {
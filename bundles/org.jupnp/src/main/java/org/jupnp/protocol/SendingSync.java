@@ -15,7 +15,10 @@
  */
 package org.jupnp.protocol;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.jupnp.UpnpService;
+import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.transport.RouterException;
@@ -26,6 +29,10 @@ import org.jupnp.transport.RouterException;
  * After instantiation by the {@link ProtocolFactory}, this protocol <code>run()</code>s and
  * calls its {@link #executeSync()} method.
  * </p>
+ * <p>
+ * Alternatively, {@link #executeAsync()} returns before the response is received, if the protocol
+ * supports non-blocking execution by overriding {@link #executeNonBlocking()}.
+ * </p>
  *
  * @param <IN> The type of request UPnP message send by this protocol.
  * @param <OUT> The type of response UPnP message expected by this protocol.
@@ -53,11 +60,50 @@ public abstract class SendingSync<IN extends StreamRequestMessage, OUT extends S
 
     @Override
     protected final void execute() throws RouterException {
-        outputMessage = executeSync();
+        long start = System.nanoTime();
+        try {
+            outputMessage = executeSync();
+        } finally {
+            recordDuration(start);
+        }
     }
 
     protected abstract OUT executeSync() throws RouterException;
 
+    /**
+     * Executes this protocol without waiting for the response in the calling thread, if supported.
+     *
+     * @return Completes with the response message, which is then also available with {@link #getOutputMessage()},
+     *         or exceptionally with a {@link RouterException}.
+     */
+    public final CompletableFuture<OUT> executeAsync() {
+        long start = System.nanoTime();
+        CompletableFuture<OUT> future;
+        try {
+            future = executeNonBlocking();
+        } catch (RouterException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((response, failure) -> recordDuration(start)).thenApply(response -> {
+            outputMessage = response;
+            return response;
+        });
+    }
+
+    /**
+     * Override this to send without blocking, the default calls {@link #executeSync()} in the calling thread.
+     */
+    protected CompletableFuture<OUT> executeNonBlocking() throws RouterException {
+        return CompletableFuture.completedFuture(executeSync());
+    }
+
+    private void recordDuration(long start) {
+        UpnpServiceConfiguration configuration = getUpnpService() != null ? getUpnpService().getConfiguration() : null;
+        if (configuration != null) {
+            configuration.getMetrics().recordProtocolDuration(this, start);
+        }
+    }
+
     @Override
     public String toString() {
         return "(" + getClass().getSimpleName() + ")";
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jupnp.UpnpService;
+import org.jupnp.model.message.OutgoingDatagramMessage;
+import org.jupnp.model.types.UDN;
+import org.jupnp.transport.RouterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends bulks of advertisement messages without blocking a thread while waiting, at a limited rate.
+ * <p>
+ * A bulk is scheduled with the {@link org.jupnp.UpnpServiceConfiguration#getScheduledExecutorService()}, when
+ * its delay has elapsed, the messages are sent by the
+ * {@link org.jupnp.UpnpServiceConfiguration#getAsyncProtocolExecutor()}. Messages of a bulk without delay are
+ * sent immediately by the calling thread, as long as the rate limit allows it.
+ * </p>
+ * <p>
+ * The router sends each message once on every network interface, so the rate limit of this scheduler is the
+ * maximum number of datagrams per second sent on each interface. Each message gets the next free send slot,
+ * messages exceeding the burst size are delayed until their slot, coalesced into batches of
+ * {@link #BATCH_MILLIS} milliseconds.
+ * </p>
+ * <p>
+ * Delayed batches scheduled for a device are tracked, {@link #cancel(UDN)} drops them when the device is removed.
+ * </p>
+ */
+public class AdvertisementScheduler {
+
+    public static final int DEFAULT_MAX_DATAGRAMS_PER_SECOND = 200;
+    public static final int DEFAULT_MAX_BURST = 20;
+
+    /**
+     * Messages with send slots within this interval are sent together.
+     */
+    public static final long BATCH_MILLIS = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(AdvertisementScheduler.class);
+
+    protected final UpnpService upnpService;
+    protected final long slotNanos;
+    protected final long burstNanos;
+
+    protected final AtomicInteger pendingCount = new AtomicInteger();
+    protected final Map<UDN, Set<Batch>> deviceBatches = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    protected long nextSlotNanos;
+
+    public AdvertisementScheduler(UpnpService upnpService) {
+        this(upnpService, DEFAULT_MAX_DATAGRAMS_PER_SECOND, DEFAULT_MAX_BURST);
+    }
+
+    /**
+     * @param maxDatagramsPerSecond The maximum number of datagrams per second sent on each network interface.
+     * @param maxBurst The maximum number of datagrams sent back-to-back after an idle period.
+     */
+    public AdvertisementScheduler(UpnpService upnpService, int maxDatagramsPerSecond, int maxBurst) {
+        if (maxDatagramsPerSecond <= 0 || maxBurst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.upnpService = upnpService;
+        this.slotNanos = TimeUnit.SECONDS.toNanos(1) / maxDatagramsPerSecond;
+        this.burstNanos = slotNanos * maxBurst;
+        this.nextSlotNanos = System.nanoTime() - burstNanos;
+    }
+
+    public UpnpService getUpnpService() {
+        return upnpService;
+    }
+
+    /**
+     * Schedules sending the given messages, in order.
+     *
+     * @param messages The messages to send after the delay.
+     * @param delayMillis The minimum delay in milliseconds, the rate limit might delay messages further.
+     */
+    public void schedule(List<? extends OutgoingDatagramMessage> messages, long delayMillis) {
+        schedule(null, messages, delayMillis);
+    }
+
+    /**
+     * Schedules sending the given messages of a device, in order.
+     *
+     * @param udn The device the messages are advertising, its delayed messages can be cancelled, or
+     *            <code>null</code>.
+     * @param messages The messages to send after the delay.
+     * @param delayMillis The minimum delay in milliseconds, the rate limit might delay messages further.
+     */
+    public void schedule(UDN udn, List<? extends OutgoingDatagramMessage> messages, long delayMillis) {
+        long now = System.nanoTime();
+        long due = now + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        long batchNanos = TimeUnit.MILLISECONDS.toNanos(BATCH_MILLIS);
+
+        List<OutgoingDatagramMessage> immediate = new ArrayList<>();
+        Map<Long, List<OutgoingDatagramMessage>> batches = new TreeMap<>();
+        synchronized (this) {
+            for (OutgoingDatagramMessage message : messages) {
+                // An idle period accumulates at most a burst of free slots before the due time
+                long virtualSlot = Math.max(nextSlotNanos, due - burstNanos + slotNanos);
+                nextSlotNanos = virtualSlot + slotNanos;
+                long slot = Math.max(due, virtualSlot);
+                if (slot <= now) {
+                    immediate.add(message);
+                } else {
+                    long batchDelay = ((slot - now + batchNanos - 1) / batchNanos) * batchNanos;
+                    batches.computeIfAbsent(batchDelay, d -> new ArrayList<>()).add(message);
+                }
+            }
+        }
+
+        send(immediate);
+
+        for (Map.Entry<Long, List<OutgoingDatagramMessage>> entry : batches.entrySet()) {
+            final Batch batch = new Batch(udn, entry.getValue());
+            pendingCount.addAndGet(batch.messages.size());
+            if (udn != null) {
+                deviceBatches.compute(udn, (u, deviceSet) -> {
+                    Set<Batch> result = deviceSet != null ? deviceSet : ConcurrentHashMap.newKeySet();
+                    result.add(batch);
+                    return result;
+                });
+            }
+            try {
+                batch.future = getUpnpService().getConfiguration().getScheduledExecutorService()
+                        .schedule(() -> sendScheduled(batch), entry.getKey(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Advertisement could not be scheduled (on shutdown?), dropping {} messages",
+                        batch.messages.size());
+                batch.take();
+            }
+        }
+        logger.trace("Scheduled {} advertisement messages, {} sent immediately, {} delayed batches", messages.size(),
+                immediate.size(), batches.size());
+    }
+
+    /**
+     * @return The number of scheduled messages which haven't been sent yet.
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Drops the delayed messages of the device which haven't been sent yet.
+     *
+     * @param udn The device which is no longer advertised.
+     */
+    public void cancel(UDN udn) {
+        Set<Batch> batches = deviceBatches.remove(udn);
+        if (batches == null) {
+            return;
+        }
+        int dropped = 0;
+        for (Batch batch : batches) {
+            if (batch.take()) {
+                dropped += batch.messages.size();
+                if (batch.future != null) {
+                    batch.future.cancel(false);
+                }
+            }
+        }
+        logger.trace("Dropped {} delayed advertisement messages of device: {}", dropped, udn);
+    }
+
+    /**
+     * Drops the delayed messages of all devices which haven't been sent yet.
+     */
+    public void cancelAll() {
+        for (UDN udn : new ArrayList<>(deviceBatches.keySet())) {
+            cancel(udn);
+        }
+    }
+
+    protected void sendScheduled(Batch batch) {
+        try {
+            getUpnpService().getConfiguration().getAsyncProtocolExecutor().execute(() -> {
+                if (batch.take()) {
+                    send(batch.messages);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Advertisement execution rejected (on shutdown?), dropping {} messages",
+                    batch.messages.size());
+            batch.take();
+        }
+    }
+
+    protected void send(List<OutgoingDatagramMessage> messages) {
+        try {
+            for (OutgoingDatagramMessage message : messages) {
+                getUpnpService().getRouter().send(message);
+            }
+        } catch (RouterException e) {
+            logger.warn("Could not send advertisement messages", e);
+        }
+    }
+
+    /**
+     * Delayed messages, either sent or dropped exactly once.
+     */
+    protected class Batch {
+
+        protected final UDN udn;
+        protected final List<OutgoingDatagramMessage> messages;
+        protected final AtomicBoolean pending = new AtomicBoolean(true);
+        protected volatile ScheduledFuture<?> future;
+
+        protected Batch(UDN udn, List<OutgoingDatagramMessage> messages) {
+            this.udn = udn;
+            this.messages = messages;
+        }
+
+        /**
+         * @return <code>true</code> if the messages were still pending, they are no longer counted.
+         */
+        protected boolean take() {
+            if (!pending.compareAndSet(true, false)) {
+                return false;
+            }
+            pendingCount.addAndGet(-messages.size());
+            if (udn != null) {
+                deviceBatches.computeIfPresent(udn, (u, deviceSet) -> {
+                    deviceSet.remove(this);
+                    return deviceSet.isEmpty() ? null : deviceSet;
+                });
+            }
+            return true;
+        }
+    }
+}
@@ -53,7 +53,9 @@ import org.slf4j.LoggerFactory;
  * Handles reception of search requests, responds for local registered devices.
  * <p>
  * Waits a random time between 0 and the requested <em>MX</em> (maximum 120 seconds)
- * before executing. Only waits if there are actually any registered local devices.
+ * before executing. Only waits if there are actually any registered local devices. The wait
+ * doesn't block a thread, the execution is delayed with the {@link SearchResponseScheduler}. Without
+ * a scheduler, the executing thread sleeps.
  * </p>
  * <p>
  * Extracts the <em>search target</em>, builds and sends the dozens of messages
@@ -71,8 +73,16 @@ public class ReceivingSearch extends ReceivingAsync<IncomingSearchRequest> {
 
     protected final Random randomGenerator = new Random();
 
+    protected final SearchResponseScheduler responseScheduler;
+
     public ReceivingSearch(UpnpService upnpService, IncomingDatagramMessage<UpnpRequest> inputMessage) {
+        this(upnpService, inputMessage, null);
+    }
+
+    public ReceivingSearch(UpnpService upnpService, IncomingDatagramMessage<UpnpRequest> inputMessage,
+            SearchResponseScheduler responseScheduler) {
         super(upnpService, new IncomingSearchRequest(inputMessage));
+        this.responseScheduler = responseScheduler;
     }
 
     @Override
@@ -125,14 +135,33 @@ public class ReceivingSearch extends ReceivingAsync<IncomingSearchRequest> {
 
         // Only wait if there is something to wait for
         if (!getUpnpService().getRegistry().getLocalDevices().isEmpty()) {
-            int sleepTime = randomGenerator.nextInt(mx * 1000);
-            logger.trace("Sleeping {} milliseconds to avoid flooding with search responses", sleepTime);
-            Thread.sleep(sleepTime);
+            int delay = randomGenerator.nextInt(mx * 1000);
+            if (responseScheduler == null) {
+                logger.trace("Sleeping {} milliseconds to avoid flooding with search responses", delay);
+                Thread.sleep(delay);
+                return true;
+            }
+            logger.trace("Delaying search responses {} milliseconds to avoid flooding", delay);
+            // Execution continues on another thread when the delay has elapsed
+            responseScheduler.schedule(this, delay);
+            return false;
         }
 
         return true;
     }
 
+    /**
+     * Called by the {@link SearchResponseScheduler} when the response delay has elapsed.
+     */
+    protected void executeScheduled() {
+        try {
+            execute();
+        } catch (RouterException e) {
+            throw new RuntimeException("Fatal error while executing protocol '" + getClass().getSimpleName() + "'",
+                    e);
+        }
+    }
+
     protected void sendResponses(UpnpHeader searchTarget, NetworkAddress activeStreamServer) throws RouterException {
         if (searchTarget instanceof STAllHeader) {
 
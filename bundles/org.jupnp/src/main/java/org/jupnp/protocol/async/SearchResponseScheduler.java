@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol.async;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jupnp.UpnpService;
+import org.jupnp.model.message.discovery.IncomingSearchRequest;
+import org.jupnp.model.message.header.UpnpHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delays responses to search requests without blocking a thread while waiting.
+ * <p>
+ * A {@link ReceivingSearch} protocol is scheduled with the
+ * {@link org.jupnp.UpnpServiceConfiguration#getScheduledExecutorService()}, when the random
+ * <em>MX</em> delay has elapsed, the responses are sent by the
+ * {@link org.jupnp.UpnpServiceConfiguration#getAsyncProtocolExecutor()}.
+ * </p>
+ * <p>
+ * Control points often repeat a search several times within the MX window. A search request with
+ * the same source, search target, and receiving local address as an already pending search is
+ * coalesced into the pending response batch, and counted as deduplicated.
+ * </p>
+ */
+public class SearchResponseScheduler {
+
+    private final Logger logger = LoggerFactory.getLogger(SearchResponseScheduler.class);
+
+    protected final UpnpService upnpService;
+
+    protected final Map<String, ReceivingSearch> pendingSearches = new ConcurrentHashMap<>();
+    protected final AtomicLong scheduledCount = new AtomicLong();
+    protected final AtomicLong deduplicatedCount = new AtomicLong();
+
+    public SearchResponseScheduler(UpnpService upnpService) {
+        this.upnpService = upnpService;
+    }
+
+    public UpnpService getUpnpService() {
+        return upnpService;
+    }
+
+    /**
+     * Schedules the execution of the given search protocol.
+     *
+     * @param search The search protocol to execute after the delay.
+     * @param delayMillis The delay in milliseconds.
+     * @return <code>false</code> if the search was coalesced with an already pending search, or if it couldn't be
+     *         scheduled.
+     */
+    public boolean schedule(final ReceivingSearch search, long delayMillis) {
+        final String key = createKey(search.getInputMessage());
+
+        if (pendingSearches.putIfAbsent(key, search) != null) {
+            long deduplicated = deduplicatedCount.incrementAndGet();
+            logger.trace("Coalescing duplicate search request with pending response ({} deduplicated): {}",
+                    deduplicated, key);
+            return false;
+        }
+
+        try {
+            getUpnpService().getConfiguration().getScheduledExecutorService()
+                    .schedule(() -> respond(key, search), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Search response could not be scheduled (on shutdown?): {}", key);
+            pendingSearches.remove(key);
+            return false;
+        }
+
+        scheduledCount.incrementAndGet();
+        logger.trace("Scheduled search response in {} milliseconds: {}", delayMillis, key);
+        return true;
+    }
+
+    /**
+     * @return The number of search requests with a pending, delayed response.
+     */
+    public int getPendingCount() {
+        return pendingSearches.size();
+    }
+
+    /**
+     * @return The number of response batches scheduled since startup.
+     */
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    /**
+     * @return The number of duplicate search requests which have been coalesced into a pending response batch.
+     */
+    public long getDeduplicatedCount() {
+        return deduplicatedCount.get();
+    }
+
+    protected void respond(String key, ReceivingSearch search) {
+        // Duplicates arriving from now on get their own response batch
+        pendingSearches.remove(key);
+        try {
+            getUpnpService().getConfiguration().getAsyncProtocolExecutor().execute(search::executeScheduled);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Search response execution rejected (on shutdown?): {}", key);
+        }
+    }
+
+    protected String createKey(IncomingSearchRequest request) {
+        UpnpHeader searchTarget = request.getSearchTarget();
+        return request.getSourceAddress().getHostAddress() + ":" + request.getSourcePort() + " "
+                + (searchTarget != null ? searchTarget.getString() : null) + " "
+                + (request.getLocalAddress() != null ? request.getLocalAddress().getHostAddress() : null);
+    }
+}
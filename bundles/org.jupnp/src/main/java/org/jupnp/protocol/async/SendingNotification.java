@@ -38,7 +38,8 @@ import org.slf4j.LoggerFactory;
  * Sending notification messages for a registered local device.
  * <p>
  * Sends all required (dozens) of messages three times, waits between 0 and 150
- * milliseconds between each bulk sending procedure.
+ * milliseconds between each bulk sending procedure. The messages are created once and
+ * their rendered datagrams are reused for each repetition.
  * </p>
  *
  * @author Christian Bauer
@@ -61,24 +62,17 @@ public abstract class SendingNotification extends SendingAsync {
     @Override
     protected void execute() throws RouterException {
 
-        List<NetworkAddress> activeStreamServers = getUpnpService().getRouter().getActiveStreamServers(null);
-        if (activeStreamServers.isEmpty()) {
-            logger.trace("Aborting notifications, no active stream servers found (network disabled?)");
-            return;
-        }
-
         // Prepare it once, it's the same for each repetition
-        List<Location> descriptorLocations = new ArrayList<>();
-        for (NetworkAddress activeStreamServer : activeStreamServers) {
-            descriptorLocations.add(new Location(activeStreamServer,
-                    getUpnpService().getConfiguration().getNamespace().getDescriptorPathString(getDevice())));
+        List<OutgoingNotificationRequest> msgs = createMessages();
+        if (msgs.isEmpty()) {
+            return;
         }
 
         for (int i = 0; i < getBulkRepeat(); i++) {
             try {
 
-                for (Location descriptorLocation : descriptorLocations) {
-                    sendMessages(descriptorLocation);
+                for (OutgoingNotificationRequest upnpMessage : msgs) {
+                    getUpnpService().getRouter().send(upnpMessage);
                 }
 
                 // UDA 1.0 is silent about this but UDA 1.1 recomments "a few hundred milliseconds"
@@ -99,31 +93,47 @@ public abstract class SendingNotification extends SendingAsync {
         return 150;
     }
 
+    /**
+     * @return The messages for all active stream servers, empty if there are no active stream servers.
+     */
+    protected List<OutgoingNotificationRequest> createMessages() throws RouterException {
+        List<NetworkAddress> activeStreamServers = getUpnpService().getRouter().getActiveStreamServers(null);
+        if (activeStreamServers.isEmpty()) {
+            logger.trace("Aborting notifications, no active stream servers found (network disabled?)");
+            return List.of();
+        }
+
+        List<OutgoingNotificationRequest> msgs = new ArrayList<>();
+        for (NetworkAddress activeStreamServer : activeStreamServers) {
+            msgs.addAll(createMessages(new Location(activeStreamServer,
+                    getUpnpService().getConfiguration().getNamespace().getDescriptorPathString(getDevice()))));
+        }
+        return msgs;
+    }
+
     public void sendMessages(Location descriptorLocation) throws RouterException {
-        logger.trace("Sending root device messages: {}", getDevice());
-        List<OutgoingNotificationRequest> rootDeviceMsgs = createDeviceMessages(getDevice(), descriptorLocation);
-        for (OutgoingNotificationRequest upnpMessage : rootDeviceMsgs) {
+        for (OutgoingNotificationRequest upnpMessage : createMessages(descriptorLocation)) {
             getUpnpService().getRouter().send(upnpMessage);
         }
+    }
+
+    protected List<OutgoingNotificationRequest> createMessages(Location descriptorLocation) {
+        List<OutgoingNotificationRequest> msgs = new ArrayList<>();
+
+        logger.trace("Creating root device messages: {}", getDevice());
+        msgs.addAll(createDeviceMessages(getDevice(), descriptorLocation));
 
         if (getDevice().hasEmbeddedDevices()) {
             for (LocalDevice embeddedDevice : getDevice().findEmbeddedDevices()) {
-                logger.trace("Sending embedded device messages: {}", embeddedDevice);
-                List<OutgoingNotificationRequest> embeddedDeviceMsgs = createDeviceMessages(embeddedDevice,
-                        descriptorLocation);
-                for (OutgoingNotificationRequest upnpMessage : embeddedDeviceMsgs) {
-                    getUpnpService().getRouter().send(upnpMessage);
-                }
+                logger.trace("Creating embedded device messages: {}", embeddedDevice);
+                msgs.addAll(createDeviceMessages(embeddedDevice, descriptorLocation));
             }
         }
 
-        List<OutgoingNotificationRequest> serviceTypeMsgs = createServiceTypeMessages(getDevice(), descriptorLocation);
-        if (!serviceTypeMsgs.isEmpty()) {
-            logger.trace("Sending service type messages");
-            for (OutgoingNotificationRequest upnpMessage : serviceTypeMsgs) {
-                getUpnpService().getRouter().send(upnpMessage);
-            }
-        }
+        logger.trace("Creating service type messages");
+        msgs.addAll(createServiceTypeMessages(getDevice(), descriptorLocation));
+
+        return msgs;
     }
 
     protected List<OutgoingNotificationRequest> createDeviceMessages(LocalDevice device, Location descriptorLocation) {
@@ -15,7 +15,10 @@
  */
 package org.jupnp.protocol.async;
 
+import java.util.List;
+
 import org.jupnp.UpnpService;
+import org.jupnp.model.message.discovery.OutgoingNotificationRequest;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.types.NotificationSubtype;
 import org.jupnp.transport.RouterException;
@@ -24,6 +27,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Sending <em>ALIVE</em> notification messages for a registered local device.
+ * <p>
+ * With an {@link AdvertisementScheduler}, the repetitions are scheduled instead of waiting between them, and all
+ * messages are sent within the rate limit of the scheduler.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -31,14 +38,34 @@ public class SendingNotificationAlive extends SendingNotification {
 
     private final Logger logger = LoggerFactory.getLogger(SendingNotification.class);
 
+    protected final AdvertisementScheduler advertisementScheduler;
+
     public SendingNotificationAlive(UpnpService upnpService, LocalDevice device) {
+        this(upnpService, device, null);
+    }
+
+    public SendingNotificationAlive(UpnpService upnpService, LocalDevice device,
+            AdvertisementScheduler advertisementScheduler) {
         super(upnpService, device);
+        this.advertisementScheduler = advertisementScheduler;
     }
 
     @Override
     protected void execute() throws RouterException {
         logger.trace("Sending alive messages ({} times) for: {}", getBulkRepeat(), getDevice());
-        super.execute();
+        if (advertisementScheduler == null) {
+            super.execute();
+            return;
+        }
+
+        List<OutgoingNotificationRequest> msgs = createMessages();
+        if (msgs.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < getBulkRepeat(); i++) {
+            advertisementScheduler.schedule(getDevice().getIdentity().getUdn(), msgs,
+                    (long) i * getBulkIntervalMilliseconds());
+        }
     }
 
     @Override
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol.sync;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jupnp.UpnpService;
+import org.jupnp.model.UnsupportedDataException;
+import org.jupnp.model.message.UpnpMessage;
+import org.jupnp.model.message.gena.OutgoingEventRequestMessage;
+import org.jupnp.model.state.StateVariableValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders the body of event messages once, and shares it between all messages with the same state variable values.
+ * <p>
+ * When the state of a local service changes, all {@link org.jupnp.model.gena.LocalGENASubscription}s receive the
+ * same {@link StateVariableValue} instances. Unless a subscription moderates some of them out, its event has the same
+ * <code>e:propertyset</code> body as the events of all other subscriptions. The body is written once with the
+ * {@link org.jupnp.UpnpServiceConfiguration#getGenaEventProcessor()}, and the encoded bytes are reused for every
+ * subscriber and callback URL. Only the <em>SID</em> and <em>SEQ</em> headers differ between the messages.
+ * </p>
+ * <p>
+ * The state variable values are compared by identity, an event with new values (e.g. the initial event of a
+ * subscription) is always rendered. The bodies of the last {@link #MAX_RENDERED_BODIES} value sets are retained.
+ * </p>
+ */
+public class EventBodyRenderer {
+
+    public static final int MAX_RENDERED_BODIES = 16;
+
+    private final Logger logger = LoggerFactory.getLogger(EventBodyRenderer.class);
+
+    protected final UpnpService upnpService;
+
+    protected final Map<List<StateVariableValue>, byte[]> renderedBodies = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<StateVariableValue>, byte[]> eldest) {
+            return size() > MAX_RENDERED_BODIES;
+        }
+    };
+    protected final AtomicLong renderedCount = new AtomicLong();
+    protected final AtomicLong sharedCount = new AtomicLong();
+
+    public EventBodyRenderer(UpnpService upnpService) {
+        this.upnpService = upnpService;
+    }
+
+    public UpnpService getUpnpService() {
+        return upnpService;
+    }
+
+    /**
+     * Sets the body of the given message, rendering it only if no message with the same state variable values was
+     * written before.
+     */
+    public void writeBody(OutgoingEventRequestMessage requestMessage) throws UnsupportedDataException {
+        List<StateVariableValue> values = createKey(requestMessage.getStateVariableValues());
+
+        byte[] body;
+        synchronized (renderedBodies) {
+            body = renderedBodies.get(values);
+        }
+
+        if (body != null) {
+            long shared = sharedCount.incrementAndGet();
+            logger.trace("Reusing rendered event body ({} shared): {}", shared, requestMessage);
+        } else {
+            getUpnpService().getConfiguration().getGenaEventProcessor().writeBody(requestMessage);
+            body = requestMessage.getBodyBytes();
+            renderedCount.incrementAndGet();
+            synchronized (renderedBodies) {
+                renderedBodies.put(values, body);
+            }
+        }
+
+        requestMessage.setBody(UpnpMessage.BodyType.BYTES, body);
+    }
+
+    /**
+     * @return The number of event bodies written with the GENA event processor.
+     */
+    public long getRenderedCount() {
+        return renderedCount.get();
+    }
+
+    /**
+     * @return The number of event messages which reused an already rendered body.
+     */
+    public long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    /**
+     * {@link StateVariableValue} doesn't override <code>equals()</code>, so the list compares its elements by identity.
+     */
+    protected List<StateVariableValue> createKey(Collection<StateVariableValue> values) {
+        return List.copyOf(values);
+    }
+}
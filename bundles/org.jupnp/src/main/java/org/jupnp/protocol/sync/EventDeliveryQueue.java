@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol.sync;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jupnp.UpnpService;
+import org.jupnp.metrics.UpnpMetrics;
+import org.jupnp.model.gena.LocalGENASubscription;
+import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.meta.LocalService;
+import org.jupnp.model.state.StateVariableValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the events of a {@link LocalGENASubscription} in order, with at most one event message in flight.
+ * <p>
+ * Each {@link #enqueue()} merges the current values of the subscription into the pending event, the latest value of
+ * a state variable wins. The pending event is bounded by the number of evented state variables, no matter how fast
+ * the state of the service changes. When the event in flight has been sent, the pending event gets the next
+ * <em>SEQ</em> and is sent next, so the sequence is monotonic. Event messages are sent with
+ * {@link SendingEvent#executeAsync()}, a slow subscriber holds no thread of the
+ * {@link org.jupnp.UpnpServiceConfiguration#getSyncProtocolExecutorService()} while the
+ * {@link org.jupnp.transport.spi.StreamClient} waits for its response.
+ * </p>
+ * <p>
+ * A subscriber which doesn't respond to {@link #BACKOFF_AFTER_FAILURES} consecutive event messages gets the next
+ * event message after a delay, doubling from {@link #MIN_BACKOFF_MILLIS} up to {@link #MAX_BACKOFF_MILLIS} while it
+ * keeps failing. Events received in the meantime are merged into the pending event.
+ * </p>
+ * <p>
+ * The time from the first change merged into an event until the subscriber responded to it is reported as
+ * {@link UpnpMetrics#GENA_DELIVERY_LAG}.
+ * </p>
+ * <p>
+ * The queue is {@link #stop() stopped} when the subscription ends, and no further event message is sent once the
+ * subscription has been removed from the {@link org.jupnp.registry.Registry}.
+ * </p>
+ */
+public class EventDeliveryQueue {
+
+    public static final int BACKOFF_AFTER_FAILURES = 2;
+    public static final long MIN_BACKOFF_MILLIS = 1000;
+    public static final long MAX_BACKOFF_MILLIS = 60000;
+
+    private final Logger logger = LoggerFactory.getLogger(EventDeliveryQueue.class);
+
+    protected final UpnpService upnpService;
+    protected final LocalGENASubscription subscription;
+
+    // Guarded by the subscription, its state variable values are read and written with the same lock
+    protected final Map<String, StateVariableValue<LocalService>> pendingValues = new LinkedHashMap<>();
+    protected boolean delivering;
+    protected boolean stopped;
+    protected int consecutiveFailures;
+    protected long coalescedCount;
+    protected long pendingSinceNanos;
+    protected long inFlightSinceNanos;
+
+    public EventDeliveryQueue(UpnpService upnpService, LocalGENASubscription subscription) {
+        this.upnpService = upnpService;
+        this.subscription = subscription;
+    }
+
+    public UpnpService getUpnpService() {
+        return upnpService;
+    }
+
+    /**
+     * Merges the current values of the subscription into the pending event, and starts delivering it unless an
+     * event is already in flight or delayed.
+     */
+    public void enqueue() {
+        synchronized (subscription) {
+            if (stopped) {
+                return;
+            }
+            if (!pendingValues.isEmpty()) {
+                coalescedCount++;
+                logger.trace("Merging event into pending event of subscription: {}", subscription.getSubscriptionId());
+            } else {
+                pendingSinceNanos = System.nanoTime();
+            }
+            Map<String, StateVariableValue<LocalService>> currentValues = subscription.getCurrentValues();
+            pendingValues.putAll(currentValues);
+
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+        }
+        execute();
+    }
+
+    /**
+     * @return The number of consecutive event messages without a response from the subscriber.
+     */
+    public int getConsecutiveFailures() {
+        synchronized (subscription) {
+            return consecutiveFailures;
+        }
+    }
+
+    /**
+     * @return The number of events which have been merged into a pending event.
+     */
+    public long getCoalescedCount() {
+        synchronized (subscription) {
+            return coalescedCount;
+        }
+    }
+
+    protected void execute() {
+        try {
+            getUpnpService().getConfiguration().getSyncProtocolExecutorService().execute(this::deliver);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Event delivery could not be executed (on shutdown?): {}", subscription.getSubscriptionId());
+            stop();
+        }
+    }
+
+    protected void deliver() {
+        while (true) {
+            // Not while holding the lock of the subscription, the registry ends subscriptions with its own lock
+            if (!isRegistered()) {
+                logger.debug("Subscription has been removed, not sending pending event: {}",
+                        subscription.getSubscriptionId());
+                stop();
+                return;
+            }
+
+            SendingEvent sendingEvent;
+            synchronized (subscription) {
+                if (stopped || pendingValues.isEmpty()) {
+                    delivering = false;
+                    return;
+                }
+
+                // The event message is prepared with the merged values, and gets its SEQ now
+                Map<String, StateVariableValue<LocalService>> currentValues = subscription.getCurrentValues();
+                currentValues.clear();
+                currentValues.putAll(pendingValues);
+                pendingValues.clear();
+                inFlightSinceNanos = pendingSinceNanos;
+                sendingEvent = getUpnpService().getProtocolFactory().createSendingEvent(subscription);
+            }
+            if (sendingEvent == null) {
+                continue;
+            }
+
+            CompletableFuture<StreamResponseMessage> response = send(sendingEvent);
+            if (!response.isDone()) {
+                // Don't hold a thread while waiting for the subscriber, continue when the response is received
+                response.whenComplete((responseMessage, failure) -> {
+                    if (responded(response)) {
+                        execute();
+                    }
+                });
+                return;
+            }
+            if (!responded(response)) {
+                return;
+            }
+        }
+    }
+
+    protected boolean isRegistered() {
+        return getUpnpService().getRegistry().getLocalSubscription(subscription.getSubscriptionId()) != null;
+    }
+
+    protected CompletableFuture<StreamResponseMessage> send(SendingEvent sendingEvent) {
+        try {
+            return sendingEvent.executeAsync();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the next event has been delayed.
+     */
+    protected boolean responded(CompletableFuture<StreamResponseMessage> response) {
+        StreamResponseMessage responseMessage = null;
+        try {
+            responseMessage = response.join();
+        } catch (CompletionException | CancellationException e) {
+            logger.debug("Sending event failed: {}", subscription.getSubscriptionId(), e);
+        }
+
+        long backoffMillis = responseMessage != null ? delivered() : failed();
+        if (backoffMillis > 0) {
+            logger.debug("Subscriber didn't respond to {} events, delaying next event by {} ms: {}",
+                    getConsecutiveFailures(), backoffMillis, subscription.getSubscriptionId());
+            schedule(backoffMillis);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The delay in milliseconds before the next event is sent.
+     */
+    protected long delivered() {
+        long lagNanos;
+        synchronized (subscription) {
+            consecutiveFailures = 0;
+            lagNanos = System.nanoTime() - inFlightSinceNanos;
+        }
+        getUpnpService().getConfiguration().getMetrics().recordDuration(UpnpMetrics.GENA_DELIVERY_LAG,
+                subscription.getService().getServiceType().getType(), lagNanos);
+        return 0;
+    }
+
+    /**
+     * @return The delay in milliseconds before the next event is sent.
+     */
+    protected long failed() {
+        synchronized (subscription) {
+            consecutiveFailures++;
+            if (consecutiveFailures < BACKOFF_AFTER_FAILURES) {
+                return 0;
+            }
+            int doublings = Math.min(consecutiveFailures - BACKOFF_AFTER_FAILURES, 16);
+            return Math.min(MIN_BACKOFF_MILLIS << doublings, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    protected void schedule(long delayMillis) {
+        synchronized (subscription) {
+            if (stopped) {
+                delivering = false;
+                return;
+            }
+        }
+        try {
+            getUpnpService().getConfiguration().getScheduledExecutorService().schedule(this::execute, delayMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Event delivery could not be scheduled (on shutdown?): {}", subscription.getSubscriptionId());
+            stop();
+        }
+    }
+
+    /**
+     * Drops the pending event, no further event message is sent by this queue.
+     */
+    public void stop() {
+        synchronized (subscription) {
+            stopped = true;
+            pendingValues.clear();
+            delivering = false;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 package org.jupnp.protocol.sync;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.jupnp.UpnpService;
 import org.jupnp.binding.xml.DescriptorBindingException;
@@ -23,15 +25,18 @@ import org.jupnp.binding.xml.DeviceDescriptorBinder;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.message.UpnpResponse;
 import org.jupnp.model.message.header.ContentTypeHeader;
 import org.jupnp.model.message.header.ServerHeader;
 import org.jupnp.model.message.header.UpnpHeader;
+import org.jupnp.model.meta.DeviceDetails;
 import org.jupnp.model.meta.Icon;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.LocalService;
 import org.jupnp.model.resource.DeviceDescriptorResource;
 import org.jupnp.model.resource.IconResource;
+import org.jupnp.model.resource.RenderedDescriptor;
 import org.jupnp.model.resource.Resource;
 import org.jupnp.model.resource.ServiceDescriptorResource;
 import org.jupnp.protocol.ReceivingSync;
@@ -43,11 +48,14 @@ import org.slf4j.LoggerFactory;
  * Handles reception of device/service descriptor and icon retrieval messages.
  *
  * <p>
- * Requested device and service XML descriptors are generated on-the-fly for every request.
+ * Requested device and service XML descriptors are rendered once and cached by their resource, until the
+ * device is removed from the registry. Descriptor responses carry an <code>ETag</code> header, a request
+ * with a matching <code>If-None-Match</code> header is answered with <code>304 Not Modified</code>.
  * </p>
  * <p>
  * Descriptor XML is dynamically generated depending on the control point - some control
- * points require different metadata than others for the same device and services.
+ * points require different metadata than others for the same device and services. The device descriptor
+ * is therefore cached for each combination of {@link DeviceDetails} provided by the device(s).
  * </p>
  *
  * @author Christian Bauer
@@ -92,24 +100,33 @@ public class ReceivingRetrieval extends ReceivingSync<StreamRequestMessage, Stre
             if (DeviceDescriptorResource.class.isAssignableFrom(resource.getClass())) {
 
                 logger.trace("Found local device matching relative request URI: {}", requestedURI);
-                LocalDevice device = (LocalDevice) resource.getModel();
-
-                DeviceDescriptorBinder deviceDescriptorBinder = getUpnpService().getConfiguration()
-                        .getDeviceDescriptorBinderUDA10();
-                String deviceDescriptor = deviceDescriptorBinder.generate(device, getRemoteClientInfo(),
-                        getUpnpService().getConfiguration().getNamespace());
-                response = new StreamResponseMessage(deviceDescriptor,
-                        new ContentTypeHeader(ContentTypeHeader.DEFAULT_CONTENT_TYPE));
+                DeviceDescriptorResource descriptorResource = (DeviceDescriptorResource) resource;
+                LocalDevice device = descriptorResource.getModel();
+
+                List<DeviceDetails> details = getDetails(device);
+                RenderedDescriptor deviceDescriptor = descriptorResource.getRendered(details);
+                if (deviceDescriptor == null) {
+                    DeviceDescriptorBinder deviceDescriptorBinder = getUpnpService().getConfiguration()
+                            .getDeviceDescriptorBinderUDA10();
+                    deviceDescriptor = new RenderedDescriptor(deviceDescriptorBinder.generate(device,
+                            getRemoteClientInfo(), getUpnpService().getConfiguration().getNamespace()));
+                    descriptorResource.putRendered(details, deviceDescriptor);
+                }
+                response = createDescriptorResponse(deviceDescriptor);
             } else if (ServiceDescriptorResource.class.isAssignableFrom(resource.getClass())) {
 
                 logger.trace("Found local service matching relative request URI: {}", requestedURI);
-                LocalService service = (LocalService) resource.getModel();
-
-                ServiceDescriptorBinder serviceDescriptorBinder = getUpnpService().getConfiguration()
-                        .getServiceDescriptorBinderUDA10();
-                String serviceDescriptor = serviceDescriptorBinder.generate(service);
-                response = new StreamResponseMessage(serviceDescriptor,
-                        new ContentTypeHeader(ContentTypeHeader.DEFAULT_CONTENT_TYPE));
+                ServiceDescriptorResource descriptorResource = (ServiceDescriptorResource) resource;
+                LocalService service = descriptorResource.getModel();
+
+                RenderedDescriptor serviceDescriptor = descriptorResource.getRendered();
+                if (serviceDescriptor == null) {
+                    ServiceDescriptorBinder serviceDescriptorBinder = getUpnpService().getConfiguration()
+                            .getServiceDescriptorBinderUDA10();
+                    serviceDescriptor = new RenderedDescriptor(serviceDescriptorBinder.generate(service));
+                    descriptorResource.setRendered(serviceDescriptor);
+                }
+                response = createDescriptorResponse(serviceDescriptor);
 
             } else if (IconResource.class.isAssignableFrom(resource.getClass())) {
 
@@ -133,6 +150,32 @@ public class ReceivingRetrieval extends ReceivingSync<StreamRequestMessage, Stre
         return response;
     }
 
+    protected StreamResponseMessage createDescriptorResponse(RenderedDescriptor descriptor) {
+        StreamResponseMessage response;
+        if (descriptor.matches(getInputMessage().getHeaders().getFirstHeader(UpnpHeaders.IF_NONE_MATCH))) {
+            logger.trace("Descriptor not modified, entity tag: {}", descriptor.getEntityTag());
+            response = new StreamResponseMessage(UpnpResponse.Status.NOT_MODIFIED);
+        } else {
+            response = new StreamResponseMessage(descriptor.getData(),
+                    new ContentTypeHeader(ContentTypeHeader.DEFAULT_CONTENT_TYPE));
+        }
+        response.getHeaders().add(UpnpHeaders.ETAG, descriptor.getEntityTag());
+        return response;
+    }
+
+    /**
+     * The device descriptor only depends on the requesting control point through the details provided by the
+     * root and embedded devices, these are the key of the cached descriptors.
+     */
+    protected List<DeviceDetails> getDetails(LocalDevice device) {
+        List<DeviceDetails> details = new ArrayList<>();
+        details.add(device.getDetails(getRemoteClientInfo()));
+        for (LocalDevice embeddedDevice : device.findEmbeddedDevices()) {
+            details.add(embeddedDevice.getDetails(getRemoteClientInfo()));
+        }
+        return details;
+    }
+
     /**
      * Called if the {@link org.jupnp.registry.Registry} had no result.
      *
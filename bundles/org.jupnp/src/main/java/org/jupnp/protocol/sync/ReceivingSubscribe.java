@@ -52,6 +52,10 @@ import org.slf4j.LoggerFactory;
  * state of the service is send to the subscriber. This will only happen after the
  * subscription response message was successfully delivered to the subscriber.
  * </p>
+ * <p>
+ * The initial event and all following events of the subscription are delivered in order
+ * by its {@link EventDeliveryQueue}.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -60,6 +64,7 @@ public class ReceivingSubscribe extends ReceivingSync<StreamRequestMessage, Outg
     private final Logger logger = LoggerFactory.getLogger(ReceivingSubscribe.class);
 
     protected LocalGENASubscription subscription;
+    protected EventDeliveryQueue deliveryQueue;
 
     public ReceivingSubscribe(UpnpService upnpService, StreamRequestMessage inputMessage) {
         super(upnpService, inputMessage);
@@ -167,15 +172,16 @@ public class ReceivingSubscribe extends ReceivingSync<StreamRequestMessage, Outg
 
                 @Override
                 public void ended(CancelReason reason) {
+                    deliveryQueue.stop();
                 }
 
                 @Override
                 public void eventReceived() {
                     // The only thing we are interested in, sending an event when the state changes
-                    getUpnpService().getConfiguration().getSyncProtocolExecutorService()
-                            .execute(getUpnpService().getProtocolFactory().createSendingEvent(this));
+                    deliveryQueue.enqueue();
                 }
             };
+            deliveryQueue = createEventDeliveryQueue(subscription);
         } catch (Exception e) {
             logger.warn("Couldn't create local subscription to service", e);
             return new OutgoingSubscribeResponseMessage(UpnpResponse.Status.INTERNAL_SERVER_ERROR);
@@ -188,6 +194,10 @@ public class ReceivingSubscribe extends ReceivingSync<StreamRequestMessage, Outg
         return new OutgoingSubscribeResponseMessage(subscription);
     }
 
+    protected EventDeliveryQueue createEventDeliveryQueue(LocalGENASubscription subscription) {
+        return new EventDeliveryQueue(getUpnpService(), subscription);
+    }
+
     @Override
     public void responseSent(StreamResponseMessage responseMessage) {
         if (subscription == null) {
@@ -196,19 +206,15 @@ public class ReceivingSubscribe extends ReceivingSync<StreamRequestMessage, Outg
         if (responseMessage != null && !responseMessage.getOperation().isFailed()
                 && subscription.getCurrentSequence().getValue() == 0) { // Note that renewals should not have 0
 
-            // This is a minor concurrency issue: If we now register on the service and henceforth send a new
-            // event message whenever the state of the service changes, there is still a chance that the initial
-            // event message arrives later than the first on-change event message. Shouldn't be a problem as the
-            // subscriber is supposed to figure out what to do with out-of-sequence messages. I would be
-            // surprised though if actual implementations won't crash!
+            // The initial event is queued before we register on the service, so on-change events can't overtake
+            // it, they are merged into the initial event if it hasn't been sent yet
+            logger.trace("Response to subscription sent successfully, now sending initial event asynchronously");
+            deliveryQueue.enqueue();
+
             logger.trace("Establishing subscription");
             subscription.registerOnService();
             subscription.establish();
 
-            logger.trace("Response to subscription sent successfully, now sending initial event asynchronously");
-            getUpnpService().getConfiguration().getAsyncProtocolExecutor()
-                    .execute(getUpnpService().getProtocolFactory().createSendingEvent(subscription));
-
         } else if (subscription.getCurrentSequence().getValue() == 0) {
             logger.trace("Subscription request's response aborted, not sending initial event");
             if (responseMessage == null) {
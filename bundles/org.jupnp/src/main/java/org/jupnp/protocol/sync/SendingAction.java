@@ -16,6 +16,7 @@
 package org.jupnp.protocol.sync;
 
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 import org.jupnp.UpnpService;
 import org.jupnp.model.UnsupportedDataException;
@@ -45,6 +46,11 @@ import org.slf4j.LoggerFactory;
  * available with
  * {@link org.jupnp.model.action.ActionInvocation#setFailure(org.jupnp.model.action.ActionException)}.
  * </p>
+ * <p>
+ * When executed with {@link #executeAsync()}, the request is sent with
+ * {@link org.jupnp.transport.Router#sendAsync(org.jupnp.model.message.StreamRequestMessage)} and the response
+ * is processed by the thread completing the transfer.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -64,26 +70,50 @@ public class SendingAction extends SendingSync<OutgoingActionRequestMessage, Inc
         return invokeRemote(getInputMessage());
     }
 
+    @Override
+    protected CompletableFuture<IncomingActionResponseMessage> executeNonBlocking() throws RouterException {
+        OutgoingActionRequestMessage requestMessage = getInputMessage();
+        logger.trace("Sending outgoing action call '{}' asynchronously to remote service of: {}",
+                actionInvocation.getAction().getName(), actionInvocation.getAction().getService().getDevice());
+        try {
+            writeRequestBody(requestMessage);
+        } catch (ActionException e) {
+            return CompletableFuture.completedFuture(failed(e, null));
+        }
+        return getUpnpService().getRouter().sendAsync(requestMessage).thenApply(this::processResponse);
+    }
+
     protected IncomingActionResponseMessage invokeRemote(OutgoingActionRequestMessage requestMessage)
             throws RouterException {
         Device device = actionInvocation.getAction().getService().getDevice();
 
         logger.trace("Sending outgoing action call '{}' to remote service of: {}",
                 actionInvocation.getAction().getName(), device);
-        IncomingActionResponseMessage responseMessage = null;
+        StreamResponseMessage streamResponse;
         try {
+            streamResponse = sendRemoteRequest(requestMessage);
+        } catch (ActionException e) {
+            return failed(e, null);
+        }
+        return processResponse(streamResponse);
+    }
 
-            StreamResponseMessage streamResponse = sendRemoteRequest(requestMessage);
-
-            if (streamResponse == null) {
-                logger.trace("No connection or no no response received, returning null");
-                actionInvocation.setFailure(
-                        new ActionException(ErrorCode.ACTION_FAILED, "Connection error or no response received"));
-                return null;
-            }
-
-            responseMessage = new IncomingActionResponseMessage(streamResponse);
+    /**
+     * Reads the response of the remote service into the action invocation, also called when sending without
+     * blocking.
+     *
+     * @return <code>null</code> if no response was received.
+     */
+    protected IncomingActionResponseMessage processResponse(StreamResponseMessage streamResponse) {
+        if (streamResponse == null) {
+            logger.trace("No connection or no no response received, returning null");
+            actionInvocation.setFailure(
+                    new ActionException(ErrorCode.ACTION_FAILED, "Connection error or no response received"));
+            return null;
+        }
 
+        IncomingActionResponseMessage responseMessage = new IncomingActionResponseMessage(streamResponse);
+        try {
             if (responseMessage.isFailedNonRecoverable()) {
                 logger.trace("Response was a non-recoverable failure: {}", responseMessage);
                 throw new ActionException(ErrorCode.ACTION_FAILED, "Non-recoverable remote execution failure: "
@@ -93,17 +123,19 @@ public class SendingAction extends SendingSync<OutgoingActionRequestMessage, Inc
             } else {
                 handleResponse(responseMessage);
             }
-
             return responseMessage;
-
         } catch (ActionException e) {
-            logger.trace("Remote action invocation failed, returning Internal Server Error message", e);
-            actionInvocation.setFailure(e);
-            if (responseMessage == null || !responseMessage.getOperation().isFailed()) {
-                return new IncomingActionResponseMessage(new UpnpResponse(UpnpResponse.Status.INTERNAL_SERVER_ERROR));
-            } else {
-                return responseMessage;
-            }
+            return failed(e, responseMessage);
+        }
+    }
+
+    protected IncomingActionResponseMessage failed(ActionException e, IncomingActionResponseMessage responseMessage) {
+        logger.trace("Remote action invocation failed, returning Internal Server Error message", e);
+        actionInvocation.setFailure(e);
+        if (responseMessage == null || !responseMessage.getOperation().isFailed()) {
+            return new IncomingActionResponseMessage(new UpnpResponse(UpnpResponse.Status.INTERNAL_SERVER_ERROR));
+        } else {
+            return responseMessage;
         }
     }
 
@@ -111,8 +143,7 @@ public class SendingAction extends SendingSync<OutgoingActionRequestMessage, Inc
             throws ActionException, RouterException {
 
         try {
-            logger.trace("Writing SOAP request body of: {}", requestMessage);
-            getUpnpService().getConfiguration().getSoapActionProcessor().writeBody(requestMessage, actionInvocation);
+            writeRequestBody(requestMessage);
 
             logger.trace("Sending SOAP body of message as stream to remote device");
             return getUpnpService().getRouter().send(requestMessage);
@@ -123,6 +154,13 @@ public class SendingAction extends SendingSync<OutgoingActionRequestMessage, Inc
                 throw new ActionCancelledException((InterruptedException) cause);
             }
             throw e;
+        }
+    }
+
+    protected void writeRequestBody(OutgoingActionRequestMessage requestMessage) throws ActionException {
+        try {
+            logger.trace("Writing SOAP request body of: {}", requestMessage);
+            getUpnpService().getConfiguration().getSoapActionProcessor().writeBody(requestMessage, actionInvocation);
         } catch (UnsupportedDataException e) {
             logger.trace("Error writing SOAP body", e);
             throw new ActionException(ErrorCode.ACTION_FAILED, "Error writing request message. " + e.getMessage());
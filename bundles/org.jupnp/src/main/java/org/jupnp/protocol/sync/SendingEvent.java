@@ -16,11 +16,14 @@
 package org.jupnp.protocol.sync;
 
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.jupnp.UpnpService;
 import org.jupnp.model.gena.LocalGENASubscription;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.model.message.gena.OutgoingEventRequestMessage;
+import org.jupnp.model.state.StateVariableValue;
 import org.jupnp.model.types.UnsignedIntegerFourBytes;
 import org.jupnp.protocol.SendingSync;
 import org.jupnp.transport.RouterException;
@@ -36,6 +39,10 @@ import org.slf4j.LoggerFactory;
  * many messages. What is returned is always the last response, that is, the response for the
  * message sent to the last callback URL in the list of the subscriber.
  * </p>
+ * <p>
+ * The message body is written by an {@link EventBodyRenderer}, shared by all subscriptions when it is
+ * provided by the {@link org.jupnp.protocol.ProtocolFactory}.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -48,6 +55,15 @@ public class SendingEvent extends SendingSync<OutgoingEventRequestMessage, Strea
     protected final UnsignedIntegerFourBytes currentSequence;
 
     public SendingEvent(UpnpService upnpService, LocalGENASubscription subscription) {
+        this(upnpService, subscription, null);
+    }
+
+    /**
+     * @param bodyRenderer Shares the rendered body with the events of other subscriptions, or <code>null</code> to
+     *            render the body for this event only.
+     */
+    public SendingEvent(UpnpService upnpService, LocalGENASubscription subscription,
+            EventBodyRenderer bodyRenderer) {
         super(upnpService, null); // Special case, we actually need to send several messages to each callback URL
 
         // TODO: Ugly design! It is critical (concurrency) that we prepare the event messages here, in the constructor
@@ -55,11 +71,19 @@ public class SendingEvent extends SendingSync<OutgoingEventRequestMessage, Strea
 
         subscriptionId = subscription.getSubscriptionId();
 
+        if (bodyRenderer == null) {
+            bodyRenderer = new EventBodyRenderer(upnpService);
+        }
+
+        // All callback URLs get the same values, so the body is only rendered once
+        List<StateVariableValue> values = List.copyOf(subscription.getCurrentValues().values());
+
         requestMessages = new OutgoingEventRequestMessage[subscription.getCallbackURLs().size()];
         int i = 0;
         for (URL url : subscription.getCallbackURLs()) {
-            requestMessages[i] = new OutgoingEventRequestMessage(subscription, url);
-            getUpnpService().getConfiguration().getGenaEventProcessor().writeBody(requestMessages[i]);
+            requestMessages[i] = new OutgoingEventRequestMessage(subscription, url, subscription.getCurrentSequence(),
+                    values);
+            bodyRenderer.writeBody(requestMessages[i]);
             i++;
         }
 
@@ -79,12 +103,7 @@ public class SendingEvent extends SendingSync<OutgoingEventRequestMessage, Strea
 
         for (OutgoingEventRequestMessage requestMessage : requestMessages) {
 
-            if (currentSequence.getValue() == 0) {
-                logger.trace("Sending initial event message to callback URL: {}", requestMessage.getUri());
-            } else {
-                logger.trace("Sending event message '{}' to callback URL: {}", currentSequence,
-                        requestMessage.getUri());
-            }
+            logSending(requestMessage);
 
             // Send request
             lastResponse = getUpnpService().getRouter().send(requestMessage);
@@ -96,4 +115,39 @@ public class SendingEvent extends SendingSync<OutgoingEventRequestMessage, Strea
         // time anyway
         return lastResponse;
     }
+
+    /**
+     * Sends the messages one after another, each after the response to the previous message was received.
+     */
+    @Override
+    protected CompletableFuture<StreamResponseMessage> executeNonBlocking() throws RouterException {
+
+        logger.trace("Sending event asynchronously for subscription: {}", subscriptionId);
+
+        CompletableFuture<StreamResponseMessage> lastResponse = CompletableFuture.completedFuture(null);
+        for (OutgoingEventRequestMessage requestMessage : requestMessages) {
+            lastResponse = lastResponse.thenCompose(previousResponse -> sendAsync(requestMessage));
+        }
+        return lastResponse;
+    }
+
+    protected CompletableFuture<StreamResponseMessage> sendAsync(OutgoingEventRequestMessage requestMessage) {
+        logSending(requestMessage);
+        try {
+            return getUpnpService().getRouter().sendAsync(requestMessage).thenApply(response -> {
+                logger.trace("Received event callback response: {}", response);
+                return response;
+            });
+        } catch (RouterException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void logSending(OutgoingEventRequestMessage requestMessage) {
+        if (currentSequence.getValue() == 0) {
+            logger.trace("Sending initial event message to callback URL: {}", requestMessage.getUri());
+        } else {
+            logger.trace("Sending event message '{}' to callback URL: {}", currentSequence, requestMessage.getUri());
+        }
+    }
 }
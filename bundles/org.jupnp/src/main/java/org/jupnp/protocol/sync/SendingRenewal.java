@@ -15,6 +15,8 @@
  */
 package org.jupnp.protocol.sync;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.jupnp.UpnpService;
 import org.jupnp.model.gena.CancelReason;
 import org.jupnp.model.gena.RemoteGENASubscription;
@@ -36,6 +38,9 @@ import org.slf4j.LoggerFactory;
  * method will be called. The <code>RENEWAL_FAILED</code> reason will be used, however,
  * the response might be <code>null</code> if no response was received from the remote host.
  * </p>
+ * <p>
+ * When executed with {@link #executeAsync()}, no thread waits for the response of the remote host.
+ * </p>
  * 
  * @author Christian Bauer
  */
@@ -62,7 +67,33 @@ public class SendingRenewal extends SendingSync<OutgoingRenewalRequestMessage, I
             onRenewalFailure();
             throw e;
         }
+        return processResponse(response);
+    }
+
+    @Override
+    protected CompletableFuture<IncomingSubscribeResponseMessage> executeNonBlocking() throws RouterException {
+        logger.trace("Sending subscription renewal request asynchronously: {}", getInputMessage());
+
+        CompletableFuture<StreamResponseMessage> response;
+        try {
+            response = getUpnpService().getRouter().sendAsync(getInputMessage());
+        } catch (RouterException e) {
+            onRenewalFailure();
+            throw e;
+        }
+        return response.whenComplete((responseMessage, failure) -> {
+            if (failure != null) {
+                onRenewalFailure();
+            }
+        }).thenApply(this::processResponse);
+    }
 
+    /**
+     * Updates or ends the subscription, also called when sending without blocking.
+     *
+     * @return <code>null</code> if no response was received.
+     */
+    protected IncomingSubscribeResponseMessage processResponse(StreamResponseMessage response) {
         if (response == null) {
             onRenewalFailure();
             return null;
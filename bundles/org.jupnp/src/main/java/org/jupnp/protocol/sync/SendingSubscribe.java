@@ -16,6 +16,7 @@
 package org.jupnp.protocol.sync;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.jupnp.UpnpService;
 import org.jupnp.model.NetworkAddress;
@@ -42,6 +43,9 @@ import org.slf4j.LoggerFactory;
  * the case when the local network transport layer is switched off, subscriptions will fail
  * immediately with no response.
  * </p>
+ * <p>
+ * When executed with {@link #executeAsync()}, no thread waits for the response of the remote host.
+ * </p>
  *
  * @author Christian Bauer
  */
@@ -65,9 +69,7 @@ public class SendingSubscribe extends SendingSync<OutgoingSubscribeRequestMessag
     @Override
     protected IncomingSubscribeResponseMessage executeSync() throws RouterException {
 
-        if (!getInputMessage().hasCallbackURLs()) {
-            logger.trace("Subscription failed, no active local callback URLs available (network disabled?)");
-            getUpnpService().getConfiguration().getRegistryListenerExecutor().execute(() -> subscription.fail(null));
+        if (!hasCallbackURLs()) {
             return null;
         }
 
@@ -85,37 +87,84 @@ public class SendingSubscribe extends SendingSync<OutgoingSubscribeRequestMessag
                 onSubscriptionFailure();
                 return null;
             }
+            return processResponse(response);
+        } finally {
+            getUpnpService().getRegistry().unregisterPendingRemoteSubscription(subscription);
+        }
+    }
 
-            if (response == null) {
-                onSubscriptionFailure();
-                return null;
+    @Override
+    protected CompletableFuture<IncomingSubscribeResponseMessage> executeNonBlocking() {
+
+        if (!hasCallbackURLs()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        logger.trace("Sending subscription request asynchronously: {}", getInputMessage());
+
+        // The pending subscription stays registered until the response has been processed
+        getUpnpService().getRegistry().registerPendingRemoteSubscription(subscription);
+
+        CompletableFuture<StreamResponseMessage> response;
+        try {
+            response = getUpnpService().getRouter().sendAsync(getInputMessage());
+        } catch (RouterException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((responseMessage, failure) -> {
+            try {
+                if (failure != null) {
+                    onSubscriptionFailure();
+                    return null;
+                }
+                return processResponse(responseMessage);
+            } finally {
+                getUpnpService().getRegistry().unregisterPendingRemoteSubscription(subscription);
             }
+        });
+    }
+
+    protected boolean hasCallbackURLs() {
+        if (!getInputMessage().hasCallbackURLs()) {
+            logger.trace("Subscription failed, no active local callback URLs available (network disabled?)");
+            getUpnpService().getConfiguration().getRegistryListenerExecutor().execute(() -> subscription.fail(null));
+            return false;
+        }
+        return true;
+    }
 
-            final IncomingSubscribeResponseMessage responseMessage = new IncomingSubscribeResponseMessage(response);
+    /**
+     * Establishes or fails the subscription, also called when sending without blocking.
+     *
+     * @return <code>null</code> if no response was received.
+     */
+    protected IncomingSubscribeResponseMessage processResponse(StreamResponseMessage response) {
+        if (response == null) {
+            onSubscriptionFailure();
+            return null;
+        }
 
-            if (response.getOperation().isFailed()) {
-                logger.trace("Subscription failed, response was: {}", responseMessage);
-                getUpnpService().getConfiguration().getRegistryListenerExecutor()
-                        .execute(() -> subscription.fail(responseMessage.getOperation()));
-            } else if (!responseMessage.isValidHeaders()) {
-                logger.error("Subscription failed, invalid or missing (SID, Timeout) response headers");
-                getUpnpService().getConfiguration().getRegistryListenerExecutor()
-                        .execute(() -> subscription.fail(responseMessage.getOperation()));
-            } else {
+        final IncomingSubscribeResponseMessage responseMessage = new IncomingSubscribeResponseMessage(response);
 
-                logger.trace("Subscription established, adding to registry, response was: {}", response);
-                subscription.setSubscriptionId(responseMessage.getSubscriptionId());
-                subscription.setActualSubscriptionDurationSeconds(responseMessage.getSubscriptionDurationSeconds());
+        if (response.getOperation().isFailed()) {
+            logger.trace("Subscription failed, response was: {}", responseMessage);
+            getUpnpService().getConfiguration().getRegistryListenerExecutor()
+                    .execute(() -> subscription.fail(responseMessage.getOperation()));
+        } else if (!responseMessage.isValidHeaders()) {
+            logger.error("Subscription failed, invalid or missing (SID, Timeout) response headers");
+            getUpnpService().getConfiguration().getRegistryListenerExecutor()
+                    .execute(() -> subscription.fail(responseMessage.getOperation()));
+        } else {
 
-                getUpnpService().getRegistry().addRemoteSubscription(subscription);
+            logger.trace("Subscription established, adding to registry, response was: {}", response);
+            subscription.setSubscriptionId(responseMessage.getSubscriptionId());
+            subscription.setActualSubscriptionDurationSeconds(responseMessage.getSubscriptionDurationSeconds());
 
-                getUpnpService().getConfiguration().getRegistryListenerExecutor().execute(subscription::establish);
+            getUpnpService().getRegistry().addRemoteSubscription(subscription);
 
-            }
-            return responseMessage;
-        } finally {
-            getUpnpService().getRegistry().unregisterPendingRemoteSubscription(subscription);
+            getUpnpService().getConfiguration().getRegistryListenerExecutor().execute(subscription::establish);
         }
+        return responseMessage;
     }
 
     protected void onSubscriptionFailure() {
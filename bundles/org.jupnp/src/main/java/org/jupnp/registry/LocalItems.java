@@ -25,12 +25,14 @@ import java.util.Random;
 import java.util.Set;
 
 import org.jupnp.model.DiscoveryOptions;
+import org.jupnp.model.ExpirationDetails;
 import org.jupnp.model.gena.CancelReason;
 import org.jupnp.model.gena.LocalGENASubscription;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.resource.Resource;
 import org.jupnp.model.types.UDN;
 import org.jupnp.protocol.SendingAsync;
+import org.jupnp.protocol.async.AdvertisementScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,7 +46,7 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
     private final Logger logger = LoggerFactory.getLogger(Registry.class);
 
     protected Map<UDN, DiscoveryOptions> discoveryOptions = new HashMap<>();
-    protected long lastAliveIntervalTimestamp = 0;
+    protected Map<UDN, Long> nextAliveTimestamps = new HashMap<>();
 
     LocalItems(RegistryImpl registry) {
         super(registry);
@@ -107,7 +109,7 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
         RegistryItem<UDN, LocalDevice> localItem = new RegistryItem<>(localDevice.getIdentity().getUdn(), localDevice,
                 localDevice.getIdentity().getMaxAgeSeconds());
 
-        getDeviceItems().add(localItem);
+        putDeviceItem(localItem);
         logger.trace("Registered local device: {}", localItem);
 
         if (isByeByeBeforeFirstAlive(localItem.getKey())) {
@@ -116,6 +118,7 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
 
         if (isAdvertised(localItem.getKey())) {
             advertiseAlive(localDevice);
+            scheduleNextAlive(localItem, true);
         }
 
         for (final RegistryListener listener : registry.getListeners()) {
@@ -146,7 +149,8 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
             logger.trace("Removing local device from registry: {}", localDevice);
 
             setDiscoveryOptions(localDevice.getIdentity().getUdn(), null);
-            getDeviceItems().remove(new RegistryItem<>(localDevice.getIdentity().getUdn()));
+            nextAliveTimestamps.remove(localDevice.getIdentity().getUdn());
+            removeDeviceItem(localDevice.getIdentity().getUdn());
 
             for (Resource deviceResource : getResources(localDevice)) {
                 if (registry.removeResource(deviceResource)) {
@@ -171,6 +175,12 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
                 }
             }
 
+            // Delayed ALIVE messages must not follow the BYEBYE
+            AdvertisementScheduler advertisementScheduler = registry.getProtocolFactory().getAdvertisementScheduler();
+            if (advertisementScheduler != null) {
+                advertisementScheduler.cancel(localDevice.getIdentity().getUdn());
+            }
+
             if (isAdvertised(localDevice.getIdentity().getUdn())) {
                 advertiseByebye(localDevice, !shuttingDown);
             }
@@ -203,9 +213,10 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
     /* ############################################################################################################ */
 
     public void advertiseLocalDevices() {
-        for (RegistryItem<UDN, LocalDevice> localItem : deviceItems) {
+        for (RegistryItem<UDN, LocalDevice> localItem : getDeviceItems()) {
             if (isAdvertised(localItem.getKey())) {
                 advertiseAlive(localItem.getItem());
+                scheduleNextAlive(localItem, false);
             }
         }
     }
@@ -219,41 +230,26 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
             return;
         }
 
-        Set<RegistryItem<UDN, LocalDevice>> expiredLocalItems = new HashSet<>();
-
-        // "Flooding" is enabled, check if we need to send advertisements for all devices
+        // Each device has its own, randomly distributed, refresh time so the advertisements are spread out
+        long now = System.currentTimeMillis();
         int aliveIntervalMillis = registry.getConfiguration().getAliveIntervalMillis();
-        if (aliveIntervalMillis > 0) {
-            long now = System.currentTimeMillis();
-            if (now - lastAliveIntervalTimestamp > aliveIntervalMillis) {
-                lastAliveIntervalTimestamp = now;
-                for (RegistryItem<UDN, LocalDevice> localItem : getDeviceItems()) {
-                    if (isAdvertised(localItem.getKey())) {
-                        logger.trace("Flooding advertisement of local item: {}", localItem);
-                        expiredLocalItems.add(localItem);
-                    }
-                }
+        for (RegistryItem<UDN, LocalDevice> localItem : getDeviceItems()) {
+            if (!isAdvertised(localItem.getKey())) {
+                continue;
             }
-        } else {
-            // Reset, the configuration might dynamically switch the alive interval
-            lastAliveIntervalTimestamp = 0;
-
-            // Alive interval is not enabled, regular expiration check of all devices
-            for (RegistryItem<UDN, LocalDevice> localItem : getDeviceItems()) {
-                if (isAdvertised(localItem.getKey()) && localItem.getExpirationDetails().hasExpired(true)) {
-                    logger.trace("Local item has expired: {}", localItem);
-                    expiredLocalItems.add(localItem);
-                }
+            Long nextAliveTimestamp = nextAliveTimestamps.get(localItem.getKey());
+            if (nextAliveTimestamp == null
+                    || (aliveIntervalMillis > 0 && nextAliveTimestamp - now > aliveIntervalMillis)) {
+                // Not yet scheduled, or the configuration switched to a shorter alive interval
+                scheduleNextAlive(localItem, true);
+            } else if (nextAliveTimestamp <= now) {
+                logger.trace("Refreshing local device advertisement: {}", localItem.getItem());
+                advertiseAlive(localItem.getItem());
+                localItem.getExpirationDetails().stampLastRefresh();
+                scheduleNextAlive(localItem, false);
             }
         }
 
-        // Now execute the advertisements
-        for (RegistryItem<UDN, LocalDevice> expiredLocalItem : expiredLocalItems) {
-            logger.trace("Refreshing local device advertisement: {}", expiredLocalItem.getItem());
-            advertiseAlive(expiredLocalItem.getItem());
-            expiredLocalItem.getExpirationDetails().stampLastRefresh();
-        }
-
         // Expire incoming subscriptions
         Set<RegistryItem<String, LocalGENASubscription>> expiredIncomingSubscriptions = new HashSet<>();
         for (RegistryItem<String, LocalGENASubscription> item : getSubscriptionItems()) {
@@ -275,22 +271,47 @@ class LocalItems extends RegistryItems<LocalDevice, LocalGENASubscription> {
 
         logger.trace("Removing all local devices from registry during shutdown");
         removeAll(true);
+
+        AdvertisementScheduler advertisementScheduler = registry.getProtocolFactory().getAdvertisementScheduler();
+        if (advertisementScheduler != null) {
+            advertisementScheduler.cancelAll();
+        }
     }
 
     /* ############################################################################################################ */
 
     protected Random randomGenerator = new Random();
 
-    protected void advertiseAlive(final LocalDevice localDevice) {
-        registry.executeAsyncProtocol(() -> {
-            try {
-                logger.trace("Sleeping some milliseconds to avoid flooding the network with ALIVE msgs");
-                Thread.sleep(randomGenerator.nextInt(100));
-            } catch (InterruptedException e) {
-                logger.error("Background execution interrupted", e);
+    /**
+     * Sets the time of the next <em>ALIVE</em> advertisement of the device.
+     * <p>
+     * With "flooding" enabled, devices are advertised every
+     * {@link org.jupnp.UpnpServiceConfiguration#getAliveIntervalMillis()}, a newly added device at a random phase
+     * within the interval. Otherwise, a device is advertised at a random time between a quarter and half of its
+     * maximum age, UDA 1.1 recommends randomly distributed intervals of less than half the maximum age.
+     * </p>
+     *
+     * @param initial <code>true</code> if the device has not been refreshed since it was added.
+     */
+    protected void scheduleNextAlive(RegistryItem<UDN, LocalDevice> localItem, boolean initial) {
+        long delayMillis;
+        int aliveIntervalMillis = registry.getConfiguration().getAliveIntervalMillis();
+        if (aliveIntervalMillis > 0) {
+            delayMillis = initial ? randomGenerator.nextInt(aliveIntervalMillis) : aliveIntervalMillis;
+        } else {
+            int maxAgeSeconds = localItem.getExpirationDetails().getMaxAgeSeconds();
+            if (maxAgeSeconds == ExpirationDetails.UNLIMITED_AGE) {
+                nextAliveTimestamps.put(localItem.getKey(), Long.MAX_VALUE);
+                return;
             }
-            registry.getProtocolFactory().createSendingNotificationAlive(localDevice).run();
-        });
+            long quarterMillis = maxAgeSeconds * 1000L / 4;
+            delayMillis = quarterMillis + (long) (randomGenerator.nextDouble() * quarterMillis);
+        }
+        nextAliveTimestamps.put(localItem.getKey(), System.currentTimeMillis() + delayMillis);
+    }
+
+    protected void advertiseAlive(final LocalDevice localDevice) {
+        registry.executeAsyncProtocol(registry.getProtocolFactory().createSendingNotificationAlive(localDevice));
     }
 
     protected void advertiseByebye(final LocalDevice localDevice, boolean asynchronous) {
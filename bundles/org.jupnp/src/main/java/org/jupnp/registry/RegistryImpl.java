@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -29,6 +30,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.jupnp.UpnpService;
 import org.jupnp.UpnpServiceConfiguration;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.DiscoveryOptions;
 import org.jupnp.model.ExpirationDetails;
 import org.jupnp.model.ServiceReference;
@@ -72,6 +74,10 @@ public class RegistryImpl implements Registry {
 
         this.upnpService = upnpService;
 
+        UpnpMetrics metrics = getConfiguration().getMetrics();
+        metrics.gauge(UpnpMetrics.REGISTRY_DEVICES, "remote", () -> countDevices(remoteItemsLock, remoteItems));
+        metrics.gauge(UpnpMetrics.REGISTRY_DEVICES, "local", () -> countDevices(localItemsLock, localItems));
+
         logger.trace("Starting registry background maintenance...");
         synchronized (lock) {
             registryMaintainer = createRegistryMaintainer();
@@ -96,6 +102,15 @@ public class RegistryImpl implements Registry {
         return getUpnpService().getProtocolFactory();
     }
 
+    private long countDevices(ReentrantReadWriteLock itemsLock, RegistryItems<?, ?> items) {
+        itemsLock.readLock().lock();
+        try {
+            return items.getDeviceItems().size();
+        } finally {
+            itemsLock.readLock().unlock();
+        }
+    }
+
     protected RegistryMaintainer createRegistryMaintainer() {
         return new RegistryMaintainer(this, getConfiguration().getRegistryMaintenanceIntervalMillis());
     }
@@ -103,8 +118,7 @@ public class RegistryImpl implements Registry {
     // #################################################################################################
 
     protected final Set<RegistryListener> registryListeners = new CopyOnWriteArraySet<>();
-    protected final Set<RegistryItem<URI, Resource>> resourceItems = Collections
-            .newSetFromMap(new ConcurrentHashMap<>());
+    protected final Map<URI, RegistryItem<URI, Resource>> resourceItems = new ConcurrentHashMap<>();
     protected final List<Runnable> pendingExecutions = new LinkedList<>();
 
     // in the methods that acquire both locks at the same time always acquire remoteItemsLock first
@@ -422,13 +436,9 @@ public class RegistryImpl implements Registry {
             throw new IllegalArgumentException("Resource URI can not be absolute, only path and query:" + pathQuery);
         }
 
-        // Note: Uses field access on resourceItems for performance reasons
-
-        for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
-            Resource resource = resourceItem.getItem();
-            if (resource.matches(pathQuery)) {
-                return resource;
-            }
+        Resource resource = getIndexedResource(pathQuery);
+        if (resource != null) {
+            return resource;
         }
 
         // TODO: UPNP VIOLATION: Fuppes on my ReadyNAS thinks it's a cool idea to add a slash at the end of the callback
@@ -438,17 +448,21 @@ public class RegistryImpl implements Registry {
             URI pathQueryWithoutSlash = URI
                     .create(pathQuery.toString().substring(0, pathQuery.toString().length() - 1));
 
-            for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
-                Resource resource = resourceItem.getItem();
-                if (resource.matches(pathQueryWithoutSlash)) {
-                    return resource;
-                }
-            }
+            return getIndexedResource(pathQueryWithoutSlash);
         }
 
         return null;
     }
 
+    protected Resource getIndexedResource(URI pathQuery) {
+        // Resources are indexed by their path, a lookup in the map avoids matching every registered resource
+        RegistryItem<URI, Resource> resourceItem = resourceItems.get(pathQuery);
+        if (resourceItem != null && resourceItem.getItem().matches(pathQuery)) {
+            return resourceItem.getItem();
+        }
+        return null;
+    }
+
     @Override
     public <T extends Resource> T getResource(Class<T> resourceType, URI pathQuery) throws IllegalArgumentException {
         Resource resource = getResource(pathQuery);
@@ -462,7 +476,7 @@ public class RegistryImpl implements Registry {
     public Collection<Resource> getResources() {
         Collection<Resource> s = new HashSet<>(resourceItems.size());
 
-        for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
+        for (RegistryItem<URI, Resource> resourceItem : resourceItems.values()) {
             s.add(resourceItem.getItem());
         }
         return s;
@@ -471,7 +485,7 @@ public class RegistryImpl implements Registry {
     @Override
     public <T extends Resource> Collection<T> getResources(Class<T> resourceType) {
         Collection<T> s = new HashSet<>(resourceItems.size());
-        for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
+        for (RegistryItem<URI, Resource> resourceItem : resourceItems.values()) {
             if (resourceType.isAssignableFrom(resourceItem.getItem().getClass())) {
                 s.add((T) resourceItem.getItem());
             }
@@ -486,15 +500,14 @@ public class RegistryImpl implements Registry {
 
     @Override
     public void addResource(Resource resource, int maxAgeSeconds) {
-        RegistryItem resourceItem = new RegistryItem(resource.getPathQuery(), resource, maxAgeSeconds);
+        RegistryItem<URI, Resource> resourceItem = new RegistryItem<>(resource.getPathQuery(), resource, maxAgeSeconds);
 
-        resourceItems.remove(resourceItem);
-        resourceItems.add(resourceItem);
+        resourceItems.put(resourceItem.getKey(), resourceItem);
     }
 
     @Override
     public boolean removeResource(Resource resource) {
-        return resourceItems.remove(new RegistryItem<>(resource.getPathQuery()));
+        return resourceItems.remove(resource.getPathQuery()) != null;
     }
 
     // #################################################################################################
@@ -615,7 +628,7 @@ public class RegistryImpl implements Registry {
             listener.beforeShutdown(this);
         }
 
-        for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
+        for (RegistryItem<URI, Resource> resourceItem : resourceItems.values()) {
             resourceItem.getItem().shutdown();
         }
 
@@ -687,9 +700,10 @@ public class RegistryImpl implements Registry {
     void maintain() {
 
         logger.trace("Maintaining registry...");
+        long start = System.nanoTime();
 
         // Remove expired resources
-        Iterator<RegistryItem<URI, Resource>> it = resourceItems.iterator();
+        Iterator<RegistryItem<URI, Resource>> it = resourceItems.values().iterator();
         while (it.hasNext()) {
             RegistryItem<URI, Resource> item = it.next();
             if (item.getExpirationDetails().hasExpired()) {
@@ -700,7 +714,7 @@ public class RegistryImpl implements Registry {
 
         // Let each resource do its own maintenance
         synchronized (pendingExecutions) {
-            for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
+            for (RegistryItem<URI, Resource> resourceItem : resourceItems.values()) {
                 resourceItem.getItem().maintain(pendingExecutions, resourceItem.getExpirationDetails());
             }
         }
@@ -722,6 +736,11 @@ public class RegistryImpl implements Registry {
 
         // We now run the queue asynchronously so the maintenance thread can continue its loop undisturbed
         runPendingExecutions(true);
+
+        if (upnpService != null) {
+            getConfiguration().getMetrics().recordDuration(UpnpMetrics.REGISTRY_MAINTENANCE_DURATION, null,
+                    System.nanoTime() - start);
+        }
     }
 
     void executeAsyncProtocol(Runnable runnable) {
@@ -777,7 +796,7 @@ public class RegistryImpl implements Registry {
             logger.trace(
                     "====================================  RESOURCES  ================================================");
 
-            for (RegistryItem<URI, Resource> resourceItem : resourceItems) {
+            for (RegistryItem<URI, Resource> resourceItem : resourceItems.values()) {
                 logger.trace(resourceItem.toString());
             }
 
@@ -15,15 +15,17 @@
  */
 package org.jupnp.registry;
 
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.model.ValidationException;
 import org.jupnp.model.gena.GENASubscription;
 import org.jupnp.model.meta.Device;
+import org.jupnp.model.meta.Service;
 import org.jupnp.model.resource.Resource;
 import org.jupnp.model.types.DeviceType;
 import org.jupnp.model.types.ServiceType;
@@ -38,19 +40,98 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
 
     protected final RegistryImpl registry;
 
-    protected final Set<RegistryItem<UDN, D>> deviceItems = new HashSet<>();
-    protected final Set<RegistryItem<String, S>> subscriptionItems = new HashSet<>();
+    protected final Map<UDN, RegistryItem<UDN, D>> deviceItems = new HashMap<>();
+    protected final Map<String, RegistryItem<String, S>> subscriptionItems = new HashMap<>();
+
+    // Secondary indexes over the root and embedded devices of all device items, maintained by
+    // putDeviceItem() and removeDeviceItem(). Type indexes are keyed without version, see typeKey().
+    protected final Map<UDN, D> devicesByUdn = new HashMap<>();
+    protected final Map<String, Set<D>> devicesByDeviceType = new HashMap<>();
+    protected final Map<String, Set<D>> devicesByServiceType = new HashMap<>();
 
     RegistryItems(RegistryImpl registry) {
         this.registry = registry;
     }
 
-    Set<RegistryItem<UDN, D>> getDeviceItems() {
-        return deviceItems;
+    Collection<RegistryItem<UDN, D>> getDeviceItems() {
+        return deviceItems.values();
+    }
+
+    Collection<RegistryItem<String, S>> getSubscriptionItems() {
+        return subscriptionItems.values();
+    }
+
+    /**
+     * Adds or replaces the item of a root device and (re)indexes the device graph.
+     */
+    void putDeviceItem(RegistryItem<UDN, D> item) {
+        removeDeviceItem(item.getKey());
+        deviceItems.put(item.getKey(), item);
+        index(item.getItem());
+    }
+
+    /**
+     * Removes the item of a root device and all index entries of its device graph.
+     *
+     * @return The removed item, or <tt>null</tt> if no root device was registered under the given UDN.
+     */
+    RegistryItem<UDN, D> removeDeviceItem(UDN udn) {
+        RegistryItem<UDN, D> item = deviceItems.remove(udn);
+        if (item != null) {
+            unindex(item.getItem());
+        }
+        return item;
+    }
+
+    protected void index(D device) {
+        devicesByUdn.put(device.getIdentity().getUdn(), device);
+        // Type might be null if the device hasn't been hydrated
+        if (device.getType() != null) {
+            devicesByDeviceType.computeIfAbsent(typeKey(device.getType()), k -> new HashSet<>()).add(device);
+        }
+        if (device.hasServices()) {
+            for (Service service : device.getServices()) {
+                devicesByServiceType.computeIfAbsent(typeKey(service.getServiceType()), k -> new HashSet<>())
+                        .add(device);
+            }
+        }
+        if (device.hasEmbeddedDevices()) {
+            for (Device embeddedDevice : device.getEmbeddedDevices()) {
+                index((D) embeddedDevice);
+            }
+        }
+    }
+
+    protected void unindex(D device) {
+        devicesByUdn.remove(device.getIdentity().getUdn());
+        if (device.getType() != null) {
+            removeFromIndex(devicesByDeviceType, typeKey(device.getType()), device);
+        }
+        if (device.hasServices()) {
+            for (Service service : device.getServices()) {
+                removeFromIndex(devicesByServiceType, typeKey(service.getServiceType()), device);
+            }
+        }
+        if (device.hasEmbeddedDevices()) {
+            for (Device embeddedDevice : device.getEmbeddedDevices()) {
+                unindex((D) embeddedDevice);
+            }
+        }
+    }
+
+    private void removeFromIndex(Map<String, Set<D>> index, String key, D device) {
+        Set<D> devices = index.get(key);
+        if (devices != null && devices.remove(device) && devices.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    static String typeKey(DeviceType deviceType) {
+        return deviceType.getNamespace() + ":device:" + deviceType.getType();
     }
 
-    Set<RegistryItem<String, S>> getSubscriptionItems() {
-        return subscriptionItems;
+    static String typeKey(ServiceType serviceType) {
+        return serviceType.getNamespace() + ":service:" + serviceType.getType();
     }
 
     abstract void add(D device);
@@ -72,19 +153,11 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
      *         no device with the given UDN has been registered.
      */
     D get(UDN udn, boolean rootOnly) {
-        for (RegistryItem<UDN, D> item : deviceItems) {
-            D device = item.getItem();
-            if (device.getIdentity().getUdn().equals(udn)) {
-                return device;
-            }
-            if (!rootOnly) {
-                D foundDevice = (D) item.getItem().findDevice(udn);
-                if (foundDevice != null) {
-                    return foundDevice;
-                }
-            }
+        if (rootOnly) {
+            RegistryItem<UDN, D> item = deviceItems.get(udn);
+            return item != null ? item.getItem() : null;
         }
-        return null;
+        return devicesByUdn.get(udn);
     }
 
     /**
@@ -98,10 +171,12 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
      */
     Collection<D> get(DeviceType deviceType) {
         Collection<D> devices = new HashSet<>();
-        for (RegistryItem<UDN, D> item : deviceItems) {
-            D[] d = (D[]) item.getItem().findDevices(deviceType);
-            if (d != null) {
-                devices.addAll(Arrays.asList(d));
+        Set<D> candidates = devicesByDeviceType.get(typeKey(deviceType));
+        if (candidates != null) {
+            for (D candidate : candidates) {
+                if (candidate.getType().implementsVersion(deviceType)) {
+                    devices.add(candidate);
+                }
             }
         }
         return devices;
@@ -115,11 +190,15 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
      */
     Collection<D> get(ServiceType serviceType) {
         Collection<D> devices = new HashSet<>();
-        for (RegistryItem<UDN, D> item : deviceItems) {
-
-            D[] d = (D[]) item.getItem().findDevices(serviceType);
-            if (d != null) {
-                devices.addAll(Arrays.asList(d));
+        Set<D> candidates = devicesByServiceType.get(typeKey(serviceType));
+        if (candidates != null) {
+            for (D candidate : candidates) {
+                for (Service service : candidate.getServices()) {
+                    if (service.getServiceType().implementsVersion(serviceType)) {
+                        devices.add(candidate);
+                        break;
+                    }
+                }
             }
         }
         return devices;
@@ -127,7 +206,7 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
 
     Collection<D> get() {
         Collection<D> devices = new HashSet<>();
-        for (RegistryItem<UDN, D> item : deviceItems) {
+        for (RegistryItem<UDN, D> item : deviceItems.values()) {
             devices.add(item.getItem());
         }
         return devices;
@@ -138,7 +217,7 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
     }
 
     boolean contains(UDN udn) {
-        return deviceItems.contains(new RegistryItem<UDN, D>(udn));
+        return deviceItems.containsKey(udn);
     }
 
     void addSubscription(S subscription) {
@@ -146,7 +225,7 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
         RegistryItem<String, S> subscriptionItem = new RegistryItem<>(subscription.getSubscriptionId(), subscription,
                 subscription.getActualDurationSeconds());
 
-        subscriptionItems.add(subscriptionItem);
+        subscriptionItems.put(subscriptionItem.getKey(), subscriptionItem);
     }
 
     boolean updateSubscription(S subscription) {
@@ -158,16 +237,12 @@ abstract class RegistryItems<D extends Device, S extends GENASubscription> {
     }
 
     boolean removeSubscription(S subscription) {
-        return subscriptionItems.remove(new RegistryItem<String, S>(subscription.getSubscriptionId()));
+        return subscriptionItems.remove(subscription.getSubscriptionId()) != null;
     }
 
     S getSubscription(String subscriptionId) {
-        for (RegistryItem<String, S> registryItem : subscriptionItems) {
-            if (registryItem.getKey().equals(subscriptionId)) {
-                return registryItem.getItem();
-            }
-        }
-        return null;
+        RegistryItem<String, S> registryItem = subscriptionItems.get(subscriptionId);
+        return registryItem != null ? registryItem.getItem() : null;
     }
 
     Resource[] getResources(Device device) throws RegistrationException {
@@ -27,11 +27,11 @@ import java.util.Set;
 import org.jupnp.model.ExpirationDetails;
 import org.jupnp.model.gena.CancelReason;
 import org.jupnp.model.gena.RemoteGENASubscription;
-import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.RemoteDevice;
 import org.jupnp.model.meta.RemoteDeviceIdentity;
 import org.jupnp.model.resource.Resource;
 import org.jupnp.model.types.UDN;
+import org.jupnp.protocol.sync.SendingRenewal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,10 +92,11 @@ class RemoteItems extends RegistryItems<RemoteDevice, RemoteGENASubscription> {
             maxAgeSeconds = device.getIdentity().getMaxAgeSeconds();
         }
 
-        RegistryItem item = new RegistryItem(device.getIdentity().getUdn(), device, maxAgeSeconds);
+        RegistryItem<UDN, RemoteDevice> item = new RegistryItem<>(device.getIdentity().getUdn(), device,
+                maxAgeSeconds);
         logger.trace("Adding hydrated remote device to registry with {} seconds expiration: {}",
                 item.getExpirationDetails().getMaxAgeSeconds(), device);
-        getDeviceItems().add(item);
+        putDeviceItem(item);
 
         if (logger.isTraceEnabled()) {
             StringBuilder sb = new StringBuilder();
@@ -118,11 +119,9 @@ class RemoteItems extends RegistryItems<RemoteDevice, RemoteGENASubscription> {
 
     boolean update(RemoteDeviceIdentity rdIdentity) {
 
-        for (LocalDevice localDevice : registry.getLocalDevices()) {
-            if (localDevice.findDevice(rdIdentity.getUdn()) != null) {
-                logger.trace("Ignoring update, a local device graph contains UDN");
-                return true;
-            }
+        if (registry.getLocalDevice(rdIdentity.getUdn(), false) != null) {
+            logger.trace("Ignoring update, a local device graph contains UDN");
+            return true;
         }
 
         RemoteDevice registeredRemoteDevice = get(rdIdentity.getUdn(), false);
@@ -155,8 +154,7 @@ class RemoteItems extends RegistryItems<RemoteDevice, RemoteGENASubscription> {
                             : rdIdentity.getMaxAgeSeconds());
 
             logger.trace("Updating expiration of: {}", registeredRemoteDevice);
-            getDeviceItems().remove(item);
-            getDeviceItems().add(item);
+            putDeviceItem(item);
 
             logger.trace("Remote device updated, calling listeners: {}", registeredRemoteDevice);
             for (final RegistryListener listener : registry.getListeners()) {
@@ -220,7 +218,7 @@ class RemoteItems extends RegistryItems<RemoteDevice, RemoteGENASubscription> {
             }
 
             // Finally, remove the device from the registry
-            getDeviceItems().remove(new RegistryItem<>(registeredDevice.getIdentity().getUdn()));
+            removeDeviceItem(registeredDevice.getIdentity().getUdn());
 
             return true;
         }
@@ -312,6 +310,7 @@ class RemoteItems extends RegistryItems<RemoteDevice, RemoteGENASubscription> {
     /* ############################################################################################################ */
 
     protected void renewOutgoingSubscription(final RemoteGENASubscription subscription) {
-        registry.executeAsyncProtocol(registry.getProtocolFactory().createSendingRenewal(subscription));
+        SendingRenewal protocol = registry.getProtocolFactory().createSendingRenewal(subscription);
+        registry.executeAsyncProtocol(protocol::executeAsync);
     }
 }
@@ -17,6 +17,7 @@ package org.jupnp.transport;
 
 import java.net.InetAddress;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.model.NetworkAddress;
@@ -153,6 +154,23 @@ public interface Router {
      */
     StreamResponseMessage send(StreamRequestMessage msg) throws RouterException;
 
+    /**
+     * <p>
+     * Call this method to send a TCP (HTTP) stream message without blocking the calling thread.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #send(StreamRequestMessage)} and blocks the calling thread.
+     * </p>
+     *
+     * @param msg The TCP (HTTP) stream message to send.
+     * @return The response received from the server, completed with <code>null</code> if no response has been
+     *         received or the router is disabled.
+     * @throws RouterException if a recoverable error, such as thread interruption, occurs.
+     */
+    default CompletableFuture<StreamResponseMessage> sendAsync(StreamRequestMessage msg) throws RouterException {
+        return CompletableFuture.completedFuture(send(msg));
+    }
+
     /**
      * <p>
      * Call this method to broadcast a UDP message to all hosts on the network.
@@ -24,16 +24,21 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.jupnp.UpnpServiceConfiguration;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.NetworkAddress;
 import org.jupnp.model.message.IncomingDatagramMessage;
 import org.jupnp.model.message.OutgoingDatagramMessage;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.discovery.OutgoingSearchResponse;
 import org.jupnp.protocol.ProtocolCreationException;
 import org.jupnp.protocol.ProtocolFactory;
 import org.jupnp.protocol.ReceivingAsync;
@@ -255,6 +260,11 @@ public class RouterImpl implements Router {
             logger.debug("Router disabled, ignoring incoming message: {}", msg);
             return;
         }
+        UpnpMetrics metrics = getConfiguration().getMetrics();
+        metrics.increment(UpnpMetrics.DATAGRAMS_RECEIVED, getMetricsTag(msg));
+        if (!(msg.getOperation() instanceof UpnpRequest)) {
+            metrics.increment(UpnpMetrics.SEARCH_RESPONSES, "received");
+        }
         try {
             ReceivingAsync protocol = getProtocolFactory().createReceivingAsync(msg);
             if (protocol == null) {
@@ -286,6 +296,10 @@ public class RouterImpl implements Router {
 
     /**
      * Sends the UDP datagram on all bound {@link org.jupnp.transport.spi.DatagramIO}s.
+     * <p>
+     * The message is written only once with the {@link org.jupnp.transport.spi.DatagramProcessor}, the
+     * same datagram is then sent on all bound sockets.
+     * </p>
      *
      * @param msg The UDP datagram message to send.
      */
@@ -294,8 +308,17 @@ public class RouterImpl implements Router {
         lock(readLock);
         try {
             if (enabled) {
+                if (datagramIOs.isEmpty()) {
+                    return;
+                }
+                DatagramPacket datagram = writeDatagram(msg);
                 for (DatagramIO datagramIO : datagramIOs.values()) {
-                    datagramIO.send(msg);
+                    datagramIO.send(datagram);
+                }
+                UpnpMetrics metrics = getConfiguration().getMetrics();
+                metrics.increment(UpnpMetrics.DATAGRAMS_SENT, getMetricsTag(msg));
+                if (msg instanceof OutgoingSearchResponse) {
+                    metrics.increment(UpnpMetrics.SEARCH_RESPONSES, "sent");
                 }
             } else {
                 logger.debug("Router disabled, not sending datagram: {}", msg);
@@ -305,6 +328,20 @@ public class RouterImpl implements Router {
         }
     }
 
+    protected String getMetricsTag(UpnpMessage<?> msg) {
+        return msg.getOperation() instanceof UpnpRequest ? ((UpnpRequest) msg.getOperation()).getHttpMethodName()
+                : "RESPONSE";
+    }
+
+    protected DatagramPacket writeDatagram(OutgoingDatagramMessage msg) {
+        DatagramPacket datagram = msg.getDatagram();
+        if (datagram == null) {
+            datagram = getConfiguration().getDatagramProcessor().write(msg);
+            msg.setDatagram(datagram);
+        }
+        return datagram;
+    }
+
     /**
      * Sends the TCP stream request with the {@link org.jupnp.transport.spi.StreamClient}.
      *
@@ -322,10 +359,16 @@ public class RouterImpl implements Router {
                     return null;
                 }
                 logger.debug("Sending via TCP unicast stream: {}", msg);
+                String host = msg.getUri().getHost();
+                long start = System.nanoTime();
+                StreamResponseMessage response = null;
                 try {
-                    return streamClient.sendRequest(msg);
+                    response = streamClient.sendRequest(msg);
+                    return response;
                 } catch (InterruptedException e) {
                     throw new RouterException("Sending stream request was interrupted", e);
+                } finally {
+                    recordStreamRequest(host, start, response);
                 }
             } else {
                 logger.debug("Router disabled, not sending stream request: {}", msg);
@@ -336,6 +379,46 @@ public class RouterImpl implements Router {
         }
     }
 
+    /**
+     * Sends the TCP stream request with the {@link org.jupnp.transport.spi.StreamClient}, without blocking.
+     *
+     * @param msg The TCP (HTTP) stream message to send.
+     * @return The return value of the
+     *         {@link org.jupnp.transport.spi.StreamClient#sendRequestAsync(StreamRequestMessage)} method or a future
+     *         completed with <code>null</code> if no <code>StreamClient</code> is available.
+     */
+    @Override
+    public CompletableFuture<StreamResponseMessage> sendAsync(StreamRequestMessage msg) throws RouterException {
+        lock(readLock);
+        try {
+            if (enabled) {
+                if (streamClient == null) {
+                    logger.debug("No StreamClient available, not sending: {}", msg);
+                    return CompletableFuture.completedFuture(null);
+                }
+                logger.debug("Sending via TCP unicast stream: {}", msg);
+                String host = msg.getUri().getHost();
+                long start = System.nanoTime();
+                CompletableFuture<StreamResponseMessage> response = streamClient.sendRequestAsync(msg);
+                return response.whenComplete((responseMessage, failure) -> recordStreamRequest(host, start,
+                        responseMessage));
+            } else {
+                logger.debug("Router disabled, not sending stream request: {}", msg);
+                return CompletableFuture.completedFuture(null);
+            }
+        } finally {
+            unlock(readLock);
+        }
+    }
+
+    protected void recordStreamRequest(String host, long start, StreamResponseMessage response) {
+        UpnpMetrics metrics = getConfiguration().getMetrics();
+        metrics.recordDuration(UpnpMetrics.HTTP_CLIENT_DURATION, host, System.nanoTime() - start);
+        if (response == null) {
+            metrics.increment(UpnpMetrics.HTTP_CLIENT_FAILURES, host);
+        }
+    }
+
     /**
      * Sends the given bytes as a broadcast on all bound {@link org.jupnp.transport.spi.DatagramIO}s,
      * using source port 9.
@@ -15,10 +15,10 @@
  */
 package org.jupnp.transport.impl;
 
-import java.io.ByteArrayInputStream;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Locale;
 
 import org.jupnp.http.Headers;
@@ -51,23 +51,35 @@ public class DatagramProcessorImpl implements DatagramProcessor {
             if (logger.isTraceEnabled()) {
                 logger.trace(
                         "===================================== DATAGRAM BEGIN ============================================");
-                logger.trace(new String(datagram.getData()));
+                logger.trace(new String(datagram.getData(), datagram.getOffset(), datagram.getLength(),
+                        StandardCharsets.US_ASCII));
                 logger.trace(
                         "-===================================== DATAGRAM END =============================================");
             }
 
-            ByteArrayInputStream is = new ByteArrayInputStream(datagram.getData());
+            // The packet data may be a reused buffer, only read the datagram's bytes
+            byte[] data = datagram.getData();
+            int offset = datagram.getOffset();
+            int end = offset + datagram.getLength();
+
+            int lineEnd = Headers.findLineEnd(data, offset, end);
+            int startLineEnd = lineEnd > offset && data[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            String[] startLine = new String(data, offset, startLineEnd - offset, StandardCharsets.ISO_8859_1)
+                    .split(" ");
+
+            // Headers are read in place, without copying the datagram into a stream
+            UpnpHeaders headers = new UpnpHeaders(data, lineEnd + 1, end);
 
-            String[] startLine = Headers.readLine(is).split(" ");
             if (startLine[0].startsWith("HTTP/1.")) {
-                return readResponseMessage(receivedOnAddress, datagram, is, Integer.parseInt(startLine[1]),
+                return readResponseMessage(receivedOnAddress, datagram, headers, Integer.parseInt(startLine[1]),
                         startLine[2], startLine[0]);
             } else {
-                return readRequestMessage(receivedOnAddress, datagram, is, startLine[0], startLine[2]);
+                return readRequestMessage(receivedOnAddress, datagram, headers, startLine[0], startLine[2]);
             }
 
         } catch (Exception e) {
-            throw new UnsupportedDataException("Could not parse headers", e, datagram.getData());
+            throw new UnsupportedDataException("Could not parse headers", e, Arrays.copyOfRange(datagram.getData(),
+                    datagram.getOffset(), datagram.getOffset() + datagram.getLength()));
         }
     }
 
@@ -117,10 +129,7 @@ public class DatagramProcessorImpl implements DatagramProcessor {
     }
 
     protected IncomingDatagramMessage readRequestMessage(InetAddress receivedOnAddress, DatagramPacket datagram,
-            ByteArrayInputStream is, String requestMethod, String httpProtocol) throws Exception {
-
-        // Headers
-        UpnpHeaders headers = new UpnpHeaders(is);
+            UpnpHeaders headers, String requestMethod, String httpProtocol) throws Exception {
 
         // Assemble message
         IncomingDatagramMessage requestMessage;
@@ -135,10 +144,7 @@ public class DatagramProcessorImpl implements DatagramProcessor {
     }
 
     protected IncomingDatagramMessage readResponseMessage(InetAddress receivedOnAddress, DatagramPacket datagram,
-            ByteArrayInputStream is, int statusCode, String statusMessage, String httpProtocol) throws Exception {
-
-        // Headers
-        UpnpHeaders headers = new UpnpHeaders(is);
+            UpnpHeaders headers, int statusCode, String statusMessage, String httpProtocol) throws Exception {
 
         // Assemble the message
         IncomingDatagramMessage responseMessage;
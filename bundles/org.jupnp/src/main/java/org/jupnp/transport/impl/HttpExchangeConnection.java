@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import java.net.InetAddress;
+
+import org.jupnp.model.message.Connection;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * UPNP Connection implementation using a {@link HttpExchange}.
+ */
+@SuppressWarnings("restriction")
+public class HttpExchangeConnection implements Connection {
+
+    protected HttpExchange exchange;
+
+    public HttpExchangeConnection(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    public HttpExchange getExchange() {
+        return exchange;
+    }
+
+    /**
+     * The JDK HTTP server doesn't expose the client connection.
+     *
+     * @return Always <code>true</code>.
+     */
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public InetAddress getRemoteAddress() {
+        return getExchange().getRemoteAddress() != null ? getExchange().getRemoteAddress().getAddress() : null;
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return getExchange().getLocalAddress() != null ? getExchange().getLocalAddress().getAddress() : null;
+    }
+}
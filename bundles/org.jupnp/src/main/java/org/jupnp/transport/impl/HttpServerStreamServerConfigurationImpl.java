@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import java.util.concurrent.Executor;
+
+import org.jupnp.transport.spi.StreamServerConfiguration;
+
+/**
+ * Settings for the {@link HttpServerStreamServerImpl}.
+ */
+public class HttpServerStreamServerConfigurationImpl implements StreamServerConfiguration {
+
+    protected int listenPort = 0;
+    protected int tcpConnectionBacklog = 0;
+    protected Executor executor;
+    protected int threadPoolSize = 20;
+    protected int stopDelaySeconds = 1;
+
+    /**
+     * Defaults to port '0', ephemeral.
+     */
+    public HttpServerStreamServerConfigurationImpl() {
+    }
+
+    public HttpServerStreamServerConfigurationImpl(int listenPort) {
+        this.listenPort = listenPort;
+    }
+
+    public HttpServerStreamServerConfigurationImpl(int listenPort, Executor executor) {
+        this.listenPort = listenPort;
+        this.executor = executor;
+    }
+
+    /**
+     * @return Defaults to <code>0</code>.
+     */
+    @Override
+    public int getListenPort() {
+        return listenPort;
+    }
+
+    public void setListenPort(int listenPort) {
+        this.listenPort = listenPort;
+    }
+
+    /**
+     * @return Maximum number of queued incoming connections, defaults to <code>0</code> for the system default.
+     */
+    public int getTcpConnectionBacklog() {
+        return tcpConnectionBacklog;
+    }
+
+    public void setTcpConnectionBacklog(int tcpConnectionBacklog) {
+        this.tcpConnectionBacklog = tcpConnectionBacklog;
+    }
+
+    /**
+     * The executor handling the HTTP exchanges, each request is processed entirely on one of its threads.
+     *
+     * @return Defaults to <code>null</code>, the stream server creates its own executor which queues exchanges
+     *         instead of rejecting them, see {@link #getThreadPoolSize()}.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return The maximum number of threads of the executor created by the stream server if none is set, ignored
+     *         with virtual threads, defaults to <code>20</code>.
+     */
+    public int getThreadPoolSize() {
+        return threadPoolSize;
+    }
+
+    public void setThreadPoolSize(int threadPoolSize) {
+        this.threadPoolSize = threadPoolSize;
+    }
+
+    /**
+     * @return The maximum time in seconds to wait for running exchanges to complete when the server stops,
+     *         defaults to <code>1</code>.
+     */
+    public int getStopDelaySeconds() {
+        return stopDelaySeconds;
+    }
+
+    public void setStopDelaySeconds(int stopDelaySeconds) {
+        this.stopDelaySeconds = stopDelaySeconds;
+    }
+}
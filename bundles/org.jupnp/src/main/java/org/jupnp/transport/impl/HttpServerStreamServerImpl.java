@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.jupnp.QueueingThreadPoolExecutor;
+import org.jupnp.model.message.Connection;
+import org.jupnp.transport.Router;
+import org.jupnp.transport.spi.InitializationException;
+import org.jupnp.transport.spi.StreamServer;
+import org.jupnp.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stream server implementation based on the JDK built-in <code>com.sun.net.httpserver.HttpServer</code>.
+ * <p>
+ * Needs no servlet container, and starts no threads of its own except the dispatcher thread of the HTTP server.
+ * Each exchange is handled by the {@link HttpServerStreamServerConfigurationImpl#getExecutor()}, which processes the
+ * {@link HttpExchangeUpnpStream} directly instead of handing it off to another executor through
+ * {@link Router#received(org.jupnp.transport.spi.UpnpStream)}.
+ * </p>
+ * <p>
+ * Without a configured executor, the server uses its own executor, the HTTP server can't handle rejected exchanges.
+ * Its threads are virtual threads if the runtime supports them, otherwise a pool queueing exchanges while all of its
+ * threads are busy.
+ * </p>
+ * <p>
+ * Select this implementation with the {@link HttpServerTransportConfiguration}, or by overriding
+ * {@link org.jupnp.UpnpServiceConfiguration#createStreamServer(org.jupnp.transport.spi.NetworkAddressFactory)}.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class HttpServerStreamServerImpl implements StreamServer<HttpServerStreamServerConfigurationImpl> {
+
+    private final Logger logger = LoggerFactory.getLogger(HttpServerStreamServerImpl.class);
+
+    protected final HttpServerStreamServerConfigurationImpl configuration;
+    protected HttpServer server;
+    protected ExecutorService ownExecutor;
+
+    public HttpServerStreamServerImpl(HttpServerStreamServerConfigurationImpl configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public HttpServerStreamServerConfigurationImpl getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public synchronized void init(InetAddress bindAddress, Router router) throws InitializationException {
+        try {
+            InetSocketAddress socketAddress = new InetSocketAddress(bindAddress, getConfiguration().getListenPort());
+            logger.debug("Creating HTTP server on: {}", socketAddress);
+
+            server = HttpServer.create(socketAddress, getConfiguration().getTcpConnectionBacklog());
+            String contextPath = router.getConfiguration().getNamespace().getBasePath().getPath();
+            server.createContext(contextPath.isEmpty() ? "/" : contextPath, createHandler(router));
+
+            Executor executor = getConfiguration().getExecutor();
+            if (executor == null) {
+                ownExecutor = createExecutor();
+                executor = ownExecutor;
+            }
+            server.setExecutor(executor);
+
+            logger.debug("Created HTTP server on: {}", server.getAddress());
+        } catch (IOException e) {
+            throw new InitializationException("Could not initialize " + getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public synchronized void run() {
+        logger.debug("Starting HTTP server on: {}", server.getAddress());
+        server.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            logger.debug("Stopping HTTP server on: {}", server.getAddress());
+            server.stop(getConfiguration().getStopDelaySeconds());
+        }
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+            ownExecutor = null;
+        }
+    }
+
+    protected ExecutorService createExecutor() {
+        if (VirtualThreads.isAvailable()) {
+            return VirtualThreads.newThreadPerTaskExecutor("jupnp-http-server-");
+        }
+        return QueueingThreadPoolExecutor.createInstance("jupnp-http-server", getConfiguration().getThreadPoolSize());
+    }
+
+    protected HttpHandler createHandler(Router router) {
+        return new RequestHttpHandler(router);
+    }
+
+    /**
+     * Processes each exchange on the thread of the server's executor.
+     * <p>
+     * The router isn't asked if it is enabled for each request, a disabled router stops all stream servers.
+     * </p>
+     */
+    protected static class RequestHttpHandler implements HttpHandler {
+
+        private final Logger logger = LoggerFactory.getLogger(RequestHttpHandler.class);
+
+        protected final Router router;
+
+        public RequestHttpHandler(Router router) {
+            this.router = router;
+        }
+
+        @Override
+        public void handle(HttpExchange httpExchange) throws IOException {
+            logger.trace("Received HTTP exchange: {} {}", httpExchange.getRequestMethod(),
+                    httpExchange.getRequestURI());
+            try {
+                // Direct dispatch, this thread already belongs to the executor of the server
+                createUpnpStream(httpExchange).run();
+            } finally {
+                httpExchange.close();
+            }
+        }
+
+        protected HttpExchangeUpnpStream createUpnpStream(HttpExchange httpExchange) {
+            return new HttpExchangeUpnpStream(router.getProtocolFactory(), httpExchange) {
+                @Override
+                protected Connection createConnection() {
+                    return new HttpExchangeConnection(getHttpExchange());
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jupnp.transport.TransportConfiguration;
+import org.jupnp.transport.impl.jetty.JettyTransportConfiguration;
+import org.jupnp.transport.spi.StreamClient;
+import org.jupnp.transport.spi.StreamClientConfiguration;
+import org.jupnp.transport.spi.StreamServer;
+
+/**
+ * Implementation of {@link TransportConfiguration} with the {@link HttpServerStreamServerImpl}, for deployments
+ * without a servlet container. Outgoing requests are still sent with the Jetty HTTP client.
+ */
+public class HttpServerTransportConfiguration implements TransportConfiguration {
+
+    public static final TransportConfiguration INSTANCE = new HttpServerTransportConfiguration();
+
+    @Override
+    public StreamClient createStreamClient(final ExecutorService executorService,
+            final StreamClientConfiguration configuration) {
+        return JettyTransportConfiguration.INSTANCE.createStreamClient(executorService, configuration);
+    }
+
+    @Override
+    public StreamServer createStreamServer(final int listenerPort) {
+        return new HttpServerStreamServerImpl(new HttpServerStreamServerConfigurationImpl(listenerPort));
+    }
+}
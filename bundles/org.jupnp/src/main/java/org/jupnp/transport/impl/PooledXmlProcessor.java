@@ -22,13 +22,17 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.FactoryConfigurationError;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Abstract class responsible for creating new {@link Document}s either for writing or already parsed from a given input
@@ -39,6 +43,9 @@ import org.xml.sax.SAXException;
  * implementation sets all internal properties to <code>false</code>
  * <p>
  * Default pool size is 20.
+ * <p>
+ * Subclasses can also {@link #parse(InputSource, ContentHandler, ErrorHandler)} without building a {@link Document},
+ * with namespace-aware {@link XMLReader}s pooled the same way.
  *
  * @author Ivan Iliev - Initial contribution and API
  * @author Wouter Born - Detect if pooling is possible to fix issues on Android
@@ -49,6 +56,14 @@ public abstract class PooledXmlProcessor {
 
     private final ConcurrentLinkedQueue<DocumentBuilder> builderPool;
 
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    private final SAXParserFactory saxParserFactory;
+
+    private final ConcurrentLinkedQueue<XMLReader> readerPool = new ConcurrentLinkedQueue<>();
+
+    private final int basePoolSize;
+
     private final transient Logger logger = LoggerFactory.getLogger(PooledXmlProcessor.class);
 
     private boolean reuseDocumentBuilders;
@@ -61,6 +76,9 @@ public abstract class PooledXmlProcessor {
         documentBuilderFactory = DocumentBuilderFactory.newInstance();
         documentBuilderFactory.setNamespaceAware(true);
         builderPool = new ConcurrentLinkedQueue<>();
+        saxParserFactory = SAXParserFactory.newInstance();
+        saxParserFactory.setNamespaceAware(true);
+        this.basePoolSize = basePoolSize;
 
         try {
             reuseDocumentBuilders = isDocumentBuilderReusable();
@@ -134,6 +152,38 @@ public abstract class PooledXmlProcessor {
         return getDocument(inputSource, null);
     }
 
+    /**
+     * Parses the input without building a {@link Document}, reporting its content to the given handler.
+     *
+     * @param inputSource to parse from
+     * @param contentHandler receives the content of the parsed document
+     * @param errorHandler custom error handler for the parsing operation
+     *
+     * @throws ParserConfigurationException
+     * @throws SAXException
+     * @throws IOException
+     */
+    protected void parse(InputSource inputSource, ContentHandler contentHandler, ErrorHandler errorHandler)
+            throws ParserConfigurationException, SAXException, IOException {
+        XMLReader reader = readerPool.poll();
+        if (reader == null) {
+            reader = saxParserFactory.newSAXParser().getXMLReader();
+        }
+
+        try {
+            reader.setContentHandler(contentHandler);
+            reader.setErrorHandler(errorHandler);
+            reader.parse(inputSource);
+        } finally {
+            // Don't keep the handlers (and what they collected) reachable from the pool
+            reader.setContentHandler(NO_HANDLER);
+            reader.setErrorHandler(NO_HANDLER);
+            if (readerPool.size() < basePoolSize) {
+                readerPool.add(reader);
+            }
+        }
+    }
+
     private Document getDocument(InputSource inputSource, ErrorHandler errorHandler)
             throws FactoryConfigurationError, ParserConfigurationException, SAXException, IOException {
         DocumentBuilder builder = reuseDocumentBuilders ? builderPool.poll() : null;
@@ -451,6 +451,16 @@ public class SOAPActionProcessorImpl extends PooledXmlProcessor implements SOAPA
             }
         }
 
+        return createFailure(receivedFaultElement, errorCode, errorDescription);
+    }
+
+    /**
+     * @param receivedFaultElement <code>true</code> if the body contained a <code>Fault</code> element.
+     * @param errorCode The text of the <code>errorCode</code> element, or <code>null</code>.
+     * @param errorDescription The text of the <code>errorDescription</code> element, or <code>null</code>.
+     * @return The failure, or <code>null</code> if the body contained no fault.
+     */
+    protected ActionException createFailure(boolean receivedFaultElement, String errorCode, String errorDescription) {
         if (errorCode != null) {
             try {
                 int numericCode = Integer.parseInt(errorCode);
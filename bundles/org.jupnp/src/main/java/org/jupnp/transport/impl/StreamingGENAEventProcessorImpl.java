@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import org.jupnp.model.Constants;
+import org.jupnp.model.UnsupportedDataException;
+import org.jupnp.model.message.UpnpMessage;
+import org.jupnp.model.message.gena.OutgoingEventRequestMessage;
+import org.jupnp.model.state.StateVariableValue;
+import org.jupnp.transport.spi.GENAEventProcessor;
+import org.jupnp.xml.XMLWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes event messages with an {@link XMLWriter} instead of building a DOM, messages are read like
+ * {@link GENAEventProcessorImpl}.
+ * <p>
+ * The written messages are identical to those of {@link GENAEventProcessorImpl}, but large values (e.g.
+ * <code>LastChange</code>) are written in linear time with a reused buffer.
+ * </p>
+ */
+public class StreamingGENAEventProcessorImpl extends GENAEventProcessorImpl {
+
+    private final Logger logger = LoggerFactory.getLogger(GENAEventProcessor.class);
+
+    @Override
+    public void writeBody(OutgoingEventRequestMessage requestMessage) throws UnsupportedDataException {
+        logger.trace("Writing body of: {}", requestMessage);
+
+        try (XMLWriter writer = XMLWriter.create()) {
+            writer.declaration().startElement("e:propertyset").namespace("e", Constants.NS_UPNP_EVENT_10);
+            for (StateVariableValue stateVariableValue : requestMessage.getStateVariableValues()) {
+                writer.startElement("e:property")
+                        .element(stateVariableValue.getStateVariable().getName(), stateVariableValue.toString())
+                        .endElement();
+            }
+
+            requestMessage.setBody(UpnpMessage.BodyType.STRING, writer.finish());
+
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "===================================== GENA BODY BEGIN ============================================");
+                logger.trace(requestMessage.getBody().toString());
+                logger.trace(
+                        "====================================== GENA BODY END =============================================");
+            }
+
+        } catch (Exception e) {
+            throw new UnsupportedDataException("Can't transform message payload: " + e.getMessage(), e);
+        }
+    }
+}
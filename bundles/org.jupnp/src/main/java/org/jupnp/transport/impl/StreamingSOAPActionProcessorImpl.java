@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.jupnp.model.Constants;
+import org.jupnp.model.UnsupportedDataException;
+import org.jupnp.model.action.ActionArgumentValue;
+import org.jupnp.model.action.ActionException;
+import org.jupnp.model.action.ActionInvocation;
+import org.jupnp.model.message.control.ActionRequestMessage;
+import org.jupnp.model.message.control.ActionResponseMessage;
+import org.jupnp.model.meta.ActionArgument;
+import org.jupnp.model.types.ErrorCode;
+import org.jupnp.transport.spi.SOAPActionProcessor;
+import org.jupnp.util.SpecificationViolationReporter;
+import org.jupnp.xml.XMLWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Writes SOAP messages with an {@link XMLWriter} and reads them with a SAX handler, instead of building a DOM.
+ * <p>
+ * The written messages are identical to those of {@link SOAPActionProcessorImpl}, but large action arguments
+ * (e.g. <code>Browse</code> results) are written in linear time with a reused buffer.
+ * </p>
+ * <p>
+ * Reading is as lenient as {@link SOAPActionProcessorImpl}: elements are matched by their unprefixed name,
+ * unknown elements are ignored and the argument elements can be in any order. Argument values are collected in a
+ * single pass, large values (e.g. <code>SetAVTransportURI</code> metadata) are never held in a DOM.
+ * </p>
+ * <p>
+ * Some broken messages are recovered: a message which isn't well-formed after the action element (e.g. a wrong
+ * closing tag of the envelope) is read up to there, and a message with unescaped ampersands is read again with
+ * the ampersands escaped.
+ * </p>
+ */
+public class StreamingSOAPActionProcessorImpl extends SOAPActionProcessorImpl {
+
+    private static final Pattern UNESCAPED_AMPERSAND = Pattern
+            .compile("&(?!(?:amp|lt|gt|quot|apos|#[0-9]+|#x[0-9a-fA-F]+);)");
+
+    private final Logger logger = LoggerFactory.getLogger(SOAPActionProcessor.class);
+
+    @Override
+    public void writeBody(ActionRequestMessage requestMessage, ActionInvocation actionInvocation)
+            throws UnsupportedDataException {
+
+        logger.trace("Writing body of {} for: {}", requestMessage, actionInvocation);
+
+        try (XMLWriter writer = XMLWriter.create()) {
+            writeEnvelope(writer);
+
+            writer.startElement("u:" + actionInvocation.getAction().getName())
+                    .namespace("u", requestMessage.getActionNamespace());
+            for (ActionArgument argument : actionInvocation.getAction().getInputArguments()) {
+                logger.trace("Writing action input argument: {}", argument.getName());
+                writer.element(argument.getName(), actionInvocation.getInput(argument) != null
+                        ? actionInvocation.getInput(argument).toString()
+                        : "");
+            }
+
+            requestMessage.setBody(writer.finish());
+
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "===================================== SOAP BODY BEGIN ============================================");
+                logger.trace(requestMessage.getBodyString());
+                logger.trace(
+                        "-===================================== SOAP BODY END ============================================");
+            }
+
+        } catch (Exception e) {
+            throw new UnsupportedDataException("Can't transform message payload", e);
+        }
+    }
+
+    @Override
+    public void writeBody(ActionResponseMessage responseMessage, ActionInvocation actionInvocation)
+            throws UnsupportedDataException {
+
+        logger.trace("Writing body of {} for: {}", responseMessage, actionInvocation);
+
+        try (XMLWriter writer = XMLWriter.create()) {
+            writeEnvelope(writer);
+
+            if (actionInvocation.getFailure() != null) {
+                writeFault(writer, actionInvocation);
+            } else {
+                writer.startElement("u:" + actionInvocation.getAction().getName() + "Response")
+                        .namespace("u", responseMessage.getActionNamespace());
+                for (ActionArgument argument : actionInvocation.getAction().getOutputArguments()) {
+                    logger.trace("Writing action output argument: {}", argument.getName());
+                    writer.element(argument.getName(), actionInvocation.getOutput(argument) != null
+                            ? actionInvocation.getOutput(argument).toString()
+                            : "");
+                }
+            }
+
+            responseMessage.setBody(writer.finish());
+
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "===================================== SOAP BODY BEGIN ============================================");
+                logger.trace(responseMessage.getBodyString());
+                logger.trace(
+                        "-===================================== SOAP BODY END ============================================");
+            }
+
+        } catch (Exception e) {
+            throw new UnsupportedDataException("Can't transform message payload", e);
+        }
+    }
+
+    @Override
+    public void readBody(ActionRequestMessage requestMessage, ActionInvocation actionInvocation)
+            throws UnsupportedDataException {
+
+        logger.trace("Reading body of {} for: {}", requestMessage, actionInvocation);
+        if (logger.isTraceEnabled()) {
+            logger.trace(
+                    "===================================== SOAP BODY BEGIN ============================================");
+            logger.trace(requestMessage.getBodyString());
+            logger.trace(
+                    "-===================================== SOAP BODY END ============================================");
+        }
+
+        String body = getMessageBody(requestMessage);
+        try {
+            String actionName = actionInvocation.getAction().getName();
+            SOAPBodyHandler handler = readBody(body, actionName, actionInvocation.getAction().getInputArguments());
+
+            if (!handler.isActionElementFound()) {
+                throw new UnsupportedDataException("Could not read action request element matching namespace: "
+                        + requestMessage.getActionNamespace());
+            }
+            if (!requestMessage.getActionNamespace().equals(handler.getActionNamespace())) {
+                throw new UnsupportedDataException(
+                        "Illegal or missing namespace on action request element: " + actionName);
+            }
+            logger.trace("Reading action request element: {}", actionName);
+
+            actionInvocation.setInput(handler.getArgumentValues());
+        } catch (Exception e) {
+            throw new UnsupportedDataException("Can't transform message payload", e, body);
+        }
+    }
+
+    @Override
+    public void readBody(ActionResponseMessage responseMsg, ActionInvocation actionInvocation)
+            throws UnsupportedDataException {
+
+        logger.trace("Reading body of {} for: {}", responseMsg, actionInvocation);
+        if (logger.isTraceEnabled()) {
+            logger.trace(
+                    "===================================== SOAP BODY BEGIN ============================================");
+            logger.trace(responseMsg.getBodyString());
+            logger.trace(
+                    "-===================================== SOAP BODY END ============================================");
+        }
+
+        String body = getMessageBody(responseMsg);
+        try {
+            String responseName = actionInvocation.getAction().getName() + "Response";
+            SOAPBodyHandler handler = readBody(body, responseName, actionInvocation.getAction().getOutputArguments());
+
+            ActionException failure = createFailure(handler.isFaultElementFound(), handler.getErrorCode(),
+                    handler.getErrorDescription());
+            if (failure != null) {
+                actionInvocation.setFailure(failure);
+                return;
+            }
+            if (!handler.isActionElementFound()) {
+                throw new UnsupportedDataException("Could not read action response element: " + responseName);
+            }
+            logger.trace("Reading action response element: {}", responseName);
+
+            actionInvocation.setOutput(handler.getArgumentValues());
+        } catch (Exception e) {
+            throw new UnsupportedDataException("Can't transform message payload", e, body);
+        }
+    }
+
+    /**
+     * Parses the body, recovering it if it isn't well-formed.
+     *
+     * @param actionElementName The unprefixed name of the action request or response element.
+     * @param arguments The expected arguments, children of the action element.
+     */
+    protected SOAPBodyHandler readBody(String body, String actionElementName, ActionArgument[] arguments)
+            throws Exception {
+        SOAPBodyHandler handler = new SOAPBodyHandler(actionElementName, arguments);
+        try {
+            parse(new InputSource(new StringReader(body)), handler, this);
+            return handler;
+        } catch (SAXException e) {
+            if (handler.isActionElementComplete()) {
+                SpecificationViolationReporter.report("Invalid SOAP message after the action element, ignoring: {}",
+                        e.getMessage());
+                return handler;
+            }
+            String fixedBody = UNESCAPED_AMPERSAND.matcher(body).replaceAll("&amp;");
+            if (fixedBody.equals(body)) {
+                throw e;
+            }
+            SpecificationViolationReporter.report("Unescaped ampersand in SOAP message, escaping it: {}",
+                    e.getMessage());
+            handler = new SOAPBodyHandler(actionElementName, arguments);
+            parse(new InputSource(new StringReader(fixedBody)), handler, this);
+            return handler;
+        }
+    }
+
+    protected void writeEnvelope(XMLWriter writer) {
+        writer.declaration().startElement("s:Envelope")
+                .attribute("s:encodingStyle", Constants.SOAP_URI_ENCODING_STYLE)
+                .namespace("s", Constants.SOAP_NS_ENVELOPE).startElement("s:Body");
+    }
+
+    protected void writeFault(XMLWriter writer, ActionInvocation actionInvocation) {
+        int errorCode = actionInvocation.getFailure().getErrorCode();
+        String errorDescription = actionInvocation.getFailure().getMessage();
+
+        logger.trace("Writing fault element: {} - {}", errorCode, errorDescription);
+
+        writer.startElement("s:Fault").element("faultcode", "s:Client").element("faultstring", "UPnPError")
+                .startElement("detail").startElement("UPnPError").namespace(null, Constants.NS_UPNP_CONTROL_10)
+                .element("errorCode", Integer.toString(errorCode)).element("errorDescription", errorDescription);
+    }
+
+    /**
+     * Collects the namespace and argument values of the action element, and the error of a <code>Fault</code>
+     * element, of a SOAP envelope.
+     */
+    protected class SOAPBodyHandler extends DefaultHandler {
+
+        // Depths of the elements, the envelope is at depth 1
+        private static final int BODY_CHILD = 3;
+        private static final int ACTION_CHILD = 4;
+        private static final int FAULT_DETAIL = 4;
+        private static final int UPNP_ERROR = 5;
+        private static final int UPNP_ERROR_CHILD = 6;
+
+        protected final String actionElementName;
+        protected final ActionArgument[] arguments;
+        protected final Map<String, ActionArgument> argumentsByName = new HashMap<>();
+        protected final Map<ActionArgument, String> values = new HashMap<>();
+
+        protected int depth;
+        protected boolean inBody;
+        protected boolean bodyFound;
+        protected boolean inAction;
+        protected boolean actionElementFound;
+        protected boolean actionElementComplete;
+        protected String actionNamespace;
+        protected int matchedArguments;
+
+        protected boolean inFault;
+        protected boolean inDetail;
+        protected boolean inUpnpError;
+        protected boolean faultElementFound;
+        protected String errorCode;
+        protected String errorDescription;
+
+        // The element whose text is collected, only direct text content like XMLUtil.getTextContent()
+        protected String textElement;
+        protected int textDepth;
+        protected final StringBuilder text = new StringBuilder();
+
+        public SOAPBodyHandler(String actionElementName, ActionArgument[] arguments) {
+            this.actionElementName = actionElementName;
+            this.arguments = arguments;
+            for (ActionArgument argument : arguments) {
+                argumentsByName.putIfAbsent(argument.getName(), argument);
+                for (String alias : argument.getAliases()) {
+                    argumentsByName.putIfAbsent(alias, argument);
+                }
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            depth++;
+
+            if (depth == 1) {
+                if (!"Envelope".equals(localName)) {
+                    throw new SAXException("Response root element was not 'Envelope'");
+                }
+            } else if (depth == 2) {
+                inBody = !bodyFound && "Body".equals(localName);
+                bodyFound |= inBody;
+            } else if (depth == BODY_CHILD && inBody) {
+                if (!actionElementFound && actionElementName.equals(localName)) {
+                    actionElementFound = inAction = true;
+                    actionNamespace = uri.isEmpty() ? null : uri;
+                } else if ("Fault".equals(localName)) {
+                    faultElementFound = inFault = true;
+                }
+            } else if (depth == ACTION_CHILD && inAction) {
+                if (argumentsByName.containsKey(localName)) {
+                    matchedArguments++;
+                    startText(localName);
+                }
+            } else if (depth == FAULT_DETAIL && inFault) {
+                inDetail = "detail".equals(localName);
+            } else if (depth == UPNP_ERROR && inDetail) {
+                inUpnpError = "UPnPError".equals(localName);
+            } else if (depth == UPNP_ERROR_CHILD && inUpnpError) {
+                if ("errorCode".equals(localName) || "errorDescription".equals(localName)) {
+                    startText(localName);
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (textElement != null && depth == textDepth) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (textElement != null && depth == textDepth) {
+                String value = text.toString();
+                if (depth == ACTION_CHILD) {
+                    values.putIfAbsent(argumentsByName.get(textElement), value);
+                } else if ("errorCode".equals(textElement)) {
+                    errorCode = value;
+                } else {
+                    errorDescription = value;
+                }
+                textElement = null;
+            }
+
+            if (depth == BODY_CHILD) {
+                actionElementComplete |= inAction;
+                inAction = false;
+                inFault = false;
+            } else if (depth == FAULT_DETAIL) {
+                inDetail = false;
+            } else if (depth == UPNP_ERROR) {
+                inUpnpError = false;
+            }
+            depth--;
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            if (!bodyFound) {
+                throw new SAXException("Response envelope did not contain 'Body' child element");
+            }
+        }
+
+        protected void startText(String elementName) {
+            textElement = elementName;
+            textDepth = depth;
+            text.setLength(0);
+        }
+
+        public boolean isActionElementFound() {
+            return actionElementFound;
+        }
+
+        /**
+         * @return <code>true</code> if the end of the action element has been read.
+         */
+        public boolean isActionElementComplete() {
+            return actionElementComplete;
+        }
+
+        public String getActionNamespace() {
+            return actionNamespace;
+        }
+
+        public boolean isFaultElementFound() {
+            return faultElementFound;
+        }
+
+        public String getErrorCode() {
+            return errorCode;
+        }
+
+        public String getErrorDescription() {
+            return errorDescription;
+        }
+
+        /**
+         * The UPnP spec says that action arguments must be in the order as declared by the service. This method
+         * however is lenient, like {@link SOAPActionProcessorImpl#readArgumentValues}.
+         */
+        public ActionArgumentValue[] getArgumentValues() throws ActionException {
+            if (matchedArguments < arguments.length) {
+                throw new ActionException(ErrorCode.ARGUMENT_VALUE_INVALID,
+                        "Invalid number of input or output arguments in XML message, expected " + arguments.length
+                                + " but found " + matchedArguments);
+            }
+
+            ActionArgumentValue[] argumentValues = new ActionArgumentValue[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                ActionArgument argument = arguments[i];
+                String value = values.get(argument);
+                if (value == null) {
+                    throw new ActionException(ErrorCode.ARGUMENT_VALUE_INVALID,
+                            "Could not find argument '" + argument.getName() + "' node");
+                }
+                logger.trace("Reading action argument: {}", argument.getName());
+                argumentValues[i] = createValue(argument, value);
+            }
+            return argumentValues;
+        }
+    }
+}
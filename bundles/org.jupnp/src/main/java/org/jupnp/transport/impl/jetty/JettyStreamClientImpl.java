@@ -17,17 +17,38 @@ package org.jupnp.transport.impl.jetty;
 
 import static org.eclipse.jetty.http.HttpHeader.CONNECTION;
 
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.HttpExchange;
+import org.eclipse.jetty.client.SendFailure;
+import org.eclipse.jetty.client.api.Connection;
 import org.eclipse.jetty.client.api.ContentProvider;
 import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.http.HttpClientTransportOverHTTP;
+import org.eclipse.jetty.client.http.HttpConnectionOverHTTP;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.util.Promise;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.model.message.UpnpHeaders;
@@ -46,26 +67,56 @@ import org.slf4j.LoggerFactory;
 /**
  * Implementation based on <a href="http://www.eclipse.org/jetty/">Jetty 9.2.x</a>.
  * <p>
+ * Requests are sent with the asynchronous API of the Jetty client.
+ * </p>
+ * <p>
+ * HTTP/1.1 requests are sent with <code>Connection: close</code>, unless
+ * {@link StreamClientConfigurationImpl#isKeepAlive()} is enabled. Then the connections are pooled by the
+ * Jetty client, up to {@link StreamClientConfigurationImpl#getMaxConnectionsPerDestination()} per host and port,
+ * and closed when idle for {@link StreamClientConfigurationImpl#getIdleTimeoutMillis()}. A host failing a request
+ * on a reused connection falls back to <code>Connection: close</code> for
+ * {@link StreamClientConfigurationImpl#getCloseConnectionFallbackMillis()}. The pool hits (requests sent on a reused
+ * connection) and misses (connections opened) are available with {@link #getConnectionPoolHits()} and
+ * {@link #getConnectionPoolMisses()}, and reported to {@link StreamClientConfigurationImpl#getMetrics()}.
+ * </p>
  *
  * @author Victor Toni - initial contribution
  */
 public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConfigurationImpl, Request> {
 
+    // Request attribute set when the request is sent on a connection opened for a previous request
+    protected static final String REUSED_CONNECTION = JettyStreamClientImpl.class.getName() + ".reusedConnection";
+
     private final Logger logger = LoggerFactory.getLogger(StreamClient.class);
 
     protected final StreamClientConfigurationImpl configuration;
     protected final HttpClient httpClient;
     protected final HttpFields defaultHttpFields = new HttpFields();
 
+    // Hosts and ports which don't handle persistent connections properly, until the nano time of the fallback's end
+    protected final Map<String, Long> closeConnectionDestinations = new ConcurrentHashMap<>();
+
+    private final AtomicLong reusedConnectionCount = new AtomicLong();
+    private final AtomicLong openedConnectionCount = new AtomicLong();
+
     public JettyStreamClientImpl(StreamClientConfigurationImpl configuration) throws InitializationException {
         this.configuration = configuration;
 
-        httpClient = new HttpClient();
+        httpClient = new HttpClient(new HttpClientTransportOverHTTP() {
+            @Override
+            protected HttpConnectionOverHTTP newHttpConnection(EndPoint endPoint, HttpDestination destination,
+                    Promise<Connection> promise) {
+                return new CountingConnection(endPoint, destination, promise);
+            }
+        }, null);
 
         // These are some safety settings, we should never run into these timeouts as we
         // do our own expiration checking
         httpClient.setConnectTimeout((getConfiguration().getTimeoutSeconds() + 5) * 1000);
-        httpClient.setMaxConnectionsPerDestination(2);
+        httpClient.setMaxConnectionsPerDestination(getConfiguration().getMaxConnectionsPerDestination());
+        if (getConfiguration().isKeepAlive()) {
+            httpClient.setIdleTimeout(getConfiguration().getIdleTimeoutMillis());
+        }
 
         int cpus = Runtime.getRuntime().availableProcessors();
         int maxThreads = 5 * cpus;
@@ -122,6 +173,9 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
             default:
         }
 
+        // The idle timeout of the client only expires pooled connections, a slow response may take until the timeout
+        request.idleTimeout(getConfiguration().getTimeoutSeconds(), TimeUnit.SECONDS);
+
         // prepare default headers
         request.getHeaders().add(defaultHttpFields);
 
@@ -130,12 +184,14 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
             request.version(HttpVersion.HTTP_1_0);
         } else {
             request.version(HttpVersion.HTTP_1_1);
-            // This closes the http connection immediately after the call.
-            //
-            // Even though jetty client is able to close connections properly,
-            // it still takes ~30 seconds to do so. This may cause too many
-            // connections for installations with many upnp devices.
-            request.header(CONNECTION, "close");
+            if (!isKeepAlive(upnpRequest.getURI())) {
+                // This closes the http connection immediately after the call.
+                //
+                // Even though jetty client is able to close connections properly,
+                // it still takes ~30 seconds to do so. This may cause too many
+                // connections for installations with many upnp devices.
+                request.header(CONNECTION, "close");
+            }
         }
 
         // Add the default user agent if not already set on the message
@@ -157,41 +213,129 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
             logger.trace("Sending HTTP request: {}", requestMessage);
             try {
                 final ContentResponse httpResponse = request.send();
+                return createResponseMessage(httpResponse, httpResponse.getContent());
+            } catch (final RuntimeException e) {
+                logger.error("Request: {} failed", request, e);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Sends the request with the asynchronous API of the HTTP client, no thread is blocked while waiting for the
+     * response.
+     */
+    @Override
+    protected CompletableFuture<StreamResponseMessage> executeAsync(final StreamRequestMessage requestMessage,
+            final Request request) {
+        final CompletableFuture<StreamResponseMessage> future = new CompletableFuture<>();
+        logger.trace("Sending HTTP request: {}", requestMessage);
+        request.send(new BufferingResponseListener() {
+            @Override
+            public void onComplete(Result result) {
+                if (result.isFailed()) {
+                    keepAliveFailed(request, result.getFailure());
+                    future.completeExceptionally(result.getFailure());
+                    return;
+                }
+                try {
+                    future.complete(createResponseMessage(result.getResponse(), getContent()));
+                } catch (RuntimeException e) {
+                    logger.error("Request: {} failed", request, e);
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return <code>true</code> if the connection should be kept open after the request to the given URI.
+     */
+    protected boolean isKeepAlive(URI uri) {
+        if (!getConfiguration().isKeepAlive()) {
+            return false;
+        }
+        String destination = getDestination(uri.getHost(), uri.getPort());
+        Long fallbackEnd = closeConnectionDestinations.get(destination);
+        if (fallbackEnd == null) {
+            return true;
+        }
+        if (System.nanoTime() - fallbackEnd < 0) {
+            return false;
+        }
+        if (closeConnectionDestinations.remove(destination, fallbackEnd)) {
+            logger.debug("Keeping connections to {} alive again", destination);
+        }
+        return true;
+    }
 
-                logger.trace("Received HTTP response: {}", httpResponse.getReason());
+    /**
+     * Falls back to <code>Connection: close</code> for a host which failed a request on a reused kept-alive
+     * connection, for example by closing it without a response. Timeouts, aborted requests and failures on new
+     * connections are not considered keep-alive failures.
+     */
+    protected void keepAliveFailed(Request request, Throwable failure) {
+        if (!(failure instanceof IOException) || failure instanceof ConnectException
+                || !Boolean.TRUE.equals(request.getAttributes().get(REUSED_CONNECTION))) {
+            return;
+        }
+        long fallbackEnd = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(getConfiguration().getCloseConnectionFallbackMillis());
+        if (closeConnectionDestinations.put(getDestination(request.getHost(), request.getPort()),
+                fallbackEnd) == null) {
+            logger.info("Request to {}:{} failed on reused connection, closing connections to this host for {} ms: {}",
+                    request.getHost(), request.getPort(), getConfiguration().getCloseConnectionFallbackMillis(),
+                    failure.toString());
+        }
+    }
 
-                // Status
-                final UpnpResponse responseOperation = new UpnpResponse(httpResponse.getStatus(),
-                        httpResponse.getReason());
+    protected String getDestination(String host, int port) {
+        return host + ":" + (port == -1 ? 80 : port);
+    }
 
-                // Message
-                final StreamResponseMessage responseMessage = new StreamResponseMessage(responseOperation);
+    /**
+     * @return The number of requests sent on a connection opened for a previous request.
+     */
+    public long getConnectionPoolHits() {
+        return reusedConnectionCount.get();
+    }
 
-                // Headers
-                responseMessage.setHeaders(new UpnpHeaders(HeaderUtil.get(httpResponse)));
+    /**
+     * @return The number of connections opened for requests.
+     */
+    public long getConnectionPoolMisses() {
+        return openedConnectionCount.get();
+    }
 
-                // Body
-                final byte[] bytes = httpResponse.getContent();
-                if (bytes == null || 0 == bytes.length) {
-                    logger.trace("HTTP response message has no entity");
+    protected StreamResponseMessage createResponseMessage(final Response httpResponse, final byte[] bytes) {
+        logger.trace("Received HTTP response: {}", httpResponse.getReason());
 
-                    return responseMessage;
-                }
+        // Status
+        final UpnpResponse responseOperation = new UpnpResponse(httpResponse.getStatus(), httpResponse.getReason());
 
-                if (responseMessage.isContentTypeMissingOrText()) {
-                    logger.trace("HTTP response message contains text entity");
-                } else {
-                    logger.trace("HTTP response message contains binary entity");
-                }
+        // Message
+        final StreamResponseMessage responseMessage = new StreamResponseMessage(responseOperation);
 
-                responseMessage.setBodyCharacters(bytes);
+        // Headers
+        responseMessage.setHeaders(new UpnpHeaders(HeaderUtil.get(httpResponse)));
 
-                return responseMessage;
-            } catch (final RuntimeException e) {
-                logger.error("Request: {} failed", request, e);
-                throw e;
-            }
-        };
+        // Body
+        if (bytes == null || 0 == bytes.length) {
+            logger.trace("HTTP response message has no entity");
+
+            return responseMessage;
+        }
+
+        if (responseMessage.isContentTypeMissingOrText()) {
+            logger.trace("HTTP response message contains text entity");
+        } else {
+            logger.trace("HTTP response message contains binary entity");
+        }
+
+        responseMessage.setBodyCharacters(bytes);
+
+        return responseMessage;
     }
 
     @Override
@@ -206,7 +350,7 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
             // logging rules of the StreamClient#sendRequest() method
             logger.trace("Illegal state: {}", t.getMessage());
             return true;
-        } else if (t.getMessage().contains("HTTP protocol violation")) {
+        } else if (t.getMessage() != null && t.getMessage().contains("HTTP protocol violation")) {
             SpecificationViolationReporter.report(t.getMessage());
             return true;
         }
@@ -216,6 +360,8 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
     @Override
     public void stop() {
         logger.trace("Shutting down HTTP client connection manager/pool");
+        logger.debug("HTTP client connection pool hits: {}, misses: {}", getConnectionPoolHits(),
+                getConnectionPoolMisses());
         try {
             httpClient.stop();
         } catch (Exception e) {
@@ -233,6 +379,34 @@ public class JettyStreamClientImpl extends AbstractStreamClient<StreamClientConf
         }
     }
 
+    /**
+     * Counts the requests sent on this connection, all but the first one are pool hits.
+     */
+    protected class CountingConnection extends HttpConnectionOverHTTP {
+
+        private final AtomicInteger exchanges = new AtomicInteger();
+
+        public CountingConnection(EndPoint endPoint, HttpDestination destination,
+                Promise<Connection> promise) {
+            super(endPoint, destination, promise);
+        }
+
+        @Override
+        protected SendFailure send(HttpExchange exchange) {
+            Request request = exchange.getRequest();
+            UpnpMetrics metrics = getConfiguration().getMetrics();
+            if (exchanges.getAndIncrement() > 0) {
+                request.attribute(REUSED_CONNECTION, Boolean.TRUE);
+                reusedConnectionCount.incrementAndGet();
+                metrics.increment(UpnpMetrics.HTTP_CLIENT_CONNECTIONS_REUSED, request.getHost());
+            } else {
+                openedConnectionCount.incrementAndGet();
+                metrics.increment(UpnpMetrics.HTTP_CLIENT_CONNECTIONS_OPENED, request.getHost());
+            }
+            return super.send(exchange);
+        }
+    }
+
     private QueuedThreadPool createThreadPool(String consumerName, int minThreads, int maxThreads,
             int keepAliveTimeout) {
         QueuedThreadPool queuedThreadPool = new QueuedThreadPool(maxThreads, minThreads, keepAliveTimeout);
@@ -17,6 +17,7 @@ package org.jupnp.transport.impl.jetty;
 
 import java.util.concurrent.ExecutorService;
 
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.transport.TransportConfiguration;
 import org.jupnp.transport.impl.ServletStreamServerConfigurationImpl;
 import org.jupnp.transport.impl.ServletStreamServerImpl;
@@ -36,6 +37,10 @@ public class JettyTransportConfiguration implements TransportConfiguration {
     @Override
     public StreamClient createStreamClient(final ExecutorService executorService,
             final StreamClientConfiguration configuration) {
+        if (configuration instanceof StreamClientConfigurationImpl) {
+            return new JettyStreamClientImpl(
+                    createClientConfiguration(executorService, (StreamClientConfigurationImpl) configuration));
+        }
         StreamClientConfigurationImpl clientConfiguration = new StreamClientConfigurationImpl(executorService,
                 configuration.getTimeoutSeconds(), configuration.getLogWarningSeconds(),
                 configuration.getRetryAfterSeconds(), configuration.getRetryIterations());
@@ -43,6 +48,41 @@ public class JettyTransportConfiguration implements TransportConfiguration {
         return new JettyStreamClientImpl(clientConfiguration);
     }
 
+    /**
+     * Keeps the connection pool settings of the given configuration.
+     */
+    private StreamClientConfigurationImpl createClientConfiguration(final ExecutorService executorService,
+            final StreamClientConfigurationImpl configuration) {
+        return new StreamClientConfigurationImpl(executorService, configuration.getTimeoutSeconds(),
+                configuration.getLogWarningSeconds(), configuration.getRetryAfterSeconds(),
+                configuration.getRetryIterations()) {
+            @Override
+            public boolean isKeepAlive() {
+                return configuration.isKeepAlive();
+            }
+
+            @Override
+            public int getMaxConnectionsPerDestination() {
+                return configuration.getMaxConnectionsPerDestination();
+            }
+
+            @Override
+            public long getIdleTimeoutMillis() {
+                return configuration.getIdleTimeoutMillis();
+            }
+
+            @Override
+            public long getCloseConnectionFallbackMillis() {
+                return configuration.getCloseConnectionFallbackMillis();
+            }
+
+            @Override
+            public UpnpMetrics getMetrics() {
+                return configuration.getMetrics();
+            }
+        };
+    }
+
     @Override
     public StreamServer createStreamServer(final int listenerPort) {
         return new ServletStreamServerImpl(
@@ -17,6 +17,7 @@ package org.jupnp.transport.impl.jetty;
 
 import java.util.concurrent.ExecutorService;
 
+import org.jupnp.metrics.UpnpMetrics;
 import org.jupnp.transport.spi.AbstractStreamClientConfiguration;
 
 /**
@@ -55,4 +56,45 @@ public class StreamClientConfigurationImpl extends AbstractStreamClientConfigura
     public int getSocketBufferSize() {
         return -1;
     }
+
+    /**
+     * Note: many devices close idle connections after a few seconds, or don't handle persistent connections at all.
+     * A host failing a request on a reused kept-alive connection is sent <code>Connection: close</code> requests for
+     * {@link #getCloseConnectionFallbackMillis()}.
+     *
+     * @return By default <code>false</code>, HTTP/1.1 requests are sent with <code>Connection: close</code>. Return
+     *         <code>true</code> to keep connections open and reuse them for the next requests to the same host.
+     */
+    public boolean isKeepAlive() {
+        return false;
+    }
+
+    /**
+     * @return By default <code>2</code>, the maximum number of connections to the same host and port.
+     */
+    public int getMaxConnectionsPerDestination() {
+        return 2;
+    }
+
+    /**
+     * @return By default <code>5000</code>, the milliseconds after which an idle kept-alive connection is closed.
+     */
+    public long getIdleTimeoutMillis() {
+        return 5000;
+    }
+
+    /**
+     * @return By default <code>600000</code>, the milliseconds a host which failed a request on a reused connection
+     *         is sent <code>Connection: close</code> requests, before connections to it are kept alive again.
+     */
+    public long getCloseConnectionFallbackMillis() {
+        return 600000;
+    }
+
+    /**
+     * @return By default {@link UpnpMetrics#DISABLED}, receives the opened and reused connections.
+     */
+    public UpnpMetrics getMetrics() {
+        return UpnpMetrics.DISABLED;
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl.nio;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives datagrams of any number of non-blocking <code>DatagramChannel</code>s on a single I/O thread.
+ * <p>
+ * The I/O thread is started when the first channel is registered, and it terminates when all registered
+ * channels have been closed. Registering a channel again starts a new I/O thread.
+ * </p>
+ * <p>
+ * All channels share one direct receive buffer. A received datagram is copied into a reused
+ * <code>DatagramPacket</code> and passed to the {@link Handler} of its channel, on the I/O thread. A handler
+ * must not block and must not retain the packet or its data after returning.
+ * </p>
+ */
+public class DatagramChannelSelector {
+
+    /**
+     * Maximum number of datagrams read from a ready channel before the other channels get their turn.
+     */
+    public static final int MAX_DATAGRAMS_PER_SELECT = 16;
+
+    /**
+     * Consumes the datagrams received on a channel.
+     */
+    public interface Handler {
+
+        /**
+         * @return The size of the receive buffer, longer datagrams are truncated.
+         */
+        int getMaxDatagramBytes();
+
+        /**
+         * @param datagram The received datagram, only valid until this method returns.
+         */
+        void received(DatagramPacket datagram);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(DatagramChannelSelector.class);
+
+    protected final String threadName;
+
+    protected final Map<DatagramChannel, Handler> pendingRegistrations = new HashMap<>();
+    protected Selector selector;
+    protected Thread thread;
+
+    // Only accessed by the I/O thread
+    protected ByteBuffer buffer;
+    protected byte[] data;
+    protected final DatagramPacket datagram = new DatagramPacket(new byte[0], 0);
+
+    public DatagramChannelSelector() {
+        this("jupnp-datagram-selector");
+    }
+
+    public DatagramChannelSelector(String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * Starts receiving datagrams of the given channel, starting the I/O thread if necessary.
+     * <p>
+     * Close the channel to stop receiving, and call {@link #wakeup()} to have the I/O thread
+     * release it immediately.
+     * </p>
+     *
+     * @param channel A non-blocking and bound channel.
+     * @param handler Consumes the datagrams received on the channel.
+     * @throws IOException If the selector could not be opened.
+     */
+    public synchronized void register(DatagramChannel channel, Handler handler) throws IOException {
+        if (selector == null) {
+            selector = Selector.open();
+        }
+        pendingRegistrations.put(channel, handler);
+
+        if (thread == null) {
+            logger.debug("Starting datagram selector thread: {}", threadName);
+            thread = new Thread(this::run, threadName);
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Interrupts a blocking select of the I/O thread, so it notices registrations and closed channels.
+     */
+    public synchronized void wakeup() {
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the I/O thread is running.
+     */
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    protected void run() {
+        try {
+            while (true) {
+                Selector currentSelector;
+                synchronized (this) {
+                    currentSelector = selector;
+                    registerPendingChannels();
+                    if (!hasOpenChannels()) {
+                        logger.debug("No open datagram channels left, stopping selector thread: {}", threadName);
+                        close();
+                        return;
+                    }
+                }
+
+                currentSelector.select();
+
+                Iterator<SelectionKey> it = currentSelector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        receive(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.warn("Datagram selector failed, no longer receiving datagrams", e);
+            synchronized (this) {
+                close();
+            }
+        }
+    }
+
+    protected void registerPendingChannels() {
+        for (Map.Entry<DatagramChannel, Handler> entry : pendingRegistrations.entrySet()) {
+            try {
+                entry.getKey().register(selector, SelectionKey.OP_READ, entry.getValue());
+            } catch (ClosedChannelException e) {
+                logger.debug("Datagram channel closed before it could be registered");
+            }
+        }
+        pendingRegistrations.clear();
+    }
+
+    protected boolean hasOpenChannels() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void close() {
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.debug("Could not close selector", e);
+        }
+        selector = null;
+        thread = null;
+    }
+
+    protected void receive(SelectionKey key) {
+        DatagramChannel channel = (DatagramChannel) key.channel();
+        Handler handler = (Handler) key.attachment();
+        int maxDatagramBytes = handler.getMaxDatagramBytes();
+
+        try {
+            for (int i = 0; i < MAX_DATAGRAMS_PER_SELECT; i++) {
+                ByteBuffer receiveBuffer = getBuffer(maxDatagramBytes);
+                SocketAddress source = channel.receive(receiveBuffer);
+                if (source == null) {
+                    return;
+                }
+                receiveBuffer.flip();
+                int length = receiveBuffer.remaining();
+                receiveBuffer.get(data, 0, length);
+                datagram.setData(data, 0, length);
+                datagram.setSocketAddress(source);
+
+                try {
+                    handler.received(datagram);
+                } catch (RuntimeException e) {
+                    logger.warn("Unexpected exception handling datagram from: {}", source, e);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            logger.debug("Datagram channel closed");
+            key.cancel();
+        } catch (IOException e) {
+            logger.debug("Could not receive datagram", e);
+        }
+    }
+
+    protected ByteBuffer getBuffer(int maxDatagramBytes) {
+        if (buffer == null || buffer.capacity() < maxDatagramBytes) {
+            buffer = ByteBuffer.allocateDirect(maxDatagramBytes);
+            data = new byte[maxDatagramBytes];
+        }
+        buffer.clear();
+        buffer.limit(maxDatagramBytes);
+        return buffer;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl.nio;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+import org.jupnp.model.UnsupportedDataException;
+import org.jupnp.model.message.OutgoingDatagramMessage;
+import org.jupnp.transport.Router;
+import org.jupnp.transport.impl.DatagramIOConfigurationImpl;
+import org.jupnp.transport.spi.DatagramIO;
+import org.jupnp.transport.spi.DatagramProcessor;
+import org.jupnp.transport.spi.InitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation based on a non-blocking <code>DatagramChannel</code>, received datagrams are read by a
+ * {@link DatagramChannelSelector} shared with other datagram services.
+ * <p>
+ * Unlike {@link org.jupnp.transport.impl.DatagramIOImpl}, {@link #run()} does not block, it only
+ * registers the channel with the selector. Use this implementation by overriding
+ * {@link org.jupnp.UpnpServiceConfiguration#createDatagramIO(org.jupnp.transport.spi.NetworkAddressFactory)},
+ * with the same selector instance for all {@link NIOMulticastReceiverImpl}s and datagram services of a
+ * configuration.
+ * </p>
+ * <p>
+ * Sending is thread-safe without synchronization, the channel never blocks; a datagram is dropped if the
+ * socket send buffer is full.
+ * </p>
+ */
+public class NIODatagramIOImpl implements DatagramIO<DatagramIOConfigurationImpl>, DatagramChannelSelector.Handler {
+
+    private final Logger logger = LoggerFactory.getLogger(NIODatagramIOImpl.class);
+
+    protected final DatagramIOConfigurationImpl configuration;
+    protected final DatagramChannelSelector selector;
+
+    protected Router router;
+    protected DatagramProcessor datagramProcessor;
+
+    protected InetSocketAddress localAddress;
+    protected DatagramChannel channel; // For sending unicast & multicast, and receiving unicast
+
+    public NIODatagramIOImpl(DatagramIOConfigurationImpl configuration, DatagramChannelSelector selector) {
+        this.configuration = configuration;
+        this.selector = selector;
+    }
+
+    @Override
+    public DatagramIOConfigurationImpl getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public synchronized void init(InetAddress bindAddress, int bindPort, Router router,
+            DatagramProcessor datagramProcessor) throws InitializationException {
+
+        this.router = router;
+        this.datagramProcessor = datagramProcessor;
+
+        try {
+
+            // See DatagramIOImpl, we also use an ephemeral port unless configured otherwise
+            logger.debug("Creating bound channel (for datagram input/output) on: {}:{}", bindAddress, bindPort);
+            channel = DatagramChannel.open(
+                    bindAddress instanceof Inet6Address ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET);
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.setOption(StandardSocketOptions.IP_MULTICAST_TTL, configuration.getTimeToLive());
+            // Keep a backlog of incoming datagrams if we are not fast enough
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 262144);
+            channel.bind(new InetSocketAddress(bindAddress, bindPort));
+            channel.configureBlocking(false);
+            localAddress = (InetSocketAddress) channel.getLocalAddress();
+        } catch (Exception e) {
+            closeChannel();
+            throw new InitializationException("Could not initialize " + getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (channel != null && channel.isOpen()) {
+            closeChannel();
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        logger.debug("Registering channel listening for UDP datagrams on: {} with selector", localAddress);
+        try {
+            selector.register(channel, this);
+        } catch (IOException e) {
+            logger.warn("Could not register datagram channel with selector", e);
+        }
+    }
+
+    @Override
+    public int getMaxDatagramBytes() {
+        return getConfiguration().getMaxDatagramBytes();
+    }
+
+    @Override
+    public void received(DatagramPacket datagram) {
+        logger.debug("UDP datagram received from: {}:{} on: {}", datagram.getAddress().getHostAddress(),
+                datagram.getPort(), localAddress);
+        try {
+            router.received(datagramProcessor.read(localAddress.getAddress(), datagram));
+        } catch (UnsupportedDataException e) {
+            logger.info("Could not read datagram: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void send(OutgoingDatagramMessage message) {
+        logger.debug("Sending message from address: {}", localAddress);
+
+        DatagramPacket packet = datagramProcessor.write(message);
+
+        logger.debug("Sending UDP datagram packet to: {}:{}", message.getDestinationAddress(),
+                message.getDestinationPort());
+
+        send(packet);
+    }
+
+    @Override
+    public void send(DatagramPacket datagram) {
+        logger.debug("Sending message from address: {}", localAddress);
+
+        try {
+            int sent = channel.send(ByteBuffer.wrap(datagram.getData(), datagram.getOffset(), datagram.getLength()),
+                    datagram.getSocketAddress());
+            if (sent == 0) {
+                logger.debug("Send buffer full, dropped datagram to: {}", datagram.getAddress());
+            }
+        } catch (ClosedChannelException e) {
+            logger.debug("Channel closed, aborting datagram send to: {}", datagram.getAddress());
+        } catch (IOException e) {
+            logger.error("Exception sending datagram to: {}", datagram.getAddress(), e);
+            logger.error("  Details: datagram.socketAddress={}, length={}, localAddress={}",
+                    datagram.getSocketAddress(), datagram.getLength(), localAddress);
+        }
+    }
+
+    protected void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Could not close datagram channel", e);
+            }
+        }
+    }
+}
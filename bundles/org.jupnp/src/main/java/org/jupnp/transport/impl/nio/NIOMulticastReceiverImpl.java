@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport.impl.nio;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.MembershipKey;
+
+import org.jupnp.model.UnsupportedDataException;
+import org.jupnp.transport.Router;
+import org.jupnp.transport.impl.MulticastReceiverConfigurationImpl;
+import org.jupnp.transport.spi.DatagramProcessor;
+import org.jupnp.transport.spi.InitializationException;
+import org.jupnp.transport.spi.MulticastReceiver;
+import org.jupnp.transport.spi.NetworkAddressFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation based on a non-blocking <code>DatagramChannel</code>, received datagrams are read by a
+ * {@link DatagramChannelSelector} shared with other receivers.
+ * <p>
+ * Unlike {@link org.jupnp.transport.impl.MulticastReceiverImpl}, {@link #run()} does not block, it only
+ * registers the channel with the selector. Use this implementation by overriding
+ * {@link org.jupnp.UpnpServiceConfiguration#createMulticastReceiver(NetworkAddressFactory)}, with the same
+ * selector instance for all receivers and {@link NIODatagramIOImpl}s of a configuration.
+ * </p>
+ */
+public class NIOMulticastReceiverImpl
+        implements MulticastReceiver<MulticastReceiverConfigurationImpl>, DatagramChannelSelector.Handler {
+
+    private final Logger logger = LoggerFactory.getLogger(MulticastReceiver.class);
+
+    protected final MulticastReceiverConfigurationImpl configuration;
+    protected final DatagramChannelSelector selector;
+
+    protected Router router;
+    protected NetworkAddressFactory networkAddressFactory;
+    protected DatagramProcessor datagramProcessor;
+
+    protected NetworkInterface multicastInterface;
+    protected InetSocketAddress multicastAddress;
+    protected DatagramChannel channel;
+    protected MembershipKey membership;
+
+    public NIOMulticastReceiverImpl(MulticastReceiverConfigurationImpl configuration,
+            DatagramChannelSelector selector) {
+        this.configuration = configuration;
+        this.selector = selector;
+    }
+
+    @Override
+    public MulticastReceiverConfigurationImpl getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public synchronized void init(NetworkInterface networkInterface, Router router,
+            NetworkAddressFactory networkAddressFactory, DatagramProcessor datagramProcessor)
+            throws InitializationException {
+
+        this.router = router;
+        this.networkAddressFactory = networkAddressFactory;
+        this.datagramProcessor = datagramProcessor;
+        this.multicastInterface = networkInterface;
+
+        try {
+
+            logger.debug("Creating wildcard channel (for receiving multicast datagrams) on port: {}",
+                    configuration.getPort());
+            multicastAddress = new InetSocketAddress(configuration.getGroup(), configuration.getPort());
+
+            channel = DatagramChannel.open(configuration.getGroup() instanceof Inet6Address
+                    ? StandardProtocolFamily.INET6
+                    : StandardProtocolFamily.INET);
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            // Keep a backlog of incoming datagrams if we are not fast enough
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 32768);
+            channel.bind(new InetSocketAddress(configuration.getPort()));
+            channel.configureBlocking(false);
+
+            logger.debug("Joining multicast group: {} on network interface: {}", multicastAddress,
+                    multicastInterface.getDisplayName());
+            membership = channel.join(configuration.getGroup(), multicastInterface);
+
+        } catch (Exception e) {
+            closeChannel();
+            throw new InitializationException("Could not initialize " + getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (channel != null && channel.isOpen()) {
+            if (membership != null) {
+                logger.debug("Leaving multicast group");
+                membership.drop();
+            }
+            closeChannel();
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        logger.debug("Registering channel listening for UDP datagrams on: {} with selector", multicastAddress);
+        try {
+            selector.register(channel, this);
+        } catch (IOException e) {
+            logger.warn("Could not register multicast channel with selector", e);
+        }
+    }
+
+    @Override
+    public int getMaxDatagramBytes() {
+        return getConfiguration().getMaxDatagramBytes();
+    }
+
+    @Override
+    public void received(DatagramPacket datagram) {
+        InetAddress receivedOnLocalAddress = networkAddressFactory.getLocalAddress(multicastInterface,
+                multicastAddress.getAddress() instanceof Inet6Address, datagram.getAddress());
+
+        logger.debug("UDP datagram received from: {}:{} on local interface: {} and address: {}",
+                datagram.getAddress().getHostAddress(), datagram.getPort(), multicastInterface.getDisplayName(),
+                receivedOnLocalAddress.getHostAddress());
+
+        try {
+            router.received(datagramProcessor.read(receivedOnLocalAddress, datagram));
+        } catch (UnsupportedDataException e) {
+            logger.info("Could not read datagram: {}", e.getMessage());
+        }
+    }
+
+    protected void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Could not close multicast channel", e);
+            }
+        }
+    }
+}
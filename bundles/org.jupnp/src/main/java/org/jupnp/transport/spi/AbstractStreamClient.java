@@ -19,9 +19,12 @@ import java.net.URI;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -34,7 +37,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Implements the timeout/callback processing and unifies exception handling.
- * 
+ * <p>
+ * Requests are always executed asynchronously, {@link #sendRequest(StreamRequestMessage)} waits for the
+ * completion of {@link #sendRequestAsync(StreamRequestMessage)}.
+ * </p>
+ *
  * @author Christian Bauer
  */
 public abstract class AbstractStreamClient<C extends StreamClientConfiguration, REQUEST> implements StreamClient<C> {
@@ -47,6 +54,25 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
 
     @Override
     public StreamResponseMessage sendRequest(StreamRequestMessage requestMessage) throws InterruptedException {
+        CompletableFuture<StreamResponseMessage> future = sendRequestAsync(requestMessage);
+
+        // Wait on the current thread for completion
+        try {
+            logger.trace("Waiting {} seconds for HTTP request to complete: {}", getConfiguration().getTimeoutSeconds(),
+                    requestMessage);
+            return future.get();
+        } catch (InterruptedException e) {
+            logger.trace("Interruption, aborting request: {}", requestMessage);
+            future.cancel(true);
+            throw new InterruptedException("HTTP request interrupted and aborted");
+        } catch (ExecutionException | CancellationException e) {
+            // Failures have been logged already, see complete()
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<StreamResponseMessage> sendRequestAsync(StreamRequestMessage requestMessage) {
         logger.trace("Preparing HTTP request: {}", requestMessage);
 
         String[] split = requestMessage.getUri().toString().split(":");
@@ -54,7 +80,7 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
 
         if (protocol.equals("https")) {
             SpecificationViolationReporter.report("HTTPS invalid.  Ignoring call " + requestMessage.getUri());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // We want to track how long it takes
@@ -70,7 +96,7 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
                     && numberOfTries >= getConfiguration().getRetryIterations()) {
                 logger.debug("Will not attempt request because it failed {} times in the last {} seconds: {}",
                         numberOfTries, getConfiguration().getRetryAfterSeconds(), requestMessage);
-                return null;
+                return CompletableFuture.completedFuture(null);
             } else if (start - previeousFailureTime < TimeUnit.SECONDS
                     .toNanos(getConfiguration().getRetryAfterSeconds()) && numberOfTries > 0) {
                 logger.debug("Previous attempt failed {} times.  Will retry {}", numberOfTries, requestMessage);
@@ -83,47 +109,71 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
 
         REQUEST request = createRequest(requestMessage);
         if (request == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
-        Callable<StreamResponseMessage> callable = createCallable(requestMessage, request);
-        RequestWrapper requestWrapper = new RequestWrapper(callable);
-
-        // Execute the request on a new thread
-        Future<StreamResponseMessage> future = getConfiguration().getRequestExecutorService().submit(requestWrapper);
+        CompletableFuture<StreamResponseMessage> execution = executeAsync(requestMessage, request);
+        CompletableFuture<StreamResponseMessage> result = execution
+                .orTimeout(getConfiguration().getTimeoutSeconds(), TimeUnit.SECONDS)
+                .handle((response, t) -> complete(requestMessage, request, execution, start, response, t));
 
-        // Wait on the current thread for completion
-        try {
-            logger.trace("Waiting {} seconds for HTTP request to complete: {}", getConfiguration().getTimeoutSeconds(),
-                    requestMessage);
-            StreamResponseMessage response = future.get(getConfiguration().getTimeoutSeconds(), TimeUnit.SECONDS);
-
-            // Log a warning if it took too long
-            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
-            logger.trace("Got HTTP response in {} ms: {}", elapsed, requestMessage);
-            if (getConfiguration().getLogWarningSeconds() > 0
-                    && elapsed > TimeUnit.SECONDS.toMillis(getConfiguration().getLogWarningSeconds())) {
-                logger.warn("HTTP request took a long time ({} ms): {}", elapsed, requestMessage);
+        // Cancelling the result (e.g. when the waiting thread is interrupted) aborts the request
+        result.whenComplete((response, t) -> {
+            if (result.isCancelled()) {
+                abort(request);
+                onFinally(request);
             }
+        });
+        return result;
+    }
 
-            return response;
-
-        } catch (InterruptedException e) {
-            logger.trace("Interruption, aborting request: {}", requestMessage);
-            abort(request);
-            throw new InterruptedException("HTTP request interrupted and aborted");
+    /**
+     * Executes the request without blocking the calling thread.
+     * <p>
+     * This implementation executes the {@link #createCallable(StreamRequestMessage, Object)} procedure with the
+     * {@link StreamClientConfiguration#getRequestExecutorService()}, override it if the HTTP client has an
+     * asynchronous API. The returned future is completed exceptionally when the request fails, timeouts are
+     * handled by the caller.
+     * </p>
+     */
+    protected CompletableFuture<StreamResponseMessage> executeAsync(StreamRequestMessage requestMessage,
+            REQUEST request) {
+        QueuedRequest queuedRequest = new QueuedRequest(createCallable(requestMessage, request));
+        try {
+            getConfiguration().getRequestExecutorService().execute(queuedRequest);
+        } catch (RejectedExecutionException e) {
+            queuedRequest.completeExceptionally(e);
+        }
+        return queuedRequest;
+    }
 
-        } catch (TimeoutException e) {
+    private StreamResponseMessage complete(StreamRequestMessage requestMessage, REQUEST request,
+            CompletableFuture<StreamResponseMessage> execution, long start, StreamResponseMessage response,
+            Throwable t) {
+        try {
+            if (t == null) {
+                // Log a warning if it took too long
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                logger.trace("Got HTTP response in {} ms: {}", elapsed, requestMessage);
+                if (getConfiguration().getLogWarningSeconds() > 0
+                        && elapsed > TimeUnit.SECONDS.toMillis(getConfiguration().getLogWarningSeconds())) {
+                    logger.warn("HTTP request took a long time ({} ms): {}", elapsed, requestMessage);
+                }
+                return response;
+            }
 
-            logger.info("Timeout of {} seconds while waiting for HTTP request to complete, aborting: {}",
-                    getConfiguration().getTimeoutSeconds(), requestMessage);
-            abort(request);
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            if (cause instanceof TimeoutException) {
+                logger.info("Timeout of {} seconds while waiting for HTTP request to complete, aborting: {}",
+                        getConfiguration().getTimeoutSeconds(), requestMessage);
+                abort(request);
 
-            handleRequestTimeout(requestMessage, requestWrapper);
-            return null;
+                // Requests without an executor queue start right away
+                Long startTime = execution instanceof QueuedRequest ? ((QueuedRequest) execution).startTime : start;
+                handleRequestTimeout(requestMessage, startTime);
+                return null;
+            }
 
-        } catch (ExecutionException e) {
-            Throwable cause = e.getCause();
             if (!logExecutionException(cause)) {
                 String message = "HTTP request failed: " + requestMessage;
 
@@ -182,13 +232,13 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
         }
     }
 
-    private void handleRequestTimeout(StreamRequestMessage requestMessage, RequestWrapper requestWrapper) {
+    private void handleRequestTimeout(StreamRequestMessage requestMessage, Long startTime) {
         if (getConfiguration().getRetryAfterSeconds() <= 0) {
             return;
         }
 
         final long currentTime = System.nanoTime();
-        if (requestWrapper.startTime != null && currentTime - requestWrapper.startTime > TimeUnit.SECONDS
+        if (startTime != null && currentTime - startTime > TimeUnit.SECONDS
                 .toNanos(getConfiguration().getTimeoutSeconds())) {
             failedRequests.put(requestMessage.getUri(), currentTime);
         }
@@ -212,19 +262,26 @@ public abstract class AbstractStreamClient<C extends StreamClientConfiguration,
     }
 
     // Wrap the Callables to track if execution started or if it timed out while waiting in the executor queue
-    private static class RequestWrapper implements Callable<StreamResponseMessage> {
+    private static class QueuedRequest extends CompletableFuture<StreamResponseMessage> implements Runnable {
 
-        Callable<StreamResponseMessage> task;
-        Long startTime = null;
+        final Callable<StreamResponseMessage> task;
+        volatile Long startTime = null;
 
-        public RequestWrapper(Callable<StreamResponseMessage> task) {
+        public QueuedRequest(Callable<StreamResponseMessage> task) {
             this.task = task;
         }
 
         @Override
-        public StreamResponseMessage call() throws Exception {
+        public void run() {
+            if (isDone()) {
+                return; // Expired or cancelled while waiting in the queue
+            }
             startTime = System.nanoTime();
-            return task.call();
+            try {
+                complete(task.call());
+            } catch (Exception e) {
+                completeExceptionally(e);
+            }
         }
     }
 }
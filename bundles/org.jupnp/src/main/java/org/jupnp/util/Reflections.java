@@ -16,12 +16,16 @@
 package org.jupnp.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -74,6 +78,85 @@ public class Reflections {
 
     // ####################
 
+    /**
+     * Creates a method handle of type <code>(Object, Object[])Object</code>, calling the method on its first
+     * argument with the values of the array. Invoking it with {@link #invoke(MethodHandle, Object, Object...)} is
+     * faster than reflection. Only a copy of the method is made accessible, the handle doesn't depend on it.
+     *
+     * @return <code>null</code> if the method can't be accessed with a method handle, for example with a restricted
+     *         class loader, call {@link #invoke(Method, Object, Object...)} instead.
+     */
+    public static MethodHandle createInvoker(Method method) {
+        try {
+            Method accessibleMethod = method.getDeclaringClass().getDeclaredMethod(method.getName(),
+                    method.getParameterTypes());
+            accessibleMethod.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(accessibleMethod).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.genericMethodType(method.getParameterCount() + 1))
+                    .asSpreader(Object[].class, method.getParameterCount());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a method handle of type <code>(Object)Object</code>, reading the field of its argument. Invoking it
+     * with {@link #get(MethodHandle, Object)} is faster than reflection. Only a copy of the field is made
+     * accessible, the handle doesn't depend on it.
+     *
+     * @return <code>null</code> if the field can't be accessed with a method handle, for example with a restricted
+     *         class loader, call {@link #get(Field, Object)} instead.
+     */
+    public static MethodHandle createGetter(Field field) {
+        try {
+            Field accessibleField = field.getDeclaringClass().getDeclaredField(field.getName());
+            accessibleField.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectGetter(accessibleField);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link #invoke(Method, Object, Object...)}, exceptions thrown by the method are rethrown, errors are
+     * wrapped in an {@link InvocationTargetException}.
+     *
+     * @param invoker A method handle created with {@link #createInvoker(Method)}.
+     */
+    public static Object invoke(MethodHandle invoker, Object target, Object... args) throws Exception {
+        try {
+            return (Object) invoker.invokeExact(target, args);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Errors are wrapped in an {@link InvocationTargetException}, like exceptions thrown by a getter method.
+     *
+     * @param getter A method handle created with {@link #createGetter(Field)}.
+     */
+    public static Object get(MethodHandle getter, Object target) throws Exception {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    // ####################
+
     public static Method getMethod(Class clazz, String name) {
         for (Class superClass = clazz; superClass != null
                 && superClass != Object.class; superClass = superClass.getSuperclass()) {
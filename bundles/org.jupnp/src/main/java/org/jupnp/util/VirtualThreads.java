@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running each task on a new virtual thread, on runtimes supporting them (Java 21 and later).
+ * <p>
+ * The library targets Java 11, so the virtual thread API is looked up reflectively. Blocking in a task (waiting for
+ * an HTTP response, sleeping between repeated datagrams, waiting for a lock) doesn't hold a platform thread, and the
+ * executors never queue or reject tasks before they are shut down.
+ * </p>
+ */
+public class VirtualThreads {
+
+    private static final boolean AVAILABLE = isSupported();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return <code>true</code> if the runtime supports virtual threads, without enabling preview features.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @param namePrefix The prefix of the thread names, followed by a sequence number.
+     * @return A new executor starting a virtual thread for each task.
+     * @throws UnsupportedOperationException If the runtime doesn't support virtual threads.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, newThreadFactory(namePrefix));
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available", e);
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(String namePrefix) throws ReflectiveOperationException {
+        // Thread.ofVirtual().name(namePrefix, 1).factory()
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+
+    private static boolean isSupported() {
+        try {
+            // Throws on Java 19 and 20 if preview features are not enabled
+            newThreadFactory("probe");
+            Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
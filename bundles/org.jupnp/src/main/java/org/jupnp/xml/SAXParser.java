@@ -18,6 +18,7 @@ package org.jupnp.xml;
 import java.net.URI;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParserFactory;
@@ -39,6 +40,14 @@ import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLReaderFactory;
 
 /**
+ * Parses XML with a SAX <code>XMLReader</code>, reporting to the current {@link #setContentHandler(ContentHandler)}.
+ * <p>
+ * Creating a reader, and compiling the schema of a validating reader, is more expensive than most parsing. The
+ * readers are pooled and reused by all instances of the same parser class, a reader is only borrowed while
+ * {@link #parse(InputSource)} runs. The schema of the {@link #getSchemaSources()} is compiled once per parser
+ * class, so all instances of a class must return the same schema sources.
+ * </p>
+ *
  * @author Christian Bauer
  */
 public class SAXParser {
@@ -47,42 +56,85 @@ public class SAXParser {
     public static final URL XML_SCHEMA_RESOURCE = Thread.currentThread().getContextClassLoader()
             .getResource("org/jupnp/schemas/xml.xsd");
 
-    private final XMLReader xr;
+    /**
+     * Maximum number of idle readers pooled for each parser class.
+     */
+    public static final int MAX_POOLED_READERS = 8;
+
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    /**
+     * The readers and compiled schema of a parser class.
+     */
+    protected static class ReaderPool {
+
+        protected final ConcurrentLinkedQueue<XMLReader> readers = new ConcurrentLinkedQueue<>();
+
+        // Guarded by this
+        protected boolean schemaCreated;
+        protected Schema schema;
+    }
+
+    private static final ClassValue<ReaderPool> READER_POOLS = new ClassValue<>() {
+        @Override
+        protected ReaderPool computeValue(Class<?> type) {
+            return new ReaderPool();
+        }
+    };
+
+    private ContentHandler contentHandler;
+    private XMLReader xr; // Only while parsing
 
     public SAXParser() {
         this(null);
     }
 
     public SAXParser(DefaultHandler handler) {
-        this.xr = create();
-        if (handler != null) {
-            xr.setContentHandler(handler);
-        }
+        this.contentHandler = handler;
     }
 
     public void setContentHandler(ContentHandler handler) {
-        xr.setContentHandler(handler);
+        this.contentHandler = handler;
+        if (xr != null) {
+            xr.setContentHandler(handler);
+        }
     }
 
     protected XMLReader create() {
         try {
             final XMLReader xmlReader;
-            if (getSchemaSources() != null) {
+            Schema schema = getSchema();
+            if (schema != null) {
                 // Jump through all the hoops and create a validating reader
                 final SAXParserFactory factory = SAXParserFactory.newInstance();
                 factory.setNamespaceAware(true);
-                factory.setSchema(createSchema(getSchemaSources()));
+                factory.setSchema(schema);
                 xmlReader = factory.newSAXParser().getXMLReader();
             } else {
                 xmlReader = XMLReaderFactory.createXMLReader();
             }
-            xmlReader.setErrorHandler(getErrorHandler());
             return xmlReader;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * @return The schema compiled from the {@link #getSchemaSources()} of this parser class, or <code>null</code>
+     *         if this parser doesn't validate.
+     */
+    protected Schema getSchema() {
+        ReaderPool pool = READER_POOLS.get(getClass());
+        synchronized (pool) {
+            if (!pool.schemaCreated) {
+                Source[] schemaSources = getSchemaSources();
+                pool.schema = schemaSources != null ? createSchema(schemaSources) : null;
+                pool.schemaCreated = true;
+            }
+            return pool.schema;
+        }
+    }
+
     protected Schema createSchema(Source[] schemaSources) {
         try {
             SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
@@ -106,10 +158,28 @@ public class SAXParser {
     }
 
     public void parse(InputSource source) throws ParserException {
+        ReaderPool pool = READER_POOLS.get(getClass());
+        XMLReader reader = pool.readers.poll();
         try {
-            xr.parse(source);
+            if (reader == null) {
+                reader = create();
+            }
+            reader.setErrorHandler(getErrorHandler());
+            reader.setContentHandler(contentHandler != null ? contentHandler : NO_HANDLER);
+            xr = reader;
+            reader.parse(source);
         } catch (Exception e) {
             throw new ParserException(e);
+        } finally {
+            xr = null;
+            if (reader != null) {
+                // Don't keep the handlers (and what they collected) reachable from the pool
+                reader.setContentHandler(NO_HANDLER);
+                reader.setErrorHandler(NO_HANDLER);
+                if (pool.readers.size() < MAX_POOLED_READERS) {
+                    pool.readers.add(reader);
+                }
+            }
         }
     }
 
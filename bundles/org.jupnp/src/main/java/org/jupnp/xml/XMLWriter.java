@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.xml;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.jupnp.model.XMLUtil;
+
+/**
+ * Writes an XML document directly into a character buffer, without building a DOM first.
+ * <p>
+ * The output has the same format as {@link XMLUtil#documentToString(org.w3c.dom.Document)}: no whitespace between
+ * elements, namespaces declared after the attributes of an element, <code>&lt;name/&gt;</code> for elements without
+ * content and <code>&lt;name&gt;&lt;/name&gt;</code> for elements with empty text. Text and attribute values are
+ * encoded in a single pass.
+ * </p>
+ * <p>
+ * The buffer of a thread is reused for the next document written by the same thread, unless it has grown beyond
+ * {@link #MAX_RETAINED_CAPACITY}. Instances are not thread-safe, call {@link #finish()} to get the document and
+ * release the buffer. Use a try-with-resources statement so the buffer is also released when writing fails.
+ * </p>
+ */
+public class XMLWriter implements AutoCloseable {
+
+    /**
+     * Buffers larger than this many characters are not reused.
+     */
+    public static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final StringBuilder b;
+    private final boolean threadBuffer;
+    private final Deque<String> openElements = new ArrayDeque<>();
+    private boolean startTagOpen;
+    private boolean released;
+
+    protected XMLWriter(StringBuilder b, boolean threadBuffer) {
+        this.b = b;
+        this.threadBuffer = threadBuffer;
+    }
+
+    /**
+     * @return A writer using the buffer of the current thread, or a new buffer if the thread's buffer is in use.
+     */
+    public static XMLWriter create() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer == null) {
+            // In use by another writer of this thread
+            return new XMLWriter(new StringBuilder(1024), false);
+        }
+        BUFFER.set(null);
+        buffer.setLength(0);
+        return new XMLWriter(buffer, true);
+    }
+
+    /**
+     * Writes the XML declaration, with encoding <code>utf-8</code> and <code>standalone="yes"</code>.
+     */
+    public XMLWriter declaration() {
+        b.append("<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"yes\"?>");
+        return this;
+    }
+
+    public XMLWriter startElement(String name) {
+        closeStartTag();
+        b.append('<').append(name);
+        openElements.push(name);
+        startTagOpen = true;
+        return this;
+    }
+
+    /**
+     * Writes an attribute of the current start tag.
+     */
+    public XMLWriter attribute(String name, String value) {
+        b.append(' ').append(name).append("=\"");
+        XMLUtil.encodeText(b, value, true);
+        b.append('"');
+        return this;
+    }
+
+    /**
+     * Declares a namespace in the current start tag.
+     *
+     * @param prefix The namespace prefix, or <code>null</code> for the default namespace.
+     */
+    public XMLWriter namespace(String prefix, String uri) {
+        b.append(prefix != null ? " xmlns:" : " xmlns");
+        if (prefix != null) {
+            b.append(prefix);
+        }
+        b.append("=\"").append(uri).append('"');
+        return this;
+    }
+
+    public XMLWriter text(String text) {
+        closeStartTag();
+        XMLUtil.encodeText(b, text, false);
+        return this;
+    }
+
+    public XMLWriter endElement() {
+        String name = openElements.pop();
+        if (startTagOpen) {
+            b.append("/>");
+            startTagOpen = false;
+        } else {
+            b.append("</").append(name).append('>');
+        }
+        return this;
+    }
+
+    /**
+     * Writes an element containing only text.
+     *
+     * @param text The text content, or <code>null</code> for an element without content.
+     */
+    public XMLWriter element(String name, String text) {
+        startElement(name);
+        if (text != null) {
+            text(text);
+        }
+        return endElement();
+    }
+
+    /**
+     * Ends all open elements and releases the buffer.
+     *
+     * @return The written document.
+     */
+    public String finish() {
+        while (!openElements.isEmpty()) {
+            endElement();
+        }
+        String result = b.toString();
+        close();
+        return result;
+    }
+
+    /**
+     * Releases the buffer without finishing the document, does nothing if it has already been released.
+     */
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (threadBuffer && b.capacity() <= MAX_RETAINED_CAPACITY) {
+            BUFFER.set(b);
+        } else if (threadBuffer) {
+            BUFFER.set(new StringBuilder(1024));
+        }
+    }
+
+    protected void closeStartTag() {
+        if (startTagOpen) {
+            b.append('>');
+            startTagOpen = false;
+        }
+    }
+}
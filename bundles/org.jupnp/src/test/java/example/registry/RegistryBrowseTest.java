@@ -23,6 +23,7 @@ import java.util.Collection;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.jupnp.data.SampleData;
+import org.jupnp.data.SampleDeviceEmbeddedOne;
 import org.jupnp.data.SampleDeviceRoot;
 import org.jupnp.data.SampleDeviceRootLocal;
 import org.jupnp.mock.MockUpnpService;
@@ -140,4 +141,30 @@ class RegistryBrowseTest {
                 .getResource(URI.create("/dev/MY-DEVICE-123/svc/upnp-org/MY-SERVICE-123/event/cb"));
         assertNull(resource);
     }
+
+    @Test
+    void findEmbeddedRemoteDeviceAfterUpdateAndRemove() {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+        Registry registry = upnpService.getRegistry();
+
+        RemoteDevice rd = SampleData.createRemoteDevice();
+        registry.addDevice(rd);
+
+        UDN embeddedUdn = SampleDeviceEmbeddedOne.getEmbeddedOneUDN();
+        assertNull(registry.getRemoteDevice(embeddedUdn, true));
+        assertNotNull(registry.getRemoteDevice(embeddedUdn, false));
+        assertEquals(1, registry.getDevices(new UDADeviceType("MY-DEVICE-TYPE-TWO", 1)).size());
+        assertEquals(0, registry.getDevices(new UDADeviceType("MY-DEVICE-TYPE-TWO", 3)).size());
+
+        // Updating the expiration must not lose any of the indexed embedded devices
+        assertTrue(registry.update(SampleData.createRemoteDeviceIdentity()));
+        assertNotNull(registry.getRemoteDevice(embeddedUdn, false));
+        assertEquals(1, registry.getDevices(new UDADeviceType("MY-DEVICE-TYPE-TWO", 2)).size());
+
+        registry.removeDevice(rd);
+        assertNull(registry.getRemoteDevice(embeddedUdn, false));
+        assertEquals(0, registry.getDevices(new UDADeviceType("MY-DEVICE-TYPE-TWO", 2)).size());
+        assertEquals(0, registry.getDevices(new UDAServiceType("MY-SERVICE-TYPE-ONE", 1)).size());
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
+
+class UpnpServiceConfigurationExecutorsTest {
+
+    @Test
+    void defaultConfigurationExecutors() throws Exception {
+        DefaultUpnpServiceConfiguration configuration = new DefaultUpnpServiceConfiguration();
+        try {
+            // The loops of the transports and of the registry maintenance share the transport executor
+            ExecutorService transport = configuration.getStreamServerExecutorService();
+            assertSame(transport, configuration.getMulticastReceiverExecutor());
+            assertSame(transport, configuration.getDatagramIOExecutor());
+            assertSame(transport, configuration.getRegistryMaintainerExecutor());
+            assertTransportThread(transport, "jupnp-transport-");
+
+            // Protocols and listeners share one pool
+            ExecutorService protocols = configuration.getSyncProtocolExecutorService();
+            assertNotSame(transport, protocols);
+            assertSame(protocols, configuration.getAsyncProtocolExecutor());
+            assertSame(protocols, configuration.getRegistryListenerExecutor());
+            assertSame(protocols, configuration.getRemoteListenerExecutor());
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    @Test
+    void osgiConfigurationExecutors() throws Exception {
+        OSGiUpnpServiceConfiguration configuration = activate(Map.of());
+        try {
+            ExecutorService transport = configuration.getStreamServerExecutorService();
+            assertSame(transport, configuration.getMulticastReceiverExecutor());
+            assertSame(transport, configuration.getDatagramIOExecutor());
+            assertSame(transport, configuration.getRegistryMaintainerExecutor());
+            assertTransportThread(transport, "upnp-transport-");
+
+            // Each kind of work has its own pool
+            ExecutorService sync = configuration.getSyncProtocolExecutorService();
+            ExecutorService async = configuration.getAsyncProtocolExecutor();
+            assertNotSame(sync, async);
+            assertNotSame(sync, configuration.getRegistryListenerExecutor());
+            assertNotSame(async, configuration.getRegistryListenerExecutor());
+            assertNotSame(configuration.getRegistryListenerExecutor(), configuration.getRemoteListenerExecutor());
+            for (Object pool : new Object[] { sync, async, configuration.getRegistryListenerExecutor(),
+                    configuration.getRemoteListenerExecutor() }) {
+                assertNotSame(transport, pool);
+            }
+            assertEquals(20, getMaxPoolSize(configuration, "upnp-listener"));
+        } finally {
+            configuration.shutdownExecutorServices();
+        }
+    }
+
+    @Test
+    void osgiListenerThreadPoolSize() {
+        OSGiUpnpServiceConfiguration configuration = activate(Map.of("listenerThreadPoolSize", "5"));
+        try {
+            assertEquals(5, getMaxPoolSize(configuration, "upnp-listener"));
+            assertNotSame(configuration.getSyncProtocolExecutorService(), configuration.getRegistryListenerExecutor());
+        } finally {
+            configuration.shutdownExecutorServices();
+        }
+    }
+
+    @Test
+    void osgiListenerThreadPoolDisabled() {
+        OSGiUpnpServiceConfiguration configuration = activate(Map.of("listenerThreadPoolSize", "-1"));
+        try {
+            // Falls back to the main pool
+            assertSame(configuration.getSyncProtocolExecutorService(), configuration.getRegistryListenerExecutor());
+            assertNull(getMaxPoolSize(configuration, "upnp-listener"));
+        } finally {
+            configuration.shutdownExecutorServices();
+        }
+    }
+
+    @Test
+    void osgiInvalidListenerThreadPoolSize() {
+        OSGiUpnpServiceConfiguration configuration = activate(Map.of("listenerThreadPoolSize", "many"));
+        try {
+            assertEquals(20, getMaxPoolSize(configuration, "upnp-listener"));
+            assertNotSame(configuration.getSyncProtocolExecutorService(), configuration.getRegistryListenerExecutor());
+        } finally {
+            configuration.shutdownExecutorServices();
+        }
+    }
+
+    private static OSGiUpnpServiceConfiguration activate(Map<String, Object> properties) {
+        OSGiUpnpServiceConfiguration configuration = new OSGiUpnpServiceConfiguration();
+        configuration.activate(null, properties);
+        return configuration;
+    }
+
+    private static Long getMaxPoolSize(UpnpServiceConfiguration configuration, String pool) {
+        return ((InMemoryUpnpMetrics) configuration.getMetrics()).getGaugeValue(UpnpMetrics.EXECUTOR_MAX_POOL_SIZE,
+                pool);
+    }
+
+    private static void assertTransportThread(ExecutorService transport, String namePrefix) throws Exception {
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, transport).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.getName().startsWith(namePrefix), thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+}
@@ -263,6 +263,47 @@ class ActionInvokeOutgoingTest {
         assertEquals("0", actionInvocation.getOutput()[0].toString());
     }
 
+    @Test
+    void callRemoteGetAsync() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService() {
+            @Override
+            protected MockRouter createRouter() {
+                return new MockRouter(getConfiguration(), getProtocolFactory()) {
+                    @Override
+                    public StreamResponseMessage[] getStreamResponseMessages() {
+                        return new StreamResponseMessage[] { new StreamResponseMessage(RESPONSE_SUCCESSFUL) };
+                    }
+                };
+            }
+        };
+        upnpService.startup();
+
+        RemoteDevice device = SampleData.createRemoteDevice();
+        Service<RemoteDevice, RemoteService> service = SampleData.getFirstService(device);
+        upnpService.getRegistry().addDevice(device);
+
+        ActionInvocation actionInvocation = new ActionInvocation(service.getAction("GetTarget"));
+        final boolean[] assertions = new boolean[1];
+        ActionCallback callback = new ActionCallback(actionInvocation) {
+            @Override
+            public void success(ActionInvocation invocation) {
+                assertions[0] = true;
+            }
+
+            @Override
+            public void failure(ActionInvocation invocation, UpnpResponse operation, String defaultMsg) {
+                assertions[0] = false;
+            }
+        };
+
+        assertSame(actionInvocation, upnpService.getControlPoint().executeAsync(callback).get());
+
+        assertNull(actionInvocation.getFailure());
+        assertTrue(assertions[0]);
+        assertEquals(1, upnpService.getRouter().getSentStreamRequestMessages().size());
+        assertEquals("0", actionInvocation.getOutput()[0].toString());
+    }
+
     @Test
     void callRemoteGetFailure() {
         MockUpnpService upnpService = new MockUpnpService() {
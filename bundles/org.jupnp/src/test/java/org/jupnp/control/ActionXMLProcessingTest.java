@@ -19,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.net.URI;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.jupnp.data.SampleData;
@@ -44,6 +45,7 @@ import org.jupnp.model.meta.LocalService;
 import org.jupnp.model.types.ErrorCode;
 import org.jupnp.model.types.SoapActionType;
 import org.jupnp.transport.impl.SOAPActionProcessorImpl;
+import org.jupnp.transport.impl.StreamingSOAPActionProcessorImpl;
 import org.jupnp.transport.spi.SOAPActionProcessor;
 
 class ActionXMLProcessingTest {
@@ -63,7 +65,8 @@ class ActionXMLProcessingTest {
             + " </s:Envelope>";
 
     static SOAPActionProcessor[][] getProcessors() {
-        return new SOAPActionProcessor[][] { { new SOAPActionProcessorImpl() } };
+        return new SOAPActionProcessor[][] { { new SOAPActionProcessorImpl() },
+                { new StreamingSOAPActionProcessorImpl() } };
     }
 
     @ParameterizedTest
@@ -253,4 +256,41 @@ class ActionXMLProcessingTest {
         // Note that quotes are not encoded because this text is not an XML attribute value!
         assertTrue(response.getBodyString().contains("<SomeValue>This is decoded: &amp;&lt;&gt;'\"</SomeValue>"));
     }
+
+    @Test
+    void writeStreamingSameAsDOM() throws Exception {
+        LocalDevice ld = ActionSampleData.createTestDevice(ActionSampleData.LocalTestServiceExtended.class);
+        LocalService svc = ld.getServices()[0];
+        SOAPActionProcessor dom = new SOAPActionProcessorImpl();
+        SOAPActionProcessor streaming = new StreamingSOAPActionProcessorImpl();
+
+        ActionInvocation request = new ActionInvocation(svc.getAction("SetTarget"));
+        request.setInput("NewTargetValue", true);
+        OutgoingActionRequestMessage domRequest = new OutgoingActionRequestMessage(request,
+                SampleData.getLocalBaseURL());
+        OutgoingActionRequestMessage streamingRequest = new OutgoingActionRequestMessage(request,
+                SampleData.getLocalBaseURL());
+        dom.writeBody(domRequest, request);
+        streaming.writeBody(streamingRequest, request);
+        assertEquals(domRequest.getBodyString(), streamingRequest.getBodyString());
+
+        Action action = svc.getAction("GetSomeValue");
+        ActionInvocation response = new ActionInvocation(action);
+        response.setOutput("SomeValue", "This is decoded: &<>'\"");
+        OutgoingActionResponseMessage domResponse = new OutgoingActionResponseMessage(action);
+        OutgoingActionResponseMessage streamingResponse = new OutgoingActionResponseMessage(action);
+        dom.writeBody(domResponse, response);
+        streaming.writeBody(streamingResponse, response);
+        assertEquals(domResponse.getBodyString(), streamingResponse.getBodyString());
+
+        ActionInvocation failure = new ActionInvocation(action);
+        failure.setFailure(new ActionException(ErrorCode.ACTION_FAILED, "A <test> string"));
+        OutgoingActionResponseMessage domFailure = new OutgoingActionResponseMessage(
+                UpnpResponse.Status.INTERNAL_SERVER_ERROR);
+        OutgoingActionResponseMessage streamingFailure = new OutgoingActionResponseMessage(
+                UpnpResponse.Status.INTERNAL_SERVER_ERROR);
+        dom.writeBody(domFailure, failure);
+        streaming.writeBody(streamingFailure, failure);
+        assertEquals(domFailure.getBodyString(), streamingFailure.getBodyString());
+    }
 }
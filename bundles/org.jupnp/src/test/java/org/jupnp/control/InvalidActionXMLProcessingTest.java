@@ -23,6 +23,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.jupnp.UpnpService;
 import org.jupnp.mock.MockUpnpService;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
 import org.jupnp.model.UnsupportedDataException;
 import org.jupnp.model.action.ActionInvocation;
 import org.jupnp.model.message.StreamRequestMessage;
@@ -35,6 +36,8 @@ import org.jupnp.model.meta.Action;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.LocalService;
 import org.jupnp.model.types.SoapActionType;
+import org.jupnp.transport.impl.StreamingSOAPActionProcessorImpl;
+import org.jupnp.transport.spi.SOAPActionProcessor;
 import org.jupnp.util.io.IO;
 
 /**
@@ -71,6 +74,29 @@ class InvalidActionXMLProcessingTest {
         assertThrows(UnsupportedDataException.class, () -> readRequest(invalidXMLFile, new MockUpnpService()));
     }
 
+    @ParameterizedTest
+    @MethodSource("getInvalidXMLFile")
+    void readRequestStreamingFailure(String invalidXMLFile) {
+        assertThrows(UnsupportedDataException.class, () -> readRequest(invalidXMLFile, createStreamingUpnpService()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getInvalidRecoverableXMLFile")
+    void readRequestStreamingRecovered(String invalidXMLFile) throws Exception {
+        readRequest(invalidXMLFile, createStreamingUpnpService());
+    }
+
+    protected UpnpService createStreamingUpnpService() {
+        return new MockUpnpService(new MockUpnpServiceConfiguration() {
+            final SOAPActionProcessor processor = new StreamingSOAPActionProcessorImpl();
+
+            @Override
+            public SOAPActionProcessor getSoapActionProcessor() {
+                return processor;
+            }
+        });
+    }
+
     protected void readRequest(String invalidXMLFile, UpnpService upnpService) throws Exception {
         LocalDevice ld = ActionSampleData.createTestDevice(ActionSampleData.LocalTestServiceExtended.class);
         LocalService svc = ld.getServices()[0];
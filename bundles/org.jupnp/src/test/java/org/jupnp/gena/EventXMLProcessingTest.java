@@ -41,6 +41,7 @@ import org.jupnp.model.meta.RemoteDevice;
 import org.jupnp.model.meta.RemoteService;
 import org.jupnp.model.state.StateVariableValue;
 import org.jupnp.transport.impl.GENAEventProcessorImpl;
+import org.jupnp.transport.impl.StreamingGENAEventProcessorImpl;
 import org.jupnp.transport.spi.GENAEventProcessor;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -65,6 +66,17 @@ class EventXMLProcessingTest {
         writeReadRequest(upnpService);
     }
 
+    @Test
+    void writeReadRequestStreaming() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService(new MockUpnpServiceConfiguration() {
+            @Override
+            public GENAEventProcessor getGenaEventProcessor() {
+                return new StreamingGENAEventProcessorImpl();
+            }
+        });
+        writeReadRequest(upnpService);
+    }
+
     void writeReadRequest(MockUpnpService upnpService) throws Exception {
 
         LocalDevice localDevice = GenaSampleData.createTestDevice(GenaSampleData.LocalTestService.class);
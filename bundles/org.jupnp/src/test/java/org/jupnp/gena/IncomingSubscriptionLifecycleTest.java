@@ -19,11 +19,17 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.jupnp.data.SampleData;
+import org.jupnp.mock.MockRouter;
 import org.jupnp.mock.MockUpnpService;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
 import org.jupnp.model.Namespace;
+import org.jupnp.model.gena.LocalGENASubscription;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
 import org.jupnp.model.message.UpnpRequest;
@@ -37,6 +43,9 @@ import org.jupnp.model.message.header.TimeoutHeader;
 import org.jupnp.model.message.header.UpnpHeader;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.LocalService;
+import org.jupnp.protocol.ProtocolFactoryImpl;
+import org.jupnp.protocol.sync.EventBodyRenderer;
+import org.jupnp.protocol.sync.EventDeliveryQueue;
 import org.jupnp.protocol.sync.ReceivingSubscribe;
 import org.jupnp.protocol.sync.ReceivingUnsubscribe;
 import org.jupnp.util.URIUtil;
@@ -107,6 +116,201 @@ class IncomingSubscriptionLifecycleTest {
                 .getValue().getValue());
     }
 
+    @Test
+    void eventBodySharedBySubscriptions() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice device = GenaSampleData.createTestDevice(GenaSampleData.LocalTestService.class);
+        upnpService.getRegistry().addDevice(device);
+
+        Namespace ns = upnpService.getConfiguration().getNamespace();
+        LocalService<?> service = SampleData.getFirstService(device);
+
+        String[] subscriptionIds = new String[3];
+        for (int i = 0; i < subscriptionIds.length; i++) {
+            URL callbackURL = URIUtil.createAbsoluteURL(SampleData.getLocalBaseURL(),
+                    ns.getEventCallbackPath(service) + "/" + i);
+            StreamRequestMessage subscribeRequestMessage = new StreamRequestMessage(UpnpRequest.Method.SUBSCRIBE,
+                    ns.getEventSubscriptionPath(service));
+            subscribeRequestMessage.getHeaders().add(UpnpHeader.Type.CALLBACK, new CallbackHeader(callbackURL));
+            subscribeRequestMessage.getHeaders().add(UpnpHeader.Type.NT, new NTEventHeader());
+
+            ReceivingSubscribe subscribeProt = new ReceivingSubscribe(upnpService, subscribeRequestMessage);
+            subscribeProt.run();
+            subscribeProt.responseSent(subscribeProt.getOutputMessage());
+            subscriptionIds[i] = subscribeProt.getOutputMessage().getHeaders()
+                    .getFirstHeader(UpnpHeader.Type.SID, SubscriptionIdHeader.class).getValue();
+        }
+
+        EventBodyRenderer renderer = ((ProtocolFactoryImpl) upnpService.getProtocolFactory()).getEventBodyRenderer();
+        // Each initial event has its own values read from the service
+        assertEquals(3, renderer.getRenderedCount());
+
+        service.getManager().getPropertyChangeSupport().firePropertyChange("Status", false, true);
+
+        // One state change is rendered once for all subscriptions
+        assertEquals(4, renderer.getRenderedCount());
+        assertEquals(2, renderer.getSharedCount());
+
+        List<StreamRequestMessage> sentMessages = upnpService.getRouter().getSentStreamRequestMessages();
+        assertEquals(6, sentMessages.size());
+        List<StreamRequestMessage> events = sentMessages.subList(3, 6);
+        for (int i = 0; i < events.size(); i++) {
+            StreamRequestMessage event = events.get(i);
+            assertSame(events.get(0).getBody(), event.getBody());
+            assertEquals(subscriptionIds[i],
+                    event.getHeaders().getFirstHeader(UpnpHeader.Type.SID, SubscriptionIdHeader.class).getValue());
+            assertEquals(1L, event.getHeaders().getFirstHeader(UpnpHeader.Type.SEQ, EventSequenceHeader.class)
+                    .getValue().getValue());
+        }
+        assertTrue(events.get(0).getBodyString().contains("<Status>0</Status>"));
+    }
+
+    @Test
+    void eventsMergedWhileInFlight() throws Exception {
+        final CountDownLatch firstEventSent = new CountDownLatch(1);
+        final CountDownLatch releaseFirstEvent = new CountDownLatch(1);
+        final List<StreamRequestMessage> events = new CopyOnWriteArrayList<>();
+        MockUpnpService upnpService = new MockUpnpService(new MockUpnpServiceConfiguration(false, true)) {
+            @Override
+            protected MockRouter createRouter() {
+                return new MockRouter(getConfiguration(), getProtocolFactory()) {
+                    @Override
+                    public StreamResponseMessage send(StreamRequestMessage msg) {
+                        events.add(msg);
+                        if (events.size() == 1) {
+                            firstEventSent.countDown();
+                            try {
+                                releaseFirstEvent.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return new StreamResponseMessage(UpnpResponse.Status.OK);
+                    }
+                };
+            }
+        };
+        upnpService.startup();
+
+        LocalDevice device = GenaSampleData.createTestDevice(GenaSampleData.LocalTestService.class);
+        upnpService.getRegistry().addDevice(device);
+        LocalService<GenaSampleData.LocalTestService> service = SampleData.getFirstService(device);
+
+        String subscriptionId = subscribe(upnpService, service, "");
+        assertTrue(firstEventSent.await(5, TimeUnit.SECONDS));
+
+        // The initial event is in flight, these changes are merged into one pending event
+        for (boolean status : new boolean[] { true, false, true }) {
+            service.getManager().getImplementation().setTarget(status);
+            service.getManager().getPropertyChangeSupport().firePropertyChange("Status", !status, status);
+        }
+        releaseFirstEvent.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        upnpService.shutdown();
+
+        assertEquals(2, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(subscriptionId, events.get(i).getHeaders()
+                    .getFirstHeader(UpnpHeader.Type.SID, SubscriptionIdHeader.class).getValue());
+            assertEquals(i, events.get(i).getHeaders().getFirstHeader(UpnpHeader.Type.SEQ, EventSequenceHeader.class)
+                    .getValue().getValue());
+        }
+        assertTrue(events.get(0).getBodyString().contains("<Status>0</Status>"));
+        // The latest value wins
+        assertTrue(events.get(1).getBodyString().contains("<Status>1</Status>"));
+    }
+
+    @Test
+    void eventsDelayedForFailingSubscriber() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice device = GenaSampleData.createTestDevice(GenaSampleData.LocalTestService.class);
+        upnpService.getRegistry().addDevice(device);
+        LocalService<GenaSampleData.LocalTestService> service = SampleData.getFirstService(device);
+
+        // The mock router never returns a response, every event message fails
+        subscribe(upnpService, service, "");
+        for (boolean status : new boolean[] { true, false, true }) {
+            service.getManager().getImplementation().setTarget(status);
+            service.getManager().getPropertyChangeSupport().firePropertyChange("Status", !status, status);
+        }
+
+        // The initial and the first on-change event are sent, then the subscriber gets a break
+        List<StreamRequestMessage> sentMessages = upnpService.getRouter().getSentStreamRequestMessages();
+        assertEquals(2, sentMessages.size());
+
+        // The last two changes have been merged, and are sent after the backoff delay
+        long deadline = System.currentTimeMillis() + EventDeliveryQueue.MIN_BACKOFF_MILLIS + 5000;
+        while (sentMessages.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        upnpService.shutdown();
+
+        assertEquals(3, sentMessages.size());
+        assertEquals(2L, sentMessages.get(2).getHeaders()
+                .getFirstHeader(UpnpHeader.Type.SEQ, EventSequenceHeader.class).getValue().getValue());
+        assertTrue(sentMessages.get(2).getBodyString().contains("<Status>1</Status>"));
+    }
+
+    @Test
+    void delayedEventDroppedForRemovedSubscription() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice device = GenaSampleData.createTestDevice(GenaSampleData.LocalTestService.class);
+        upnpService.getRegistry().addDevice(device);
+        LocalService<GenaSampleData.LocalTestService> service = SampleData.getFirstService(device);
+
+        // The mock router never returns a response, the last change is delayed
+        String subscriptionId = subscribe(upnpService, service, "");
+        for (boolean status : new boolean[] { true, false }) {
+            service.getManager().getImplementation().setTarget(status);
+            service.getManager().getPropertyChangeSupport().firePropertyChange("Status", !status, status);
+        }
+        List<StreamRequestMessage> sentMessages = upnpService.getRouter().getSentStreamRequestMessages();
+        assertEquals(2, sentMessages.size());
+
+        // Removed without ending it, the queue notices before sending the delayed event
+        LocalGENASubscription subscription = upnpService.getRegistry().getLocalSubscription(subscriptionId);
+        assertTrue(upnpService.getRegistry().removeLocalSubscription(subscription));
+        Thread.sleep(EventDeliveryQueue.MIN_BACKOFF_MILLIS + 500);
+        assertEquals(2, sentMessages.size());
+
+        // Ended, further changes are not queued
+        subscription.end(null);
+        service.getManager().getImplementation().setTarget(true);
+        service.getManager().getPropertyChangeSupport().firePropertyChange("Status", false, true);
+        Thread.sleep(100);
+        upnpService.shutdown();
+
+        assertEquals(2, sentMessages.size());
+    }
+
+    protected String subscribe(MockUpnpService upnpService, LocalService<?> service, String callbackPath)
+            throws Exception {
+        Namespace ns = upnpService.getConfiguration().getNamespace();
+        URL callbackURL = URIUtil.createAbsoluteURL(SampleData.getLocalBaseURL(),
+                ns.getEventCallbackPath(service) + callbackPath);
+        StreamRequestMessage subscribeRequestMessage = new StreamRequestMessage(UpnpRequest.Method.SUBSCRIBE,
+                ns.getEventSubscriptionPath(service));
+        subscribeRequestMessage.getHeaders().add(UpnpHeader.Type.CALLBACK, new CallbackHeader(callbackURL));
+        subscribeRequestMessage.getHeaders().add(UpnpHeader.Type.NT, new NTEventHeader());
+
+        ReceivingSubscribe subscribeProt = new ReceivingSubscribe(upnpService, subscribeRequestMessage);
+        subscribeProt.run();
+        subscribeProt.responseSent(subscribeProt.getOutputMessage());
+        return subscribeProt.getOutputMessage().getHeaders()
+                .getFirstHeader(UpnpHeader.Type.SID, SubscriptionIdHeader.class).getValue();
+    }
+
     @Test
     void subscriptionLifecycleFailedResponse() throws Exception {
         MockUpnpService upnpService = new MockUpnpService();
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.local;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.binding.annotations.UpnpAction;
+import org.jupnp.binding.annotations.UpnpInputArgument;
+import org.jupnp.binding.annotations.UpnpOutputArgument;
+import org.jupnp.binding.annotations.UpnpService;
+import org.jupnp.binding.annotations.UpnpServiceId;
+import org.jupnp.binding.annotations.UpnpServiceType;
+import org.jupnp.binding.annotations.UpnpStateVariable;
+import org.jupnp.data.SampleData;
+import org.jupnp.model.action.ActionConcurrency;
+import org.jupnp.model.action.ActionInvocation;
+import org.jupnp.model.meta.LocalService;
+
+class LocalActionInvocationConcurrencyTest {
+
+    @Test
+    void readOnlyActionsShareLock() throws Exception {
+        LocalService<TestService> svc = SampleData.readService(TestService.class);
+        TestService impl = svc.getManager().getImplementation();
+
+        ActionInvocation browseInvocation = new ActionInvocation(svc.getAction("Browse"));
+        Thread browseThread = new Thread(() -> execute(svc, browseInvocation));
+        browseThread.start();
+        assertTrue(impl.browsing.await(5, TimeUnit.SECONDS));
+
+        try {
+            // Another read-only action while the slow one holds the shared lock
+            ActionInvocation getTargetInvocation = execute(svc, new ActionInvocation(svc.getAction("GetTarget")));
+            assertNull(getTargetInvocation.getFailure());
+            assertEquals("0", getTargetInvocation.getOutput()[0].toString());
+
+            // A thread-safe action doesn't need the lock at all
+            ActionInvocation getCountInvocation = execute(svc, new ActionInvocation(svc.getAction("GetCount")));
+            assertNull(getCountInvocation.getFailure());
+
+            // Mutating actions still need exclusive access
+            ActionInvocation setTargetInvocation = new ActionInvocation(svc.getAction("SetTarget"));
+            setTargetInvocation.setInput("NewTargetValue", "1");
+            execute(svc, setTargetInvocation);
+            assertNotNull(setTargetInvocation.getFailure());
+            assertTrue(setTargetInvocation.getFailure().getMessage().contains("Failed to acquire lock"));
+        } finally {
+            impl.release.countDown();
+            browseThread.join(5000);
+        }
+        assertNull(browseInvocation.getFailure());
+
+        ActionInvocation setTargetInvocation = new ActionInvocation(svc.getAction("SetTarget"));
+        setTargetInvocation.setInput("NewTargetValue", "1");
+        assertNull(execute(svc, setTargetInvocation).getFailure());
+        assertEquals(1, impl.target);
+    }
+
+    static ActionInvocation execute(LocalService<TestService> svc, ActionInvocation invocation) {
+        svc.getExecutor(invocation.getAction()).execute(invocation);
+        return invocation;
+    }
+
+    /* ####################################################################################################### */
+
+    @UpnpService(serviceId = @UpnpServiceId("SwitchPower"), serviceType = @UpnpServiceType(value = "SwitchPower", version = 1))
+    public static class TestService {
+
+        final CountDownLatch browsing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @UpnpStateVariable(sendEvents = false)
+        private int target;
+
+        @UpnpStateVariable(sendEvents = false)
+        private int count;
+
+        @UpnpAction
+        public void setTarget(@UpnpInputArgument(name = "NewTargetValue") int newTargetValue) {
+            target = newTargetValue;
+        }
+
+        @UpnpAction(out = @UpnpOutputArgument(name = "RetTargetValue"), concurrency = ActionConcurrency.READ_ONLY)
+        public int getTarget() {
+            return target;
+        }
+
+        @UpnpAction(concurrency = ActionConcurrency.READ_ONLY)
+        public void browse() throws InterruptedException {
+            browsing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+
+        @UpnpAction(out = @UpnpOutputArgument(name = "Count"), concurrency = ActionConcurrency.THREAD_SAFE)
+        public synchronized int getCount() {
+            return ++count;
+        }
+    }
+}
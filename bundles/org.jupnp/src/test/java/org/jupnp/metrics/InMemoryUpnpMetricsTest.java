@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.data.SampleData;
+import org.jupnp.mock.MockUpnpService;
+import org.jupnp.model.Namespace;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.protocol.ReceivingSync;
+
+class InMemoryUpnpMetricsTest {
+
+    @Test
+    void countersAndGauges() {
+        InMemoryUpnpMetrics metrics = new InMemoryUpnpMetrics();
+        metrics.increment(UpnpMetrics.DATAGRAMS_RECEIVED, "NOTIFY");
+        metrics.increment(UpnpMetrics.DATAGRAMS_RECEIVED, "NOTIFY");
+        metrics.increment(UpnpMetrics.DATAGRAMS_RECEIVED, "M-SEARCH");
+        metrics.gauge(UpnpMetrics.REGISTRY_DEVICES, "remote", () -> 42);
+
+        assertEquals(2, metrics.getCount(UpnpMetrics.DATAGRAMS_RECEIVED, "NOTIFY"));
+        assertEquals(1, metrics.getCount(UpnpMetrics.DATAGRAMS_RECEIVED, "M-SEARCH"));
+        assertEquals(0, metrics.getCount(UpnpMetrics.DATAGRAMS_SENT, "NOTIFY"));
+        assertEquals(42L, metrics.getGaugeValue(UpnpMetrics.REGISTRY_DEVICES, "remote"));
+        assertNull(metrics.getGaugeValue(UpnpMetrics.REGISTRY_DEVICES, "local"));
+
+        String dump = metrics.dump();
+        assertTrue(dump.startsWith("datagrams.received{M-SEARCH} = 1\ndatagrams.received{NOTIFY} = 2\n"), dump);
+        assertTrue(dump.contains("registry.devices{remote} = 42\n"), dump);
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount(UpnpMetrics.DATAGRAMS_RECEIVED, "NOTIFY"));
+        assertEquals(42L, metrics.getGaugeValue(UpnpMetrics.REGISTRY_DEVICES, "remote"));
+    }
+
+    @Test
+    void histogram() {
+        InMemoryUpnpMetrics metrics = new InMemoryUpnpMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordDuration(UpnpMetrics.REGISTRY_MAINTENANCE_DURATION, null, i * 1000L);
+        }
+
+        Histogram histogram = metrics.getHistogram(UpnpMetrics.REGISTRY_MAINTENANCE_DURATION, null);
+        assertEquals(100, histogram.getCount());
+        assertEquals(50500, histogram.getMeanNanos());
+        assertEquals(100000, histogram.getMaxNanos());
+
+        // Approximated by the upper bound of the bucket, at most twice the exact value
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 50000 && p50 < 100000, String.valueOf(p50));
+        assertEquals(100000, histogram.getPercentileNanos(100));
+        assertNull(metrics.getHistogram(UpnpMetrics.REGISTRY_MAINTENANCE_DURATION, "other"));
+
+        assertTrue(metrics.dump().startsWith("registry.maintenance.duration count=100 mean=0.051ms"),
+                metrics.dump());
+    }
+
+    @Test
+    void executorRejections() throws Exception {
+        InMemoryUpnpMetrics metrics = new InMemoryUpnpMetrics();
+        ThreadPoolExecutor executor = ExecutorMetrics.monitor(metrics, "test", new ThreadPoolExecutor(1, 1, 0,
+                TimeUnit.SECONDS, new SynchronousQueue<>(), new ThreadPoolExecutor.DiscardPolicy()));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+            });
+
+            assertEquals(1, metrics.getCount(UpnpMetrics.EXECUTOR_REJECTIONS, "test"));
+            assertEquals(0L, metrics.getGaugeValue(UpnpMetrics.EXECUTOR_QUEUE_DEPTH, "test"));
+            assertEquals(1L, metrics.getGaugeValue(UpnpMetrics.EXECUTOR_ACTIVE_THREADS, "test"));
+            assertEquals(1L, metrics.getGaugeValue(UpnpMetrics.EXECUTOR_POOL_SIZE, "test"));
+            assertEquals(1L, metrics.getGaugeValue(UpnpMetrics.EXECUTOR_MAX_POOL_SIZE, "test"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void upnpServiceMetrics() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+        InMemoryUpnpMetrics metrics = (InMemoryUpnpMetrics) upnpService.getConfiguration().getMetrics();
+
+        upnpService.getRegistry().addDevice(SampleData.createLocalDevice());
+        assertEquals(1L, metrics.getGaugeValue(UpnpMetrics.REGISTRY_DEVICES, "local"));
+        assertEquals(0L, metrics.getGaugeValue(UpnpMetrics.REGISTRY_DEVICES, "remote"));
+
+        StreamRequestMessage message = new StreamRequestMessage(UpnpRequest.Method.NOTIFY,
+                URI.create("/dev/1234/upnp-org/SwitchPower" + Namespace.EVENTS + Namespace.CALLBACK_FILE), "");
+        ReceivingSync<?, ?> protocol = upnpService.getProtocolFactory().createReceivingSync(message);
+        protocol.run();
+        assertEquals(1, metrics.getHistogram(UpnpMetrics.PROTOCOL_DURATION, "ReceivingEvent").getCount());
+
+        upnpService.shutdown();
+    }
+}
@@ -20,6 +20,8 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.model.NetworkAddress;
@@ -49,7 +51,8 @@ public class MockRouter implements Router {
 
     public int counter = -1;
     public List<IncomingDatagramMessage> incomingDatagramMessages = new ArrayList<>();
-    public List<OutgoingDatagramMessage> outgoingDatagramMessages = new ArrayList<>();
+    // Advertisements are sent by scheduled tasks, while tests inspect the messages
+    public List<OutgoingDatagramMessage> outgoingDatagramMessages = new CopyOnWriteArrayList<>();
     public List<UpnpStream> receivedUpnpStreams = new ArrayList<>();
     public List<StreamRequestMessage> sentStreamRequestMessages = new ArrayList<>();
     public List<byte[]> broadcastedBytes = new ArrayList<>();
@@ -130,6 +133,15 @@ public class MockRouter implements Router {
                 : getStreamResponseMessage(msg);
     }
 
+    /**
+     * Sends the message synchronously with {@link #send(StreamRequestMessage)}, so overriding tests see all
+     * stream requests.
+     */
+    @Override
+    public CompletableFuture<StreamResponseMessage> sendAsync(StreamRequestMessage msg) throws RouterException {
+        return CompletableFuture.completedFuture(send(msg));
+    }
+
     @Override
     public void broadcast(byte[] bytes) {
         broadcastedBytes.add(bytes);
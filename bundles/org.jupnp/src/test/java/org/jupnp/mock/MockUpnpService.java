@@ -111,7 +111,7 @@ public class MockUpnpService implements UpnpService {
 
         @Override
         public SendingNotificationAlive createSendingNotificationAlive(LocalDevice localDevice) {
-            return new SendingNotificationAlive(getUpnpService(), localDevice) {
+            return new SendingNotificationAlive(getUpnpService(), localDevice, getAdvertisementScheduler()) {
                 @Override
                 protected void execute() throws RouterException {
                     if (sendsAlive) {
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 import org.jupnp.DefaultUpnpServiceConfiguration;
@@ -32,6 +33,7 @@ import org.jupnp.model.message.discovery.OutgoingNotificationRequestRootDevice;
 import org.jupnp.model.message.header.EXTHeader;
 import org.jupnp.model.message.header.HostHeader;
 import org.jupnp.model.message.header.InterfaceMacHeader;
+import org.jupnp.model.message.header.MXHeader;
 import org.jupnp.model.message.header.MaxAgeHeader;
 import org.jupnp.model.message.header.ServerHeader;
 import org.jupnp.model.message.header.USNRootDeviceHeader;
@@ -89,6 +91,39 @@ class DatagramParsingTest {
                 msg.getHeaders().getFirstHeader(UpnpHeader.Type.EXT_IFACE_MAC, InterfaceMacHeader.class).getString());
     }
 
+    @Test
+    void readSourceInBuffer() throws Exception {
+        String source = "M-SEARCH * HTTP/1.1\r\n" + "host: 239.255.255.250:1900\r\n" + "Man: \"ssdp:discover\"\r\n"
+                + "mx: 3\r\n" + "ST: upnp:rootdevice\r\n" + "CACHE-CONTROL: max-age=abc\r\n" + "01-NLS: 123\r\n"
+                + "\r\n";
+        byte[] bytes = source.getBytes();
+
+        // The datagram is only a part of a larger (reused) buffer
+        byte[] buffer = new byte[bytes.length + 20];
+        Arrays.fill(buffer, (byte) 'X');
+        System.arraycopy(bytes, 0, buffer, 10, bytes.length);
+        DatagramPacket packet = new DatagramPacket(buffer, 10, bytes.length,
+                new InetSocketAddress("123.123.123.123", 1234));
+
+        DatagramProcessor processor = new DefaultUpnpServiceConfiguration().getDatagramProcessor();
+
+        UpnpMessage<UpnpRequest> msg = processor.read(InetAddress.getByName("127.0.0.1"), packet);
+
+        assertEquals(UpnpRequest.Method.MSEARCH, msg.getOperation().getMethod());
+        assertEquals(1, msg.getOperation().getHttpMinorVersion());
+        assertEquals(Constants.UPNP_MULTICAST_PORT,
+                msg.getHeaders().getFirstHeader(UpnpHeader.Type.HOST, HostHeader.class).getValue().getPort());
+        assertEquals(3, msg.getHeaders().getFirstHeader(UpnpHeader.Type.MX, MXHeader.class).getValue());
+        assertEquals("ssdp:discover", msg.getHeaders().getFirstHeader(UpnpHeader.Type.MAN).getValue());
+        assertEquals("upnp:rootdevice", msg.getHeaders().getFirstHeader(UpnpHeader.Type.ST).getString());
+
+        // Invalid values are ignored, unknown headers are only available as strings
+        assertNull(msg.getHeaders().getFirstHeader(UpnpHeader.Type.MAX_AGE));
+        assertEquals("max-age=abc", msg.getHeaders().getFirstHeader("Cache-Control"));
+        assertEquals("123", msg.getHeaders().getFirstHeader("01-NLS"));
+        assertEquals(6, msg.getHeaders().size());
+    }
+
     @Test
     void parseRoundtrip() throws Exception {
         Location location = new Location(new NetworkAddress(InetAddress.getByName("localhost"),
@@ -28,6 +28,7 @@ import org.jupnp.model.types.NamedServiceType;
 import org.jupnp.model.types.ServiceType;
 import org.jupnp.model.types.UDADeviceType;
 import org.jupnp.model.types.UDAServiceType;
+import org.jupnp.model.types.UDN;
 import org.jupnp.util.MimeType;
 
 class HeaderParsingTest {
@@ -518,4 +519,49 @@ class HeaderParsingTest {
         assertEquals("value", header.getValue().getValue());
         assertEquals("token=\"value\"", header.getString());
     }
+
+    @Test
+    void newInstanceSelectsSubtype() {
+        assertInstanceOf(USNRootDeviceHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.USN, "uuid:MY-DEVICE-123::upnp:rootdevice"));
+        assertInstanceOf(DeviceUSNHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.USN,
+                "uuid:MY-DEVICE-123::urn:schemas-upnp-org:device:MY-DEVICE-TYPE:1"));
+        assertInstanceOf(ServiceUSNHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.USN,
+                "uuid:MY-DEVICE-123::urn:schemas-upnp-org:service:MY-SERVICE-TYPE:1"));
+        assertInstanceOf(UDNHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.USN, "uuid:MY-DEVICE-123"));
+
+        assertInstanceOf(RootDeviceHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.NT, "UPNP:rootdevice"));
+        assertInstanceOf(UDADeviceTypeHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.NT, "urn:schemas-upnp-org:device:MY-DEVICE-TYPE:1"));
+        assertInstanceOf(UDAServiceTypeHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.NT, "urn:schemas-upnp-org:service:MY-SERVICE-TYPE:1"));
+        assertInstanceOf(DeviceTypeHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.NT, "urn:foo-bar:device:MY-DEVICE-TYPE:1"));
+        assertInstanceOf(ServiceTypeHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.NT, "urn:foo-bar:serviceId:MY-SERVICE-TYPE:1"));
+        assertInstanceOf(NTEventHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.NT, "upnp:event"));
+
+        assertInstanceOf(STAllHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.ST, "ssdp:all"));
+        assertInstanceOf(ServiceTypeHeader.class,
+                UpnpHeader.newInstance(UpnpHeader.Type.ST, "urn:foo-bar:ser vice:MY-SERVICE-TYPE:1"));
+
+        assertNull(UpnpHeader.newInstance(UpnpHeader.Type.ST, "foo:bar"));
+        assertNull(UpnpHeader.newInstance(UpnpHeader.Type.MX, "abc"));
+        assertNull(UpnpHeader.newInstance(UpnpHeader.Type.EXT, "MUST BE EMPTY STRING"));
+        assertNotNull(UpnpHeader.newInstance(UpnpHeader.Type.EXT, null));
+    }
+
+    @Test
+    void registeredParserTriedFirst() {
+        try {
+            UpnpHeaderParserRegistry.register(UpnpHeader.Type.ST,
+                    s -> "ssdp:all".equals(s) ? new UDNHeader(new UDN("ALL")) : null);
+            UpnpHeader header = UpnpHeader.newInstance(UpnpHeader.Type.ST, "ssdp:all");
+            assertInstanceOf(UDNHeader.class, header);
+            assertInstanceOf(UDNHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.ST, "uuid:MY-DEVICE-123"));
+        } finally {
+            UpnpHeaderParserRegistry.reset();
+        }
+        assertInstanceOf(STAllHeader.class, UpnpHeader.newInstance(UpnpHeader.Type.ST, "ssdp:all"));
+    }
 }
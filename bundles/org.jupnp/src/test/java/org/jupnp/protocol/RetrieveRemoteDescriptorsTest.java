@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jupnp.data.SampleData;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
+import org.jupnp.mock.MockRouter;
+import org.jupnp.mock.MockUpnpService;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
+import org.jupnp.model.Namespace;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.UpnpResponse;
+import org.jupnp.model.message.header.HostHeader;
+import org.jupnp.model.message.header.UpnpHeader;
+import org.jupnp.model.meta.RemoteDevice;
+import org.jupnp.model.meta.RemoteDeviceIdentity;
+import org.jupnp.protocol.sync.ReceivingRetrieval;
+
+class RetrieveRemoteDescriptorsTest {
+
+    @Test
+    void retrieveServiceDescriptorsConcurrently() throws Exception {
+        // Serves the descriptors of the sample device
+        MockUpnpService localService = new MockUpnpService();
+        localService.startup();
+        localService.getRegistry().addDevice(SampleData.createLocalDevice());
+
+        AtomicInteger serviceRequests = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch concurrentRequests = new CountDownLatch(2);
+
+        MockUpnpService upnpService = new MockUpnpService(false, false, true) {
+            @Override
+            protected MockRouter createRouter() {
+                return new MockRouter(getConfiguration(), getProtocolFactory()) {
+                    @Override
+                    public StreamResponseMessage getStreamResponseMessage(StreamRequestMessage request) {
+                        boolean serviceRequest = request.getUri().getPath().contains(Namespace.SERVICE + "/");
+                        if (serviceRequest) {
+                            serviceRequests.incrementAndGet();
+                            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            // The first two requests wait for each other
+                            concurrentRequests.countDown();
+                            try {
+                                concurrentRequests.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        try {
+                            StreamRequestMessage localRequest = new StreamRequestMessage(UpnpRequest.Method.GET,
+                                    URI.create(request.getUri().getPath()));
+                            localRequest.getHeaders().add(UpnpHeader.Type.HOST, new HostHeader("localhost", 1234));
+                            ReceivingRetrieval retrieval = new ReceivingRetrieval(localService, localRequest);
+                            retrieval.run();
+                            return retrieval.getOutputMessage();
+                        } finally {
+                            if (serviceRequest) {
+                                inFlight.decrementAndGet();
+                            }
+                        }
+                    }
+                };
+            }
+        };
+        upnpService.startup();
+
+        RemoteDevice device = new RemoteDevice(SampleData.createRemoteDeviceIdentity());
+        new RetrieveRemoteDescriptors(upnpService, device) {
+            @Override
+            protected int getMaxConcurrentRetrievalsPerHost() {
+                return 2;
+            }
+        }.run();
+
+        RemoteDevice hydratedDevice = upnpService.getRegistry().getRemoteDevice(device.getIdentity().getUdn(), true);
+        assertNotNull(hydratedDevice);
+        assertEquals(3, hydratedDevice.findServices().length);
+        assertEquals(3, serviceRequests.get());
+        assertEquals(2, maxInFlight.get());
+
+        upnpService.shutdown();
+    }
+
+    @Test
+    void retrieveWithDiscardingExecutor() throws Exception {
+        MockUpnpService localService = new MockUpnpService();
+        localService.startup();
+        localService.getRegistry().addDevice(SampleData.createLocalDevice());
+
+        // Discards all helpers silently, like a saturated pool with a DiscardPolicy
+        MockUpnpServiceConfiguration configuration = new MockUpnpServiceConfiguration() {
+            @Override
+            public ExecutorService getSyncProtocolExecutorService() {
+                return new AbstractExecutorService() {
+                    @Override
+                    public void execute(Runnable command) {
+                    }
+
+                    @Override
+                    public void shutdown() {
+                    }
+
+                    @Override
+                    public List<Runnable> shutdownNow() {
+                        return List.of();
+                    }
+
+                    @Override
+                    public boolean isShutdown() {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean isTerminated() {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean awaitTermination(long timeout, TimeUnit unit) {
+                        return false;
+                    }
+                };
+            }
+        };
+        MockUpnpService upnpService = new MockUpnpService(configuration) {
+            @Override
+            protected MockRouter createRouter() {
+                return new MockRouter(getConfiguration(), getProtocolFactory()) {
+                    @Override
+                    public StreamResponseMessage getStreamResponseMessage(StreamRequestMessage request) {
+                        StreamRequestMessage localRequest = new StreamRequestMessage(UpnpRequest.Method.GET,
+                                URI.create(request.getUri().getPath()));
+                        localRequest.getHeaders().add(UpnpHeader.Type.HOST, new HostHeader("localhost", 1234));
+                        ReceivingRetrieval retrieval = new ReceivingRetrieval(localService, localRequest);
+                        retrieval.run();
+                        return retrieval.getOutputMessage();
+                    }
+                };
+            }
+        };
+        upnpService.startup();
+
+        RemoteDevice device = new RemoteDevice(SampleData.createRemoteDeviceIdentity());
+        Thread retrieval = new Thread(new RetrieveRemoteDescriptors(upnpService, device));
+        retrieval.start();
+        retrieval.join(10000);
+        assertFalse(retrieval.isAlive(), "Retrieval waits for discarded helpers");
+
+        RemoteDevice hydratedDevice = upnpService.getRegistry().getRemoteDevice(device.getIdentity().getUdn(), true);
+        assertNotNull(hydratedDevice);
+        assertEquals(3, hydratedDevice.findServices().length);
+        InMemoryUpnpMetrics metrics = (InMemoryUpnpMetrics) upnpService.getConfiguration().getMetrics();
+        assertEquals(1, metrics.getHistogram(UpnpMetrics.DEVICE_HYDRATION_DURATION, null).getCount());
+
+        upnpService.shutdown();
+    }
+
+    @Test
+    void retrieveCachedDescriptors(@TempDir Path cacheDirectory) throws Exception {
+        MockUpnpService localService = new MockUpnpService();
+        localService.startup();
+        localService.getRegistry().addDevice(SampleData.createLocalDevice());
+
+        FileDescriptorCache cache = new FileDescriptorCache(cacheDirectory);
+        List<StreamResponseMessage> responses = new CopyOnWriteArrayList<>();
+
+        // Retrieves and caches all descriptors
+        assertNotNull(retrieveDevice(localService, cache, 1, responses));
+        assertEquals(4, responses.size());
+        try (var files = Files.list(cacheDirectory)) {
+            assertEquals(4, files.count());
+        }
+
+        // Same configuration, no requests
+        responses.clear();
+        RemoteDevice cachedDevice = retrieveDevice(localService, cache, 1, responses);
+        assertNotNull(cachedDevice);
+        assertEquals(3, cachedDevice.findServices().length);
+        assertEquals(0, responses.size());
+
+        // Other configuration, revalidated with the entity tags
+        responses.clear();
+        RemoteDevice revalidatedDevice = retrieveDevice(localService, cache, 2, responses);
+        assertNotNull(revalidatedDevice);
+        assertEquals(3, revalidatedDevice.findServices().length);
+        assertEquals(4, responses.size());
+        for (StreamResponseMessage response : responses) {
+            assertEquals(UpnpResponse.Status.NOT_MODIFIED.getStatusCode(), response.getOperation().getStatusCode());
+        }
+        assertTrue(cache.get(SampleData.createRemoteDeviceIdentity().getDescriptorURL()).isCurrent(2));
+    }
+
+    @Test
+    void revalidateCachedDescriptorsAfterHydration(@TempDir Path cacheDirectory) throws Exception {
+        MockUpnpService localService = new MockUpnpService();
+        localService.startup();
+        localService.getRegistry().addDevice(SampleData.createLocalDevice());
+
+        FileDescriptorCache cache = new FileDescriptorCache(cacheDirectory);
+        List<StreamResponseMessage> responses = new CopyOnWriteArrayList<>();
+        List<Boolean> registeredOnRequest = new CopyOnWriteArrayList<>();
+
+        // Without configuration number, the descriptors are cached with their entity tags
+        RemoteDevice device = retrieveDevice(localService, cache, null, responses, registeredOnRequest);
+        assertNotNull(device);
+        assertEquals(4, responses.size());
+        assertFalse(registeredOnRequest.contains(true));
+
+        // Described with the cached descriptors, revalidated after the device was added
+        responses.clear();
+        registeredOnRequest.clear();
+        RemoteDevice cachedDevice = retrieveDevice(localService, cache, null, responses, registeredOnRequest);
+        assertNotNull(cachedDevice);
+        assertEquals(3, cachedDevice.findServices().length);
+        assertEquals(4, responses.size());
+        assertEquals(List.of(true, true, true, true), registeredOnRequest);
+        for (StreamResponseMessage response : responses) {
+            assertEquals(UpnpResponse.Status.NOT_MODIFIED.getStatusCode(), response.getOperation().getStatusCode());
+        }
+    }
+
+    @Test
+    void describeAgainWhenCachedDescriptorModified(@TempDir Path cacheDirectory) throws Exception {
+        MockUpnpService localService = new MockUpnpService();
+        localService.startup();
+        localService.getRegistry().addDevice(SampleData.createLocalDevice());
+
+        FileDescriptorCache cache = new FileDescriptorCache(cacheDirectory);
+        List<StreamResponseMessage> responses = new CopyOnWriteArrayList<>();
+
+        RemoteDevice device = retrieveDevice(localService, cache, null, responses, new CopyOnWriteArrayList<>());
+        assertNotNull(device);
+        String friendlyName = device.getDetails().getFriendlyName();
+
+        // The cached device descriptor is outdated
+        URL descriptorURL = SampleData.createRemoteDeviceIdentity().getDescriptorURL();
+        DescriptorCache.Entry entry = cache.get(descriptorURL);
+        cache.put(descriptorURL, new DescriptorCache.Entry(
+                entry.getDescriptor().replace(friendlyName, "Outdated " + friendlyName), null, "\"outdated\"", null));
+
+        responses.clear();
+        RemoteDevice revalidatedDevice = retrieveDevice(localService, cache, null, responses,
+                new CopyOnWriteArrayList<>());
+        assertNotNull(revalidatedDevice);
+        assertEquals(friendlyName, revalidatedDevice.getDetails().getFriendlyName());
+        assertEquals(3, revalidatedDevice.findServices().length);
+        // Only the device descriptor was retrieved again
+        assertEquals(1, responses.stream()
+                .filter(r -> r.getOperation().getStatusCode() == UpnpResponse.Status.OK.getStatusCode()).count());
+        assertEquals(entry.getEntityTag(), cache.get(descriptorURL).getEntityTag());
+    }
+
+    RemoteDevice retrieveDevice(MockUpnpService localService, DescriptorCache cache, Integer configId,
+            List<StreamResponseMessage> responses) throws Exception {
+        return retrieveDevice(localService, cache, configId, responses, new CopyOnWriteArrayList<>());
+    }
+
+    RemoteDevice retrieveDevice(MockUpnpService localService, DescriptorCache cache, Integer configId,
+            List<StreamResponseMessage> responses, List<Boolean> registeredOnRequest) throws Exception {
+        RemoteDeviceIdentity identity = SampleData.createRemoteDeviceIdentity();
+        MockUpnpService upnpService = new MockUpnpService(false, new MockUpnpServiceConfiguration() {
+            @Override
+            public DescriptorCache getDescriptorCache() {
+                return cache;
+            }
+        }) {
+            @Override
+            protected MockRouter createRouter() {
+                return new MockRouter(getConfiguration(), getProtocolFactory()) {
+                    @Override
+                    public StreamResponseMessage getStreamResponseMessage(StreamRequestMessage request) {
+                        registeredOnRequest.add(getRegistry().getRemoteDevice(identity.getUdn(), true) != null);
+                        StreamRequestMessage localRequest = new StreamRequestMessage(UpnpRequest.Method.GET,
+                                URI.create(request.getUri().getPath()));
+                        localRequest.getHeaders().putAll(request.getHeaders());
+                        localRequest.getHeaders().add(UpnpHeader.Type.HOST, new HostHeader("localhost", 1234));
+                        ReceivingRetrieval retrieval = new ReceivingRetrieval(localService, localRequest);
+                        retrieval.run();
+                        responses.add(retrieval.getOutputMessage());
+                        return retrieval.getOutputMessage();
+                    }
+                };
+            }
+        };
+        upnpService.startup();
+
+        RemoteDevice device = new RemoteDevice(new RemoteDeviceIdentity(identity.getUdn(),
+                identity.getMaxAgeSeconds(), identity.getDescriptorURL(), null,
+                identity.getDiscoveredOnLocalAddress(), configId));
+        new RetrieveRemoteDescriptors(upnpService, device).run();
+
+        RemoteDevice hydratedDevice = upnpService.getRegistry().getRemoteDevice(identity.getUdn(), true);
+        upnpService.shutdown();
+        return hydratedDevice;
+    }
+}
@@ -24,12 +24,15 @@ import org.jupnp.data.SampleDeviceRoot;
 import org.jupnp.mock.MockUpnpService;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpHeaders;
 import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.UpnpResponse;
 import org.jupnp.model.message.header.ContentTypeHeader;
 import org.jupnp.model.message.header.HostHeader;
 import org.jupnp.model.message.header.UpnpHeader;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.RemoteDevice;
+import org.jupnp.model.resource.DeviceDescriptorResource;
 import org.jupnp.protocol.sync.ReceivingRetrieval;
 
 class DeviceDescriptorRetrievalTest {
@@ -65,6 +68,42 @@ class DeviceDescriptorRetrievalTest {
                 .assertLocalResourcesMatch(upnpService.getConfiguration().getNamespace().getResources(returnedDevice));
     }
 
+    @Test
+    void retrieveCachedDescriptor() {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice localDevice = SampleData.createLocalDevice();
+        upnpService.getRegistry().addDevice(localDevice);
+
+        StreamResponseMessage first = retrieveDescriptor(upnpService, null);
+        String entityTag = first.getHeaders().getFirstHeader(UpnpHeaders.ETAG);
+        assertNotNull(entityTag);
+        assertEquals(UpnpResponse.Status.OK.getStatusCode(), first.getOperation().getStatusCode());
+
+        // The rendered descriptor is reused
+        StreamResponseMessage second = retrieveDescriptor(upnpService, null);
+        assertSame(first.getBody(), second.getBody());
+        assertEquals(entityTag, second.getHeaders().getFirstHeader(UpnpHeaders.ETAG));
+
+        StreamResponseMessage notModified = retrieveDescriptor(upnpService, "\"other\", W/" + entityTag);
+        assertEquals(UpnpResponse.Status.NOT_MODIFIED.getStatusCode(), notModified.getOperation().getStatusCode());
+        assertFalse(notModified.hasBody());
+        assertEquals(entityTag, notModified.getHeaders().getFirstHeader(UpnpHeaders.ETAG));
+
+        StreamResponseMessage modified = retrieveDescriptor(upnpService, "\"other\"");
+        assertEquals(UpnpResponse.Status.OK.getStatusCode(), modified.getOperation().getStatusCode());
+
+        // The cache is discarded with the resource when the device is removed
+        DeviceDescriptorResource resource = upnpService.getRegistry()
+                .getResource(DeviceDescriptorResource.class, SampleDeviceRoot.getDeviceDescriptorURI());
+        upnpService.getRegistry().removeDevice(localDevice);
+        upnpService.getRegistry().addDevice(localDevice);
+        assertNotSame(resource, upnpService.getRegistry().getResource(DeviceDescriptorResource.class,
+                SampleDeviceRoot.getDeviceDescriptorURI()));
+        assertNotSame(first.getBody(), retrieveDescriptor(upnpService, null).getBody());
+    }
+
     @Test
     void retrieveNonExistentDescriptor() {
         MockUpnpService upnpService = new MockUpnpService();
@@ -80,4 +119,16 @@ class DeviceDescriptorRetrievalTest {
 
         assertNull(descriptorMessage);
     }
+
+    StreamResponseMessage retrieveDescriptor(MockUpnpService upnpService, String ifNoneMatch) {
+        StreamRequestMessage descRetrievalMessage = new StreamRequestMessage(UpnpRequest.Method.GET,
+                SampleDeviceRoot.getDeviceDescriptorURI());
+        descRetrievalMessage.getHeaders().add(UpnpHeader.Type.HOST, new HostHeader("localhost", 1234));
+        if (ifNoneMatch != null) {
+            descRetrievalMessage.getHeaders().add(UpnpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        ReceivingRetrieval prot = new ReceivingRetrieval(upnpService, descRetrievalMessage);
+        prot.run();
+        return prot.getOutputMessage();
+    }
 }
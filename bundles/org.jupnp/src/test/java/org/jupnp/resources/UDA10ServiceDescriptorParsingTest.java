@@ -15,14 +15,19 @@
  */
 package org.jupnp.resources;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 import org.junit.jupiter.api.Test;
+import org.jupnp.binding.xml.InterningServiceDescriptorBinder;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
 import org.jupnp.binding.xml.UDA10ServiceDescriptorBinderImpl;
 import org.jupnp.binding.xml.UDA10ServiceDescriptorBinderSAXImpl;
 import org.jupnp.data.SampleData;
 import org.jupnp.data.SampleServiceOne;
+import org.jupnp.model.meta.Action;
 import org.jupnp.model.meta.RemoteDevice;
 import org.jupnp.model.meta.RemoteService;
+import org.jupnp.model.meta.StateVariable;
 import org.jupnp.util.io.IO;
 
 class UDA10ServiceDescriptorParsingTest {
@@ -45,6 +50,39 @@ class UDA10ServiceDescriptorParsingTest {
         SampleServiceOne.assertMatch(service, SampleData.getFirstService(SampleData.createRemoteDevice()));
     }
 
+    @Test
+    void readUDA10DescriptorShared() throws Exception {
+        InterningServiceDescriptorBinder binder = new InterningServiceDescriptorBinder(
+                new UDA10ServiceDescriptorBinderSAXImpl());
+        String descriptorXml = IO.readLines(getClass().getResourceAsStream("/descriptors/service/uda10.xml"));
+
+        RemoteService first = binder.describe(SampleData.createUndescribedRemoteService(), descriptorXml);
+        RemoteService second = binder.describe(SampleData.createUndescribedRemoteService(), descriptorXml);
+        SampleServiceOne.assertMatch(first, SampleData.getFirstService(SampleData.createRemoteDevice()));
+        SampleServiceOne.assertMatch(second, SampleData.getFirstService(SampleData.createRemoteDevice()));
+
+        assertEquals(1, binder.getParsedCount());
+        assertEquals(1, binder.getSharedCount());
+        assertEquals(1, binder.getPooledCount());
+
+        // Each service has its own model instances, sharing the immutable details
+        for (Action<RemoteService> action : second.getActions()) {
+            assertSame(second, action.getService());
+            assertNotSame(first.getAction(action.getName()), action);
+        }
+        for (StateVariable<RemoteService> stateVariable : second.getStateVariables()) {
+            assertSame(second, stateVariable.getService());
+            StateVariable<RemoteService> firstStateVariable = first.getStateVariable(stateVariable.getName());
+            assertNotSame(firstStateVariable, stateVariable);
+            assertSame(firstStateVariable.getTypeDetails(), stateVariable.getTypeDetails());
+        }
+
+        // A different descriptor is parsed
+        binder.describe(SampleData.createUndescribedRemoteService(), descriptorXml.replace("<name>", "<name>X"));
+        assertEquals(2, binder.getParsedCount());
+        assertEquals(2, binder.getPooledCount());
+    }
+
     @Test
     void writeUDA10Descriptor() throws Exception {
         ServiceDescriptorBinder binder = new UDA10ServiceDescriptorBinderImpl();
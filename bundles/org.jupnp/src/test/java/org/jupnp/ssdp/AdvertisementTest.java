@@ -28,6 +28,7 @@ import org.jupnp.model.message.UpnpMessage;
 import org.jupnp.model.message.header.UpnpHeader;
 import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.types.NotificationSubtype;
+import org.jupnp.protocol.async.AdvertisementScheduler;
 import org.jupnp.protocol.async.SendingNotificationAlive;
 import org.jupnp.protocol.async.SendingNotificationByebye;
 
@@ -53,6 +54,67 @@ class AdvertisementTest {
                 embeddedDevice, UpnpHeader.Type.NT);
     }
 
+    @Test
+    void sendAliveMessagesScheduled() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice rootDevice = SampleData.createLocalDevice();
+        LocalDevice embeddedDevice = rootDevice.getEmbeddedDevices()[0];
+
+        new SendingNotificationAlive(upnpService, rootDevice).run();
+        int expected = upnpService.getRouter().getOutgoingDatagramMessages().size();
+        upnpService.getRouter().getOutgoingDatagramMessages().clear();
+
+        // At most 100 datagrams per second, only the burst is sent without delay
+        AdvertisementScheduler scheduler = new AdvertisementScheduler(upnpService, 100, 5);
+        new SendingNotificationAlive(upnpService, rootDevice, scheduler).run();
+
+        assertEquals(5, upnpService.getRouter().getOutgoingDatagramMessages().size());
+        assertEquals(expected - 5, scheduler.getPendingCount());
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (scheduler.getPendingCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(expected, upnpService.getRouter().getOutgoingDatagramMessages().size());
+
+        for (OutgoingDatagramMessage msg : upnpService.getRouter().getOutgoingDatagramMessages()) {
+            assertAliveMsgBasics(msg);
+        }
+        SampleUSNHeaders.assertUSNHeaders(upnpService.getRouter().getOutgoingDatagramMessages(), rootDevice,
+                embeddedDevice, UpnpHeader.Type.NT);
+    }
+
+    @Test
+    void cancelScheduledAliveMessagesOfRemovedDevice() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice rootDevice = SampleData.createLocalDevice();
+        upnpService.getRegistry().addDevice(rootDevice);
+
+        // The first bulk is sent immediately, the repetitions are delayed
+        AdvertisementScheduler scheduler = upnpService.getProtocolFactory().getAdvertisementScheduler();
+        new SendingNotificationAlive(upnpService, rootDevice, scheduler) {
+            @Override
+            protected int getBulkIntervalMilliseconds() {
+                return 500;
+            }
+        }.run();
+        assertTrue(scheduler.getPendingCount() > 0);
+
+        upnpService.getRegistry().removeDevice(rootDevice);
+        assertEquals(0, scheduler.getPendingCount());
+        int sent = upnpService.getRouter().getOutgoingDatagramMessages().size();
+
+        Thread.sleep(1500);
+        assertEquals(sent, upnpService.getRouter().getOutgoingDatagramMessages().size());
+
+        upnpService.shutdown();
+    }
+
     @Test
     void sendByebyeMessages() {
         MockUpnpService upnpService = new MockUpnpService();
@@ -51,6 +51,7 @@ import org.jupnp.model.meta.LocalDevice;
 import org.jupnp.model.meta.Service;
 import org.jupnp.model.types.NotificationSubtype;
 import org.jupnp.protocol.async.ReceivingSearch;
+import org.jupnp.protocol.async.SearchResponseScheduler;
 import org.jupnp.util.URIUtil;
 
 class SearchReceivedTest {
@@ -258,6 +259,42 @@ class SearchReceivedTest {
         assertEquals(10, upnpService.getRouter().getOutgoingDatagramMessages().size());
     }
 
+    @Test
+    void receivedDuplicateSearchesCoalesced() throws Exception {
+        MockUpnpService upnpService = new MockUpnpService();
+        upnpService.startup();
+
+        LocalDevice localDevice = SampleData.createLocalDevice();
+        upnpService.getRegistry().addDevice(localDevice);
+
+        IncomingSearchRequest searchMsg = createRequestMessage();
+        searchMsg.getHeaders().add(UpnpHeader.Type.MAN, new MANHeader(NotificationSubtype.DISCOVER.getHeaderString()));
+        searchMsg.getHeaders().add(UpnpHeader.Type.MX, new MXHeader(1));
+        searchMsg.getHeaders().add(UpnpHeader.Type.ST, new RootDeviceHeader());
+        searchMsg.getHeaders().add(UpnpHeader.Type.HOST, new HostHeader());
+
+        SearchResponseScheduler scheduler = new SearchResponseScheduler(upnpService);
+        new ReceivingSearch(upnpService, searchMsg, scheduler).run();
+        new ReceivingSearch(upnpService, searchMsg, scheduler).run();
+        new ReceivingSearch(upnpService, searchMsg, scheduler).run();
+
+        // Nothing has been sent yet, no thread is blocked while waiting for the MX delay
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(1, scheduler.getScheduledCount());
+        assertEquals(2, scheduler.getDeduplicatedCount());
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (upnpService.getRouter().getOutgoingDatagramMessages().isEmpty()
+                && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, scheduler.getPendingCount());
+
+        assertEquals(1, upnpService.getRouter().getOutgoingDatagramMessages().size());
+        assertSearchResponseBasics(upnpService.getConfiguration().getNamespace(),
+                upnpService.getRouter().getOutgoingDatagramMessages().get(0), localDevice);
+    }
+
     protected ReceivingSearch createProtocol(UpnpService upnpService, IncomingSearchRequest searchMsg) {
         return new ReceivingSearch(upnpService, searchMsg);
     }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.jupnp.UpnpServiceConfiguration;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.transport.impl.jetty.JettyStreamClientImpl;
+import org.jupnp.transport.impl.jetty.JettyTransportConfiguration;
+import org.jupnp.transport.impl.jetty.StreamClientConfigurationImpl;
+import org.jupnp.transport.spi.StreamClient;
+import org.jupnp.transport.spi.StreamClientConfiguration;
+import org.jupnp.transport.spi.StreamServer;
+
+class JettyServerJettyKeepAliveClientTest extends StreamServerClientTest {
+
+    private static final TransportConfiguration jettyTransportConfiguration = JettyTransportConfiguration.INSTANCE;
+    private static final InMemoryUpnpMetrics metrics = new InMemoryUpnpMetrics();
+    private static final StreamClientConfiguration sccConfiguration = new StreamClientConfigurationImpl(null, 3, 0, 0,
+            0) {
+        @Override
+        public boolean isKeepAlive() {
+            return true;
+        }
+
+        @Override
+        public UpnpMetrics getMetrics() {
+            return metrics;
+        }
+    };
+
+    @BeforeAll
+    static void start() throws Exception {
+        start(JettyServerJettyKeepAliveClientTest::createStreamServer,
+                JettyServerJettyKeepAliveClientTest::createStreamClient);
+    }
+
+    public static StreamServer createStreamServer(final int port) {
+        return jettyTransportConfiguration.createStreamServer(port);
+    }
+
+    public static StreamClient createStreamClient(UpnpServiceConfiguration configuration) {
+        return jettyTransportConfiguration.createStreamClient(configuration.getSyncProtocolExecutorService(),
+                sccConfiguration);
+    }
+
+    @Test
+    void connectionReused() throws Exception {
+        JettyStreamClientImpl jettyClient = (JettyStreamClientImpl) client;
+        long hits = jettyClient.getConnectionPoolHits();
+
+        for (int i = 0; i < 5; i++) {
+            StreamResponseMessage responseMessage = client.sendRequest(createRequestMessage(OKBodyResponse.PATH));
+            assertNotNull(responseMessage, "responseMessage");
+            assertEquals(200, responseMessage.getOperation().getStatusCode());
+            assertEquals("foo", responseMessage.getBodyString());
+        }
+
+        // Sequential requests share one connection
+        assertTrue(jettyClient.getConnectionPoolHits() >= hits + 4);
+        assertTrue(jettyClient.getConnectionPoolMisses() > 0);
+        assertEquals(jettyClient.getConnectionPoolHits(),
+                metrics.getCount(UpnpMetrics.HTTP_CLIENT_CONNECTIONS_REUSED, TEST_HOST));
+        assertEquals(jettyClient.getConnectionPoolMisses(),
+                metrics.getCount(UpnpMetrics.HTTP_CLIENT_CONNECTIONS_OPENED, TEST_HOST));
+    }
+
+    @Test
+    void closeConnectionFallbackExpires() throws Exception {
+        List<Boolean> closeRequested = new CopyOnWriteArrayList<>();
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            // Closes the connection instead of responding to the second request
+            Thread server = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try (Socket socket = serverSocket.accept()) {
+                        serve(socket, closeRequested);
+                    } catch (IOException e) {
+                        // Closed
+                    }
+                }
+            });
+            server.setDaemon(true);
+            server.start();
+
+            JettyStreamClientImpl fallbackClient = new JettyStreamClientImpl(new StreamClientConfigurationImpl(
+                    configuration.getSyncProtocolExecutorService(), 3, 0, 0, 0) {
+                @Override
+                public boolean isKeepAlive() {
+                    return true;
+                }
+
+                @Override
+                public long getCloseConnectionFallbackMillis() {
+                    return 500;
+                }
+            });
+            try {
+                URI uri = URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + "/test");
+                assertNotNull(fallbackClient.sendRequest(new StreamRequestMessage(UpnpRequest.Method.GET, uri)));
+                assertNull(fallbackClient.sendRequest(new StreamRequestMessage(UpnpRequest.Method.GET, uri)));
+                assertEquals(1, fallbackClient.getConnectionPoolHits());
+
+                // The failure on the reused connection closes the next connections
+                assertNotNull(fallbackClient.sendRequest(new StreamRequestMessage(UpnpRequest.Method.GET, uri)));
+                Thread.sleep(600);
+                assertNotNull(fallbackClient.sendRequest(new StreamRequestMessage(UpnpRequest.Method.GET, uri)));
+                assertEquals(List.of(false, false, true, false), closeRequested);
+            } finally {
+                fallbackClient.stop();
+            }
+        }
+    }
+
+    @Test
+    void slowResponseOutlastsIdleTimeout() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            // Responds after more than the idle timeout, but within the request timeout
+            Thread server = new Thread(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                    String line = reader.readLine();
+                    while (line != null && !line.isEmpty()) {
+                        line = reader.readLine();
+                    }
+                    Thread.sleep(1500);
+                    OutputStream out = socket.getOutputStream();
+                    out.write("HTTP/1.1 200 OK\r\nContent-Length: 3\r\n\r\nfoo".getBytes(StandardCharsets.ISO_8859_1));
+                    out.flush();
+                } catch (IOException | InterruptedException e) {
+                    // Closed
+                }
+            });
+            server.setDaemon(true);
+            server.start();
+
+            JettyStreamClientImpl slowClient = new JettyStreamClientImpl(new StreamClientConfigurationImpl(
+                    configuration.getSyncProtocolExecutorService(), 3, 0, 0, 0) {
+                @Override
+                public boolean isKeepAlive() {
+                    return true;
+                }
+
+                @Override
+                public long getIdleTimeoutMillis() {
+                    return 500;
+                }
+            });
+            try {
+                URI uri = URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + "/test");
+                StreamResponseMessage responseMessage = slowClient
+                        .sendRequest(new StreamRequestMessage(UpnpRequest.Method.GET, uri));
+                assertNotNull(responseMessage, "responseMessage");
+                assertEquals(200, responseMessage.getOperation().getStatusCode());
+                assertEquals("foo", responseMessage.getBodyString());
+            } finally {
+                slowClient.stop();
+            }
+        }
+    }
+
+    private static void serve(Socket socket, List<Boolean> closeRequested) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+        OutputStream out = socket.getOutputStream();
+        while (true) {
+            boolean close = false;
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            while (line != null && !line.isEmpty()) {
+                close |= line.toLowerCase(Locale.ROOT).equals("connection: close");
+                line = reader.readLine();
+            }
+            closeRequested.add(close);
+            if (closeRequested.size() == 2) {
+                return;
+            }
+            out.write("HTTP/1.1 200 OK\r\nContent-Length: 3\r\n\r\nfoo".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            if (close) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.mock.MockProtocolFactory;
+import org.jupnp.mock.MockRouter;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
+import org.jupnp.model.message.IncomingDatagramMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.header.UpnpHeader;
+import org.jupnp.transport.impl.DatagramIOConfigurationImpl;
+import org.jupnp.transport.impl.DatagramProcessorImpl;
+import org.jupnp.transport.impl.nio.DatagramChannelSelector;
+import org.jupnp.transport.impl.nio.NIODatagramIOImpl;
+import org.jupnp.transport.impl.nio.NIOMulticastReceiverImpl;
+import org.jupnp.transport.spi.NetworkAddressFactory;
+
+class NIODatagramIOTest {
+
+    static final String SEARCH_MESSAGE = "M-SEARCH * HTTP/1.1\r\n" + "HOST: 239.255.255.250:1900\r\n"
+            + "MAN: \"ssdp:discover\"\r\n" + "MX: 3\r\n" + "ST: ssdp:all\r\n" + "\r\n";
+
+    static int getAvailablePort() {
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void selectedByConfiguration() {
+        MockUpnpServiceConfiguration configuration = new MockUpnpServiceConfiguration() {
+            @Override
+            protected boolean isNioDatagramTransportEnabled() {
+                return true;
+            }
+        };
+        NetworkAddressFactory networkAddressFactory = configuration.createNetworkAddressFactory();
+        assertTrue(configuration.createDatagramIO(networkAddressFactory) instanceof NIODatagramIOImpl);
+        assertTrue(configuration.createMulticastReceiver(networkAddressFactory) instanceof NIOMulticastReceiverImpl);
+        configuration.shutdown();
+    }
+
+    @Test
+    void receiveOnSharedSelector() throws Exception {
+        final BlockingQueue<IncomingDatagramMessage> received = new LinkedBlockingQueue<>();
+        MockRouter router = new MockRouter(new MockUpnpServiceConfiguration(), new MockProtocolFactory()) {
+            @Override
+            public void received(IncomingDatagramMessage msg) {
+                received.add(msg);
+            }
+        };
+
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        DatagramChannelSelector selector = new DatagramChannelSelector();
+        NIODatagramIOImpl first = new NIODatagramIOImpl(new DatagramIOConfigurationImpl(), selector);
+        NIODatagramIOImpl second = new NIODatagramIOImpl(new DatagramIOConfigurationImpl(), selector);
+        int firstPort = getAvailablePort();
+        int secondPort = getAvailablePort();
+
+        try {
+            first.init(loopback, firstPort, router, new DatagramProcessorImpl());
+            second.init(loopback, secondPort, router, new DatagramProcessorImpl());
+            first.run();
+            second.run();
+            assertTrue(selector.isRunning());
+
+            byte[] data = SEARCH_MESSAGE.getBytes(StandardCharsets.US_ASCII);
+            // A longer datagram first, the reused receive buffer must not leak into the next datagram
+            byte[] padded = (SEARCH_MESSAGE + "X-PADDING: " + "x".repeat(200) + "\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            first.send(new DatagramPacket(padded, padded.length, loopback, secondPort));
+            first.send(new DatagramPacket(data, data.length, loopback, secondPort));
+            second.send(new DatagramPacket(data, data.length, loopback, firstPort));
+
+            for (int i = 0; i < 3; i++) {
+                IncomingDatagramMessage msg = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(msg);
+                assertEquals(UpnpRequest.Method.MSEARCH, ((UpnpRequest) msg.getOperation()).getMethod());
+                assertEquals("ssdp:all", msg.getHeaders().getFirstHeader(UpnpHeader.Type.ST).getString());
+                assertEquals(loopback, msg.getLocalAddress());
+            }
+        } finally {
+            first.stop();
+            second.stop();
+        }
+
+        // The I/O thread terminates when all channels are closed
+        long deadline = System.currentTimeMillis() + 5000;
+        while (selector.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(selector.isRunning());
+    }
+}
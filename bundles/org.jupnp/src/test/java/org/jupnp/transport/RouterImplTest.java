@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.mock.MockProtocolFactory;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
+import org.jupnp.model.message.OutgoingDatagramMessage;
+import org.jupnp.model.message.discovery.OutgoingSearchRequest;
+import org.jupnp.model.message.header.STAllHeader;
+import org.jupnp.transport.impl.DatagramIOConfigurationImpl;
+import org.jupnp.transport.impl.DatagramProcessorImpl;
+import org.jupnp.transport.spi.DatagramIO;
+import org.jupnp.transport.spi.DatagramProcessor;
+
+class RouterImplTest {
+
+    @Test
+    void writeDatagramOnce() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        MockUpnpServiceConfiguration configuration = new MockUpnpServiceConfiguration() {
+            @Override
+            protected DatagramProcessor createDatagramProcessor() {
+                return new DatagramProcessorImpl() {
+                    @Override
+                    public DatagramPacket write(OutgoingDatagramMessage message) {
+                        writes.incrementAndGet();
+                        return super.write(message);
+                    }
+                };
+            }
+        };
+
+        RouterImpl router = new RouterImpl(configuration, new MockProtocolFactory());
+        RecordingDatagramIO first = new RecordingDatagramIO();
+        RecordingDatagramIO second = new RecordingDatagramIO();
+        router.datagramIOs.put(InetAddress.getByName("127.0.0.1"), first);
+        router.datagramIOs.put(InetAddress.getByName("127.0.0.2"), second);
+        router.enabled = true;
+
+        // Repeated like the bulk repetitions of notifications and searches
+        OutgoingSearchRequest message = new OutgoingSearchRequest(new STAllHeader(), 3);
+        for (int i = 0; i < 3; i++) {
+            router.send(message);
+        }
+
+        assertEquals(1, writes.get());
+        assertEquals(3, first.sent.size());
+        assertEquals(3, second.sent.size());
+        DatagramPacket datagram = message.getDatagram();
+        assertNotNull(datagram);
+        for (DatagramPacket sent : first.sent) {
+            assertSame(datagram, sent);
+        }
+        for (DatagramPacket sent : second.sent) {
+            assertSame(datagram, sent);
+        }
+    }
+
+    static class RecordingDatagramIO implements DatagramIO<DatagramIOConfigurationImpl> {
+
+        final List<DatagramPacket> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void init(InetAddress bindAddress, int bindPort, Router router, DatagramProcessor datagramProcessor) {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public DatagramIOConfigurationImpl getConfiguration() {
+            return new DatagramIOConfigurationImpl();
+        }
+
+        @Override
+        public void send(OutgoingDatagramMessage message) {
+            fail("Messages must be written by the router");
+        }
+
+        @Override
+        public void send(DatagramPacket datagram) {
+            sent.add(datagram);
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
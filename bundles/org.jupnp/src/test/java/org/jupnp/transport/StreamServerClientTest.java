@@ -22,6 +22,8 @@ import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
@@ -152,6 +154,24 @@ public abstract class StreamServerClientTest {
         assertFalse(lastExecutedServerProtocol.isComplete);
     }
 
+    @Test
+    void basicAsync() throws Exception {
+        CompletableFuture<StreamResponseMessage> first = client
+                .sendRequestAsync(createRequestMessage(OKBodyResponse.PATH));
+        CompletableFuture<StreamResponseMessage> second = client
+                .sendRequestAsync(createRequestMessage(NoResponse.PATH));
+
+        StreamResponseMessage responseMessage = first.get(5, TimeUnit.SECONDS);
+        assertNotNull(responseMessage, "responseMessage");
+        assertEquals(200, responseMessage.getOperation().getStatusCode());
+        assertEquals("foo", responseMessage.getBodyString());
+
+        responseMessage = second.get(5, TimeUnit.SECONDS);
+        assertNotNull(responseMessage, "responseMessage");
+        assertEquals(404, responseMessage.getOperation().getStatusCode());
+        assertFalse(responseMessage.hasBody());
+    }
+
     @Test
     void cancelled() throws Exception {
         final AtomicBoolean interrupted = new AtomicBoolean(false);
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.binding.annotations.UpnpAction;
+import org.jupnp.binding.annotations.UpnpInputArgument;
+import org.jupnp.binding.annotations.UpnpOutputArgument;
+import org.jupnp.binding.annotations.UpnpService;
+import org.jupnp.binding.annotations.UpnpServiceId;
+import org.jupnp.binding.annotations.UpnpServiceType;
+import org.jupnp.binding.annotations.UpnpStateVariable;
+import org.jupnp.data.SampleData;
+import org.jupnp.model.action.ActionExecutor;
+import org.jupnp.model.action.ActionInvocation;
+import org.jupnp.model.action.MethodActionExecutor;
+import org.jupnp.model.meta.LocalService;
+import org.jupnp.model.types.ErrorCode;
+
+class ReflectionsTest {
+
+    @Test
+    void invokeWithMethodHandle() throws Exception {
+        Method add = TestService.class.getDeclaredMethod("add", int.class, int.class);
+        MethodHandle invoker = Reflections.createInvoker(add);
+        assertNotNull(invoker);
+        assertEquals(3, Reflections.invoke(invoker, new TestService(), 1, 2));
+        // Only a copy was made accessible
+        assertFalse(add.isAccessible());
+
+        MethodHandle staticInvoker = Reflections.createInvoker(TestService.class.getDeclaredMethod("name"));
+        assertNotNull(staticInvoker);
+        assertEquals("test", Reflections.invoke(staticInvoker, null));
+    }
+
+    @Test
+    void getWithMethodHandle() throws Exception {
+        Field target = TestService.class.getDeclaredField("target");
+        MethodHandle getter = Reflections.createGetter(target);
+        assertNotNull(getter);
+        TestService service = new TestService();
+        service.target = 42;
+        assertEquals(42, Reflections.get(getter, service));
+        assertFalse(target.isAccessible());
+
+        // Same value without a method handle
+        assertEquals(42, Reflections.get(target, service));
+    }
+
+    @Test
+    void exceptionPropagation() throws Exception {
+        Method fail = TestService.class.getDeclaredMethod("fail", boolean.class);
+        MethodHandle invoker = Reflections.createInvoker(fail);
+        TestService service = new TestService();
+
+        // Exceptions are rethrown, errors are wrapped, with or without a method handle
+        assertThrows(IOException.class, () -> Reflections.invoke(invoker, service, false));
+        assertThrows(IOException.class, () -> Reflections.invoke(fail, service, false));
+        InvocationTargetException handleError = assertThrows(InvocationTargetException.class,
+                () -> Reflections.invoke(invoker, service, true));
+        assertInstanceOf(TestError.class, handleError.getCause());
+        InvocationTargetException reflectionError = assertThrows(InvocationTargetException.class,
+                () -> Reflections.invoke(fail, service, true));
+        assertInstanceOf(TestError.class, reflectionError.getCause());
+    }
+
+    @Test
+    void actionFailures() throws Exception {
+        LocalService<TestService> svc = SampleData.readService(TestService.class);
+        MethodActionExecutor executor = (MethodActionExecutor) svc.getExecutor(svc.getAction("Fail"));
+        MethodActionExecutor reflectionExecutor = new MethodActionExecutor(executor.getMethod()) {
+            {
+                invoker = null;
+            }
+        };
+
+        for (ActionExecutor actionExecutor : new ActionExecutor[] { executor, reflectionExecutor }) {
+            for (String error : new String[] { "0", "1" }) {
+                ActionInvocation invocation = new ActionInvocation(svc.getAction("Fail"));
+                invocation.setInput("Error", error);
+                actionExecutor.execute(invocation);
+                assertNotNull(invocation.getFailure());
+                assertEquals(ErrorCode.ACTION_FAILED.getCode(), invocation.getFailure().getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    void actionOutput() throws Exception {
+        LocalService<TestService> svc = SampleData.readService(TestService.class);
+        svc.getManager().getImplementation().target = 7;
+
+        ActionInvocation invocation = new ActionInvocation(svc.getAction("GetTarget"));
+        svc.getExecutor(invocation.getAction()).execute(invocation);
+        assertNull(invocation.getFailure());
+        assertEquals("7", invocation.getOutput()[0].toString());
+    }
+
+    /* ####################################################################################################### */
+
+    static class TestError extends Error {
+    }
+
+    @UpnpService(serviceId = @UpnpServiceId("SwitchPower"), serviceType = @UpnpServiceType(value = "SwitchPower", version = 1))
+    public static class TestService {
+
+        @UpnpStateVariable(sendEvents = false)
+        private int target;
+
+        @UpnpStateVariable(sendEvents = false)
+        private boolean error;
+
+        @UpnpAction(out = @UpnpOutputArgument(name = "RetTargetValue", stateVariable = "Target"))
+        private int getTarget() {
+            return target;
+        }
+
+        @UpnpAction
+        public void fail(@UpnpInputArgument(name = "Error") boolean error) throws IOException {
+            if (error) {
+                throw new TestError();
+            }
+            throw new IOException("Failed");
+        }
+
+        private int add(int a, int b) {
+            return a + b;
+        }
+
+        private static String name() {
+            return "test";
+        }
+    }
+}
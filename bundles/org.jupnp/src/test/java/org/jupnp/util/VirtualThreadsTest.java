@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jupnp.DefaultUpnpServiceConfiguration.JUPnPExecutor;
+import org.jupnp.UpnpService;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
+import org.jupnp.mock.MockUpnpService;
+import org.jupnp.mock.MockUpnpServiceConfiguration;
+import org.jupnp.model.message.StreamRequestMessage;
+import org.jupnp.model.message.StreamResponseMessage;
+import org.jupnp.model.message.UpnpRequest;
+import org.jupnp.model.message.UpnpResponse;
+import org.jupnp.protocol.ReceivingSync;
+
+class VirtualThreadsTest {
+
+    static final int CONCURRENT_PROTOCOLS = 10000;
+
+    static MockUpnpServiceConfiguration createConfiguration() {
+        return new MockUpnpServiceConfiguration(false, true) {
+            @Override
+            protected boolean isVirtualThreadsEnabled() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void availableOnJava21() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isAvailable());
+    }
+
+    @Test
+    void fallBackToThreadPool() {
+        assumeFalse(VirtualThreads.isAvailable());
+
+        MockUpnpServiceConfiguration configuration = createConfiguration();
+        try {
+            assertTrue(configuration.getSyncProtocolExecutorService() instanceof JUPnPExecutor);
+            assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newThreadPerTaskExecutor("test-"));
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    @Test
+    void noDroppedProtocolsWhenAllBlock() throws Exception {
+        // Fails instead of being skipped if virtual threads aren't available on Java 21
+        assumeTrue(Runtime.version().feature() >= 21);
+        assertTrue(VirtualThreads.isAvailable());
+
+        MockUpnpService upnpService = new MockUpnpService(createConfiguration());
+        upnpService.startup();
+        InMemoryUpnpMetrics metrics = (InMemoryUpnpMetrics) upnpService.getConfiguration().getMetrics();
+        ExecutorService executor = upnpService.getConfiguration().getSyncProtocolExecutorService();
+        assertFalse(executor instanceof ThreadPoolExecutor);
+
+        CountDownLatch started = new CountDownLatch(CONCURRENT_PROTOCOLS);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(CONCURRENT_PROTOCOLS);
+        try {
+            for (int i = 0; i < CONCURRENT_PROTOCOLS; i++) {
+                executor.execute(new BlockingProtocol(upnpService, started, release, completed));
+            }
+
+            // All protocols block at the same time, none of them is queued or discarded
+            assertTrue(started.await(60, TimeUnit.SECONDS), "Protocols not started: " + started.getCount());
+            release.countDown();
+            assertTrue(completed.await(60, TimeUnit.SECONDS), "Protocols not completed: " + completed.getCount());
+            assertEquals(CONCURRENT_PROTOCOLS,
+                    metrics.getHistogram(UpnpMetrics.PROTOCOL_DURATION, "BlockingProtocol").getCount());
+        } finally {
+            release.countDown();
+            upnpService.shutdown();
+        }
+    }
+
+    static class BlockingProtocol extends ReceivingSync<StreamRequestMessage, StreamResponseMessage> {
+
+        final CountDownLatch started;
+        final CountDownLatch release;
+        final CountDownLatch completed;
+
+        BlockingProtocol(UpnpService upnpService, CountDownLatch started, CountDownLatch release,
+                CountDownLatch completed) {
+            super(upnpService, new StreamRequestMessage(UpnpRequest.Method.GET, URI.create("/blocking")));
+            this.started = started;
+            this.release = release;
+            this.completed = completed;
+        }
+
+        @Override
+        protected StreamResponseMessage executeSync() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return new StreamResponseMessage(UpnpResponse.Status.OK);
+        }
+
+        @Override
+        public void run() {
+            super.run();
+            completed.countDown();
+        }
+    }
+}
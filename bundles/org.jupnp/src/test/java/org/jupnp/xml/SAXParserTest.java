@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.xml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.jupiter.api.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+class SAXParserTest {
+
+    static final String SCHEMA = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\""
+            + " targetNamespace=\"urn:test\" elementFormDefault=\"qualified\">"
+            + "<xs:element name=\"root\"><xs:complexType><xs:sequence>"
+            + "<xs:element name=\"item\" type=\"xs:int\" maxOccurs=\"unbounded\"/>"
+            + "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+
+    static final AtomicInteger SCHEMA_SOURCES_CALLS = new AtomicInteger();
+    static final AtomicInteger CREATE_CALLS = new AtomicInteger();
+
+    static class ValidatingParser extends SAXParser {
+
+        @Override
+        protected Source[] getSchemaSources() {
+            SCHEMA_SOURCES_CALLS.incrementAndGet();
+            return new Source[] { new StreamSource(new StringReader(SCHEMA)) };
+        }
+
+        @Override
+        protected XMLReader create() {
+            CREATE_CALLS.incrementAndGet();
+            return super.create();
+        }
+
+        List<String> parseItems(String xml) throws ParserException {
+            List<String> items = new ArrayList<>();
+            new SAXParser.Handler<List<String>>(items, this) {
+                @Override
+                public void endElement(String uri, String localName, String qName) {
+                    if ("item".equals(localName)) {
+                        getInstance().add(getCharacters());
+                    }
+                }
+            };
+            parse(new InputSource(new StringReader(xml)));
+            return items;
+        }
+    }
+
+    @Test
+    void reuseReadersAndSchema() throws Exception {
+        String valid = "<root xmlns=\"urn:test\"><item>1</item><item>2</item></root>";
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of("1", "2"), new ValidatingParser().parseItems(valid));
+        }
+        assertEquals(1, SCHEMA_SOURCES_CALLS.get());
+        assertEquals(1, CREATE_CALLS.get());
+
+        // Still validating with a reused reader, and the reader can be reused after a failure
+        assertThrows(ParserException.class,
+                () -> new ValidatingParser().parseItems("<root xmlns=\"urn:test\"><item>x</item></root>"));
+        assertEquals(List.of("3"),
+                new ValidatingParser().parseItems("<root xmlns=\"urn:test\"><item>3</item></root>"));
+        assertEquals(1, CREATE_CALLS.get());
+    }
+
+    @Test
+    void switchHandlersWhileParsing() throws Exception {
+        SAXParser parser = new SAXParser();
+        List<String> names = new ArrayList<>();
+        new SAXParser.Handler<>(names, parser) {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                if ("child".equals(localName)) {
+                    new SAXParser.Handler<List<String>>(getInstance(), this) {
+                        @Override
+                        public void startElement(String uri, String localName, String qName,
+                                Attributes attributes) {
+                            getInstance().add(localName);
+                        }
+
+                        @Override
+                        protected boolean isLastElement(String uri, String localName, String qName) {
+                            return "child".equals(localName);
+                        }
+                    };
+                }
+            }
+        };
+        parser.parse(new InputSource(new StringReader("<a><child><b/><c/></child><d/></a>")));
+        assertEquals(List.of("b", "c"), names);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2011-2025 4th Line GmbH, Switzerland and others
+ *
+ * The contents of this file are subject to the terms of the
+ * Common Development and Distribution License Version 1 or later
+ * ("CDDL") (collectively, the "License"). You may not use this file
+ * except in compliance with the License. See LICENSE.txt for more
+ * information.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * SPDX-License-Identifier: CDDL-1.0
+ */
+package org.jupnp.xml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class XMLWriterTest {
+
+    @Test
+    void writeDocument() {
+        try (XMLWriter writer = XMLWriter.create()) {
+            writer.declaration().startElement("root").namespace(null, "urn:test").attribute("a", "<&>")
+                    .element("empty", null).element("text", "a & b").startElement("open");
+            assertEquals("<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"yes\"?>"
+                    + "<root xmlns=\"urn:test\" a=\"&lt;&amp;&gt;\"><empty/><text>a &amp; b</text><open/></root>",
+                    writer.finish());
+        }
+    }
+
+    @Test
+    void releaseBufferOnFailure() {
+        assertThrows(IllegalStateException.class, () -> {
+            try (XMLWriter writer = XMLWriter.create()) {
+                writer.startElement("failed");
+                throw new IllegalStateException();
+            }
+        });
+
+        // The released buffer is reused and cleared
+        try (XMLWriter writer = XMLWriter.create()) {
+            assertEquals("<root/>", writer.element("root", null).finish());
+        }
+    }
+
+    @Test
+    void releaseBufferOnce() {
+        XMLWriter finished = XMLWriter.create();
+        finished.element("root", null).finish();
+        finished.close();
+
+        // Only one of these writers may use the buffer of the thread
+        try (XMLWriter first = XMLWriter.create(); XMLWriter second = XMLWriter.create()) {
+            first.startElement("first");
+            second.startElement("second");
+            assertEquals("<first/>", first.finish());
+            assertEquals("<second/>", second.finish());
+        }
+    }
+}
@@ -47,6 +47,9 @@ public class CommandLineArgs {
     @Parameter(names = { "--verbose", "-v" }, description = "Enable verbose messages")
     public Boolean verbose = Boolean.FALSE;
 
+    @Parameter(names = { "--metrics" }, description = "Print metrics of the UPnP service before shutdown")
+    public Boolean metrics = Boolean.FALSE;
+
     public boolean isLoggingEnabled() {
         return !logLevel.equals("DISABLED");
     }
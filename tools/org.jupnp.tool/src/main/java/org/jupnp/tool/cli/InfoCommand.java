@@ -81,6 +81,7 @@ public class InfoCommand {
                 }
             }
         }
+        tool.printMetrics(upnpService);
         upnpService.shutdown();
 
         return JUPnPTool.RC_OK;
@@ -23,6 +23,8 @@ import java.util.StringTokenizer;
 
 import org.jupnp.UpnpService;
 import org.jupnp.UpnpServiceImpl;
+import org.jupnp.metrics.InMemoryUpnpMetrics;
+import org.jupnp.metrics.UpnpMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +75,9 @@ public class JUPnPTool {
     /** Holds the multicastResponsePort. */
     private Integer multicastResponsePort;
 
+    /** Print metrics before shutdown. */
+    private boolean printMetrics;
+
     public static void main(String[] args) {
         JUPnPTool tool = new JUPnPTool();
         int rc = tool.doMain(args);
@@ -121,6 +126,7 @@ public class JUPnPTool {
         if (cmdLineArgs.multicastResponsePort != null) {
             multicastResponsePort = cmdLineArgs.multicastResponsePort;
         }
+        printMetrics = Boolean.TRUE.equals(cmdLineArgs.metrics);
 
         // dispatch commands
         if (Boolean.TRUE.equals(cmdLineArgs.doHelp)) {
@@ -163,6 +169,7 @@ public class JUPnPTool {
 
             upnpService = createUpnpService();
             upnpService.startup();
+            printMetrics(upnpService);
             try {
                 logger.debug("Stopping jUPnP...");
                 upnpService.shutdown();
@@ -246,6 +253,19 @@ public class JUPnPTool {
         this.errorStream.println(msg);
     }
 
+    void printMetrics(UpnpService upnpService) {
+        if (!printMetrics) {
+            return;
+        }
+        UpnpMetrics metrics = upnpService.getConfiguration().getMetrics();
+        if (metrics instanceof InMemoryUpnpMetrics) {
+            printStdout("Metrics:");
+            this.outputStream.print(((InMemoryUpnpMetrics) metrics).dump());
+        } else {
+            printStdout("Metrics not available: " + metrics);
+        }
+    }
+
     // private methods
 
     private void printToolStartMessage(String msg) {
@@ -83,6 +83,8 @@ public class SearchCommand {
 
         printer.printBody();
 
+        tool.printMetrics(upnpService);
+
         // Release all resources and advertise BYEBYE to other UPnP devices
         LOGGER.debug("Stopping jUPnP...");
         try {
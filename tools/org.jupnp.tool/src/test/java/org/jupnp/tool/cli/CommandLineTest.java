@@ -92,6 +92,13 @@ class CommandLineTest extends AbstractTestCase {
         assertThat(out.toString(), containsString("No operation"));
     }
 
+    @Test
+    void testCommandNopWithMetrics() {
+        checkCommandLine(tool, JUPnPTool.RC_OK, "--metrics nop");
+        assertThat(out.toString(), containsString("Metrics:"));
+        assertThat(out.toString(), containsString("registry.devices{local} = 0"));
+    }
+
     @Test
     void testLogLevelOK() {
         checkCommandLine(tool, JUPnPTool.RC_OK, "nop");